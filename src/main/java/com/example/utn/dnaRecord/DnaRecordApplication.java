@@ -3,8 +3,12 @@ package com.example.utn.dnaRecord;
 import com.example.utn.dnaRecord.service.MutantService;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class DnaRecordApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,30 @@
+package com.example.utn.dnaRecord.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración de {@code POST /mutant/batch} ({@code mutant.batch.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "mutant.batch")
+public class BatchProperties {
+
+    /**
+     * ADN que se leen antes de resolverlos juntos: un {@code SELECT ... IN} y una transacción
+     * de guardado por grupo.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Celdas (N² sumado de sus ADN) a partir de las cuales un grupo se resuelve aunque no llegue
+     * a {@code chunk-size}; acota la memoria con matrices grandes. Por defecto, cuatro matrices
+     * del máximo de {@code mutant.jobs.sync-max-size}.
+     */
+    private long chunkMaxCells = 4L * 2048 * 2048;
+
+    /**
+     * Hilos del pool que analiza los ADN que no estaban guardados.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+}
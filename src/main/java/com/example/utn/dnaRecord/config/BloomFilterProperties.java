@@ -0,0 +1,27 @@
+package com.example.utn.dnaRecord.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración del filtro de Bloom de huellas guardadas ({@code mutant.bloom.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "mutant.bloom")
+public class BloomFilterProperties {
+
+    /**
+     * Si es {@code false}, cada ADN nuevo se busca en la base antes de guardarlo.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Huellas que entran en la primera etapa del filtro; al llenarse se agrega otra del doble.
+     */
+    private long expectedInsertions = 1_000_000;
+
+    /**
+     * Tasa de falsos positivos buscada para el filtro completo (todas las etapas).
+     */
+    private double fpp = 0.01;
+}
@@ -0,0 +1,27 @@
+package com.example.utn.dnaRecord.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuración de los requests comprimidos ({@code mutant.compression.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "mutant.compression")
+public class CompressionProperties {
+
+    /**
+     * Si es {@code true}, los endpoints de {@code /mutant} aceptan cuerpos con
+     * {@code Content-Encoding: gzip} o {@code deflate}.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Bytes descomprimidos máximos de un cuerpo, en todos los endpoints. Sin valor, el del JSON de
+     * la matriz más grande que acepta cada uno (N al cuadrado más las comillas y separadores de
+     * cada fila, con {@code mutant.jobs.sync-max-size} en {@code POST /mutant} y
+     * {@code mutant.detector.max-size} en el resto).
+     */
+    private DataSize maxInflatedSize;
+}
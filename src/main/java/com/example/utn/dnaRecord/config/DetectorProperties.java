@@ -0,0 +1,65 @@
+package com.example.utn.dnaRecord.config;
+
+import com.example.utn.dnaRecord.service.DetectorRules;
+import com.example.utn.dnaRecord.service.FingerprintAlgorithm;
+import com.example.utn.dnaRecord.service.ParsedDna;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración del detector de mutantes ({@code mutant.detector.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "mutant.detector")
+public class DetectorProperties {
+
+    /**
+     * Cantidad de bases iguales consecutivas que forman una secuencia (2 a 64).
+     * <p>
+     * Forma parte de la huella (ver {@link DetectorRules}): al cambiarla, los ADN ya guardados
+     * no se reutilizan y se vuelven a analizar con la regla nueva. Sus registros viejos quedan
+     * en la base, y {@code /stats} los sigue contando hasta que se borren.
+     */
+    private int sequenceLength = 4;
+
+    /**
+     * Cantidad de secuencias a partir de la cual el ADN es mutante ("más de una").
+     * <p>
+     * Forma parte de la huella, igual que {@link #sequenceLength}.
+     */
+    private int mutantThreshold = 2;
+
+    /**
+     * Tamaño N máximo aceptado en un request; matrices más grandes se rechazan al leer el JSON.
+     */
+    private int maxSize = 10_000;
+
+    /**
+     * Algoritmo de la huella que identifica cada ADN en la base: {@code murmur3} (128 bits,
+     * no criptográfico) o {@code sha256}.
+     */
+    private FingerprintAlgorithm fingerprint = ParsedDna.DEFAULT_FINGERPRINT;
+
+    /**
+     * Si es {@code true}, las matrices que solo difieren por rotación, reflexión, transposición
+     * o renombre de bases comparten la huella (y el registro en la base).
+     */
+    private boolean canonicalFingerprint = false;
+
+    /**
+     * Tamaño N a partir del cual la matriz se analiza en paralelo por bandas de filas.
+     */
+    private int parallelThreshold = 2048;
+
+    /**
+     * Cantidad de hilos del pool de detección en paralelo.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * @return Las reglas que forman parte de la huella
+     */
+    public DetectorRules rules() {
+        return DetectorRules.of(sequenceLength, mutantThreshold);
+    }
+}
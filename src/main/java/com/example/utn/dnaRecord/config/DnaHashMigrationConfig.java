@@ -0,0 +1,26 @@
+package com.example.utn.dnaRecord.config;
+
+import com.example.utn.dnaRecord.repository.DnaHashMigration;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Registra {@link DnaHashMigration} y hace que el {@code EntityManagerFactory} dependa de
+ * ella, para que la columna ya esté convertida cuando Hibernate actualiza el esquema.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DnaHashMigrationConfig {
+
+    @Bean
+    public DnaHashMigration dnaHashMigration(DataSource dataSource) {
+        return new DnaHashMigration(dataSource);
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor dnaHashMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("dnaHashMigration");
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.utn.dnaRecord.config;
+
+import com.example.utn.dnaRecord.dto.DnaBinaryRequestConverter;
+import com.example.utn.dnaRecord.dto.DnaSizeLimit;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registra {@link DnaBinaryRequestConverter}, para que los endpoints que reciben un
+ * {@code DnaRequestDTO} acepten también la matriz en binario ({@code application/octet-stream}).
+ * <p>
+ * También pone en cada request de {@code POST /mutant} su {@link DnaSizeLimit}
+ * ({@code mutant.jobs.sync-max-size}), antes de leer el cuerpo: así el deserializador y el
+ * conversor binario rechazan una matriz grande apenas conocen N. {@code /mutant/jobs} no lo tiene.
+ */
+@Configuration
+public class DnaWireFormatConfig implements WebMvcConfigurer {
+
+    private static final String SYNC_PATH = "/mutant";
+
+    private final DetectorProperties detectorProperties;
+    private final JobProperties jobProperties;
+
+    public DnaWireFormatConfig(ObjectProvider<DetectorProperties> detectorProperties,
+                               ObjectProvider<JobProperties> jobProperties) {
+        this.detectorProperties = detectorProperties.getIfAvailable(DetectorProperties::new);
+        this.jobProperties = jobProperties.getIfAvailable(JobProperties::new);
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new DnaBinaryRequestConverter(detectorProperties));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                request.setAttribute(DnaSizeLimit.ATTRIBUTE,
+                        new DnaSizeLimit("POST " + SYNC_PATH, jobProperties.getSyncMaxSize()));
+                return true;
+            }
+        }).addPathPatterns(SYNC_PATH);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.utn.dnaRecord.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de los análisis asincrónicos de {@code POST /mutant/jobs} ({@code mutant.jobs.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "mutant.jobs")
+public class JobProperties {
+
+    /**
+     * Tamaño N máximo que acepta {@code POST /mutant}; las matrices más grandes se rechazan con
+     * 413 y hay que enviarlas a {@code POST /mutant/jobs}.
+     */
+    private int syncMaxSize = 2048;
+
+    /**
+     * Hilos que ejecutan los trabajos. Cada análisis grande ya usa el pool de detección en
+     * paralelo, así que pocos alcanzan.
+     */
+    private int workers = 2;
+
+    /**
+     * Trabajos que pueden esperar a la vez; con la cola llena se responde 503.
+     */
+    private int queueCapacity = 16;
+
+    /**
+     * Cuánto se conserva un trabajo terminado para consultarlo.
+     */
+    private Duration retention = Duration.ofHours(1);
+
+    /**
+     * Espera máxima de {@code GET /mutant/jobs/{id}?wait=...}; tiene que ser menor que el
+     * timeout de los requests asincrónicos del servidor.
+     */
+    private Duration maxWait = Duration.ofSeconds(20);
+}
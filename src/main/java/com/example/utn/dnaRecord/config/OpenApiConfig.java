@@ -19,7 +19,7 @@ public class OpenApiConfig {
                                    "\n\n**Características:**\n" +
                                    "- Validación de secuencias de ADN\n" +
                                    "- Detección optimizada con early termination\n" +
-                                   "- Caché de resultados mediante hash SHA-256\n" +
+                                   "- Caché de resultados mediante huella del ADN (MurmurHash3 o SHA-256)\n" +
                                    "- Estadísticas de verificaciones realizadas"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,384 @@
+package com.example.utn.dnaRecord.config;
+
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Descomprime los cuerpos con {@code Content-Encoding: gzip} o {@code deflate} de los
+ * endpoints de {@code /mutant} ({@code POST /mutant}, {@code /mutant/jobs} y {@code /mutant/batch}).
+ * <p>
+ * No descomprime el cuerpo entero antes de procesarlo: le pasa al controller un stream que
+ * descomprime a medida que el deserializador (JSON, NDJSON, texto o binario) lo lee, así que un
+ * request inválido se rechaza sin descomprimir el resto.
+ * <p>
+ * Contra las bombas de descompresión, el stream cuenta los bytes descomprimidos y corta con
+ * {@link DnaTooLargeException} (413) al pasar un máximo que depende del endpoint: el tamaño del
+ * JSON de la matriz más grande que acepta ({@code mutant.jobs.sync-max-size} en
+ * {@code POST /mutant}, {@code mutant.detector.max-size} en {@code /mutant/jobs} y en el cuerpo
+ * entero de {@code /mutant/batch}), o {@code mutant.compression.max-inflated-size} si está
+ * configurado. En {@code POST /mutant} y {@code /mutant/jobs}, en cuanto se conoce N (el largo
+ * de la primera fila, o el encabezado del formato binario) el máximo baja al de esa matriz: un
+ * cuerpo legítimo nunca lo supera, sin importar cuánto comprima, y uno que dice ser de 4x4 no
+ * puede descomprimir megabytes.
+ * <p>
+ * Un {@code Content-Encoding} que no sea gzip, deflate ni identity se rechaza con 415. Para
+ * {@code deflate} acepta tanto el formato zlib del estándar como deflate sin encabezado, que
+ * envían algunos clientes.
+ */
+@Component
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    private static final String PATH_PREFIX = "/mutant";
+    private static final String JOBS_PATH = "/mutant/jobs";
+    private static final String SUPPORTED_ENCODINGS = "gzip, deflate";
+
+    private final boolean enabled;
+    private final long syncMaxInflatedSize;
+    private final long maxInflatedSize;
+
+    @Autowired
+    public RequestDecompressionFilter(ObjectProvider<CompressionProperties> compressionProperties,
+                                      ObjectProvider<DetectorProperties> detectorProperties,
+                                      ObjectProvider<JobProperties> jobProperties) {
+        this(compressionProperties.getIfAvailable(CompressionProperties::new),
+                detectorProperties.getIfAvailable(DetectorProperties::new),
+                jobProperties.getIfAvailable(JobProperties::new));
+    }
+
+    RequestDecompressionFilter(CompressionProperties compression, DetectorProperties detector, JobProperties jobs) {
+        this.enabled = compression.isEnabled();
+        if (compression.getMaxInflatedSize() != null) {
+            this.syncMaxInflatedSize = compression.getMaxInflatedSize().toBytes();
+            this.maxInflatedSize = syncMaxInflatedSize;
+        } else {
+            this.syncMaxInflatedSize = expectedJsonSize(Math.min(jobs.getSyncMaxSize(), detector.getMaxSize()));
+            this.maxInflatedSize = expectedJsonSize(detector.getMaxSize());
+        }
+    }
+
+    /**
+     * @return Bytes del JSON de una matriz NxN, con margen para comillas, comas y espacios en
+     * cada fila y para el resto del request
+     */
+    static long expectedJsonSize(long size) {
+        // Un N absurdo del encabezado binario no puede desbordar
+        return size > Integer.MAX_VALUE ? Long.MAX_VALUE : size * (size + 16) + 1024;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                || !request.getRequestURI().startsWith(PATH_PREFIX, request.getContextPath().length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING).trim().toLowerCase(Locale.ROOT);
+        switch (encoding) {
+            case "identity" -> chain.doFilter(request, response);
+            case "gzip", "x-gzip", "deflate" -> chain.doFilter(new DecompressedRequest(request, encoding, limit(request)),
+                    response);
+            default -> {
+                response.setHeader(HttpHeaders.ACCEPT_ENCODING, SUPPORTED_ENCODINGS);
+                response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                        "Content-Encoding no soportado: " + encoding + " (se aceptan " + SUPPORTED_ENCODINGS + ")");
+            }
+        }
+    }
+
+    /**
+     * @return Máximo descomprimido del endpoint, y cómo reconocer N si el cuerpo es una sola matriz
+     */
+    private Limit limit(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String contentType = request.getContentType() == null ? "" : request.getContentType().toLowerCase(Locale.ROOT);
+        return switch (path) {
+            case PATH_PREFIX -> new Limit(syncMaxInflatedSize, SizeProbe.forContentType(contentType));
+            case JOBS_PATH -> new Limit(maxInflatedSize, SizeProbe.forContentType(contentType));
+            default -> new Limit(maxInflatedSize, null); // /mutant/batch: muchas matrices en un cuerpo
+        };
+    }
+
+    /**
+     * @param probe Reconoce N al comienzo del cuerpo para bajar el máximo, o {@code null}
+     */
+    private record Limit(long bytes, SizeProbe probe) {
+    }
+
+    /**
+     * Reconoce el tamaño N de la matriz en los primeros bytes del cuerpo descomprimido. Solo
+     * puede sobrestimarlo (por ejemplo, con escapes en el JSON), así que el máximo que resulta
+     * nunca rechaza un cuerpo legítimo.
+     */
+    private abstract static class SizeProbe {
+
+        static SizeProbe forContentType(String contentType) {
+            if (contentType.startsWith("application/octet-stream")) {
+                return new BinaryProbe();
+            }
+            return contentType.startsWith("text/plain") ? new TextProbe() : new JsonProbe();
+        }
+
+        /**
+         * @return N, 0 si todavía no se sabe, o -1 si no se puede saber
+         */
+        abstract long next(int b);
+    }
+
+    /**
+     * Formato binario: N en los primeros 4 bytes, big-endian.
+     */
+    private static final class BinaryProbe extends SizeProbe {
+
+        private long size;
+        private int read;
+
+        @Override
+        long next(int b) {
+            size = (size << 8) | b;
+            return ++read < Integer.BYTES ? 0 : (size > 0 ? size : -1);
+        }
+    }
+
+    /**
+     * Texto: el largo de la primera fila.
+     */
+    private static final class TextProbe extends SizeProbe {
+
+        private long length;
+
+        @Override
+        long next(int b) {
+            if (b != '\n') {
+                length++;
+                return 0;
+            }
+            return length > 0 ? length : -1; // Con "\r\n" sobrestima en uno
+        }
+    }
+
+    /**
+     * JSON: el largo del primer string del arreglo.
+     */
+    private static final class JsonProbe extends SizeProbe {
+
+        private int state; // 0: busca '[', 1: busca '"', 2: dentro de la primera fila
+        private long length;
+        private boolean escaped;
+
+        @Override
+        long next(int b) {
+            switch (state) {
+                case 0 -> state = b == '[' ? 1 : 0;
+                case 1 -> state = b == '"' ? 2 : 1;
+                default -> {
+                    if (b == '"' && !escaped) {
+                        return length > 0 ? length : -1;
+                    }
+                    escaped = !escaped && b == '\\';
+                    length++;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * El request con el cuerpo descomprimido: sin {@code Content-Encoding} ni el
+     * {@code Content-Length} del cuerpo comprimido.
+     */
+    private final class DecompressedRequest extends HttpServletRequestWrapper {
+
+        private static final List<String> HIDDEN_HEADERS = List.of(
+                HttpHeaders.CONTENT_ENCODING.toLowerCase(Locale.ROOT), HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT));
+
+        private final String encoding;
+        private final Limit limit;
+        private ServletInputStream body;
+
+        private DecompressedRequest(HttpServletRequest request, String encoding, Limit limit) {
+            super(request);
+            this.encoding = encoding;
+            this.limit = limit;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (body == null) {
+                body = new InflatingInputStream(super.getInputStream(), encoding, limit.bytes(), limit.probe());
+            }
+            return body;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return hidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return hidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !hidden(name))
+                    .toList());
+        }
+
+        @Override
+        public int getIntHeader(String name) {
+            return hidden(name) ? -1 : super.getIntHeader(name);
+        }
+
+        private static boolean hidden(String name) {
+            return HIDDEN_HEADERS.contains(name.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Descomprime a medida que se lee, contando los bytes descomprimidos y cortando al pasar el
+     * máximo, que baja en cuanto {@code probe} reconoce N. El encabezado gzip se lee recién en la
+     * primera lectura, así un cuerpo que no está comprimido falla al leerlo, igual que un JSON
+     * mal formado.
+     */
+    private static final class InflatingInputStream extends ServletInputStream {
+
+        private final InputStream compressed;
+        private final String encoding;
+        private long limit;
+        private SizeProbe probe;
+        private InputStream in;
+        private long count;
+        private boolean finished;
+
+        private InflatingInputStream(InputStream compressed, String encoding, long limit, SizeProbe probe) {
+            this.compressed = compressed;
+            this.encoding = encoding;
+            this.limit = limit;
+            this.probe = probe;
+        }
+
+        private InputStream in() throws IOException {
+            if (in == null) {
+                in = encoding.equals("deflate") ? inflate(compressed) : new GZIPInputStream(compressed);
+            }
+            return in;
+        }
+
+        private static InputStream inflate(InputStream compressed) throws IOException {
+            // zlib empieza con CMF/FLG: método 8 y los dos bytes múltiplo de 31
+            PushbackInputStream in = new PushbackInputStream(compressed, 2);
+            int cmf = in.read();
+            int flg = cmf < 0 ? -1 : in.read();
+            if (flg >= 0) {
+                in.unread(flg);
+            }
+            if (cmf >= 0) {
+                in.unread(cmf);
+            }
+            boolean zlib = flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+            return new InflaterInputStream(in, new Inflater(!zlib));
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = in().read();
+            if (value < 0) {
+                finished = true;
+            } else {
+                probe(value);
+                count(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = in().read(buffer, offset, length);
+            if (read < 0) {
+                finished = true;
+            } else {
+                for (int i = offset; probe != null && i < offset + read; i++) {
+                    probe(buffer[i] & 0xFF);
+                }
+                count(read);
+            }
+            return read;
+        }
+
+        private void probe(int b) {
+            if (probe == null) {
+                return;
+            }
+            long size = probe.next(b);
+            if (size != 0) {
+                probe = null;
+                if (size > 0) {
+                    limit = Math.min(limit, expectedJsonSize(size));
+                }
+            }
+        }
+
+        private void count(int read) {
+            count += read;
+            if (count > limit) {
+                throw new DnaTooLargeException("El cuerpo descomprimido supera el máximo de " + limit + " bytes");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            (in != null ? in : compressed).close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("El cuerpo descomprimido solo se lee en forma bloqueante");
+        }
+    }
+}
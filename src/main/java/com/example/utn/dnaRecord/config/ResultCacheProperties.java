@@ -0,0 +1,31 @@
+package com.example.utn.dnaRecord.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración del caché en memoria de resultados ({@code mutant.cache.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "mutant.cache")
+public class ResultCacheProperties {
+
+    /**
+     * Si es {@code false}, cada request consulta la base de datos.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Cantidad máxima de huellas en memoria. Todas las entradas pesan lo mismo (huella de 16
+     * o 32 bytes y un booleano, unos 100 bytes con el overhead), así que el límite por cantidad
+     * es también el límite de memoria.
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * Tiempo de vida de cada entrada desde que se cargó.
+     */
+    private Duration ttl = Duration.ofHours(24);
+}
@@ -0,0 +1,20 @@
+package com.example.utn.dnaRecord.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de las respuestas de {@code GET /stats} ({@code mutant.stats.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "mutant.stats")
+public class StatsProperties {
+
+    /**
+     * {@code Cache-Control: max-age} de {@code GET /stats} sin ventana. Con 0, un caché
+     * intermedio tiene que revalidar cada request con {@code If-None-Match}.
+     */
+    private Duration maxAge = Duration.ZERO;
+}
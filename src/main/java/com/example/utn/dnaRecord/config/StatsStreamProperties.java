@@ -0,0 +1,31 @@
+package com.example.utn.dnaRecord.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de {@code GET /stats/stream} ({@code mutant.stats.stream.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "mutant.stats.stream")
+public class StatsStreamProperties {
+
+    /**
+     * Cada cuánto se calculan las estadísticas y se envían a los suscriptores si cambiaron.
+     */
+    private Duration interval = Duration.ofSeconds(1);
+
+    /**
+     * Tiempo sin cambios después del cual se manda un comentario para detectar las conexiones
+     * cerradas.
+     */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /**
+     * Duración máxima de una suscripción; al vencer, el cliente ({@code EventSource}) se vuelve
+     * a conectar solo.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,67 @@
+package com.example.utn.dnaRecord.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuración del guardado diferido de resultados ({@code mutant.write-behind.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "mutant.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * Si es {@code true}, {@code POST /mutant} responde apenas termina la detección y el
+     * resultado se guarda después, en lotes. Si es {@code false}, se guarda antes de responder.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Resultados por lote (un {@code executeBatch} y un commit).
+     */
+    private int batchSize = 500;
+
+    /**
+     * Tiempo máximo que espera el primer resultado de un lote antes de escribirse, aunque el
+     * lote no esté lleno.
+     */
+    private Duration maxDelay = Duration.ofMillis(50);
+
+    /**
+     * Resultados en espera como máximo. Con la cola llena, el request guarda el suyo antes de
+     * responder, como sin guardado diferido.
+     */
+    private int queueCapacity = 100_000;
+
+    /**
+     * Log de escritura anticipada de los resultados en espera ({@code mutant.write-behind.wal.*}).
+     */
+    private final Wal wal = new Wal();
+
+    @Data
+    public static class Wal {
+
+        /**
+         * Si es {@code true}, cada resultado diferido se escribe y sincroniza en el log antes de
+         * responder, y los que no llegaron a la base se recuperan al arrancar. Si es
+         * {@code false}, una caída pierde los resultados que esperaban su lote.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Directorio de los dos segmentos del log.
+         */
+        private Path directory = Path.of("data", "wal");
+
+        /**
+         * Tamaño de cada segmento (64 bytes por resultado). Si los dos se llenan antes de que
+         * sus resultados lleguen a la base, los requests guardan el suyo antes de responder.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(16);
+    }
+}
@@ -1,19 +1,50 @@
 package com.example.utn.dnaRecord.controller;
 
+import com.example.utn.dnaRecord.config.JobProperties;
+import com.example.utn.dnaRecord.config.StatsProperties;
+import com.example.utn.dnaRecord.dto.BloomFilterStatsResponseDTO;
+import com.example.utn.dnaRecord.dto.DnaBatchResultDTO;
+import com.example.utn.dnaRecord.dto.CacheStatsResponseDTO;
 import com.example.utn.dnaRecord.dto.DnaRequestDTO;
+import com.example.utn.dnaRecord.dto.MutantJobResponseDTO;
+import com.example.utn.dnaRecord.dto.ReconcileStatsResponseDTO;
+import com.example.utn.dnaRecord.dto.StatsBreakdownResponseDTO;
+import com.example.utn.dnaRecord.dto.StatsDeltaResponseDTO;
 import com.example.utn.dnaRecord.dto.StatsResponseDTO;
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import com.example.utn.dnaRecord.service.MutantBatchService;
+import com.example.utn.dnaRecord.service.MutantJobService;
+import com.example.utn.dnaRecord.service.MutantRowStreamService;
 import com.example.utn.dnaRecord.service.MutantService;
+import com.example.utn.dnaRecord.service.ParsedDna;
 import com.example.utn.dnaRecord.service.StatsService;
+import com.example.utn.dnaRecord.service.StatsStreamPublisher;
+import com.example.utn.dnaRecord.service.StatsWindow;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RequiredArgsConstructor
 @RestController
@@ -21,17 +52,32 @@ import org.springframework.web.bind.annotation.*;
 public class MutantController {
 
     private final MutantService mutantService;
+    private final MutantBatchService mutantBatchService;
+    private final MutantRowStreamService mutantRowStreamService;
+    private final MutantJobService mutantJobService;
+    private final JobProperties jobProperties;
     private final StatsService statsService;
+    private final StatsStreamPublisher statsStream;
+    private final StatsProperties statsProperties;
 
-    @Operation(summary = "Detectar si un humano es mutante", description = "Analiza la secuencia de ADN enviada para determinar si cumple con los criterios de mutante.")
+    @Operation(summary = "Detectar si un humano es mutante", description = "Analiza la secuencia de ADN enviada para determinar si cumple con los criterios de mutante. "
+            + "También acepta la matriz en binario (application/octet-stream): N en 4 bytes big-endian y cada fila "
+            + "a 2 bits por base (A=00, C=01, G=10, T=11).")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Es un Mutante", content = @Content),
             @ApiResponse(responseCode = "403", description = "Es un Humano (No Mutante)", content = @Content),
-            @ApiResponse(responseCode = "400", description = "ADN inválido (formato incorrecto)", content = @Content)
+            @ApiResponse(responseCode = "400", description = "ADN inválido (formato incorrecto)", content = @Content),
+            @ApiResponse(responseCode = "413", description = "Matriz más grande que mutant.jobs.sync-max-size: "
+                    + "usar POST /mutant/jobs", content = @Content)
     })
     @PostMapping("/mutant")
     public ResponseEntity<Void> checkMutant(@Valid @RequestBody DnaRequestDTO dnaRequest) {
-        boolean isMutant = mutantService.analyzeDna(dnaRequest.getDna());
+        ParsedDna dna = dnaRequest.getParsedDna();
+        if (dna.size() > jobProperties.getSyncMaxSize()) {
+            // El deserializador y el conversor binario ya lo rechazan al conocer N; esto solo por las dudas
+            throw DnaTooLargeException.syncLimit("POST /mutant", dna.size(), jobProperties.getSyncMaxSize());
+        }
+        boolean isMutant = mutantService.analyzeDna(dna);
         if (isMutant) {
             return ResponseEntity.ok().build();
         } else {
@@ -39,9 +85,144 @@ public class MutantController {
         }
     }
 
-    @Operation(summary = "Obtener estadísticas de verificaciones")
+    @Operation(summary = "Detectar si un humano es mutante leyendo las filas a medida que llegan",
+            description = "La matriz en texto, una fila por línea (por ejemplo en una subida chunked). Responde "
+                    + "200 en cuanto encuentra dos secuencias, sin leer el resto del cuerpo; ese veredicto "
+                    + "anticipado no se guarda. Con la matriz completa, el resultado se guarda como en POST /mutant.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Es un Mutante", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Es un Humano (No Mutante)", content = @Content),
+            @ApiResponse(responseCode = "400", description = "ADN inválido (formato incorrecto)", content = @Content),
+            @ApiResponse(responseCode = "413", description = "Matriz más grande que mutant.jobs.sync-max-size "
+                    + "(se sabe con la primera fila): usar POST /mutant/jobs", content = @Content)
+    })
+    @PostMapping(path = "/mutant", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public void checkMutantRows(InputStream body, HttpServletResponse response) throws IOException {
+        MutantRowStreamService.Verdict verdict = mutantRowStreamService.analyze(body);
+        response.setStatus(verdict.isMutant() ? HttpServletResponse.SC_OK : HttpServletResponse.SC_FORBIDDEN);
+        if (verdict.isEarly()) {
+            // El resto del cuerpo no se lee: se responde ya y se cierra la conexión en lugar de reutilizarla
+            response.setHeader(HttpHeaders.CONNECTION, "close");
+            response.flushBuffer();
+        }
+    }
+
+    @Operation(summary = "Encolar el análisis de una matriz grande",
+            description = "Valida la matriz y responde enseguida con el id del trabajo, sin esperar el análisis. "
+                    + "El resultado se consulta en GET /mutant/jobs/{id}. Acepta el mismo cuerpo que POST /mutant, "
+                    + "en JSON o en binario.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Trabajo encolado"),
+            @ApiResponse(responseCode = "400", description = "ADN inválido (formato incorrecto)", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Cola llena: reintentar después de Retry-After",
+                    content = @Content)
+    })
+    @PostMapping("/mutant/jobs")
+    public ResponseEntity<MutantJobResponseDTO> submitJob(@Valid @RequestBody DnaRequestDTO dnaRequest) {
+        MutantJobResponseDTO job = mutantJobService.submit(dnaRequest.getParsedDna());
+        return ResponseEntity.accepted().location(URI.create("/mutant/jobs/" + job.getId())).body(job);
+    }
+
+    @Operation(summary = "Consultar un análisis asincrónico",
+            description = "Con wait, si el trabajo no terminó espera hasta que termine o pasen esos segundos "
+                    + "(long polling, acotado a mutant.jobs.max-wait) sin ocupar un hilo del servidor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado del trabajo"),
+            @ApiResponse(responseCode = "404", description = "No existe o ya venció", content = @Content)
+    })
+    @GetMapping("/mutant/jobs/{id}")
+    public CompletableFuture<ResponseEntity<MutantJobResponseDTO>> getJob(
+            @PathVariable UUID id,
+            @Parameter(description = "Segundos a esperar que termine", example = "10")
+            @RequestParam(defaultValue = "0") int wait) {
+        Optional<CompletableFuture<MutantJobResponseDTO>> job = mutantJobService.await(id, Duration.ofSeconds(wait));
+        return job.map(future -> future.thenApply(ResponseEntity::ok))
+                .orElseGet(() -> CompletableFuture.completedFuture(ResponseEntity.notFound().build()));
+    }
+
+    @Operation(summary = "Detectar muchos ADN en un solo request",
+            description = "Recibe requests como los de POST /mutant en NDJSON (uno por línea) o en un arreglo JSON, "
+                    + "y responde en NDJSON una línea por ADN a medida que se resuelven (no en el orden del request). "
+                    + "Un ADN inválido tiene su línea de error y no interrumpe el resto.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultados por ADN", content = @Content(
+                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = DnaBatchResultDTO.class)))
+    })
+    @PostMapping(path = "/mutant/batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void checkMutantBatch(InputStream body, HttpServletResponse response) throws IOException {
+        // Se lee el cuerpo y se escribe la respuesta a la vez, sin tenerlos completos en memoria
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        mutantBatchService.analyze(body, response.getOutputStream());
+    }
+
+    @Operation(summary = "Obtener estadísticas de verificaciones",
+            description = "Sin window, los totales desde el comienzo, con un ETag que cambia con cada registro "
+                    + "nuevo (If-None-Match responde 304). Con window, solo los ADN nuevos de esa ventana "
+                    + "reciente, tomados de contadores en memoria.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadísticas"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag de If-None-Match",
+                    content = @Content),
+            @ApiResponse(responseCode = "400", description = "window no es 1m, 5m, 1h ni 24h", content = @Content)
+    })
     @GetMapping("/stats")
-    public ResponseEntity<StatsResponseDTO> getStats() {
-        return ResponseEntity.ok(statsService.getStats());
+    public ResponseEntity<StatsResponseDTO> getStats(
+            @Parameter(description = "Ventana reciente: 1m, 5m, 1h o 24h", example = "5m")
+            @RequestParam(required = false) String window) {
+        if (window == null) {
+            // La versión se lee antes que los totales: el ETag nunca acompaña totales más viejos.
+            // Spring compara el ETag con If-None-Match y responde 304 sin serializar el cuerpo
+            String etag = "\"" + statsService.getStatsVersion() + "\"";
+            CacheControl cacheControl = CacheControl.maxAge(statsProperties.getMaxAge()).cachePublic();
+            return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(statsService.getStats());
+        }
+        return ResponseEntity.ok(statsService.getStats(StatsWindow.fromLabel(window)));
+    }
+
+    @Operation(summary = "Obtener la actividad de una ventana reciente: requests, aciertos del caché, "
+            + "tiempos de detección y la serie por intervalo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Actividad de la ventana"),
+            @ApiResponse(responseCode = "400", description = "window no es 1m, 5m, 1h ni 24h", content = @Content)
+    })
+    @GetMapping("/stats/breakdown")
+    public ResponseEntity<StatsBreakdownResponseDTO> getStatsBreakdown(
+            @Parameter(description = "Ventana reciente: 1m, 5m, 1h o 24h", example = "5m")
+            @RequestParam(defaultValue = "5m") String window) {
+        return ResponseEntity.ok(statsService.getStatsBreakdown(StatsWindow.fromLabel(window)));
+    }
+
+    @Operation(summary = "Suscribirse a los cambios de /stats (Server-Sent Events)",
+            description = "Envía los totales al conectarse y después un evento 'stats' cada vez que cambian, "
+                    + "como mucho uno por intervalo. Un cliente lento recibe solo el último estado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo de eventos 'stats'", content = @Content(
+                    mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                    schema = @Schema(implementation = StatsDeltaResponseDTO.class)))
+    })
+    @GetMapping(path = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStats() {
+        return statsStream.subscribe();
+    }
+
+    @Operation(summary = "Obtener los contadores del caché en memoria de resultados")
+    @GetMapping("/stats/cache")
+    public ResponseEntity<CacheStatsResponseDTO> getCacheStats() {
+        return ResponseEntity.ok(statsService.getCacheStats());
+    }
+
+    @Operation(summary = "Obtener la tasa de falsos positivos y el tamaño del filtro de Bloom de huellas guardadas")
+    @GetMapping("/stats/bloom")
+    public ResponseEntity<BloomFilterStatsResponseDTO> getBloomFilterStats() {
+        return ResponseEntity.ok(statsService.getBloomFilterStats());
+    }
+
+    @Operation(summary = "Obtener cuántas veces se reconciliaron los totales de /stats con la base y cuántas se saltearon")
+    @GetMapping("/stats/reconcile")
+    public ResponseEntity<ReconcileStatsResponseDTO> getReconcileStats() {
+        return ResponseEntity.ok(statsService.getReconcileStats());
     }
 }
\ No newline at end of file
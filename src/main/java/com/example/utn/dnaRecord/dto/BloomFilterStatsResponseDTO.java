@@ -0,0 +1,47 @@
+package com.example.utn.dnaRecord.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(
+    description = "Estado del filtro de Bloom de huellas guardadas, que evita buscar en la base los ADN nuevos.",
+    example = "{\"entries\": 1000, \"stages\": 1, \"memory_bytes\": 1198080, \"expected_fpp\": 0.0001, "
+            + "\"observed_fpp\": 0.0, \"skipped_lookups\": 500, \"false_positives\": 0}"
+)
+public class BloomFilterStatsResponseDTO {
+
+    @Schema(description = "Huellas agregadas al filtro", example = "1000", minimum = "0")
+    private long entries;
+
+    @Schema(description = "Etapas del filtro (se agrega una del doble de capacidad al llenarse la anterior)",
+            example = "1", minimum = "0")
+    private int stages;
+
+    @Schema(description = "Memoria ocupada por los bits del filtro", example = "1198080", minimum = "0")
+    @JsonProperty("memory_bytes")
+    private long memoryBytes;
+
+    @Schema(description = "Tasa de falsos positivos esperada según los bits marcados", example = "0.0001", minimum = "0")
+    @JsonProperty("expected_fpp")
+    private double expectedFpp;
+
+    @Schema(description = "Falsos positivos observados sobre los ADN que no estaban guardados", example = "0.0",
+            minimum = "0")
+    @JsonProperty("observed_fpp")
+    private double observedFpp;
+
+    @Schema(description = "ADN nuevos que no se buscaron en la base porque el filtro aseguró que no estaban",
+            example = "500", minimum = "0")
+    @JsonProperty("skipped_lookups")
+    private long skippedLookups;
+
+    @Schema(description = "ADN que el filtro dio como posibles y la base no tenía", example = "0", minimum = "0")
+    @JsonProperty("false_positives")
+    private long falsePositives;
+}
@@ -0,0 +1,33 @@
+package com.example.utn.dnaRecord.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(
+    description = "Contadores del caché en memoria de resultados desde el arranque.",
+    example = "{\"hits\": 900, \"misses\": 100, \"evictions\": 0, \"hit_ratio\": 0.9, \"size\": 100}"
+)
+public class CacheStatsResponseDTO {
+
+    @Schema(description = "Requests respondidos desde memoria, sin consultar la base", example = "900", minimum = "0")
+    private long hits;
+
+    @Schema(description = "Requests que no estaban en memoria y fueron a la base", example = "100", minimum = "0")
+    private long misses;
+
+    @Schema(description = "Entradas desalojadas por tamaño o por vencimiento", example = "0", minimum = "0")
+    private long evictions;
+
+    @Schema(description = "hits / (hits + misses); 1 si todavía no hubo requests", example = "0.9", minimum = "0")
+    @JsonProperty("hit_ratio")
+    private double hitRatio;
+
+    @Schema(description = "Cantidad aproximada de huellas en memoria", example = "100", minimum = "0")
+    private long size;
+}
@@ -0,0 +1,39 @@
+package com.example.utn.dnaRecord.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(
+    description = "Una línea de la respuesta NDJSON de POST /mutant/batch: el resultado de un ADN o el motivo "
+            + "por el que no se analizó. Las líneas salen a medida que se resuelven, no en el orden del request.",
+    example = "{\"index\": 0, \"is_mutant\": true}"
+)
+public class DnaBatchResultDTO {
+
+    @Schema(description = "Posición del ADN en el request, desde 0", example = "0", minimum = "0")
+    private long index;
+
+    @Schema(description = "true si es mutante, false si es humano; ausente si el ADN es inválido", example = "true")
+    @JsonProperty("is_mutant")
+    private Boolean isMutant;
+
+    @Schema(description = "Motivo por el que el ADN no se analizó; ausente si se analizó",
+            example = "La fila 2 contiene bases inválidas (solo A, T, C, G)")
+    private String error;
+
+    public static DnaBatchResultDTO result(long index, boolean isMutant) {
+        return new DnaBatchResultDTO(index, isMutant, null);
+    }
+
+    public static DnaBatchResultDTO error(long index, String error) {
+        return new DnaBatchResultDTO(index, null, error);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.utn.dnaRecord.dto;
+
+import com.example.utn.dnaRecord.config.DetectorProperties;
+import com.example.utn.dnaRecord.exception.DnaFormatException;
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import com.example.utn.dnaRecord.service.DetectorRules;
+import com.example.utn.dnaRecord.service.FingerprintAlgorithm;
+import com.example.utn.dnaRecord.service.PackedDna;
+import com.example.utn.dnaRecord.service.ParsedDna;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Lee {@link DnaRequestDTO} de un cuerpo {@code application/octet-stream}: la matriz viaja
+ * a 2 bits por base en lugar de un carácter entre comillas por base.
+ * <p>
+ * Formato: N como entero de 4 bytes big-endian y después las N filas, cada una en
+ * {@code (N + 3) / 4} bytes. Cada byte lleva 4 bases, la primera en los 2 bits altos, con
+ * A=00, C=01, G=10, T=11 (el código de {@link PackedDna}); los bits de relleno del último
+ * byte de cada fila se ignoran. No hay nada que validar por base: todo código es una base.
+ * <p>
+ * Cada fila se copia del buffer de lectura a la matriz empaquetada con
+ * {@link ParsedDna.Builder#addPackedRow}, sin crear caracteres ni Strings. La huella es la
+ * misma que la del JSON equivalente, así que comparte caché y registro en la base.
+ * <p>
+ * El request se rechaza si N es 0 o mayor a {@code mutant.detector.max-size}, si el cuerpo
+ * termina antes de la última fila o si sobran bytes. En {@code POST /mutant}, un N mayor al
+ * {@link DnaSizeLimit} del endpoint se rechaza con el encabezado, sin leer las filas.
+ */
+public class DnaBinaryRequestConverter extends AbstractHttpMessageConverter<DnaRequestDTO> {
+
+    private static final int HEADER_BYTES = Integer.BYTES;
+
+    private final int maxSize;
+    private final FingerprintAlgorithm fingerprint;
+    private final boolean canonicalFingerprint;
+    private final DetectorRules rules;
+
+    public DnaBinaryRequestConverter(DetectorProperties properties) {
+        super(MediaType.APPLICATION_OCTET_STREAM);
+        this.maxSize = properties.getMaxSize();
+        this.fingerprint = properties.getFingerprint();
+        this.canonicalFingerprint = properties.isCanonicalFingerprint();
+        this.rules = properties.rules();
+    }
+
+    /**
+     * Codifica una matriz en el formato binario, para clientes Java y tests.
+     *
+     * @param dna Filas de la matriz, NxN y solo con A, T, C, G
+     */
+    public static byte[] encode(String[] dna) {
+        int size = dna.length;
+        int rowBytes = (size + 3) >>> 2;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + size * rowBytes).putInt(size);
+        for (String row : dna) {
+            if (row.length() != size) {
+                throw new IllegalArgumentException("La matriz debe ser NxN");
+            }
+            byte[] packed = new byte[rowBytes];
+            for (int col = 0; col < size; col++) {
+                int code = PackedDna.encode(row.charAt(col));
+                if (code < 0) {
+                    throw new IllegalArgumentException("La fila contiene bases inválidas (solo A, T, C, G)");
+                }
+                packed[col >>> 2] |= (byte) (code << (6 - 2 * (col & 3)));
+            }
+            buffer.put(packed);
+        }
+        return buffer.array();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return DnaRequestDTO.class == clazz;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false; // Solo se usa para leer requests
+    }
+
+    @Override
+    protected DnaRequestDTO readInternal(Class<? extends DnaRequestDTO> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        DataInputStream in = new DataInputStream(inputMessage.getBody());
+        int size;
+        try {
+            size = in.readInt();
+        } catch (EOFException e) {
+            throw reject(inputMessage, "El cuerpo no tiene el tamaño N de la matriz");
+        }
+        if (size <= 0) {
+            throw reject(inputMessage, "El tamaño de la matriz debe ser mayor a 0");
+        }
+        if (size > maxSize) {
+            throw reject(inputMessage, "El ADN supera el tamaño máximo de " + maxSize + "x" + maxSize);
+        }
+        DnaSizeLimit limit = DnaSizeLimit.current();
+        DnaTooLargeException tooLarge = limit == null ? null : limit.check(size);
+        if (tooLarge != null) {
+            throw new HttpMessageNotReadableException(tooLarge.getMessage(), tooLarge, inputMessage);
+        }
+
+        ParsedDna.Builder builder = ParsedDna.builder(size, fingerprint, canonicalFingerprint, rules);
+        byte[] row = new byte[(size + 3) >>> 2];
+        for (int i = 0; i < size; i++) {
+            try {
+                in.readFully(row);
+            } catch (EOFException e) {
+                throw reject(inputMessage, "El cuerpo termina en la fila " + i + " y se esperaban " + size);
+            }
+            builder.addPackedRow(row, 0);
+        }
+        if (in.read() != -1) {
+            throw reject(inputMessage, "El cuerpo tiene bytes después de la fila " + (size - 1));
+        }
+
+        DnaRequestDTO request = new DnaRequestDTO();
+        request.setParsedDna(builder.build());
+        return request;
+    }
+
+    @Override
+    protected void writeInternal(DnaRequestDTO request, HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("DnaRequestDTO no se escribe en formato binario");
+    }
+
+    private static HttpMessageNotReadableException reject(HttpInputMessage inputMessage, String message) {
+        return new HttpMessageNotReadableException(message, new DnaFormatException(message), inputMessage);
+    }
+}
@@ -1,16 +1,17 @@
 package com.example.utn.dnaRecord.dto;
 
+import com.example.utn.dnaRecord.service.ParsedDna;
 import com.example.utn.dnaRecord.validator.ValidDna;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotEmpty;
-import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
+@ValidDna
+@JsonDeserialize(using = DnaRequestDeserializer.class)
 @Schema(
     description = "Request para verificar si un ADN es mutante",
     example = "{\"dna\": [\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}"
@@ -27,8 +28,19 @@ public class DnaRequestDTO {
             minLength = 4,
             implementation = String[].class
     )
-    @NotNull(message = "La secuencia de ADN no puede ser nula")
-    @NotEmpty(message = "La secuencia de ADN no puede estar vacía")
-    @ValidDna
     private String[] dna;
+
+    /**
+     * Resultado de validar, empaquetar y hashear el ADN en una sola pasada. Al leer el JSON
+     * lo completa {@link DnaRequestDeserializer} (y {@link #dna} queda en {@code null});
+     * si el DTO se arma con {@link #dna}, lo completa el validador de {@link ValidDna}.
+     * No forma parte del JSON.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private transient ParsedDna parsedDna;
+
+    public DnaRequestDTO(String[] dna) {
+        this.dna = dna;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.example.utn.dnaRecord.dto;
+
+import com.example.utn.dnaRecord.config.DetectorProperties;
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import com.example.utn.dnaRecord.service.DetectorRules;
+import com.example.utn.dnaRecord.service.FingerprintAlgorithm;
+import com.example.utn.dnaRecord.service.ParsedDna;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Lee {@link DnaRequestDTO} directamente del stream de tokens JSON.
+ * <p>
+ * Cada fila se toma del buffer de caracteres del parser (sin crear el {@code String}) y se
+ * valida, empaqueta y hashea con {@link ParsedDna.Builder}, así que nunca se arma el
+ * {@code String[]}: el DTO sale con {@code parsedDna} completo y {@code dna} en {@code null}.
+ * <p>
+ * El request se rechaza apenas aparece una base inválida, una fila de otro largo, más filas
+ * que columnas o un N mayor a {@code mutant.detector.max-size}, sin leer el resto del cuerpo.
+ * El tamaño N sale del largo de la primera fila. En {@code POST /mutant} y en cada ADN de
+ * {@code /mutant/batch} también se rechaza ahí un N mayor al {@link DnaSizeLimit} del endpoint,
+ * con un {@link DnaTooLargeException} como causa.
+ * <p>
+ * Spring lo crea con {@code SpringHandlerInstantiator}, que inyecta la configuración; un
+ * {@code ObjectMapper} sin Spring usa el constructor sin argumentos y los valores por defecto.
+ */
+public class DnaRequestDeserializer extends StdDeserializer<DnaRequestDTO> {
+
+    private static final String DNA_FIELD = "dna";
+
+    private final int maxSize;
+    private final FingerprintAlgorithm fingerprint;
+    private final boolean canonicalFingerprint;
+    private final DetectorRules rules;
+
+    public DnaRequestDeserializer() {
+        this(new DetectorProperties());
+    }
+
+    @Autowired
+    public DnaRequestDeserializer(ObjectProvider<DetectorProperties> properties) {
+        this(properties.getIfAvailable(DetectorProperties::new));
+    }
+
+    DnaRequestDeserializer(DetectorProperties properties) {
+        super(DnaRequestDTO.class);
+        this.maxSize = properties.getMaxSize();
+        this.fingerprint = properties.getFingerprint();
+        this.canonicalFingerprint = properties.isCanonicalFingerprint();
+        this.rules = properties.rules();
+    }
+
+    @Override
+    public DnaRequestDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartObjectToken()) {
+            return (DnaRequestDTO) ctxt.handleUnexpectedToken(DnaRequestDTO.class, p);
+        }
+
+        DnaRequestDTO request = new DnaRequestDTO();
+        for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            if (DNA_FIELD.equals(field)) {
+                readDna(p, ctxt, request);
+            } else {
+                p.skipChildren(); // Campos desconocidos se ignoran, igual que con el mapeo por defecto
+            }
+        }
+        return request;
+    }
+
+    private void readDna(JsonParser p, DeserializationContext ctxt, DnaRequestDTO request) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return; // Lo reporta la validación del DTO
+        }
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            throw reject(p, "La secuencia de ADN debe ser un arreglo de strings");
+        }
+
+        ParsedDna.Builder builder = null;
+        int size = 0;
+        int row = 0;
+        for (JsonToken token = p.nextToken(); token != JsonToken.END_ARRAY; token = p.nextToken()) {
+            if (token != JsonToken.VALUE_STRING) {
+                throw reject(p, "La fila " + row + " no es un string");
+            }
+
+            int length = p.getTextLength();
+            if (builder == null) {
+                if (length == 0) {
+                    throw reject(p, "La fila 0 está vacía");
+                }
+                if (length > maxSize) {
+                    throw reject(p, "El ADN supera el tamaño máximo de " + maxSize + "x" + maxSize);
+                }
+                DnaSizeLimit limit = DnaSizeLimit.current(ctxt);
+                DnaTooLargeException tooLarge = limit == null ? null : limit.check(length);
+                if (tooLarge != null) {
+                    throw JsonMappingException.from(p, tooLarge.getMessage(), tooLarge);
+                }
+                size = length;
+                builder = ParsedDna.builder(size, fingerprint, canonicalFingerprint, rules);
+            }
+            if (row == size) {
+                throw reject(p, "La matriz tiene más de " + size + " filas (debe ser NxN)");
+            }
+            if (length != size) {
+                throw reject(p, "La fila " + row + " tiene " + length + " bases y se esperaban " + size);
+            }
+            if (!builder.addRow(CharBuffer.wrap(p.getTextCharacters(), p.getTextOffset(), length))) {
+                throw reject(p, "La fila " + row + " contiene bases inválidas (solo A, T, C, G)");
+            }
+            row++;
+        }
+
+        if (builder == null) {
+            request.setDna(new String[0]); // Lo reporta la validación del DTO
+            return;
+        }
+        ParsedDna parsed = builder.build();
+        if (parsed == null) {
+            throw reject(p, "La matriz tiene " + row + " filas y se esperaban " + size + " (debe ser NxN)");
+        }
+        request.setParsedDna(parsed);
+    }
+
+    private static MismatchedInputException reject(JsonParser p, String message) {
+        return MismatchedInputException.from(p, DnaRequestDTO.class, message);
+    }
+}
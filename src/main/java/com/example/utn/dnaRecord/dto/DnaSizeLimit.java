@@ -0,0 +1,51 @@
+package com.example.utn.dnaRecord.dto;
+
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Máximo N ({@code mutant.jobs.sync-max-size}) de un endpoint que analiza la matriz durante el
+ * request.
+ * <p>
+ * {@link DnaRequestDeserializer} y {@link DnaBinaryRequestConverter} lo comprueban apenas
+ * conocen N (la primera fila o el encabezado binario), sin leer el resto de la matriz. Lo buscan
+ * primero en el contexto de Jackson (lo pone {@code /mutant/batch} para cada ADN) y después en el
+ * request actual (lo pone {@code DnaWireFormatConfig} para {@code POST /mutant}); sin ninguno,
+ * como en {@code /mutant/jobs}, el máximo es {@code mutant.detector.max-size}.
+ *
+ * @param endpoint Endpoint que lo aplica, para el mensaje
+ * @param maxSize  Máximo N
+ */
+public record DnaSizeLimit(String endpoint, int maxSize) {
+
+    /**
+     * Nombre del atributo, en el contexto de Jackson o en el request.
+     */
+    public static final String ATTRIBUTE = DnaSizeLimit.class.getName();
+
+    /**
+     * @return El error si {@code size} supera el máximo, o {@code null}
+     */
+    public DnaTooLargeException check(int size) {
+        return size > maxSize ? DnaTooLargeException.syncLimit(endpoint, size, maxSize) : null;
+    }
+
+    /**
+     * @return El máximo del contexto de Jackson o del request actual, o {@code null}
+     */
+    static DnaSizeLimit current(DeserializationContext ctxt) {
+        Object limit = ctxt.getAttribute(ATTRIBUTE);
+        return limit instanceof DnaSizeLimit sizeLimit ? sizeLimit : current();
+    }
+
+    /**
+     * @return El máximo del request actual, o {@code null}
+     */
+    static DnaSizeLimit current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object limit = attributes == null ? null : attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return limit instanceof DnaSizeLimit sizeLimit ? sizeLimit : null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.utn.dnaRecord.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(
+    description = "Estado de un análisis asincrónico de POST /mutant/jobs",
+    example = "{\"id\": \"3f2b8c1e-6a4d-4c9b-9f57-2d1e0a7b5c44\", \"status\": \"DONE\", \"size\": 10000, "
+            + "\"is_mutant\": true, \"submitted_at\": \"2025-01-02T03:04:05Z\", "
+            + "\"started_at\": \"2025-01-02T03:04:05.2Z\", \"finished_at\": \"2025-01-02T03:04:06Z\"}"
+)
+public class MutantJobResponseDTO {
+
+    @Schema(description = "Identificador del trabajo, para GET /mutant/jobs/{id}")
+    private UUID id;
+
+    @Schema(description = "QUEUED (en la cola), RUNNING (analizándose), DONE (con resultado) o FAILED (con error)",
+            example = "DONE")
+    private Status status;
+
+    @Schema(description = "Tamaño N de la matriz", example = "10000", minimum = "1")
+    private int size;
+
+    @Schema(description = "Resultado, cuando el estado es DONE", example = "true")
+    @JsonProperty("is_mutant")
+    private Boolean isMutant;
+
+    @Schema(description = "Motivo del fallo, cuando el estado es FAILED")
+    private String error;
+
+    @JsonProperty("submitted_at")
+    private Instant submittedAt;
+
+    @JsonProperty("started_at")
+    private Instant startedAt;
+
+    @JsonProperty("finished_at")
+    private Instant finishedAt;
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED;
+
+        public boolean isFinished() {
+            return this == DONE || this == FAILED;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.utn.dnaRecord.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(
+    description = "Reconciliaciones de los totales de GET /stats con la base desde el arranque.",
+    example = "{\"reconciles\": 12, \"skipped\": 1, \"last_reconciled_at\": \"2025-01-02T03:04:05Z\"}"
+)
+public class ReconcileStatsResponseDTO {
+
+    @Schema(description = "Reconciliaciones que ajustaron los totales a la base (aunque no hubiera diferencias)",
+            example = "12", minimum = "0")
+    private long reconciles;
+
+    @Schema(description = "Reconciliaciones salteadas porque hubo escrituras en todos los intentos", example = "1",
+            minimum = "0")
+    private long skipped;
+
+    @Schema(description = "Momento de la última reconciliación", example = "2025-01-02T03:04:05Z")
+    @JsonProperty("last_reconciled_at")
+    private Instant lastReconciledAt;
+}
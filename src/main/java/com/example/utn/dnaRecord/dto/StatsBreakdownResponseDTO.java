@@ -0,0 +1,133 @@
+package com.example.utn.dnaRecord.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(
+    description = "Actividad de una ventana de tiempo reciente, tomada de contadores en memoria (sin consultar la base): "
+            + "totales de la ventana, percentiles del tiempo de detección y la serie intervalo por intervalo.",
+    example = "{\"window\": \"5m\", \"bucket_seconds\": 1, \"count_mutant_dna\": 12, \"count_human_dna\": 30, "
+            + "\"ratio\": 0.4, \"mutant_requests\": 80, \"human_requests\": 200, \"cache_hits\": 238, "
+            + "\"cache_hit_ratio\": 0.85, \"detections\": 42, \"detection_mean_micros\": 1.9, "
+            + "\"detection_p50_micros\": 2.048, \"detection_p90_micros\": 4.096, \"detection_p99_micros\": 8.192, "
+            + "\"detection_histogram\": [{\"le_micros\": 2.048, \"count\": 30}], \"series\": []}"
+)
+public class StatsBreakdownResponseDTO {
+
+    @Schema(description = "Ventana consultada: 1m, 5m, 1h o 24h", example = "5m")
+    private String window;
+
+    @Schema(description = "Duración de cada intervalo de la serie: 1 para 1m y 5m, 60 para 1h y 24h", example = "1")
+    @JsonProperty("bucket_seconds")
+    private int bucketSeconds;
+
+    @Schema(description = "ADN mutantes nuevos (que no estaban guardados) en la ventana", example = "12", minimum = "0")
+    @JsonProperty("count_mutant_dna")
+    private long countMutantDna;
+
+    @Schema(description = "ADN humanos nuevos (que no estaban guardados) en la ventana", example = "30", minimum = "0")
+    @JsonProperty("count_human_dna")
+    private long countHumanDna;
+
+    @Schema(description = "count_mutant_dna / count_human_dna, con el mismo criterio que GET /stats", example = "0.4",
+            minimum = "0")
+    private double ratio;
+
+    @Schema(description = "Requests de POST /mutant respondidos como mutante (incluye ADN repetidos)", example = "80",
+            minimum = "0")
+    @JsonProperty("mutant_requests")
+    private long mutantRequests;
+
+    @Schema(description = "Requests de POST /mutant respondidos como humano (incluye ADN repetidos)", example = "200",
+            minimum = "0")
+    @JsonProperty("human_requests")
+    private long humanRequests;
+
+    @Schema(description = "Requests respondidos desde el caché en memoria", example = "238", minimum = "0")
+    @JsonProperty("cache_hits")
+    private long cacheHits;
+
+    @Schema(description = "cache_hits / requests; 0 si no hubo requests", example = "0.85", minimum = "0")
+    @JsonProperty("cache_hit_ratio")
+    private double cacheHitRatio;
+
+    @Schema(description = "Ejecuciones del detector (ADN que no estaban en memoria ni en la base)", example = "42",
+            minimum = "0")
+    private long detections;
+
+    @Schema(description = "Tiempo promedio de detección", example = "1.9", minimum = "0")
+    @JsonProperty("detection_mean_micros")
+    private double detectionMeanMicros;
+
+    @Schema(description = "Cota superior de la mediana del tiempo de detección (potencia de 2 de ns)",
+            example = "2.048", minimum = "0")
+    @JsonProperty("detection_p50_micros")
+    private double detectionP50Micros;
+
+    @Schema(description = "Cota superior del percentil 90 del tiempo de detección", example = "4.096", minimum = "0")
+    @JsonProperty("detection_p90_micros")
+    private double detectionP90Micros;
+
+    @Schema(description = "Cota superior del percentil 99 del tiempo de detección", example = "8.192", minimum = "0")
+    @JsonProperty("detection_p99_micros")
+    private double detectionP99Micros;
+
+    @Schema(description = "Histograma del tiempo de detección, solo las posiciones con detecciones")
+    @JsonProperty("detection_histogram")
+    private List<LatencyBucket> detectionHistogram;
+
+    @Schema(description = "Contadores de cada intervalo de la ventana, del más viejo al actual (en curso)")
+    private List<Point> series;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Schema(description = "Posición del histograma del tiempo de detección")
+    public static class LatencyBucket {
+
+        @Schema(description = "Detecciones de menos de este tiempo (y de al menos la mitad)", example = "2.048")
+        @JsonProperty("le_micros")
+        private double leMicros;
+
+        @Schema(description = "Detecciones en esta posición", example = "30", minimum = "0")
+        private long count;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Schema(description = "Contadores de un intervalo de la ventana")
+    public static class Point {
+
+        @Schema(description = "Comienzo del intervalo", example = "2025-01-02T03:04:05Z")
+        private Instant start;
+
+        @JsonProperty("count_mutant_dna")
+        private long countMutantDna;
+
+        @JsonProperty("count_human_dna")
+        private long countHumanDna;
+
+        @JsonProperty("mutant_requests")
+        private long mutantRequests;
+
+        @JsonProperty("human_requests")
+        private long humanRequests;
+
+        @JsonProperty("cache_hits")
+        private long cacheHits;
+
+        private long detections;
+    }
+}
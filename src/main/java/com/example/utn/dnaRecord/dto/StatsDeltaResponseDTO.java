@@ -0,0 +1,43 @@
+package com.example.utn.dnaRecord.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(
+    description = "Evento de GET /stats/stream: los totales de GET /stats y cuánto cambiaron desde el último "
+            + "evento que recibió este cliente.",
+    example = "{\"sequence\": 42, \"count_mutant_dna\": 40, \"count_human_dna\": 100, \"ratio\": 0.4, "
+            + "\"new_mutant_dna\": 2, \"new_human_dna\": 5}"
+)
+public class StatsDeltaResponseDTO {
+
+    @Schema(description = "Número del cálculo que generó el evento; crece con cada cambio publicado", example = "42",
+            minimum = "0")
+    private long sequence;
+
+    @Schema(description = "Total de ADN mutantes, como en GET /stats", example = "40", minimum = "0")
+    @JsonProperty("count_mutant_dna")
+    private long countMutantDna;
+
+    @Schema(description = "Total de ADN humanos, como en GET /stats", example = "100", minimum = "0")
+    @JsonProperty("count_human_dna")
+    private long countHumanDna;
+
+    @Schema(description = "Ratio de mutantes sobre humanos, como en GET /stats", example = "0.4", minimum = "0")
+    private double ratio;
+
+    @Schema(description = "Mutantes nuevos desde el evento anterior de este cliente (0 en el primero). "
+            + "Si el cliente no daba abasto y se salteó eventos, incluye los de esos eventos.", example = "2")
+    @JsonProperty("new_mutant_dna")
+    private long newMutantDna;
+
+    @Schema(description = "Humanos nuevos desde el evento anterior de este cliente (0 en el primero)", example = "5")
+    @JsonProperty("new_human_dna")
+    private long newHumanDna;
+}
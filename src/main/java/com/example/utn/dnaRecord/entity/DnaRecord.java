@@ -9,6 +9,11 @@ import java.time.LocalDateTime;
 /**
  * Entidad que representa un registro de análisis de ADN.
  * Almacena el hash único del ADN, si es mutante y la fecha de análisis.
+ * <p>
+ * El hash se guarda en binario ({@code VARBINARY(32)}: 16 bytes con MurmurHash3, 32 con
+ * SHA-256) en lugar de hexadecimal: la mitad de espacio en la tabla y en el índice único, y
+ * la búsqueda no arma ningún String. Las tablas con el hash en hexadecimal se convierten al
+ * arrancar (ver {@code DnaHashMigration}).
  */
 @Entity
 @Data
@@ -16,12 +21,17 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class DnaRecord implements Serializable {
 
+    /**
+     * Largo máximo de la huella en bytes (SHA-256).
+     */
+    public static final int MAX_HASH_LENGTH = 32;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true)
-    private String dnaHash;
+    @Column(unique = true, length = MAX_HASH_LENGTH)
+    private byte[] dnaHash;
 
     private Boolean isMutant;
 
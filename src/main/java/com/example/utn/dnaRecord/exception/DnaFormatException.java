@@ -0,0 +1,12 @@
+package com.example.utn.dnaRecord.exception;
+
+/**
+ * Excepción lanzada cuando un cuerpo binario de ADN ({@code application/octet-stream}) no
+ * respeta el formato.
+ */
+public class DnaFormatException extends RuntimeException {
+
+    public DnaFormatException(String message) {
+        super(message);
+    }
+}
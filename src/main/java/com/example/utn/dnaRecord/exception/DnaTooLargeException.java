@@ -0,0 +1,20 @@
+package com.example.utn.dnaRecord.exception;
+
+/**
+ * Excepción lanzada cuando un ADN es demasiado grande para analizarlo durante el request, o
+ * cuando un cuerpo comprimido supera el máximo al descomprimirlo.
+ */
+public class DnaTooLargeException extends RuntimeException {
+
+    public DnaTooLargeException(String message) {
+        super(message);
+    }
+
+    /**
+     * Matriz más grande que {@code mutant.jobs.sync-max-size}: hay que enviarla a {@code POST /mutant/jobs}.
+     */
+    public static DnaTooLargeException syncLimit(String endpoint, int size, int syncMaxSize) {
+        return new DnaTooLargeException("El ADN de " + size + "x" + size + " supera el máximo de "
+                + syncMaxSize + "x" + syncMaxSize + " de " + endpoint + "; enviarlo a POST /mutant/jobs");
+    }
+}
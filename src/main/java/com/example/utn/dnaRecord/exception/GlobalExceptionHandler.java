@@ -1,11 +1,17 @@
 package com.example.utn.dnaRecord.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.io.EOFException;
+import java.util.zip.ZipException;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -20,6 +26,41 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(mensajeError);
     }
 
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<String> handleNotReadable(HttpMessageNotReadableException ex) {
+        // El deserializador de ADN (o el conversor binario) rechaza el cuerpo mientras lo lee: se devuelve su motivo
+        Throwable cause = ex.getMostSpecificCause();
+        if (cause instanceof DnaTooLargeException tooLarge) {
+            // N supera el máximo del endpoint: se supo con la primera fila o el encabezado binario
+            return handleDnaTooLarge(tooLarge);
+        }
+        String mensajeError;
+        if (cause instanceof JsonProcessingException jsonError) {
+            mensajeError = jsonError.getOriginalMessage();
+        } else if (cause instanceof DnaFormatException formatError) {
+            mensajeError = formatError.getMessage();
+        } else if (cause instanceof ZipException || cause instanceof EOFException) {
+            // Solo la descompresión del cuerpo lanza estas: Jackson y el conversor binario usan las suyas
+            mensajeError = "El cuerpo comprimido no es válido o está incompleto";
+        } else {
+            mensajeError = "El cuerpo del request no es un JSON válido";
+        }
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(mensajeError);
+    }
+
+    @ExceptionHandler(DnaTooLargeException.class)
+    public ResponseEntity<String> handleDnaTooLarge(DnaTooLargeException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+    }
+
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity<String> handleJobQueueFull(JobQueueFullException e) {
+        // Se libera un lugar cuando empieza el próximo trabajo: reintentar en unos segundos
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(e.getMessage());
+    }
+
     @ExceptionHandler(DnaHashCalculationException.class)
     public ResponseEntity<String> handleDnaHashCalculationException(DnaHashCalculationException e) {
         // Error interno del servidor (500) porque es un problema técnico, no del usuario
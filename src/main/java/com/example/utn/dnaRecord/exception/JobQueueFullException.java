@@ -0,0 +1,11 @@
+package com.example.utn.dnaRecord.exception;
+
+/**
+ * Excepción lanzada cuando la cola de análisis asincrónicos está llena.
+ */
+public class JobQueueFullException extends RuntimeException {
+
+    public JobQueueFullException(String message) {
+        super(message);
+    }
+}
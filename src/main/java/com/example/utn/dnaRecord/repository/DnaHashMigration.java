@@ -0,0 +1,148 @@
+package com.example.utn.dnaRecord.repository;
+
+import com.example.utn.dnaRecord.entity.DnaRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Convierte la columna {@code dna_hash} de hexadecimal ({@code VARCHAR}) a binario.
+ * <p>
+ * Corre antes de que Hibernate actualice el esquema (ver {@code DnaHashMigrationConfig}): si
+ * la tabla no existe o la columna ya es binaria no hace nada. Si no, agrega
+ * {@code dna_hash_bin}, la llena por páginas de {@value #BATCH_SIZE} filas con JDBC batch,
+ * borra la columna vieja (con su índice único) y renombra la nueva; Hibernate vuelve a crear
+ * el índice único al arrancar. H2 confirma cada sentencia DDL por separado, así que el proceso
+ * puede cortarse entre dos pasos: antes del borrado se vuelve a llenar {@code dna_hash_bin}
+ * desde el principio, y si ya se borró {@code dna_hash} pero falta el renombre, el próximo
+ * arranque sólo renombra.
+ * <p>
+ * Las huellas SHA-256 guardadas siguen sirviendo con {@code mutant.detector.fingerprint=sha256}.
+ * Las filas cuyo hash no es hexadecimal quedan con {@code dna_hash} en {@code null}: siguen
+ * contando para las estadísticas, pero ese ADN se vuelve a analizar la próxima vez.
+ * <p>
+ * Usa SQL de H2 ({@code ALTER COLUMN ... RENAME TO}).
+ */
+@Slf4j
+public class DnaHashMigration implements InitializingBean {
+
+    static final int BATCH_SIZE = 1_000;
+
+    private static final String TABLE = "dna_record";
+    private static final String COLUMN = "dna_hash";
+    private static final String BINARY_COLUMN = "dna_hash_bin";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final JdbcTemplate jdbc;
+
+    public DnaHashMigration(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        migrate();
+    }
+
+    /**
+     * @return Cantidad de filas convertidas (al completar una migración cortada, las que ya lo
+     *         estaban), o -1 si no había nada que migrar
+     */
+    public int migrate() {
+        Integer type = columnType(COLUMN);
+        if (type == null && columnType(BINARY_COLUMN) != null) {
+            return finishRename();
+        }
+        if (type == null || !isText(type)) {
+            return -1;
+        }
+        log.info("Convirtiendo {}.{} de hexadecimal a binario", TABLE, COLUMN);
+
+        jdbc.execute("ALTER TABLE dna_record ADD COLUMN IF NOT EXISTS dna_hash_bin VARBINARY("
+                + DnaRecord.MAX_HASH_LENGTH + ")");
+
+        int converted = 0;
+        int invalid = 0;
+        long lastId = Long.MIN_VALUE;
+        while (true) {
+            List<Object[]> page = jdbc.query(
+                    "SELECT id, dna_hash FROM dna_record WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2)},
+                    lastId, BATCH_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+
+            List<Object[]> updates = new ArrayList<>(page.size());
+            for (Object[] row : page) {
+                byte[] hash = parseHash((String) row[1]);
+                if (hash == null) {
+                    invalid++;
+                } else {
+                    updates.add(new Object[]{hash, row[0]});
+                }
+            }
+            jdbc.batchUpdate("UPDATE dna_record SET dna_hash_bin = ? WHERE id = ?", updates);
+            converted += updates.size();
+            lastId = (Long) page.get(page.size() - 1)[0];
+        }
+
+        jdbc.execute("ALTER TABLE dna_record DROP COLUMN dna_hash");
+        jdbc.execute("ALTER TABLE dna_record ALTER COLUMN dna_hash_bin RENAME TO dna_hash");
+
+        log.info("{}.{} convertida: {} filas migradas, {} sin hash hexadecimal válido",
+                TABLE, COLUMN, converted, invalid);
+        return converted;
+    }
+
+    private static byte[] parseHash(String hex) {
+        if (hex == null || hex.isEmpty() || hex.length() > 2 * DnaRecord.MAX_HASH_LENGTH) {
+            return null;
+        }
+        try {
+            return HEX.parseHex(hex);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Termina una migración que se cortó entre el borrado de {@code dna_hash} y el renombre.
+     */
+    private int finishRename() {
+        log.warn("Se encontró {}.{} sin {}: se completa la migración anterior", TABLE, BINARY_COLUMN, COLUMN);
+        Integer filled = jdbc.queryForObject("SELECT COUNT(dna_hash_bin) FROM dna_record", Integer.class);
+        jdbc.execute("ALTER TABLE dna_record ALTER COLUMN dna_hash_bin RENAME TO dna_hash");
+        return filled == null ? 0 : filled;
+    }
+
+    private static boolean isText(int type) {
+        return switch (type) {
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @return Tipo JDBC de la columna, o {@code null} si la tabla o la columna no existen
+     */
+    private Integer columnType(String column) {
+        return jdbc.execute((ConnectionCallback<Integer>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean upper = metaData.storesUpperCaseIdentifiers();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null,
+                    upper ? TABLE.toUpperCase() : TABLE, upper ? column.toUpperCase() : column)) {
+                return columns.next() ? columns.getInt("DATA_TYPE") : null;
+            }
+        });
+    }
+}
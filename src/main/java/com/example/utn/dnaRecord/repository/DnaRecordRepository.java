@@ -7,15 +7,15 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface DnaRecordRepository extends JpaRepository<DnaRecord, Long> {
+public interface DnaRecordRepository extends JpaRepository<DnaRecord, Long>, DnaRecordRepositoryCustom {
 
     /**
      * Busca un registro de ADN por su hash único.
      * 
-     * @param dnaHash Hash SHA-256 de la secuencia de ADN
+     * @param dnaHash Huella binaria de la secuencia de ADN (ver {@code DnaFingerprinter})
      * @return Optional con el registro encontrado o vacío si no existe
      */
-    Optional<DnaRecord> findByDnaHash(String dnaHash);
+    Optional<DnaRecord> findByDnaHash(byte[] dnaHash);
 
     /**
      * Cuenta la cantidad de registros según si son mutantes o humanos.
@@ -0,0 +1,50 @@
+package com.example.utn.dnaRecord.repository;
+
+import com.example.utn.dnaRecord.entity.DnaRecord;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operaciones de {@link DnaRecordRepository} escritas con SQL propio.
+ */
+public interface DnaRecordRepositoryCustom {
+
+    /**
+     * Guarda el resultado si la huella no estaba y devuelve el que quedó guardado. Si otro
+     * request u otra instancia ya la había guardado, no se modifica y se devuelve el valor
+     * existente; nunca falla por clave duplicada.
+     *
+     * @param dnaHash  Huella binaria de la secuencia de ADN
+     * @param isMutant Resultado calculado, usado solo si la huella es nueva
+     * @return Resultado guardado para esa huella y si lo insertó esta llamada
+     */
+    InsertResult insertIfAbsent(byte[] dnaHash, boolean isMutant);
+
+    /**
+     * Guarda los registros cuya huella no estaba, con un solo batch JDBC; los que ya estaban
+     * no se modifican. Se usan {@code dnaHash}, {@code isMutant} y {@code createdAt}; el id lo
+     * asigna la base.
+     *
+     * @return Por cada registro, en el mismo orden, 1 si se insertó y 0 si ya estaba
+     */
+    int[] insertAllIfAbsent(List<DnaRecord> records);
+
+    /**
+     * Busca varias huellas con un solo {@code SELECT ... WHERE dna_hash IN (...)}.
+     *
+     * @return Resultado guardado de cada huella encontrada; las que no están no figuran
+     */
+    Map<ByteBuffer, Boolean> findIsMutantByDnaHashIn(Collection<byte[]> dnaHashes);
+
+    /**
+     * Resultado de {@link #insertIfAbsent}.
+     *
+     * @param isMutant Resultado guardado para la huella (el existente, si ya estaba)
+     * @param inserted {@code true} si la fila la insertó esta llamada
+     */
+    record InsertResult(boolean isMutant, boolean inserted) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.utn.dnaRecord.repository;
+
+import com.example.utn.dnaRecord.entity.DnaRecord;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.BatchUpdateException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code insertIfAbsent} e {@code insertAllIfAbsent} con un {@code MERGE ... USING} de H2 que solo
+ * tiene rama {@code WHEN NOT MATCHED}: inserta la huella si no estaba, en una sola sentencia y
+ * sin el {@code SELECT} previo ni la sesión de Hibernate. La cantidad de filas afectadas dice si
+ * insertó (1) o si la huella ya estaba (0); solo en ese caso, que es el de perder una carrera con
+ * otra instancia, {@code insertIfAbsent} lee el resultado existente con un segundo viaje a la base.
+ * <p>
+ * Dos {@code MERGE} simultáneos de la misma huella nueva pueden no verse entre sí y el segundo
+ * choca con el índice único; en ese caso se repite una vez, y la repetición ya encuentra la fila.
+ * <p>
+ * {@code insertAllIfAbsent} manda el mismo {@code MERGE} como batch JDBC: el id {@code IDENTITY}
+ * lo asigna la base fila por fila, así que no impide agrupar los inserts (solo lo impide en
+ * Hibernate, que necesita leer cada id generado).
+ * <p>
+ * {@code findIsMutantByDnaHashIn} resuelve muchas huellas en un solo viaje, usando el índice
+ * único de {@code dna_hash}.
+ */
+class DnaRecordRepositoryCustomImpl implements DnaRecordRepositoryCustom {
+
+    private static final String INSERT_IF_ABSENT = """
+            MERGE INTO dna_record t
+            USING (VALUES (CAST(? AS VARBINARY(%d)), CAST(? AS BOOLEAN), CAST(? AS TIMESTAMP(6))))
+                AS s (dna_hash, is_mutant, created_at)
+            ON t.dna_hash = s.dna_hash
+            WHEN NOT MATCHED THEN INSERT (dna_hash, is_mutant, created_at)
+                VALUES (s.dna_hash, s.is_mutant, s.created_at)
+            """.formatted(DnaRecord.MAX_HASH_LENGTH);
+
+    private static final String FIND_IS_MUTANT = "SELECT is_mutant FROM dna_record WHERE dna_hash = ?";
+
+    private static final String FIND_ALL_IS_MUTANT = "SELECT dna_hash, is_mutant FROM dna_record WHERE dna_hash IN (%s)";
+
+    private final JdbcTemplate jdbc;
+
+    DnaRecordRepositoryCustomImpl(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public InsertResult insertIfAbsent(byte[] dnaHash, boolean isMutant) {
+        int inserted;
+        try {
+            inserted = merge(dnaHash, isMutant);
+        } catch (DuplicateKeyException e) {
+            inserted = merge(dnaHash, isMutant);
+        }
+        if (inserted > 0) {
+            return new InsertResult(isMutant, true);
+        }
+        return new InsertResult(Boolean.TRUE.equals(jdbc.queryForObject(FIND_IS_MUTANT, Boolean.class, dnaHash)),
+                false);
+    }
+
+    @Override
+    public int[] insertAllIfAbsent(List<DnaRecord> records) {
+        List<Object[]> rows = new ArrayList<>(records.size());
+        for (DnaRecord record : records) {
+            rows.add(new Object[]{record.getDnaHash(), record.getIsMutant(), Timestamp.valueOf(record.getCreatedAt())});
+        }
+        try {
+            return inserted(jdbc.batchUpdate(INSERT_IF_ABSENT, rows));
+        } catch (DuplicateKeyException e) {
+            // Otra instancia guardó alguna de las huellas a la vez: se repite y esa fila ya se
+            // encuentra. Las que sí entraron en el primer intento figuran en su BatchUpdateException
+            int[] retried = inserted(jdbc.batchUpdate(INSERT_IF_ABSENT, rows));
+            if (e.getCause() instanceof BatchUpdateException failed) {
+                int[] first = failed.getUpdateCounts();
+                for (int i = 0; i < Math.min(first.length, retried.length); i++) {
+                    retried[i] |= first[i] > 0 ? 1 : 0;
+                }
+            }
+            return retried;
+        }
+    }
+
+    @Override
+    public Map<ByteBuffer, Boolean> findIsMutantByDnaHashIn(Collection<byte[]> dnaHashes) {
+        if (dnaHashes.isEmpty()) {
+            return Map.of();
+        }
+        String sql = FIND_ALL_IS_MUTANT.formatted(String.join(", ", Collections.nCopies(dnaHashes.size(), "?")));
+        Map<ByteBuffer, Boolean> found = new HashMap<>();
+        jdbc.query(sql, rs -> {
+            found.put(ByteBuffer.wrap(rs.getBytes(1)), rs.getBoolean(2));
+        }, dnaHashes.toArray());
+        return found;
+    }
+
+    private int merge(byte[] dnaHash, boolean isMutant) {
+        // Mismo valor que asigna DnaRecord al persistir con JPA
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        return jdbc.update(INSERT_IF_ABSENT, dnaHash, isMutant, createdAt);
+    }
+
+    private static int[] inserted(int[] updateCounts) {
+        for (int i = 0; i < updateCounts.length; i++) {
+            updateCounts[i] = updateCounts[i] > 0 ? 1 : 0;
+        }
+        return updateCounts;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.utn.dnaRecord.service;
+
+/**
+ * Motor de detección sobre bitboards (como en el 4 en línea).
+ * <p>
+ * Trabaja sobre la matriz empaquetada en 2 bits por base ({@link PackedDna}) y compara
+ * 64 celdas por operación: dos celdas tienen la misma base cuando coinciden sus bits en
+ * ambos planos, así que {@code ~((lo1 ^ lo2) | (hi1 ^ hi2))} es el bitboard de "misma base"
+ * para las cuatro bases a la vez. Una secuencia empieza en una celda cuando es igual a las
+ * L - 1 siguientes en esa dirección, lo que se resuelve con desplazamientos y AND sobre longs.
+ * <p>
+ * Cuenta las secuencias igual que {@link StreamingMutantDetector}: cada celda inicial de
+ * L bases iguales suma una secuencia. L admite hasta 64 (un desplazamiento por palabra).
+ */
+public class BitboardMutantDetector {
+
+    static final int DEFAULT_SEQUENCE_LENGTH = 4;
+    static final int DEFAULT_MUTANT_THRESHOLD = 2;
+    static final int MAX_SEQUENCE_LENGTH = 64;
+
+    private final int sequenceLength;
+    private final int mutantThreshold;
+
+    public BitboardMutantDetector() {
+        this(DEFAULT_SEQUENCE_LENGTH, DEFAULT_MUTANT_THRESHOLD);
+    }
+
+    /**
+     * @param sequenceLength  Cantidad de bases iguales consecutivas que forman una secuencia (2 a 64)
+     * @param mutantThreshold Cantidad de secuencias a partir de la cual el ADN es mutante
+     */
+    public BitboardMutantDetector(int sequenceLength, int mutantThreshold) {
+        if (sequenceLength < 2 || sequenceLength > MAX_SEQUENCE_LENGTH) {
+            throw new IllegalArgumentException("El largo de secuencia debe estar entre 2 y " + MAX_SEQUENCE_LENGTH);
+        }
+        if (mutantThreshold < 1) {
+            throw new IllegalArgumentException("El umbral de mutante debe ser mayor a 0");
+        }
+        this.sequenceLength = sequenceLength;
+        this.mutantThreshold = mutantThreshold;
+    }
+
+    public boolean isMutant(String[] dna) {
+        PackedDna packed = PackedDna.pack(dna);
+        return packed != null && isMutant(packed);
+    }
+
+    public boolean isMutant(PackedDna dna) {
+        int sequenceCount = 0;
+        for (int row = 0; row < dna.size(); row++) {
+            sequenceCount += countSequencesInRow(dna, row);
+            if (sequenceCount >= mutantThreshold) {
+                return true; // Early termination
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cuenta las secuencias cuya celda de referencia está en la fila indicada:
+     * la celda inicial para horizontal, vertical y diagonal descendente, y la celda
+     * inferior izquierda para la diagonal ascendente.
+     */
+    int countSequencesInRow(PackedDna dna, int row) {
+        int count = 0;
+        for (int word = 0; word < dna.wordsPerRow(); word++) {
+            count += countSequencesInWord(dna, row, word);
+        }
+        return count;
+    }
+
+    /**
+     * Igual que {@link #countSequencesInRow} pero solo para las 64 columnas de una palabra.
+     */
+    final int countSequencesInWord(PackedDna dna, int row, int word) {
+        final int n = dna.size();
+        final int words = dna.wordsPerRow();
+        final long[] lo = dna.lo();
+        final long[] hi = dna.hi();
+        final int index = row * words + word;
+        final long starts = startMask(n, word);
+
+        int count = 0;
+
+        //  Horizontal
+        long horizontal = starts;
+        for (int k = 1; k < sequenceLength && horizontal != 0; k++) {
+            horizontal &= equal(lo, hi, index, index, k);
+        }
+        count += Long.bitCount(horizontal);
+
+        if (row <= n - sequenceLength) {
+            //  Vertical
+            long vertical = columnMask(n, word);
+            //  Diagonal descendente (\)
+            long diagonal = starts;
+            for (int k = 1; k < sequenceLength; k++) {
+                int other = index + k * words;
+                vertical &= equal(lo, hi, index, other, 0);
+                diagonal &= equal(lo, hi, index, other, k);
+            }
+            count += Long.bitCount(vertical) + Long.bitCount(diagonal);
+        }
+
+        if (row >= sequenceLength - 1) {
+            //  Diagonal ascendente (/)
+            long diagonal = starts;
+            for (int k = 1; k < sequenceLength && diagonal != 0; k++) {
+                diagonal &= equal(lo, hi, index, index - k * words, k);
+            }
+            count += Long.bitCount(diagonal);
+        }
+        return count;
+    }
+
+    /**
+     * Cantidad de palabras iniciales de cada fila en las que todas las columnas pueden
+     * empezar una secuencia (no necesitan máscara).
+     */
+    final int fullStartWords(int n) {
+        return Math.max(0, n - sequenceLength + 1) >>> 6;
+    }
+
+    final int sequenceLength() {
+        return sequenceLength;
+    }
+
+    final int mutantThreshold() {
+        return mutantThreshold;
+    }
+
+    /**
+     * Bitboard de celdas de la palabra {@code index} iguales a la celda {@code shift}
+     * columnas a la derecha en la palabra {@code other}.
+     */
+    private static long equal(long[] lo, long[] hi, int index, int other, int shift) {
+        return ~((lo[index] ^ shifted(lo, other, shift)) | (hi[index] ^ shifted(hi, other, shift)));
+    }
+
+    private static long shifted(long[] plane, int index, int shift) {
+        if (shift == 0) {
+            return plane[index];
+        }
+        // Los bits que entran desde la palabra siguiente pueden ser de otra fila, pero
+        // solo caen en columnas > n - L, que la máscara de inicio ya descarta.
+        return (plane[index] >>> shift) | (plane[index + 1] << (64 - shift));
+    }
+
+    /**
+     * Columnas de la palabra donde puede empezar una secuencia horizontal o diagonal.
+     */
+    private long startMask(int n, int word) {
+        return mask(n - sequenceLength + 1, word);
+    }
+
+    private static long columnMask(int n, int word) {
+        return mask(n, word);
+    }
+
+    private static long mask(int columns, int word) {
+        int bits = columns - (word << 6);
+        if (bits <= 0) return 0L;
+        if (bits >= 64) return -1L;
+        return (1L << bits) - 1;
+    }
+}
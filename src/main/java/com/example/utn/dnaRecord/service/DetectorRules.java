@@ -0,0 +1,55 @@
+package com.example.utn.dnaRecord.service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reglas del detector ({@code mutant.detector.sequence-length} y {@code mutant-threshold}) que
+ * forman parte de la huella.
+ * <p>
+ * El resultado guardado de un ADN depende de las reglas con que se analizó: si cambian, la misma
+ * matriz tiene que tener otra clave en la base, en {@link DnaResultCache}, en el filtro de Bloom y
+ * en el log del guardado diferido. Con reglas distintas a las por defecto, {@link #seed} agrega
+ * al principio de la huella un prefijo con las reglas ({@code #5,3;}); como las filas solo tienen
+ * A, T, C y G, ninguna matriz sin prefijo ni con otras reglas produce los mismos bytes. Con las
+ * reglas por defecto no se agrega nada, así que las huellas ya guardadas no cambian.
+ */
+public final class DetectorRules {
+
+    /**
+     * Secuencias de 4 bases iguales, mutante con más de una.
+     */
+    public static final DetectorRules DEFAULT = new DetectorRules(4, 2);
+
+    private final int sequenceLength;
+    private final int mutantThreshold;
+    private final byte[] prefix;
+
+    private DetectorRules(int sequenceLength, int mutantThreshold) {
+        this.sequenceLength = sequenceLength;
+        this.mutantThreshold = mutantThreshold;
+        this.prefix = ("#" + sequenceLength + "," + mutantThreshold + ";").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static DetectorRules of(int sequenceLength, int mutantThreshold) {
+        return DEFAULT.sequenceLength == sequenceLength && DEFAULT.mutantThreshold == mutantThreshold
+                ? DEFAULT
+                : new DetectorRules(sequenceLength, mutantThreshold);
+    }
+
+    /**
+     * Agrega las reglas a una huella recién reiniciada, antes de la primera fila.
+     */
+    void seed(DnaFingerprinter fingerprinter) {
+        if (this != DEFAULT) {
+            fingerprinter.update(prefix, 0, prefix.length);
+        }
+    }
+
+    public int getSequenceLength() {
+        return sequenceLength;
+    }
+
+    public int getMutantThreshold() {
+        return mutantThreshold;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.utn.dnaRecord.service;
+
+import java.util.Arrays;
+
+/**
+ * Huella canónica: la misma para todas las matrices equivalentes por simetría y por
+ * renombre de bases.
+ * <p>
+ * Transponer, rotar o reflejar la matriz (las 8 simetrías del cuadrado) lleva secuencias
+ * horizontales a verticales y diagonales a diagonales, y cambiar A/T/C/G entre sí no cambia
+ * qué celdas son iguales, así que las 192 variantes tienen el mismo conteo de secuencias.
+ * <p>
+ * La forma canónica es la menor, en orden lexicográfico, de las 8 orientaciones recorridas
+ * por filas, con las bases renombradas por orden de aparición (la primera base distinta pasa
+ * a ser A, la segunda C, etc.; es el menor de los 24 renombres posibles). Las 8 orientaciones
+ * no se arman: se leen del {@link PackedDna} con índices transformados y se comparan celda
+ * por celda, descartando las que quedan por encima del mínimo. En una matriz cualquiera
+ * queda una sola a las pocas celdas; solo una matriz simétrica obliga a recorrerla completa.
+ * Después se hashea la orientación ganadora, ya renombrada, como si fueran sus filas.
+ * <p>
+ * La huella canónica de una matriz es la huella común de su representante canónico, que es
+ * equivalente: mezclar registros guardados con y sin canonizar nunca da un resultado equivocado.
+ */
+final class DnaCanonicalizer {
+
+    static final int SYMMETRIES = 8;
+
+    private static final int BASES = 4;
+
+    private DnaCanonicalizer() {
+    }
+
+    /**
+     * Calcula la huella canónica de la matriz.
+     *
+     * @param fingerprinter Huella recién reiniciada (con las reglas ya agregadas); queda lista para reutilizarse
+     */
+    static byte[] fingerprint(PackedDna dna, DnaFingerprinter fingerprinter) {
+        int n = dna.size();
+        int symmetry = canonicalSymmetry(dna);
+
+        int[] labels = newLabels();
+        int nextLabel = 0;
+        byte[] row = new byte[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int code = codeAt(dna, symmetry, i, j);
+                if (labels[code] < 0) {
+                    labels[code] = nextLabel++;
+                }
+                row[j] = (byte) PackedDna.decode(labels[code]);
+            }
+            fingerprinter.update(row, 0, n);
+        }
+        return fingerprinter.digest();
+    }
+
+    /**
+     * @return Índice (0-7) de la orientación cuya lectura renombrada es la menor
+     */
+    static int canonicalSymmetry(PackedDna dna) {
+        int n = dna.size();
+        int alive = (1 << SYMMETRIES) - 1;
+        int[][] labels = new int[SYMMETRIES][];
+        int[] nextLabel = new int[SYMMETRIES];
+        int[] symbol = new int[SYMMETRIES];
+        for (int t = 0; t < SYMMETRIES; t++) {
+            labels[t] = newLabels();
+        }
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int min = BASES;
+                for (int t = 0; t < SYMMETRIES; t++) {
+                    if ((alive & (1 << t)) == 0) continue;
+                    int code = codeAt(dna, t, i, j);
+                    if (labels[t][code] < 0) {
+                        labels[t][code] = nextLabel[t]++;
+                    }
+                    symbol[t] = labels[t][code];
+                    min = Math.min(min, symbol[t]);
+                }
+                for (int t = 0; t < SYMMETRIES; t++) {
+                    if (symbol[t] > min) {
+                        alive &= ~(1 << t);
+                    }
+                }
+                if ((alive & (alive - 1)) == 0) {
+                    return Integer.numberOfTrailingZeros(alive);
+                }
+            }
+        }
+        // Empate completo: la matriz es simétrica y las orientaciones que quedan son iguales
+        return Integer.numberOfTrailingZeros(alive);
+    }
+
+    /**
+     * Base en la posición (i, j) de la orientación {@code symmetry}: identidad, espejo
+     * horizontal, espejo vertical, rotación de 180°, transpuesta, rotación de 90° a la
+     * derecha, rotación de 90° a la izquierda y transpuesta por la antidiagonal.
+     */
+    static int codeAt(PackedDna dna, int symmetry, int i, int j) {
+        int last = dna.size() - 1;
+        return switch (symmetry) {
+            case 0 -> dna.codeAt(i, j);
+            case 1 -> dna.codeAt(i, last - j);
+            case 2 -> dna.codeAt(last - i, j);
+            case 3 -> dna.codeAt(last - i, last - j);
+            case 4 -> dna.codeAt(j, i);
+            case 5 -> dna.codeAt(last - j, i);
+            case 6 -> dna.codeAt(j, last - i);
+            default -> dna.codeAt(last - j, last - i);
+        };
+    }
+
+    private static int[] newLabels() {
+        int[] labels = new int[BASES];
+        Arrays.fill(labels, -1);
+        return labels;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.utn.dnaRecord.service;
+
+/**
+ * Calcula la huella (clave de deduplicación) de una matriz de ADN a partir de sus filas.
+ * <p>
+ * Las filas se agregan de a una con {@link #update}; la huella es la misma que la de todas
+ * las filas concatenadas. Las implementaciones no asignan memoria por fila y se reutilizan
+ * entre requests: cada hilo tiene su instancia (ver {@link FingerprintAlgorithm#fingerprinter()}),
+ * así que una instancia no debe usarse para dos matrices a la vez.
+ */
+public interface DnaFingerprinter {
+
+    /**
+     * Descarta el estado anterior para empezar una matriz nueva.
+     */
+    void reset();
+
+    /**
+     * Agrega bytes (los caracteres ASCII de una fila) a la huella.
+     */
+    void update(byte[] bytes, int offset, int length);
+
+    /**
+     * Termina la huella y deja la instancia lista para reutilizarse.
+     *
+     * @return Huella en binario (un arreglo nuevo por llamada: 16 bytes con MurmurHash3, 32 con SHA-256)
+     */
+    byte[] digest();
+}
@@ -0,0 +1,269 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.BloomFilterProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom escalable con las huellas guardadas en {@code dna_record}.
+ * <p>
+ * Si dice que una huella no está, seguro no está: {@link MutantService} se saltea el
+ * {@code SELECT} y va directo a detectar y guardar. Si dice que puede estar, se consulta la
+ * base como siempre. Como la mayoría de los ADN llegan una sola vez, eso evita la mitad de
+ * las consultas del camino de un ADN nuevo.
+ * <p>
+ * Las huellas ya son hashes uniformes, así que los k bits salen de sus propios bytes con
+ * doble hashing ({@code h1 + i * h2}), sin volver a hashear. El filtro crece por etapas
+ * (Almeida et al.): cuando una se llena se agrega otra del doble de capacidad y la mitad de
+ * falsos positivos, así el total queda por debajo de {@code mutant.bloom.fpp} sin conocer de
+ * antemano la cantidad de registros. Los bits se marcan con operaciones atómicas y se leen
+ * sin locks.
+ * <p>
+ * Se llena al arrancar, antes de que el servidor reciba requests, leyendo solo la columna
+ * {@code dna_hash}. Cualquier otro camino que inserte registros tiene que llamar a
+ * {@link #put}; si no, el servicio analiza de nuevo ese ADN y el {@code MERGE} de
+ * {@code insertIfAbsent} devuelve el registro existente.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class DnaHashFilter implements InitializingBean {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final BloomFilterProperties properties;
+    private final JdbcTemplate jdbc;
+    private final LongAdder definiteMisses = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile Stage[] stages;
+
+    @Autowired
+    public DnaHashFilter(BloomFilterProperties properties, DataSource dataSource) {
+        this.properties = properties;
+        this.jdbc = dataSource == null ? null : new JdbcTemplate(dataSource);
+        if (jdbc != null) {
+            jdbc.setFetchSize(LOAD_FETCH_SIZE);
+        }
+        // Etapas con fpp p/2, p/4, ...: la suma no pasa de p
+        this.stages = properties.isEnabled()
+                ? new Stage[]{new Stage(properties.getExpectedInsertions(), properties.getFpp() / 2)}
+                : new Stage[0];
+    }
+
+    DnaHashFilter(BloomFilterProperties properties) {
+        this(properties, null);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.isEnabled() || jdbc == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        jdbc.query("SELECT dna_hash FROM dna_record WHERE dna_hash IS NOT NULL",
+                (RowCallbackHandler) rs -> put(rs.getBytes(1)));
+        log.info("Filtro de Bloom cargado con {} huellas en {} ms", size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return {@code false} si la huella seguro no está guardada; {@code true} si puede estar
+     * (o si el filtro está deshabilitado)
+     */
+    public boolean mightContain(byte[] dnaHash) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        long h1 = hash1(dnaHash);
+        long h2 = hash2(dnaHash);
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    /**
+     * Agrega una huella recién guardada.
+     */
+    public void put(byte[] dnaHash) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        if (last.isFull()) {
+            last = grow(current);
+        }
+        last.put(hash1(dnaHash), hash2(dnaHash));
+    }
+
+    /**
+     * Registra que el filtro dijo "puede estar" y la base no tenía la huella.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * @return Huellas agregadas (con repetidas)
+     */
+    public long size() {
+        long size = 0;
+        for (Stage stage : stages) {
+            size += stage.count.get();
+        }
+        return size;
+    }
+
+    public int stageCount() {
+        return stages.length;
+    }
+
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Stage stage : stages) {
+            bytes += (long) stage.words.length * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return Tasa de falsos positivos esperada según los bits marcados de cada etapa
+     */
+    public double expectedFpp() {
+        double allNegative = 1.0;
+        for (Stage stage : stages) {
+            allNegative *= 1.0 - stage.expectedFpp();
+        }
+        return 1.0 - allNegative;
+    }
+
+    /**
+     * @return Falsos positivos sobre todas las huellas que no estaban en la base (0 si todavía no hubo)
+     */
+    public double observedFpp() {
+        long positives = falsePositives.sum();
+        long total = positives + definiteMisses.sum();
+        return total == 0 ? 0.0 : (double) positives / total;
+    }
+
+    public long definiteMisses() {
+        return definiteMisses.sum();
+    }
+
+    public long falsePositives() {
+        return falsePositives.sum();
+    }
+
+    private synchronized Stage grow(Stage[] seen) {
+        Stage[] current = stages;
+        if (current == seen) {
+            Stage last = current[current.length - 1];
+            Stage next = new Stage(last.capacity * 2, last.fpp / 2);
+            Stage[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = next;
+            stages = grown;
+            return next;
+        }
+        return current[current.length - 1];
+    }
+
+    private static long hash1(byte[] hash) {
+        return fmix64(readLong(hash, 0));
+    }
+
+    private static long hash2(byte[] hash) {
+        return fmix64(readLong(hash, 8) ^ hash.length) | 1; // Impar: recorre todos los bits
+    }
+
+    /**
+     * Lee 8 bytes little-endian, con ceros si la huella es más corta (solo en datos de prueba).
+     */
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        int end = Math.min(bytes.length, offset + 8);
+        for (int i = end - 1; i >= offset; i--) {
+            value = (value << 8) | (bytes[i] & 0xffL);
+        }
+        return value;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static final class Stage {
+
+        private final long capacity;
+        private final double fpp;
+        private final long[] words;
+        private final long bits;
+        private final int hashes;
+        private final AtomicLong count = new AtomicLong();
+
+        Stage(long capacity, double fpp) {
+            this.capacity = Math.max(1, capacity);
+            this.fpp = fpp;
+            long optimalBits = (long) Math.ceil(-this.capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.words = new long[(int) Math.max(1, (optimalBits + 63) >>> 6)];
+            this.bits = (long) words.length << 6;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / this.capacity * Math.log(2)));
+        }
+
+        boolean isFull() {
+            return count.get() >= capacity;
+        }
+
+        void put(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++) {
+                long index = (combined & Long.MAX_VALUE) % bits;
+                WORDS.getAndBitwiseOr(words, (int) (index >>> 6), 1L << index);
+                combined += h2;
+            }
+            count.incrementAndGet();
+        }
+
+        boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++) {
+                long index = (combined & Long.MAX_VALUE) % bits;
+                long word = (long) WORDS.getVolatile(words, (int) (index >>> 6));
+                if ((word & (1L << index)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        double expectedFpp() {
+            long set = 0;
+            for (int i = 0; i < words.length; i++) {
+                set += Long.bitCount((long) WORDS.getVolatile(words, i));
+            }
+            return Math.pow((double) set / bits, hashes);
+        }
+    }
+}
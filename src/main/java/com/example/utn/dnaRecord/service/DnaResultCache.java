@@ -0,0 +1,90 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.ResultCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Caché en memoria de huella → resultado, delante de {@code DnaRecordRepository}.
+ * <p>
+ * Usa Caffeine, cuya política W-TinyLFU admite una huella nueva solo si es más frecuente que
+ * la que desalojaría: un ADN que se repite mucho no lo saca una ráfaga de ADN que llegan una
+ * sola vez. Un acierto se responde sin SQL ni sesión de Hibernate.
+ * <p>
+ * Solo se cargan resultados que ya están en la base, así que el caché nunca contradice a
+ * la base; si se borran registros a mano hay que llamar a {@link #invalidateAll()}.
+ */
+@Component
+public class DnaResultCache {
+
+    private static final Optional<Boolean> MUTANT = Optional.of(true);
+    private static final Optional<Boolean> HUMAN = Optional.of(false);
+
+    private final Cache<ByteBuffer, Boolean> cache;
+
+    @Autowired
+    public DnaResultCache(ResultCacheProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    DnaResultCache(ResultCacheProperties properties, Ticker ticker) {
+        this.cache = properties.isEnabled()
+                ? Caffeine.newBuilder()
+                        .maximumSize(properties.getMaximumSize())
+                        .expireAfterWrite(properties.getTtl())
+                        .ticker(ticker)
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    /**
+     * @return El resultado guardado, o vacío si la huella no está en memoria
+     */
+    public Optional<Boolean> find(byte[] dnaHash) {
+        Boolean isMutant = cache == null ? null : cache.getIfPresent(ByteBuffer.wrap(dnaHash));
+        if (isMutant == null) {
+            return Optional.empty();
+        }
+        return isMutant ? MUTANT : HUMAN;
+    }
+
+    public void put(byte[] dnaHash, boolean isMutant) {
+        if (cache != null) {
+            cache.put(ByteBuffer.wrap(dnaHash), isMutant);
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * @return Aciertos, fallos y desalojos desde el arranque (todo en cero si está deshabilitado)
+     */
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    /**
+     * Ejecuta el mantenimiento pendiente (desalojos y expiraciones) sin esperar al próximo acceso.
+     */
+    void cleanUp() {
+        if (cache != null) {
+            cache.cleanUp();
+        }
+    }
+}
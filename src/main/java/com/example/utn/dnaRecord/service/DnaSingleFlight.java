@@ -0,0 +1,73 @@
+package com.example.utn.dnaRecord.service;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Une los requests simultáneos por el mismo ADN en un solo análisis.
+ * <p>
+ * El primer hilo que llega con una huella registra un {@link CompletableFuture}, consulta la
+ * base, detecta y guarda; los que llegan con la misma huella mientras tanto esperan ese futuro
+ * y reciben su resultado (o su excepción). Al terminar se quita la entrada, así que no crece:
+ * solo guarda las huellas que se están analizando en ese momento. Quien llega después ya
+ * encuentra el resultado en el caché o en la base.
+ */
+final class DnaSingleFlight {
+
+    private final ConcurrentMap<ByteBuffer, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Ejecuta {@code analysis} una sola vez por huella entre los hilos que la piden a la vez.
+     */
+    boolean run(byte[] dnaHash, Supplier<Boolean> analysis) {
+        ByteBuffer key = ByteBuffer.wrap(dnaHash);
+        CompletableFuture<Boolean> flight = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        try {
+            boolean result = analysis.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * @return Requests que esperaron el análisis de otro en lugar de hacer el suyo
+     */
+    long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return Huellas que se están analizando ahora
+     */
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private static boolean await(CompletableFuture<Boolean> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            // Cada hilo ve la misma excepción que el que hizo el análisis, sin envolver
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
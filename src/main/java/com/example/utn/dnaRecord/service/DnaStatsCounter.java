@@ -0,0 +1,221 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Totales de ADN mutantes y humanos para {@code GET /stats}, sin consultar la base.
+ * <p>
+ * Se cargan al arrancar con un {@code COUNT} por resultado y después se actualizan con cada
+ * registro nuevo: {@link MutantService} suma el suyo solo si su {@code MERGE} insertó la fila
+ * (el que pierde una carrera con otra instancia no suma nada), y el guardado diferido lo suma
+ * como pendiente apenas lo acepta, así {@code /stats} no se atrasa hasta que se escribe el
+ * lote. Leerlos es sumar unos {@link LongAdder}, sin importar el tamaño de la tabla.
+ * <p>
+ * Cada {@code mutant.stats.reconcile-interval} se vuelven a contar en la base, para corregir lo
+ * que se insertó o borró por otro camino (otra instancia, la consola de H2). Los conteos solo
+ * valen si ninguna escritura estaba en curso ni empezó mientras se contaba; por eso toda
+ * escritura que sume un registro guardado pasa por {@link #write}. Si hubo alguna, se vuelve a
+ * intentar hasta {@value #RECONCILE_ATTEMPTS} veces con esperas cortas (con tráfico constante
+ * casi siempre hay una escritura en curso, pero entre dos suele haber un hueco); si ninguno
+ * sirve, la corrección queda para el próximo intervalo y se cuenta en
+ * {@link #skippedReconcileCount()}, que muestra {@code GET /stats/reconcile}.
+ * <p>
+ * Cada cambio de los totales incrementa una generación, que junto con el momento del arranque
+ * forma la {@link #version()} que {@code GET /stats} devuelve como {@code ETag}. La generación
+ * se incrementa después de sumar, así que una versión nunca acompaña totales más viejos que los
+ * que representa.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class DnaStatsCounter implements InitializingBean {
+
+    static final int RECONCILE_ATTEMPTS = 5;
+    private static final long RECONCILE_BACKOFF_MILLIS = 20;
+
+    private final DnaRecordRepository dnaRecordRepository;
+
+    // Guardados en la base
+    private final LongAdder mutants = new LongAdder();
+    private final LongAdder humans = new LongAdder();
+    // Aceptados por el guardado diferido y todavía sin confirmar
+    private final LongAdder pendingMutants = new LongAdder();
+    private final LongAdder pendingHumans = new LongAdder();
+    private final LongAdder writesStarted = new LongAdder();
+    private final LongAdder writesFinished = new LongAdder();
+    private final LongAdder generation = new LongAdder();
+    private final LongAdder reconciles = new LongAdder();
+    private final LongAdder skippedReconciles = new LongAdder();
+    private volatile Instant lastReconciledAt;
+    // Distingue las versiones de este arranque de las de uno anterior, que empezaba en la misma generación
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+
+    @Override
+    public void afterPropertiesSet() {
+        reconcile();
+    }
+
+    /**
+     * @return ADN mutantes guardados o pendientes de guardar
+     */
+    public long mutantCount() {
+        return mutants.sum() + pendingMutants.sum();
+    }
+
+    /**
+     * @return ADN humanos guardados o pendientes de guardar
+     */
+    public long humanCount() {
+        return humans.sum() + pendingHumans.sum();
+    }
+
+    /**
+     * @return Identificador de los totales actuales: cambia cada vez que cambian, y no se repite
+     * entre arranques
+     */
+    public String version() {
+        return instance + "-" + generation.sum();
+    }
+
+    /**
+     * Ejecuta una escritura en la base que registra lo que inserta con {@link #recordInserted},
+     * marcándola en curso para que {@link #reconcile} no cuente a la vez.
+     */
+    public <T> T write(Supplier<T> write) {
+        writesStarted.increment();
+        try {
+            return write.get();
+        } finally {
+            writesFinished.increment();
+        }
+    }
+
+    /**
+     * Igual que {@link #write(Supplier)}, sin resultado.
+     */
+    public void write(Runnable write) {
+        writesStarted.increment();
+        try {
+            write.run();
+        } finally {
+            writesFinished.increment();
+        }
+    }
+
+    /**
+     * Suma un registro que se acaba de insertar en la base. Se llama dentro de {@link #write}.
+     */
+    public void recordInserted(boolean isMutant) {
+        (isMutant ? mutants : humans).increment();
+        generation.increment();
+    }
+
+    /**
+     * Suma un resultado aceptado por el guardado diferido.
+     */
+    public void recordPending(boolean isMutant) {
+        (isMutant ? pendingMutants : pendingHumans).increment();
+        generation.increment();
+    }
+
+    /**
+     * Quita un resultado pendiente, porque ya se guardó (y se registró con
+     * {@link #recordInserted}), porque ya estaba guardado o porque se descartó.
+     */
+    public void removePending(boolean isMutant) {
+        (isMutant ? pendingMutants : pendingHumans).decrement();
+        generation.increment();
+    }
+
+    /**
+     * @return Reconciliaciones que ajustaron los totales (aunque no hubiera diferencias)
+     */
+    public long reconcileCount() {
+        return reconciles.sum();
+    }
+
+    /**
+     * @return Reconciliaciones que no se pudieron hacer porque hubo escrituras en todos los intentos
+     */
+    public long skippedReconcileCount() {
+        return skippedReconciles.sum();
+    }
+
+    /**
+     * @return Momento de la última reconciliación que ajustó los totales
+     */
+    public Instant lastReconciledAt() {
+        return lastReconciledAt;
+    }
+
+    /**
+     * Ajusta los totales guardados a los de la base, reintentando si hay escrituras en curso.
+     *
+     * @return {@code false} si hubo escrituras en todos los intentos y no se ajustó nada
+     */
+    @Scheduled(fixedDelayString = "${mutant.stats.reconcile-interval:5m}",
+            initialDelayString = "${mutant.stats.reconcile-interval:5m}")
+    public synchronized boolean reconcile() {
+        long backoff = RECONCILE_BACKOFF_MILLIS;
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            if (tryReconcile()) {
+                reconciles.increment();
+                lastReconciledAt = Instant.now();
+                return true;
+            }
+            if (attempt < RECONCILE_ATTEMPTS) {
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff *= 2;
+            }
+        }
+        skippedReconciles.increment();
+        log.warn("Hubo escrituras en los {} intentos, los contadores de /stats se ajustan en el próximo intervalo",
+                RECONCILE_ATTEMPTS);
+        return false;
+    }
+
+    private boolean tryReconcile() {
+        // Terminadas antes que empezadas: si coinciden, no había ninguna en curso y los
+        // totales leídos entre las dos lecturas no cambian
+        long finished = writesFinished.sum();
+        long mutantsBefore = mutants.sum();
+        long humansBefore = humans.sum();
+        long started = writesStarted.sum();
+        if (finished != started) {
+            return false;
+        }
+
+        long countMutant = dnaRecordRepository.countByIsMutant(true);
+        long countHuman = dnaRecordRepository.countByIsMutant(false);
+        if (writesStarted.sum() != started) {
+            return false;
+        }
+
+        long mutantDrift = countMutant - mutantsBefore;
+        long humanDrift = countHuman - humansBefore;
+        mutants.add(mutantDrift);
+        humans.add(humanDrift);
+        if (mutantDrift != 0 || humanDrift != 0) {
+            generation.increment();
+            log.info("Contadores de /stats ajustados a la base: {} mutantes ({}), {} humanos ({})",
+                    countMutant, mutantDrift, countHuman, humanDrift);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.utn.dnaRecord.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Actividad reciente para {@code GET /stats?window=...} y {@code GET /stats/breakdown}, en
+ * memoria y sin consultar la base.
+ * <p>
+ * Hay dos buffers circulares: uno de 300 intervalos de un segundo (ventanas de 1 y 5 minutos)
+ * y otro de 1440 intervalos de un minuto (1 y 24 horas). Cada evento se suma en el intervalo
+ * actual de los dos. Un intervalo guarda requests por resultado, ADN nuevos por resultado,
+ * aciertos del caché en memoria y un histograma del tiempo de detección en potencias de 2 de
+ * nanosegundos.
+ * <p>
+ * Todo es sin locks: los contadores de un intervalo son un {@link AtomicLongArray}, y al pasar a
+ * un intervalo nuevo su posición del buffer se reemplaza con un {@code compareAndSet} por uno
+ * vacío, en lugar de ponerla en cero. Leer una ventana es copiar los intervalos que le
+ * corresponden; los que no tienen el intervalo esperado (nadie escribió desde que pasó) valen
+ * cero. Un evento solo se pierde si el hilo que lo suma se demora una vuelta entera del buffer
+ * entre tomar el intervalo y sumar.
+ */
+@Component
+public class DnaStatsTimeline {
+
+    /**
+     * Posiciones del histograma: la {@code k} cuenta detecciones de menos de 2^k ns (desde
+     * 2^(k-1)); la última, todas las más largas.
+     */
+    public static final int LATENCY_BUCKETS = 34;
+
+    private static final int MUTANT_REQUESTS = 0;
+    private static final int HUMAN_REQUESTS = 1;
+    private static final int NEW_MUTANTS = 2;
+    private static final int NEW_HUMANS = 3;
+    private static final int CACHE_HITS = 4;
+    private static final int DETECTIONS = 5;
+    private static final int DETECTION_NANOS = 6;
+    private static final int LATENCY = 7;
+    private static final int SLOTS = LATENCY + LATENCY_BUCKETS;
+
+    private final LongSupplier currentMillis;
+    private final Ring seconds = new Ring(1000, StatsWindow.FIVE_MINUTES.buckets());
+    private final Ring minutes = new Ring(60_000, StatsWindow.ONE_DAY.buckets());
+
+    public DnaStatsTimeline() {
+        this(System::currentTimeMillis);
+    }
+
+    DnaStatsTimeline(LongSupplier currentMillis) {
+        this.currentMillis = currentMillis;
+    }
+
+    /**
+     * Registra un request de {@code POST /mutant} respondido.
+     *
+     * @param fromCache si se respondió desde el caché en memoria
+     */
+    public void recordRequest(boolean isMutant, boolean fromCache) {
+        long now = currentMillis.getAsLong();
+        add(now, isMutant ? MUTANT_REQUESTS : HUMAN_REQUESTS, 1);
+        if (fromCache) {
+            add(now, CACHE_HITS, 1);
+        }
+    }
+
+    /**
+     * Registra un ADN que no estaba guardado.
+     */
+    public void recordNew(boolean isMutant) {
+        add(currentMillis.getAsLong(), isMutant ? NEW_MUTANTS : NEW_HUMANS, 1);
+    }
+
+    /**
+     * Registra una ejecución del detector.
+     */
+    public void recordDetection(long nanos) {
+        long now = currentMillis.getAsLong();
+        add(now, DETECTIONS, 1);
+        add(now, DETECTION_NANOS, nanos);
+        add(now, LATENCY + latencyBucket(nanos), 1);
+    }
+
+    /**
+     * @return Un intervalo por cada {@code window.bucketSeconds()} de la ventana, del más viejo
+     * al actual (que todavía está en curso)
+     */
+    public List<Slice> series(StatsWindow window) {
+        Ring ring = window.bucketSeconds() == 1 ? seconds : minutes;
+        long current = currentMillis.getAsLong() / ring.bucketMillis;
+        List<Slice> series = new ArrayList<>(window.buckets());
+        for (long epoch = current - window.buckets() + 1; epoch <= current; epoch++) {
+            series.add(new Slice(epoch * ring.bucketMillis, ring.read(epoch)));
+        }
+        return series;
+    }
+
+    /**
+     * @return Suma de los intervalos de la ventana
+     */
+    public Slice total(StatsWindow window) {
+        List<Slice> series = series(window);
+        long[] total = new long[SLOTS];
+        for (Slice slice : series) {
+            for (int i = 0; i < SLOTS; i++) {
+                total[i] += slice.values[i];
+            }
+        }
+        return new Slice(series.get(0).startMillis(), total);
+    }
+
+    private void add(long now, int slot, long delta) {
+        seconds.current(now).values.addAndGet(slot, delta);
+        minutes.current(now).values.addAndGet(slot, delta);
+    }
+
+    static int latencyBucket(long nanos) {
+        return Math.min(64 - Long.numberOfLeadingZeros(Math.max(nanos, 0)), LATENCY_BUCKETS - 1);
+    }
+
+    /**
+     * Contadores de un intervalo (o de la suma de varios).
+     *
+     * @param startMillis Comienzo del intervalo (epoch ms)
+     */
+    public record Slice(long startMillis, long[] values) {
+
+        public long mutantRequests() {
+            return values[MUTANT_REQUESTS];
+        }
+
+        public long humanRequests() {
+            return values[HUMAN_REQUESTS];
+        }
+
+        public long newMutants() {
+            return values[NEW_MUTANTS];
+        }
+
+        public long newHumans() {
+            return values[NEW_HUMANS];
+        }
+
+        public long cacheHits() {
+            return values[CACHE_HITS];
+        }
+
+        public long detections() {
+            return values[DETECTIONS];
+        }
+
+        public long detectionNanos() {
+            return values[DETECTION_NANOS];
+        }
+
+        /**
+         * @return Detecciones en la posición {@code bucket} del histograma (ver {@link #LATENCY_BUCKETS})
+         */
+        public long latencyCount(int bucket) {
+            return values[LATENCY + bucket];
+        }
+
+        /**
+         * @return Cota superior en ns del percentil {@code quantile} (entre 0 y 1) del tiempo de
+         * detección, según el histograma; 0 si no hubo detecciones
+         */
+        public long detectionPercentileNanos(double quantile) {
+            long detections = detections();
+            if (detections == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * detections));
+            long seen = 0;
+            for (int bucket = 0; bucket < LATENCY_BUCKETS; bucket++) {
+                seen += latencyCount(bucket);
+                if (seen >= rank) {
+                    return 1L << bucket;
+                }
+            }
+            return 1L << (LATENCY_BUCKETS - 1);
+        }
+    }
+
+    private static final class Ring {
+
+        private final long bucketMillis;
+        private final AtomicReferenceArray<Bucket> buckets;
+
+        private Ring(long bucketMillis, int length) {
+            this.bucketMillis = bucketMillis;
+            this.buckets = new AtomicReferenceArray<>(length);
+        }
+
+        private Bucket current(long now) {
+            long epoch = now / bucketMillis;
+            int index = Math.floorMod(epoch, buckets.length());
+            Bucket bucket = buckets.get(index);
+            while (bucket == null || bucket.epoch < epoch) {
+                Bucket fresh = new Bucket(epoch);
+                if (buckets.compareAndSet(index, bucket, fresh)) {
+                    return fresh;
+                }
+                bucket = buckets.get(index);
+            }
+            // El actual; o, si este hilo se atrasó una vuelta entera, el que lo reemplazó
+            return bucket;
+        }
+
+        private long[] read(long epoch) {
+            long[] values = new long[SLOTS];
+            Bucket bucket = buckets.get(Math.floorMod(epoch, buckets.length()));
+            if (bucket != null && bucket.epoch == epoch) {
+                for (int i = 0; i < SLOTS; i++) {
+                    values[i] = bucket.values.get(i);
+                }
+            }
+            return values;
+        }
+    }
+
+    private record Bucket(long epoch, AtomicLongArray values) {
+
+        private Bucket(long epoch) {
+            this(epoch, new AtomicLongArray(SLOTS));
+        }
+    }
+}
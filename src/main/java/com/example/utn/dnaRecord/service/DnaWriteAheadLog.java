@@ -0,0 +1,456 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.WriteBehindProperties;
+import com.example.utn.dnaRecord.entity.DnaRecord;
+import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Log de escritura anticipada del guardado diferido: un resultado que se respondió antes de
+ * llegar a la base no se pierde si la aplicación se cae.
+ * <p>
+ * {@link DnaWriteBehindQueue} agrega cada resultado al log y espera a que esté en disco antes
+ * de responder. El log son dos archivos mapeados en memoria ({@code dna-0.wal} y
+ * {@code dna-1.wal}) con registros binarios de {@value #RECORD_SIZE} bytes:
+ * <pre>
+ *   0  CRC32C de los bytes 4-63      16  largo de la huella (1-32)
+ *   4  generación del segmento        17  1 si es mutante, 0 si no
+ *   8  fecha del análisis (epoch ms)  32  huella, completada con ceros
+ * </pre>
+ * El primer bloque de cada archivo es un encabezado con la generación vigente; un registro
+ * vale si su CRC es correcto y tiene esa generación, y la lectura termina en el primero que no.
+ * Vaciar un segmento es solo incrementar su generación.
+ * <p>
+ * Sincronización agrupada: agregar un registro es copiar 64 bytes bajo un lock. El primer
+ * hilo que necesita el disco hace el {@code force()} de todo lo agregado hasta ese momento,
+ * y los que agregan mientras tanto esperan al siguiente, que incluye los de todos ellos.
+ * Con muchos requests a la vez, una sola sincronización cubre a varios. Si el {@code force()}
+ * falla, lo agregado hasta ese momento sigue pendiente de sincronizar y todos los que lo
+ * esperaban reciben la excepción: el request guarda su resultado antes de responder.
+ * <p>
+ * Se escribe en un segmento por vez. Cada segmento cuenta sus resultados que todavía no se
+ * confirmaron en la base (ver {@link #release}). Cuando el activo se llena, se pasa al otro
+ * si ya no tiene ninguno pendiente; si no, {@link #append} devuelve {@link #FULL} y el
+ * request guarda el suyo antes de responder.
+ * <p>
+ * Al arrancar (antes que el servidor web), lo que haya en los dos segmentos se guarda en la
+ * base con {@code insertAllIfAbsent}, se agrega al filtro de Bloom y a los contadores de
+ * {@code /stats} y se vacían. Como el
+ * {@code MERGE} ignora las huellas existentes, volver a aplicar resultados ya guardados no
+ * cambia nada. Con la base en memoria (la configuración por defecto) los resultados
+ * recuperados son los únicos que sobreviven al reinicio.
+ */
+@Slf4j
+@Component
+public class DnaWriteAheadLog implements InitializingBean, DisposableBean {
+
+    /**
+     * {@link #append} con el log deshabilitado: el resultado no se registró, pero se puede diferir.
+     */
+    public static final int DISABLED = -1;
+
+    /**
+     * {@link #append} con los dos segmentos llenos: hay que guardar el resultado antes de responder.
+     */
+    public static final int FULL = -2;
+
+    static final int RECORD_SIZE = 64;
+
+    private static final int SEGMENTS = 2;
+    private static final int HEADER_SIZE = RECORD_SIZE;
+    private static final int MAGIC = 0x444E4157; // "DNAW"
+    private static final int HASH_OFFSET = 32;
+
+    private final WriteBehindProperties.Wal properties;
+    private final boolean enabled;
+    private final int replayBatchSize;
+    private final DnaRecordRepository dnaRecordRepository;
+    private final TransactionOperations transactions;
+    private final DnaHashFilter hashFilter;
+    private final DnaStatsCounter statsCounter;
+    private final RangeSync rangeSync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition synced = lock.newCondition();
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private int active;
+    private long appended;
+    private long durable;
+    private boolean syncing;
+    private long syncs;
+    private long failedThrough;
+    private RuntimeException syncFailure;
+
+    @Autowired
+    public DnaWriteAheadLog(WriteBehindProperties properties, DnaRecordRepository dnaRecordRepository,
+                            PlatformTransactionManager transactionManager, DnaHashFilter hashFilter,
+                            DnaStatsCounter statsCounter) {
+        this(properties, dnaRecordRepository, new TransactionTemplate(transactionManager), hashFilter, statsCounter);
+    }
+
+    DnaWriteAheadLog(WriteBehindProperties properties, DnaRecordRepository dnaRecordRepository,
+                     TransactionOperations transactions, DnaHashFilter hashFilter, DnaStatsCounter statsCounter) {
+        this(properties, dnaRecordRepository, transactions, hashFilter, statsCounter, MappedByteBuffer::force);
+    }
+
+    DnaWriteAheadLog(WriteBehindProperties properties, DnaRecordRepository dnaRecordRepository,
+                     TransactionOperations transactions, DnaHashFilter hashFilter, DnaStatsCounter statsCounter,
+                     RangeSync rangeSync) {
+        this.properties = properties.getWal();
+        this.enabled = properties.isEnabled() && properties.getWal().isEnabled();
+        this.replayBatchSize = properties.getBatchSize();
+        this.dnaRecordRepository = dnaRecordRepository;
+        this.transactions = transactions;
+        this.hashFilter = hashFilter;
+        this.statsCounter = statsCounter;
+        this.rangeSync = rangeSync;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(properties.getDirectory());
+        long capacity = properties.getSegmentSize().toBytes() / RECORD_SIZE * RECORD_SIZE;
+        if (capacity < HEADER_SIZE + RECORD_SIZE || capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("mutant.write-behind.wal.segment-size fuera de rango: "
+                    + properties.getSegmentSize());
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = Segment.open(properties.getDirectory().resolve("dna-" + i + ".wal"), (int) capacity);
+        }
+
+        int recovered = replay();
+        for (Segment segment : segments) {
+            segment.truncate();
+        }
+        if (recovered > 0) {
+            log.info("Se recuperaron {} resultados del log de escritura anticipada", recovered);
+        }
+    }
+
+    /**
+     * Agrega el resultado al log y espera a que esté en disco.
+     *
+     * @return Segmento donde quedó, para {@link #release}; {@link #DISABLED} o {@link #FULL}
+     */
+    public int append(DnaRecord record) {
+        if (!enabled) {
+            return DISABLED;
+        }
+        lock.lock();
+        try {
+            int segment = reserve();
+            if (segment == FULL) {
+                return FULL;
+            }
+            segments[segment].write(record);
+            try {
+                awaitDurable(++appended);
+            } catch (RuntimeException e) {
+                release(segment); // El request lo guarda sin diferir
+                throw e;
+            }
+            return segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Indica que un resultado del segmento ya se confirmó en la base (o se descartó).
+     */
+    public void release(int segment) {
+        if (segment >= 0) {
+            segments[segment].outstanding.decrementAndGet();
+        }
+    }
+
+    /**
+     * Vacía los segmentos cuyos resultados ya están todos en la base. Se llama al apagar,
+     * después de escribir la cola, para que el próximo arranque no tenga nada que recuperar.
+     */
+    public void checkpoint() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (Segment segment : segments) {
+                if (segment.outstanding.get() == 0) {
+                    segment.truncate();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Cantidad de {@code force()} desde el arranque; menor que la de resultados cuando
+     * la sincronización agrupada junta varios
+     */
+    public long syncCount() {
+        lock.lock();
+        try {
+            return syncs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (Segment segment : segments) {
+            if (segment != null) {
+                segment.channel.close();
+            }
+        }
+    }
+
+    /**
+     * @return Segmento con lugar para un registro más, o {@link #FULL}
+     */
+    private int reserve() {
+        if (segments[active].hasRoom()) {
+            return active;
+        }
+        int other = (active + 1) % SEGMENTS;
+        if (segments[other].outstanding.get() > 0) {
+            return FULL;
+        }
+        // Todo lo del otro segmento ya está en la base: se vacía y se sigue ahí
+        segments[other].truncate();
+        active = other;
+        return active;
+    }
+
+    /**
+     * Espera a que los registros hasta {@code sequence} estén en disco; si nadie está
+     * sincronizando, sincroniza todo lo agregado hasta ahora. Se llama con el lock tomado.
+     *
+     * @throws RuntimeException si falló la sincronización que incluía a {@code sequence}
+     */
+    private void awaitDurable(long sequence) {
+        while (durable < sequence) {
+            if (sequence <= failedThrough) {
+                throw new IllegalStateException("No se pudo pasar el log a disco", syncFailure);
+            }
+            if (syncing) {
+                synced.awaitUninterruptibly();
+                continue;
+            }
+            syncing = true;
+            long target = appended;
+            DirtyRange[] ranges = new DirtyRange[SEGMENTS];
+            for (int i = 0; i < SEGMENTS; i++) {
+                ranges[i] = segments[i].dirtyRange();
+            }
+            RuntimeException failure = null;
+            lock.unlock();
+            try {
+                for (DirtyRange range : ranges) {
+                    range.force(rangeSync);
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                lock.lock();
+                syncing = false;
+                if (failure != null) {
+                    // Los rangos siguen sucios: la próxima sincronización los vuelve a incluir
+                    failedThrough = Math.max(failedThrough, target);
+                    syncFailure = failure;
+                }
+                synced.signalAll();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            for (DirtyRange range : ranges) {
+                range.segment().synced(range);
+            }
+            durable = Math.max(durable, target);
+            syncs++;
+        }
+    }
+
+    private int replay() {
+        int recovered = 0;
+        List<DnaRecord> batch = new ArrayList<>(replayBatchSize);
+        for (Segment segment : segments) {
+            for (DnaRecord record : segment.read()) {
+                batch.add(record);
+                if (batch.size() == replayBatchSize) {
+                    recovered += store(batch);
+                }
+            }
+        }
+        return recovered + store(batch);
+    }
+
+    private int store(List<DnaRecord> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        statsCounter.write(() -> {
+            int[] inserted = transactions.execute(status -> dnaRecordRepository.insertAllIfAbsent(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                if (inserted != null && inserted[i] > 0) {
+                    statsCounter.recordInserted(batch.get(i).getIsMutant());
+                }
+            }
+        });
+        batch.forEach(record -> hashFilter.put(record.getDnaHash()));
+        int stored = batch.size();
+        batch.clear();
+        return stored;
+    }
+
+    /**
+     * Pasa a disco un rango de un segmento. Los tests lo reemplazan para simular fallas.
+     */
+    @FunctionalInterface
+    interface RangeSync {
+
+        void force(MappedByteBuffer buffer, int from, int length);
+    }
+
+    /**
+     * Lo escrito en un segmento desde la última sincronización que terminó bien.
+     */
+    private record DirtyRange(Segment segment, int generation, int from, int to) {
+
+        void force(RangeSync rangeSync) {
+            if (to > from) {
+                rangeSync.force(segment.buffer, from, to - from);
+            }
+        }
+    }
+
+    /**
+     * Un archivo del log. Los campos mutables se usan con el lock del log tomado, salvo
+     * {@code outstanding}, que decrementa el hilo de escritura de la cola.
+     */
+    private static final class Segment {
+
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        private int generation;
+        private int position;
+        private int dirtyFrom;
+
+        private Segment(FileChannel channel, MappedByteBuffer buffer, int capacity) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        static Segment open(Path path, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), capacity);
+            segment.generation = segment.buffer.getInt(0) == MAGIC ? segment.buffer.getInt(4) : 0;
+            return segment;
+        }
+
+        boolean hasRoom() {
+            return position + RECORD_SIZE <= capacity;
+        }
+
+        void write(DnaRecord dnaRecord) {
+            byte[] hash = dnaRecord.getDnaHash();
+            long analyzedAt = dnaRecord.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            Arrays.fill(record.array(), (byte) 0);
+            record.putInt(4, generation)
+                    .putLong(8, analyzedAt)
+                    .put(16, (byte) hash.length)
+                    .put(17, (byte) (dnaRecord.getIsMutant() ? 1 : 0))
+                    .put(HASH_OFFSET, hash);
+            record.putInt(0, crc(record));
+            buffer.put(position, record, 0, RECORD_SIZE);
+            position += RECORD_SIZE;
+            outstanding.incrementAndGet();
+        }
+
+        DirtyRange dirtyRange() {
+            return new DirtyRange(this, generation, dirtyFrom, position);
+        }
+
+        /**
+         * Marca el rango como sincronizado, salvo que el segmento se haya vaciado mientras tanto.
+         */
+        void synced(DirtyRange range) {
+            if (range.generation() == generation) {
+                dirtyFrom = Math.max(dirtyFrom, range.to());
+            }
+        }
+
+        List<DnaRecord> read() {
+            List<DnaRecord> records = new ArrayList<>();
+            if (generation == 0) {
+                return records; // Archivo nuevo
+            }
+            for (int offset = HEADER_SIZE; offset + RECORD_SIZE <= capacity; offset += RECORD_SIZE) {
+                buffer.get(offset, record.array(), 0, RECORD_SIZE);
+                int length = record.get(16);
+                if (record.getInt(4) != generation || record.getInt(0) != crc(record)
+                        || length < 1 || length > DnaRecord.MAX_HASH_LENGTH) {
+                    break; // Fin del segmento o registro a medio escribir
+                }
+                byte[] hash = new byte[length];
+                record.get(HASH_OFFSET, hash);
+                LocalDateTime analyzedAt = LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(record.getLong(8)), ZoneId.systemDefault());
+                records.add(new DnaRecord(null, hash, record.get(17) == 1, analyzedAt));
+            }
+            return records;
+        }
+
+        /**
+         * Descarta los registros pasando a la generación siguiente.
+         */
+        void truncate() {
+            generation++;
+            buffer.putInt(0, MAGIC).putInt(4, generation);
+            buffer.force(0, HEADER_SIZE);
+            position = HEADER_SIZE;
+            dirtyFrom = HEADER_SIZE;
+        }
+
+        private static int crc(ByteBuffer record) {
+            CRC32C crc = new CRC32C();
+            crc.update(record.array(), 4, RECORD_SIZE - 4);
+            return (int) crc.getValue();
+        }
+    }
+}
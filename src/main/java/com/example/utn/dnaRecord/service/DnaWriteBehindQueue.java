@@ -0,0 +1,324 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.WriteBehindProperties;
+import com.example.utn.dnaRecord.entity.DnaRecord;
+import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Guardado diferido de resultados ({@code mutant.write-behind.enabled=true}).
+ * <p>
+ * {@link MutantService} deja cada resultado nuevo en una cola acotada y responde sin esperar
+ * el {@code INSERT}. Un hilo escribe la cola en lotes de hasta {@code batch-size} resultados,
+ * con un batch JDBC y un commit por lote; un lote sale cuando se llena o cuando su primer
+ * resultado lleva {@code max-delay} esperando.
+ * <p>
+ * Hasta que su lote se confirma, cada resultado también está en un mapa por huella que
+ * {@link #find} consulta antes que la base, así que un ADN en espera nunca se vuelve a
+ * analizar. Se quita del mapa recién después del commit. Si la cola está llena,
+ * {@link #offer} devuelve {@code false} y el request guarda el suyo como sin guardado
+ * diferido. Si un lote falla se reintenta de a un resultado; lo que sigue fallando no se
+ * libera del {@link DnaWriteAheadLog} ni se quita del mapa: el hilo lo vuelve a intentar cada
+ * {@value #RETRY_DELAY_MILLIS} ms y, si la aplicación se detiene antes, queda en el log y se
+ * guarda al arrancar. Un resultado ya respondido nunca se pierde por una falla de la base.
+ * <p>
+ * Antes de responder, cada resultado se agrega al {@link DnaWriteAheadLog} y se espera a que
+ * esté en disco; así una caída no pierde los resultados en espera, que se recuperan al
+ * arrancar. Después de confirmar un lote se liberan del log los registros que se guardaron.
+ * <p>
+ * Los resultados aceptados se suman enseguida en {@link DnaStatsCounter} como pendientes, y
+ * pasan a guardados cuando se confirma su lote; así {@code /stats} no se atrasa.
+ * <p>
+ * Se detiene después del servidor web (ver {@link #getPhase()}): cuando ya no quedan
+ * requests en curso, escribe todo lo pendiente antes de que se cierre la base y vacía el log.
+ */
+@Slf4j
+@Component
+public class DnaWriteBehindQueue implements SmartLifecycle {
+
+    private static final long POLL_MILLIS = 100;
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+    private static final long RETRY_DELAY_MILLIS = 1_000;
+
+    private final WriteBehindProperties properties;
+    private final DnaRecordRepository dnaRecordRepository;
+    private final TransactionOperations transactions;
+    private final DnaWriteAheadLog writeAheadLog;
+    private final DnaStatsCounter statsCounter;
+    private final BlockingQueue<Pending> queue;
+    private final ConcurrentMap<ByteBuffer, Boolean> pending = new ConcurrentHashMap<>();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public DnaWriteBehindQueue(WriteBehindProperties properties, DnaRecordRepository dnaRecordRepository,
+                               PlatformTransactionManager transactionManager, DnaWriteAheadLog writeAheadLog,
+                               DnaStatsCounter statsCounter) {
+        this(properties, dnaRecordRepository, new TransactionTemplate(transactionManager), writeAheadLog,
+                statsCounter);
+    }
+
+    DnaWriteBehindQueue(WriteBehindProperties properties, DnaRecordRepository dnaRecordRepository,
+                        TransactionOperations transactions, DnaWriteAheadLog writeAheadLog,
+                        DnaStatsCounter statsCounter) {
+        this.properties = properties;
+        this.dnaRecordRepository = dnaRecordRepository;
+        this.transactions = transactions;
+        this.writeAheadLog = writeAheadLog;
+        this.statsCounter = statsCounter;
+        this.queue = properties.isEnabled() ? new ArrayBlockingQueue<>(properties.getQueueCapacity()) : null;
+    }
+
+    /**
+     * Deja el resultado para guardarlo después.
+     *
+     * @return {@code false} si está deshabilitado, detenido o con la cola o el log llenos: hay
+     * que guardarlo ya
+     */
+    public boolean offer(byte[] dnaHash, boolean isMutant) {
+        if (!running) {
+            return false;
+        }
+        ByteBuffer key = ByteBuffer.wrap(dnaHash);
+        pending.put(key, isMutant);
+        statsCounter.recordPending(isMutant);
+        DnaRecord record = new DnaRecord(null, dnaHash, isMutant, LocalDateTime.now());
+        int segment;
+        try {
+            segment = writeAheadLog.append(record);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo escribir el log de escritura anticipada; se guarda antes de responder", e);
+            segment = DnaWriteAheadLog.FULL;
+        }
+        if (segment == DnaWriteAheadLog.FULL || !queue.offer(new Pending(record, segment))) {
+            writeAheadLog.release(segment); // Lo guarda el request
+            statsCounter.removePending(isMutant);
+            pending.remove(key, isMutant);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return El resultado si todavía espera ser guardado, o vacío
+     */
+    public Optional<Boolean> find(byte[] dnaHash) {
+        return Optional.ofNullable(pending.get(ByteBuffer.wrap(dnaHash)));
+    }
+
+    /**
+     * @return Resultados que todavía no se confirmaron en la base
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @return Lotes escritos desde el arranque
+     */
+    public long batchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * @return Intentos de guardar un resultado que fallaron (el resultado sigue en el log y se reintenta)
+     */
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    @Override
+    public void start() {
+        if (queue == null || running) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("dna-write-behind").daemon().start(this::writeLoop);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(STOP_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Lo que entró mientras el hilo terminaba
+        drainRemaining();
+        writeAheadLog.checkpoint();
+        log.info("Guardado diferido detenido: {} lotes escritos, {} intentos fallidos", batchCount(), failedCount());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Fase menor que la del servidor web (la de Spring Boot es {@code DEFAULT_PHASE - 2048}):
+     * arranca antes de aceptar requests y se detiene después de terminar los que estaban en curso.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(properties.getBatchSize());
+        List<Pending> retry = new ArrayList<>();
+        while (running) {
+            try {
+                if (!retry.isEmpty()) {
+                    // La base falló: se espera antes de volver a intentar los mismos
+                    awaitRetry();
+                    batch.addAll(retry);
+                    retry.clear();
+                } else if (!nextBatch(batch)) {
+                    continue;
+                }
+                retry.addAll(write(batch));
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (!retry.isEmpty()) {
+            write(retry);
+        }
+        drainRemaining();
+    }
+
+    /**
+     * Espera {@value #RETRY_DELAY_MILLIS} ms, de a {@value #POLL_MILLIS} para notar enseguida que
+     * se está deteniendo.
+     */
+    private void awaitRetry() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RETRY_DELAY_MILLIS);
+        while (running && System.nanoTime() < deadline) {
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+
+    /**
+     * Espera el primer resultado y junta más hasta llenar el lote o cumplir {@code max-delay}.
+     *
+     * @return {@code false} si no llegó nada en {@value #POLL_MILLIS} ms
+     */
+    private boolean nextBatch(List<Pending> batch) throws InterruptedException {
+        Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + properties.getMaxDelay().toNanos();
+        while (batch.size() < properties.getBatchSize()) {
+            queue.drainTo(batch, properties.getBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getBatchSize() || remaining <= 0 || !running) {
+                break;
+            }
+            // De a POLL_MILLIS como máximo, para notar enseguida que se está deteniendo
+            Pending next = queue.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS)),
+                    TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+        return true;
+    }
+
+    private synchronized void drainRemaining() {
+        List<Pending> batch = new ArrayList<>(properties.getBatchSize());
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Guarda el lote y libera del log y del mapa los que quedaron en la base.
+     *
+     * @return Los que no se pudieron guardar, que siguen en espera y en el log
+     */
+    private List<Pending> write(List<Pending> batch) {
+        List<Pending> unsaved = new ArrayList<>();
+        statsCounter.write(() -> {
+            boolean[] saved = insert(batch.stream().map(Pending::record).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                Pending entry = batch.get(i);
+                if (!saved[i]) {
+                    unsaved.add(entry);
+                    continue;
+                }
+                writeAheadLog.release(entry.walSegment());
+                statsCounter.removePending(entry.record().getIsMutant());
+                pending.remove(ByteBuffer.wrap(entry.record().getDnaHash()), entry.record().getIsMutant());
+            }
+        });
+        return unsaved;
+    }
+
+    /**
+     * @return Para cada resultado, si quedó en la base (insertado ahora o ya guardado)
+     */
+    private boolean[] insert(List<DnaRecord> records) {
+        boolean[] saved = new boolean[records.size()];
+        try {
+            int[] inserted = transactions.execute(status -> dnaRecordRepository.insertAllIfAbsent(records));
+            batches.increment();
+            for (int i = 0; i < records.size(); i++) {
+                saved[i] = true;
+                if (inserted != null && inserted[i] > 0) {
+                    statsCounter.recordInserted(records.get(i).getIsMutant());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falló el lote de {} resultados, se reintenta de a uno", records.size(), e);
+            for (int i = 0; i < records.size(); i++) {
+                DnaRecord record = records.get(i);
+                try {
+                    if (dnaRecordRepository.insertIfAbsent(record.getDnaHash(), record.getIsMutant()).inserted()) {
+                        statsCounter.recordInserted(record.getIsMutant());
+                    }
+                    saved[i] = true;
+                } catch (RuntimeException retryFailure) {
+                    failed.increment();
+                    log.error("No se pudo guardar el resultado de un ADN; queda en el log para reintentarlo",
+                            retryFailure);
+                }
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Resultado en la cola y segmento del log donde quedó registrado.
+     */
+    private record Pending(DnaRecord record, int walSegment) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.utn.dnaRecord.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Algoritmos de huella disponibles ({@code mutant.detector.fingerprint}).
+ */
+public enum FingerprintAlgorithm {
+
+    /**
+     * SHA-256 (64 caracteres hex). Criptográfico; es el hash que se usaba originalmente.
+     */
+    SHA256(Sha256Fingerprinter::new),
+
+    /**
+     * MurmurHash3 x64 de 128 bits (32 caracteres hex). No criptográfico y varias veces más
+     * rápido; alcanza para una clave de deduplicación.
+     */
+    MURMUR3(Murmur3Fingerprinter::new);
+
+    private final ThreadLocal<DnaFingerprinter> perThread;
+
+    FingerprintAlgorithm(Supplier<DnaFingerprinter> factory) {
+        this.perThread = ThreadLocal.withInitial(factory);
+    }
+
+    /**
+     * @return La instancia del hilo actual, reiniciada
+     */
+    public DnaFingerprinter fingerprinter() {
+        DnaFingerprinter fingerprinter = perThread.get();
+        fingerprinter.reset();
+        return fingerprinter;
+    }
+}
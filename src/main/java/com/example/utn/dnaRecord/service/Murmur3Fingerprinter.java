@@ -0,0 +1,128 @@
+package com.example.utn.dnaRecord.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Huella MurmurHash3 x64 de 128 bits (semilla 0), en versión incremental.
+ * <p>
+ * Procesa bloques de 16 bytes leyendo dos longs little-endian directo del arreglo; los bytes
+ * que no completan un bloque quedan en {@code tail} hasta la próxima fila. El resultado es el
+ * mismo que el de la implementación de referencia sobre las filas concatenadas, en el orden
+ * de bytes de Guava ({@code h1} y {@code h2} little-endian).
+ */
+final class Murmur3Fingerprinter implements DnaFingerprinter {
+
+    private static final int BLOCK = 16;
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final VarHandle LONG_LE =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int DIGEST_LENGTH = 16;
+
+    private final byte[] tail = new byte[BLOCK];
+    private int tailLength;
+    private long totalLength;
+    private long h1;
+    private long h2;
+
+    @Override
+    public void reset() {
+        h1 = 0;
+        h2 = 0;
+        tailLength = 0;
+        totalLength = 0;
+    }
+
+    @Override
+    public void update(byte[] bytes, int offset, int length) {
+        totalLength += length;
+        int end = offset + length;
+
+        // Completar el bloque pendiente de la fila anterior
+        if (tailLength > 0) {
+            int take = Math.min(BLOCK - tailLength, length);
+            System.arraycopy(bytes, offset, tail, tailLength, take);
+            tailLength += take;
+            offset += take;
+            if (tailLength < BLOCK) {
+                return;
+            }
+            mix(tail, 0);
+            tailLength = 0;
+        }
+
+        for (; offset + BLOCK <= end; offset += BLOCK) {
+            mix(bytes, offset);
+        }
+
+        tailLength = end - offset;
+        System.arraycopy(bytes, offset, tail, 0, tailLength);
+    }
+
+    private void mix(byte[] bytes, int offset) {
+        long k1 = (long) LONG_LE.get(bytes, offset);
+        long k2 = (long) LONG_LE.get(bytes, offset + 8);
+
+        h1 ^= mixK1(k1);
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        h2 ^= mixK2(k2);
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    @Override
+    public byte[] digest() {
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = tailLength - 1; i >= 8; i--) {
+            k2 = (k2 << 8) | (tail[i] & 0xffL);
+        }
+        for (int i = Math.min(tailLength, 8) - 1; i >= 0; i--) {
+            k1 = (k1 << 8) | (tail[i] & 0xffL);
+        }
+        h1 ^= mixK1(k1);
+        h2 ^= mixK2(k2);
+
+        h1 ^= totalLength;
+        h2 ^= totalLength;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+
+        byte[] result = new byte[DIGEST_LENGTH];
+        LONG_LE.set(result, 0, h1);
+        LONG_LE.set(result, 8, h2);
+        reset();
+        return result;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,370 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.BatchProperties;
+import com.example.utn.dnaRecord.config.JobProperties;
+import com.example.utn.dnaRecord.dto.DnaBatchResultDTO;
+import com.example.utn.dnaRecord.dto.DnaRequestDTO;
+import com.example.utn.dnaRecord.dto.DnaSizeLimit;
+import com.example.utn.dnaRecord.entity.DnaRecord;
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipException;
+
+/**
+ * Análisis de muchos ADN en un solo request ({@code POST /mutant/batch}).
+ * <p>
+ * Lee el cuerpo (NDJSON o un arreglo JSON de requests como los de {@code POST /mutant}) de a
+ * un ADN, con el mismo {@code DnaRequestDeserializer} que valida, empaqueta y calcula la huella
+ * mientras lee. Los ADN de más de {@code mutant.jobs.sync-max-size} tienen su línea de error
+ * (van por {@code POST /mutant/jobs}), como en {@code POST /mutant}. Cada
+ * {@code mutant.batch.chunk-size} ADN, o antes si suman {@code mutant.batch.chunk-max-cells}
+ * celdas, se resuelven juntos:
+ * <ol>
+ *     <li>los que están en el caché en memoria o esperando el guardado diferido;</li>
+ *     <li>del resto, los que el filtro de Bloom no descarta, con un solo
+ *     {@code SELECT ... WHERE dna_hash IN (...)};</li>
+ *     <li>los que faltan se analizan en un pool de {@code mutant.batch.parallelism} hilos, una
+ *     vez por huella aunque se repita en el grupo, y se guardan con un batch JDBC en una sola
+ *     transacción.</li>
+ * </ol>
+ * Cada paso escribe en la respuesta (NDJSON) los resultados que resolvió, sin esperar al resto
+ * del grupo ni del request; los nuevos salen después de confirmar su transacción. Un ADN
+ * inválido produce una línea con su error y se sigue con el siguiente; un JSON mal formado, o un
+ * cuerpo comprimido inválido o que supera el máximo al descomprimirlo, termina la respuesta con
+ * una línea de error. Si falla la base o un análisis, cada ADN del grupo que todavía no tenía
+ * resultado recibe una línea de error y no se lee más: el 200 ya se respondió, así que es la
+ * única forma de avisarle al cliente.
+ */
+@Slf4j
+@Service
+public class MutantBatchService {
+
+    private static final byte[] NEWLINE = {'\n'};
+    private static final String FAILED = "Error interno al analizar el ADN; no se procesa el resto del lote";
+
+    private final ObjectMapper objectMapper;
+    private final BatchProperties properties;
+    private final JobProperties jobProperties;
+    private final DnaRecordRepository dnaRecordRepository;
+    private final MutantDetector mutantDetector;
+    private final DnaResultCache resultCache;
+    private final DnaHashFilter hashFilter;
+    private final DnaWriteBehindQueue writeBehind;
+    private final DnaStatsCounter statsCounter;
+    private final DnaStatsTimeline statsTimeline;
+    private final TransactionOperations transactions;
+    private final ExecutorService workers;
+
+    @Autowired
+    public MutantBatchService(ObjectMapper objectMapper, BatchProperties properties, JobProperties jobProperties,
+                              DnaRecordRepository dnaRecordRepository, MutantDetector mutantDetector,
+                              DnaResultCache resultCache, DnaHashFilter hashFilter, DnaWriteBehindQueue writeBehind,
+                              DnaStatsCounter statsCounter, DnaStatsTimeline statsTimeline,
+                              PlatformTransactionManager transactionManager) {
+        this(objectMapper, properties, jobProperties, dnaRecordRepository, mutantDetector, resultCache, hashFilter, writeBehind,
+                statsCounter, statsTimeline, new TransactionTemplate(transactionManager));
+    }
+
+    MutantBatchService(ObjectMapper objectMapper, BatchProperties properties, JobProperties jobProperties,
+                       DnaRecordRepository dnaRecordRepository, MutantDetector mutantDetector,
+                       DnaResultCache resultCache, DnaHashFilter hashFilter, DnaWriteBehindQueue writeBehind,
+                       DnaStatsCounter statsCounter, DnaStatsTimeline statsTimeline,
+                       TransactionOperations transactions) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.jobProperties = jobProperties;
+        this.dnaRecordRepository = dnaRecordRepository;
+        this.mutantDetector = mutantDetector;
+        this.resultCache = resultCache;
+        this.hashFilter = hashFilter;
+        this.writeBehind = writeBehind;
+        this.statsCounter = statsCounter;
+        this.statsTimeline = statsTimeline;
+        this.transactions = transactions;
+        this.workers = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()),
+                Thread.ofPlatform().name("dna-batch-", 0).daemon().factory());
+    }
+
+    /**
+     * Analiza los ADN de {@code in} y escribe una línea NDJSON por cada uno en {@code out},
+     * a medida que se resuelven.
+     */
+    public void analyze(InputStream in, OutputStream out) throws IOException {
+        ResultWriter results = new ResultWriter(out, objectMapper.writerFor(DnaBatchResultDTO.class));
+        List<Item> chunk = new ArrayList<>(properties.getChunkSize());
+        long cells = 0;
+        long index = 0;
+        // Un análisis largo ocuparía el hilo y la conexión: va por la API asincrónica
+        DnaSizeLimit syncLimit = new DnaSizeLimit("POST /mutant/batch", jobProperties.getSyncMaxSize());
+        try (MappingIterator<DnaRequestDTO> requests = objectMapper.readerFor(DnaRequestDTO.class)
+                .withAttribute(DnaSizeLimit.ATTRIBUTE, syncLimit).readValues(in)) {
+            while (true) {
+                DnaRequestDTO request;
+                try {
+                    if (!requests.hasNextValue()) {
+                        break;
+                    }
+                    request = requests.nextValue();
+                } catch (JsonParseException e) {
+                    // Sin un JSON bien formado no se puede encontrar el próximo ADN
+                    results.error(index, e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    // El deserializador rechazó este ADN: el próximo hasNextValue saltea lo que queda de él
+                    results.error(index++, e.getOriginalMessage());
+                    continue;
+                } catch (DnaTooLargeException e) {
+                    // El cuerpo comprimido pasó el máximo al descomprimirlo: no se lee más
+                    results.error(index, e.getMessage());
+                    break;
+                } catch (ZipException | EOFException e) {
+                    results.error(index, "El cuerpo comprimido no es válido o está incompleto");
+                    break;
+                }
+
+                ParsedDna dna = request.getParsedDna();
+                if (dna == null) {
+                    results.error(index++, request.getDna() == null
+                            ? "La secuencia de ADN no puede ser nula"
+                            : "La secuencia de ADN no puede estar vacía");
+                    continue;
+                }
+                if (dna.size() > jobProperties.getSyncMaxSize()) {
+                    // El deserializador ya lo rechaza con la primera fila; esto solo por las dudas
+                    results.error(index++, DnaTooLargeException.syncLimit("POST /mutant/batch", dna.size(),
+                            jobProperties.getSyncMaxSize()).getMessage());
+                    continue;
+                }
+                chunk.add(new Item(index++, dna));
+                cells += (long) dna.size() * dna.size();
+                if (chunk.size() == properties.getChunkSize() || cells >= properties.getChunkMaxCells()) {
+                    if (!resolve(chunk, results)) {
+                        results.flush();
+                        return;
+                    }
+                    chunk.clear();
+                    cells = 0;
+                }
+            }
+        }
+        resolve(chunk, results);
+        results.flush();
+    }
+
+    /**
+     * Resuelve un grupo; si falla, escribe una línea de error por cada ADN sin resultado.
+     *
+     * @return {@code false} si el grupo falló y no hay que seguir
+     */
+    private boolean resolve(List<Item> chunk, ResultWriter results) throws IOException {
+        if (chunk.isEmpty()) {
+            return true;
+        }
+        Map<ByteBuffer, List<Item>> unresolved = new LinkedHashMap<>();
+        try {
+            resolve(chunk, unresolved, results);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("No se pudo resolver un grupo de {} ADN del lote", chunk.size(), e);
+            List<Item> failed = new ArrayList<>();
+            unresolved.values().forEach(failed::addAll);
+            failed.sort(Comparator.comparingLong(Item::index));
+            for (Item item : failed) {
+                results.error(item.index(), FAILED);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Deja en {@code unresolved} los ADN que todavía no tienen su línea en la respuesta.
+     */
+    private void resolve(List<Item> chunk, Map<ByteBuffer, List<Item>> unresolved, ResultWriter results)
+            throws IOException {
+
+        // 1. Caché en memoria y resultados que esperan el guardado diferido (sin SQL)
+        for (Item item : chunk) {
+            byte[] dnaHash = item.dna().getHash();
+            Optional<Boolean> cached = resultCache.find(dnaHash);
+            if (cached.isPresent()) {
+                statsTimeline.recordRequest(cached.get(), true);
+                results.result(item.index(), cached.get());
+                continue;
+            }
+            Optional<Boolean> queued = writeBehind.find(dnaHash);
+            if (queued.isPresent()) {
+                statsTimeline.recordRequest(queued.get(), false);
+                results.result(item.index(), queued.get());
+                continue;
+            }
+            unresolved.computeIfAbsent(ByteBuffer.wrap(dnaHash), key -> new ArrayList<>(1)).add(item);
+        }
+        results.flush();
+
+        // 2. Un solo SELECT para las huellas que el filtro de Bloom no descarta
+        List<byte[]> lookup = new ArrayList<>();
+        for (ByteBuffer key : unresolved.keySet()) {
+            if (hashFilter.mightContain(key.array())) {
+                lookup.add(key.array());
+            }
+        }
+        if (!lookup.isEmpty()) {
+            Map<ByteBuffer, Boolean> stored = dnaRecordRepository.findIsMutantByDnaHashIn(lookup);
+            for (byte[] dnaHash : lookup) {
+                ByteBuffer key = ByteBuffer.wrap(dnaHash);
+                Boolean isMutant = stored.get(key);
+                if (isMutant == null) {
+                    hashFilter.recordFalsePositive();
+                    continue;
+                }
+                resultCache.put(dnaHash, isMutant);
+                complete(unresolved.remove(key), isMutant, results);
+            }
+            results.flush();
+        }
+        if (unresolved.isEmpty()) {
+            return;
+        }
+
+        // 3. Analizar en el pool una vez por huella, y guardar todo en una transacción
+        List<List<Item>> pending = new ArrayList<>(unresolved.values());
+        List<Future<Boolean>> detections = new ArrayList<>(pending.size());
+        for (List<Item> items : pending) {
+            PackedDna dna = items.get(0).dna().getDna();
+            detections.add(workers.submit(() -> detect(dna)));
+        }
+        LocalDateTime analyzedAt = LocalDateTime.now();
+        List<DnaRecord> records = new ArrayList<>(pending.size());
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                records.add(new DnaRecord(null, pending.get(i).get(0).dna().getHash(), await(detections.get(i)),
+                        analyzedAt));
+            }
+        } catch (RuntimeException e) {
+            detections.forEach(detection -> detection.cancel(true));
+            throw e;
+        }
+        statsCounter.write(() -> save(records));
+
+        for (int i = 0; i < records.size(); i++) {
+            DnaRecord record = records.get(i);
+            hashFilter.put(record.getDnaHash());
+            resultCache.put(record.getDnaHash(), record.getIsMutant());
+            complete(unresolved.remove(ByteBuffer.wrap(record.getDnaHash())), record.getIsMutant(), results);
+        }
+        results.flush();
+    }
+
+    private boolean detect(PackedDna dna) {
+        long start = System.nanoTime();
+        boolean isMutant = mutantDetector.isMutantPacked(dna);
+        statsTimeline.recordDetection(System.nanoTime() - start);
+        return isMutant;
+    }
+
+    private void save(List<DnaRecord> records) {
+        int[] inserted = transactions.execute(status -> dnaRecordRepository.insertAllIfAbsent(records));
+        // Solo suma en /stats lo que insertó este lote; el resto ya estaba guardado con el mismo resultado
+        for (int i = 0; i < records.size(); i++) {
+            if (inserted != null && inserted[i] > 0) {
+                statsCounter.recordInserted(records.get(i).getIsMutant());
+                statsTimeline.recordNew(records.get(i).getIsMutant());
+            }
+        }
+    }
+
+    private void complete(List<Item> items, boolean isMutant, ResultWriter results) throws IOException {
+        for (Item item : items) {
+            statsTimeline.recordRequest(isMutant, false);
+            results.result(item.index(), isMutant);
+        }
+    }
+
+    private static boolean await(Future<Boolean> detection) {
+        try {
+            return detection.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Análisis del lote interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Un ADN válido del request.
+     *
+     * @param index Posición en el request
+     */
+    private record Item(long index, ParsedDna dna) {
+    }
+
+    /**
+     * Escribe las líneas NDJSON de la respuesta; solo la usa el hilo del request.
+     */
+    private static final class ResultWriter {
+
+        private final OutputStream out;
+        private final ObjectWriter writer;
+
+        private ResultWriter(OutputStream out, ObjectWriter writer) {
+            this.out = out;
+            this.writer = writer;
+        }
+
+        private void result(long index, boolean isMutant) throws IOException {
+            write(DnaBatchResultDTO.result(index, isMutant));
+        }
+
+        private void error(long index, String error) throws IOException {
+            write(DnaBatchResultDTO.error(index, error));
+        }
+
+        private void write(DnaBatchResultDTO line) throws IOException {
+            // writeValueAsBytes y no writeValue(out), que cerraría la respuesta
+            out.write(writer.writeValueAsBytes(line));
+            out.write(NEWLINE);
+        }
+
+        private void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
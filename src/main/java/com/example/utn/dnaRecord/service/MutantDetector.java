@@ -1,13 +1,38 @@
 package com.example.utn.dnaRecord.service;
 
+import com.example.utn.dnaRecord.config.DetectorProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import java.util.Set;
 
 @Service
 public class MutantDetector {
 
-    private static final int SEQUENCE_LENGTH = 4;
-    private static final Set<Character> VALID_BASES = Set.of('A', 'T', 'C', 'G');
+    // A partir de este tamaño conviene el motor de bitboards (64 celdas por operación)
+    private static final int BITBOARD_MIN_SIZE = 32;
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    // Bandas de al menos 64 filas para que el reparto no cueste más que el análisis
+    private static final int MIN_BAND_ROWS = 64;
+
+    private final int sequenceLength;
+    private final int mutantThreshold;
+    private final BitboardMutantDetector packedDetector;
+    private final int parallelThreshold;
+    private final ParallelMutantDetector parallelDetector;
+
+    public MutantDetector() {
+        this(new DetectorProperties());
+    }
+
+    @Autowired
+    public MutantDetector(DetectorProperties properties) {
+        this.sequenceLength = properties.getSequenceLength();
+        this.mutantThreshold = properties.getMutantThreshold();
+        this.packedDetector = createPackedDetector(sequenceLength, mutantThreshold);
+        this.parallelThreshold = properties.getParallelThreshold();
+        this.parallelDetector = new ParallelMutantDetector(
+                packedDetector, properties.getParallelism(), MIN_BAND_ROWS);
+    }
 
     public boolean isMutant(String[] dna) {
         // 1. Validación básica
@@ -15,72 +40,86 @@ public class MutantDetector {
             return false;
         }
 
+        // Matrices grandes: se empaquetan a 2 bits por base sin pasar por char[][]
+        if (dna.length >= BITBOARD_MIN_SIZE) {
+            PackedDna packed = PackedDna.pack(dna);
+            return packed != null && isMutantPacked(packed);
+        }
+        return isMutantRunLength(dna);
+    }
+
+    /**
+     * Analiza una matriz ya empaquetada (y por lo tanto válida), por ejemplo la de un
+     * {@link ParsedDna}: se usan bitboards para cualquier N. Por encima de
+     * {@code mutant.detector.parallel-threshold} se analiza en paralelo por bandas.
+     */
+    public boolean isMutantPacked(PackedDna dna) {
+        if (dna.size() >= parallelThreshold) {
+            return parallelDetector.isMutant(dna);
+        }
+        return packedDetector.isMutant(dna);
+    }
+
+    /**
+     * Motor de largos de secuencia: valida la matriz y la recorre una sola vez, celda por
+     * celda, con contadores por dirección (ver {@link StreamingMutantDetector}).
+     */
+    boolean isMutantRunLength(String[] dna) {
+        if (dna == null || dna.length == 0) {
+            return false;
+        }
+
         final int n = dna.length;
-        int sequenceCount = 0;
 
-        // 2. Conversión y Validación
-        char[][] matrix = new char[n][];
-        for (int i = 0; i < n; i++) {
-            if (dna[i] == null || dna[i].length() != n) {
+        // 2. Validación
+        for (String row : dna) {
+            if (row == null || row.length() != n) {
                 return false;
             }
-
-            char[] row = dna[i].toCharArray();
-            for (char c : row) {
-                if (!VALID_BASES.contains(c)) {
+            for (int col = 0; col < n; col++) {
+                if (PackedDna.encode(row.charAt(col)) < 0) {
                     return false;
                 }
             }
-            matrix[i] = row;
         }
 
         // 3. Búsqueda con Early Termination
-        for (int row = 0; row < n; row++) {
-            for (int col = 0; col < n; col++) {
-
-                //  Horizontal
-                if (col <= n - SEQUENCE_LENGTH) {
-                    if (checkSequence(matrix, row, col, 0, 1)) {
-                        sequenceCount++;
-                        if (sequenceCount > 1) return true; // Early termination
-                    }
-                }
-
-                //  Vertical
-                if (row <= n - SEQUENCE_LENGTH) {
-                    if (checkSequence(matrix, row, col, 1, 0)) {
-                        sequenceCount++;
-                        if (sequenceCount > 1) return true;
-                    }
-                }
+        StreamingMutantDetector detector = new StreamingMutantDetector(n, sequenceLength, mutantThreshold);
+        for (String row : dna) {
+            if (detector.acceptRow(row)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-                //  Diagonal descendente (\)
-                if (row <= n - SEQUENCE_LENGTH && col <= n - SEQUENCE_LENGTH) {
-                    if (checkSequence(matrix, row, col, 1, 1)) {
-                        sequenceCount++;
-                        if (sequenceCount > 1) return true;
-                    }
-                }
+    /**
+     * Elige el motor para matrices empaquetadas: la versión con Vector API si el módulo
+     * incubador está cargado (JVM iniciada con {@code --add-modules jdk.incubator.vector}),
+     * y si no, los bitboards escalares.
+     */
+    static BitboardMutantDetector createPackedDetector() {
+        return createPackedDetector(BitboardMutantDetector.DEFAULT_SEQUENCE_LENGTH,
+                BitboardMutantDetector.DEFAULT_MUTANT_THRESHOLD);
+    }
 
-                //  Diagonal ascendente (/)
-                if (row >= SEQUENCE_LENGTH - 1 && col <= n - SEQUENCE_LENGTH) {
-                    if (checkSequence(matrix, row, col, -1, 1)) {
-                        sequenceCount++;
-                        if (sequenceCount > 1) return true;
-                    }
-                }
+    static BitboardMutantDetector createPackedDetector(int sequenceLength, int mutantThreshold) {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                // Por reflexión, para no cargar clases de la Vector API si el módulo falta
+                return (BitboardMutantDetector) Class
+                        .forName(MutantDetector.class.getPackageName() + ".VectorMutantDetector")
+                        .getDeclaredConstructor(int.class, int.class)
+                        .newInstance(sequenceLength, mutantThreshold);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Sin soporte vectorial en esta plataforma: se usa el motor escalar
             }
         }
-
-        return false;
+        return new BitboardMutantDetector(sequenceLength, mutantThreshold);
     }
 
-    private boolean checkSequence(char[][] matrix, int row, int col, int deltaRow, int deltaCol) {
-        final char base = matrix[row][col];
-        
-        // Comparación directa sin loop - más eficiente
-        return matrix[row + deltaRow][col + deltaCol] == base &&
-               matrix[row + 2 * deltaRow][col + 2 * deltaCol] == base &&
-               matrix[row + 3 * deltaRow][col + 3 * deltaCol] == base;
+    @PreDestroy
+    void shutdown() {
+        parallelDetector.shutdown();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,210 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.JobProperties;
+import com.example.utn.dnaRecord.dto.MutantJobResponseDTO;
+import com.example.utn.dnaRecord.dto.MutantJobResponseDTO.Status;
+import com.example.utn.dnaRecord.exception.JobQueueFullException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Análisis asincrónicos de matrices grandes ({@code POST /mutant/jobs}).
+ * <p>
+ * El request solo lee y valida la matriz (igual que {@code POST /mutant}), la deja en un
+ * trabajo y responde enseguida con su id; no ocupa un hilo de Tomcat ni la conexión mientras
+ * se analiza. Los trabajos se ejecutan en {@code mutant.jobs.workers} hilos propios, con
+ * {@link MutantService#analyzeDna}, así que usan el mismo caché, guardado y estadísticas.
+ * <p>
+ * La cola es de prioridad: sale primero la matriz más chica y, a igual tamaño, la que llegó
+ * antes. Admite hasta {@code queue-capacity} trabajos esperando; con la cola llena se rechaza el
+ * trabajo nuevo ({@link JobQueueFullException}) en lugar de acumular matrices en memoria.
+ * <p>
+ * Los trabajos viven en memoria: la matriz se suelta al terminar el análisis, y el trabajo
+ * terminado se puede consultar durante {@code retention}. Un reinicio pierde los que estaban en
+ * la cola.
+ */
+@Slf4j
+@Service
+public class MutantJobService {
+
+    private final MutantService mutantService;
+    private final JobProperties properties;
+    private final Clock clock;
+    private final ConcurrentMap<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong submissions = new AtomicLong();
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public MutantJobService(MutantService mutantService, JobProperties properties) {
+        this(mutantService, properties, Clock.systemUTC());
+    }
+
+    MutantJobService(MutantService mutantService, JobProperties properties, Clock clock) {
+        this.mutantService = mutantService;
+        this.properties = properties;
+        this.clock = clock;
+        int workers = Math.max(1, properties.getWorkers());
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), Thread.ofPlatform().name("dna-job-", 0).daemon().factory());
+    }
+
+    /**
+     * Encola el análisis de una matriz ya validada.
+     *
+     * @throws JobQueueFullException si ya hay {@code queue-capacity} trabajos esperando
+     */
+    public MutantJobResponseDTO submit(ParsedDna dna) {
+        if (queued.incrementAndGet() > properties.getQueueCapacity()) {
+            queued.decrementAndGet();
+            throw new JobQueueFullException("Hay " + properties.getQueueCapacity()
+                    + " análisis esperando; reintentar en unos segundos");
+        }
+        Job job = new Job(UUID.randomUUID(), dna, submissions.getAndIncrement(), clock.instant());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            queued.decrementAndGet();
+            throw new JobQueueFullException("El servicio se está deteniendo");
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * @return Estado actual del trabajo, o vacío si no existe o ya venció
+     */
+    public Optional<MutantJobResponseDTO> find(UUID id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::toResponse);
+    }
+
+    /**
+     * Espera a que el trabajo termine, como mucho {@code wait} (acotado a {@code max-wait}), sin
+     * ocupar un hilo mientras tanto.
+     *
+     * @return El estado al terminar o al vencer la espera, o vacío si el trabajo no existe
+     */
+    public Optional<CompletableFuture<MutantJobResponseDTO>> await(UUID id, Duration wait) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        long waitMillis = Math.min(wait.toMillis(), properties.getMaxWait().toMillis());
+        if (waitMillis <= 0 || job.status.isFinished()) {
+            return Optional.of(CompletableFuture.completedFuture(job.toResponse()));
+        }
+        CompletableFuture<MutantJobResponseDTO> result = new CompletableFuture<>();
+        job.done.thenRun(() -> result.complete(job.toResponse()));
+        CompletableFuture.delayedExecutor(waitMillis, TimeUnit.MILLISECONDS)
+                .execute(() -> result.complete(job.toResponse()));
+        return Optional.of(result);
+    }
+
+    /**
+     * @return Trabajos esperando en la cola
+     */
+    public int queuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Quita los trabajos terminados hace más de {@code retention}.
+     */
+    @Scheduled(fixedDelayString = "PT1M", initialDelayString = "PT1M")
+    public void purgeExpired() {
+        Instant expiredBefore = clock.instant().minus(properties.getRetention());
+        jobs.values().removeIf(job -> job.status.isFinished() && job.finishedAt.isBefore(expiredBefore));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private final class Job implements Runnable, Comparable<Job> {
+
+        // Primero la matriz más chica; a igual tamaño, la que llegó antes
+        private static final Comparator<Job> PRIORITY = Comparator.<Job>comparingInt(job -> job.size)
+                .thenComparingLong(job -> job.submission);
+
+        private final UUID id;
+        private final int size;
+        private final long submission;
+        private final Instant submittedAt;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile ParsedDna dna;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile Boolean isMutant;
+        private volatile String error;
+        // Se escribe después de los demás campos: quien lee el estado ve los valores que le corresponden
+        private volatile Status status = Status.QUEUED;
+
+        private Job(UUID id, ParsedDna dna, long submission, Instant submittedAt) {
+            this.id = id;
+            this.dna = dna;
+            this.size = dna.size();
+            this.submission = submission;
+            this.submittedAt = submittedAt;
+        }
+
+        @Override
+        public void run() {
+            queued.decrementAndGet();
+            startedAt = clock.instant();
+            status = Status.RUNNING;
+            try {
+                isMutant = mutantService.analyzeDna(dna);
+                finishedAt = clock.instant();
+                status = Status.DONE;
+            } catch (RuntimeException e) {
+                log.warn("Falló el análisis asincrónico {}", id, e);
+                error = e.getMessage();
+                finishedAt = clock.instant();
+                status = Status.FAILED;
+            } finally {
+                dna = null;
+                done.complete(null);
+            }
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            return PRIORITY.compare(this, other);
+        }
+
+        private MutantJobResponseDTO toResponse() {
+            Status current = status;
+            return MutantJobResponseDTO.builder()
+                    .id(id)
+                    .status(current)
+                    .size(size)
+                    .isMutant(current == Status.DONE ? isMutant : null)
+                    .error(current == Status.FAILED ? error : null)
+                    .submittedAt(submittedAt)
+                    .startedAt(current == Status.QUEUED ? null : startedAt)
+                    .finishedAt(current.isFinished() ? finishedAt : null)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.DetectorProperties;
+import com.example.utn.dnaRecord.config.JobProperties;
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Análisis de {@code POST /mutant} con la matriz en texto ({@code text/plain}, una fila por
+ * línea), a medida que llegan las filas.
+ * <p>
+ * Cada fila pasa por el {@link StreamingMutantDetector}, que guarda solo las filas y los largos
+ * de secuencia de la fila anterior (memoria O(N)): las horizontales se deciden en la misma fila
+ * y las verticales y diagonales con lo acumulado hasta ahí. En cuanto hay dos secuencias el
+ * veredicto es mutante y no se lee el resto del cuerpo.
+ * <p>
+ * La huella se calcula fila por fila junto con el análisis, y el resultado solo se guarda (con
+ * caché y estadísticas, por {@link MutantService#recordResult}) si se leyó la matriz completa:
+ * sin todas las filas no hay huella. Un veredicto anticipado no se guarda y solo cuenta en la
+ * actividad de {@code /stats/breakdown}. Con la huella canónica hace falta la matriz entera para
+ * calcularla, así que en ese modo también se empaqueta.
+ * <p>
+ * Como en {@code POST /mutant} con JSON, una matriz de más de {@code mutant.jobs.sync-max-size}
+ * se rechaza con la primera fila, que ya da N, sin leer las demás.
+ */
+@Service
+public class MutantRowStreamService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final MutantService mutantService;
+    private final DnaStatsTimeline statsTimeline;
+    private final int maxSize;
+    private final int syncMaxSize;
+    private final int sequenceLength;
+    private final int mutantThreshold;
+    private final FingerprintAlgorithm fingerprint;
+    private final boolean canonicalFingerprint;
+    private final DetectorRules rules;
+
+    public MutantRowStreamService(MutantService mutantService, DnaStatsTimeline statsTimeline,
+                                  DetectorProperties properties, JobProperties jobProperties) {
+        this.mutantService = mutantService;
+        this.statsTimeline = statsTimeline;
+        this.maxSize = properties.getMaxSize();
+        this.syncMaxSize = jobProperties.getSyncMaxSize();
+        this.sequenceLength = properties.getSequenceLength();
+        this.mutantThreshold = properties.getMutantThreshold();
+        this.fingerprint = properties.getFingerprint();
+        this.canonicalFingerprint = properties.isCanonicalFingerprint();
+        this.rules = properties.rules();
+    }
+
+    /**
+     * Lee las filas de {@code body} hasta el veredicto.
+     *
+     * @throws IllegalArgumentException si una fila no tiene N bases válidas o la matriz no es NxN
+     * @throws DnaTooLargeException     si N supera {@code mutant.jobs.sync-max-size}
+     */
+    public Verdict analyze(InputStream body) throws IOException {
+        InputStream in = new BufferedInputStream(body, BUFFER_SIZE);
+        byte[] row = new byte[maxSize + 1];
+        int size = readRow(in, row);
+        if (size <= 0) {
+            throw new IllegalArgumentException("La secuencia de ADN no puede estar vacía");
+        }
+        if (size > maxSize) {
+            throw new IllegalArgumentException("El ADN supera el tamaño máximo de " + maxSize + "x" + maxSize);
+        }
+        if (size > syncMaxSize) {
+            // Un análisis largo ocuparía el hilo y la conexión: va por la API asincrónica
+            throw DnaTooLargeException.syncLimit("POST /mutant", size, syncMaxSize);
+        }
+
+        StreamingMutantDetector detector = new StreamingMutantDetector(size, sequenceLength, mutantThreshold);
+        ParsedDna.Builder canonical = canonicalFingerprint ? ParsedDna.builder(size, fingerprint, true, rules) : null;
+        DnaFingerprinter fingerprinter = canonicalFingerprint ? null : fingerprint.fingerprinter();
+        if (fingerprinter != null) {
+            rules.seed(fingerprinter);
+        }
+        for (int length = size; ; length = readRow(in, row)) {
+            if (length < 0) {
+                throw new IllegalArgumentException("La matriz tiene " + detector.getRowCount()
+                        + " filas y se esperaban " + size + " (debe ser NxN)");
+            }
+            // ISO-8859-1: un byte por carácter, sin decodificar (las bases válidas son ASCII)
+            String text = new String(row, 0, Math.min(length, row.length), StandardCharsets.ISO_8859_1);
+            boolean isMutant = detector.acceptRow(text);
+            if (canonical != null) {
+                canonical.addRow(text);
+            } else {
+                fingerprinter.update(row, 0, size);
+            }
+
+            if (detector.isComplete()) {
+                if (readRow(in, row) >= 0) {
+                    throw new IllegalArgumentException("La matriz tiene más de " + size + " filas (debe ser NxN)");
+                }
+                byte[] hash = canonical != null ? canonical.build().getHash() : fingerprinter.digest();
+                return new Verdict(mutantService.recordResult(hash, isMutant), size, size);
+            }
+            if (isMutant) {
+                // Veredicto anticipado: el resto del cuerpo no cambia el resultado
+                statsTimeline.recordRequest(true, false);
+                return new Verdict(true, detector.getRowCount(), size);
+            }
+        }
+    }
+
+    /**
+     * Lee una línea (sin el fin de línea {@code \n} o {@code \r\n}) en {@code row}.
+     *
+     * @return Largo de la línea, {@code row.length + 1} si es más larga que el buffer (sin leer
+     * el resto), o -1 si el cuerpo terminó
+     */
+    private static int readRow(InputStream in, byte[] row) throws IOException {
+        int length = 0;
+        int value;
+        while ((value = in.read()) >= 0 && value != '\n') {
+            if (length == row.length) {
+                return length + 1; // Más larga que cualquier fila válida
+            }
+            row[length++] = (byte) value;
+        }
+        if (length > 0 && row[length - 1] == '\r') {
+            length--;
+        }
+        return value < 0 && length == 0 ? -1 : length;
+    }
+
+    /**
+     * @param isMutant Resultado
+     * @param rowsRead Filas leídas hasta el veredicto
+     * @param size     Tamaño N de la matriz
+     */
+    public record Verdict(boolean isMutant, int rowsRead, int size) {
+
+        /**
+         * @return {@code true} si se decidió antes de la última fila (y el resultado no se guardó)
+         */
+        public boolean isEarly() {
+            return rowsRead < size;
+        }
+    }
+}
@@ -1,14 +1,13 @@
 package com.example.utn.dnaRecord.service;
 
 import com.example.utn.dnaRecord.entity.DnaRecord;
-import com.example.utn.dnaRecord.exception.DnaHashCalculationException;
 import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import com.example.utn.dnaRecord.repository.DnaRecordRepositoryCustom.InsertResult;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
 
 @RequiredArgsConstructor
 @Service
@@ -16,47 +15,101 @@ public class MutantService {
 
     private final DnaRecordRepository dnaRecordRepository;
     private final MutantDetector mutantDetector;
+    private final DnaResultCache resultCache;
+    private final DnaHashFilter hashFilter;
+    private final DnaWriteBehindQueue writeBehind;
+    private final DnaStatsCounter statsCounter;
+    private final DnaStatsTimeline statsTimeline;
 
-    public boolean analyzeDna(String[] dna) {
-        // 1. Calcular Hash
-        String dnaHash = calculateDnaHash(dna);
+    // Análisis en curso por huella: un solo SELECT, detección e INSERT por ADN aunque lleguen juntos
+    private final DnaSingleFlight inFlight = new DnaSingleFlight();
 
-        // 2. Verificar Cache
-        Optional<DnaRecord> existingRecord = dnaRecordRepository.findByDnaHash(dnaHash);
-        if (existingRecord.isPresent()) {
-            return existingRecord.get().getIsMutant();
+    public boolean analyzeDna(ParsedDna dna) {
+        // 1. Hash (calculado al validar, en la misma pasada que el empaquetado)
+        byte[] dnaHash = dna.getHash();
+
+        // 2. Verificar Cache en memoria (sin SQL)
+        Optional<Boolean> cached = resultCache.find(dnaHash);
+        if (cached.isPresent()) {
+            statsTimeline.recordRequest(cached.get(), true);
+            return cached.get();
         }
 
-        // 3. CAMBIO: Delegar al MutantDetector
-        boolean isMutant = mutantDetector.isMutant(dna); // ← CAMBIO: antes era this.isMutant(dna)
+        // 3. Si el mismo ADN ya se está analizando en otro hilo, esperar ese resultado
+        boolean isMutant = inFlight.run(dnaHash, () -> findOrDetect(dnaHash, () -> detect(dna)));
+        statsTimeline.recordRequest(isMutant, false);
+        return isMutant;
+    }
 
-        // 4. Guardar resultado
-        DnaRecord newRecord = new DnaRecord();
-        newRecord.setDnaHash(dnaHash);
-        newRecord.setIsMutant(isMutant);
-        dnaRecordRepository.save(newRecord);
+    /**
+     * Registra el resultado de un ADN que ya se analizó fuera del servicio (el detector
+     * incremental de {@code POST /mutant} en texto), con el mismo caché, guardado y estadísticas
+     * que {@link #analyzeDna}. Si el ADN ya estaba guardado, vale el resultado guardado.
+     *
+     * @param dnaHash Huella de la matriz completa
+     */
+    public boolean recordResult(byte[] dnaHash, boolean detected) {
+        Optional<Boolean> cached = resultCache.find(dnaHash);
+        if (cached.isPresent()) {
+            statsTimeline.recordRequest(cached.get(), true);
+            return cached.get();
+        }
 
+        boolean isMutant = inFlight.run(dnaHash, () -> findOrDetect(dnaHash, () -> detected));
+        statsTimeline.recordRequest(isMutant, false);
         return isMutant;
     }
 
-    private String calculateDnaHash(String[] dna) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            String dnaSequence = String.join("", dna);
-            byte[] encodedhash = digest.digest(dnaSequence.getBytes());
-
-            StringBuilder hexString = new StringBuilder(2 * encodedhash.length);
-            for (byte b : encodedhash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
+    private boolean detect(ParsedDna dna) {
+        long start = System.nanoTime();
+        boolean detected = mutantDetector.isMutantPacked(dna.getDna());
+        statsTimeline.recordDetection(System.nanoTime() - start);
+        return detected;
+    }
+
+    private boolean findOrDetect(byte[] dnaHash, BooleanSupplier detector) {
+        // 4. Verificar los resultados que esperan el guardado diferido
+        Optional<Boolean> queued = writeBehind.find(dnaHash);
+        if (queued.isPresent()) {
+            return queued.get();
+        }
+
+        // 5. Verificar en BD, salvo que el filtro de Bloom asegure que nunca se guardó
+        if (hashFilter.mightContain(dnaHash)) {
+            Optional<DnaRecord> existingRecord = dnaRecordRepository.findByDnaHash(dnaHash);
+            if (existingRecord.isPresent()) {
+                boolean isMutant = existingRecord.get().getIsMutant();
+                resultCache.put(dnaHash, isMutant);
+                return isMutant;
             }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new DnaHashCalculationException(
-                    "Error al calcular el hash SHA-256 del ADN", e);
+            hashFilter.recordFalsePositive();
+        }
+
+        // 6. Delegar al MutantDetector con la matriz ya empaquetada
+        boolean detected = detector.getAsBoolean();
+
+        // 7. Guardar resultado: en diferido si está habilitado y hay lugar en la cola; si no, en
+        //    una sola sentencia, y si otra instancia lo guardó mientras se analizaba vale el existente
+        boolean isMutant;
+        if (writeBehind.offer(dnaHash, detected)) {
+            isMutant = detected;
+            statsTimeline.recordNew(detected);
+        } else {
+            isMutant = statsCounter.write(() -> save(dnaHash, detected));
+        }
+        hashFilter.put(dnaHash);
+        resultCache.put(dnaHash, isMutant);
+
+        return isMutant;
+    }
+
+    private boolean save(byte[] dnaHash, boolean isMutant) {
+        InsertResult saved = dnaRecordRepository.insertIfAbsent(dnaHash, isMutant);
+        // Solo suma en /stats el que insertó la fila, no el que perdió la carrera
+        if (saved.inserted()) {
+            statsCounter.recordInserted(saved.isMutant());
+            statsTimeline.recordNew(saved.isMutant());
         }
+        return saved.isMutant();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,186 @@
+package com.example.utn.dnaRecord.service;
+
+/**
+ * Representación compacta de una matriz de ADN NxN: 2 bits por base.
+ * <p>
+ * Cada base se codifica como A=00, C=01, G=10, T=11 y sus dos bits se guardan en
+ * dos planos de bits separados ({@code lo} y {@code hi}). Cada fila ocupa
+ * {@code wordsPerRow} longs consecutivos (la columna {@code c} es el bit {@code c % 64}
+ * de la palabra {@code c / 64}). Ocupa 8 veces menos memoria que un {@code char[][]}.
+ * <p>
+ * Los arreglos tienen una palabra extra al final para que los desplazamientos entre
+ * palabras puedan leer {@code index + 1} sin comprobar límites.
+ */
+public final class PackedDna {
+
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    // Por cada byte del formato binario (4 bases, la primera en los 2 bits altos): los bits
+    // de cada plano en el orden de las columnas, la primera base en el bit 0
+    private static final long[] LO_NIBBLE = new long[256];
+    private static final long[] HI_NIBBLE = new long[256];
+
+    static {
+        for (int value = 0; value < 256; value++) {
+            for (int base = 0; base < 4; base++) {
+                int code = (value >>> (6 - 2 * base)) & 3;
+                LO_NIBBLE[value] |= (long) (code & 1) << base;
+                HI_NIBBLE[value] |= (long) (code >>> 1) << base;
+            }
+        }
+    }
+
+    private final int size;
+    private final int wordsPerRow;
+    private final long[] lo;
+    private final long[] hi;
+
+    PackedDna(int size) {
+        this.size = size;
+        this.wordsPerRow = (size + 63) >>> 6;
+        this.lo = new long[size * wordsPerRow + 1];
+        this.hi = new long[size * wordsPerRow + 1];
+    }
+
+    /**
+     * Empaqueta y valida la matriz en una sola pasada.
+     *
+     * @param dna Filas de la matriz
+     * @return La matriz empaquetada, o {@code null} si no es NxN o tiene bases inválidas
+     */
+    public static PackedDna pack(String[] dna) {
+        if (dna == null || dna.length == 0) {
+            return null;
+        }
+
+        PackedDna packed = new PackedDna(dna.length);
+        for (int row = 0; row < dna.length; row++) {
+            String value = dna[row];
+            if (value == null || value.length() != dna.length || !packed.writeRow(row, value)) {
+                return null;
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Codifica una base en sus 2 bits.
+     *
+     * @return Código 0-3, o -1 si el carácter no es A, T, C ni G
+     */
+    public static int encode(char base) {
+        return switch (base) {
+            case 'A' -> 0;
+            case 'C' -> 1;
+            case 'G' -> 2;
+            case 'T' -> 3;
+            default -> -1;
+        };
+    }
+
+    public static char decode(int code) {
+        return BASES[code & 3];
+    }
+
+    boolean writeRow(int row, CharSequence value) {
+        return writeRow(row, value, null);
+    }
+
+    /**
+     * Codifica una fila validando cada base.
+     *
+     * @param ascii Si no es {@code null}, recibe además el byte ASCII de cada base
+     *              (para calcular el hash en la misma pasada)
+     * @return {@code false} si la fila tiene una base inválida
+     */
+    boolean writeRow(int row, CharSequence value, byte[] ascii) {
+        int offset = row * wordsPerRow;
+        long loWord = 0;
+        long hiWord = 0;
+        for (int col = 0; col < size; col++) {
+            char base = value.charAt(col);
+            int code = encode(base);
+            if (code < 0) {
+                return false;
+            }
+            if (ascii != null) {
+                ascii[col] = (byte) base;
+            }
+            long bit = 1L << col;
+            if ((code & 1) != 0) loWord |= bit;
+            if ((code & 2) != 0) hiWord |= bit;
+
+            if ((col & 63) == 63 || col == size - 1) {
+                lo[offset + (col >>> 6)] = loWord;
+                hi[offset + (col >>> 6)] = hiWord;
+                loWord = 0;
+                hiWord = 0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copia una fila del formato binario (2 bits por base, 4 bases por byte empezando por los
+     * bits altos, con el mismo código que {@link #encode}), de a un byte por vez y sin validar:
+     * todo código de 2 bits es una base. Los bits de relleno del último byte se ignoran.
+     *
+     * @param source Bytes de la fila, {@code (size + 3) / 4} desde {@code offset}
+     * @param ascii  Si no es {@code null}, recibe además el byte ASCII de cada base
+     */
+    void writePackedRow(int row, byte[] source, int offset, byte[] ascii) {
+        int base = row * wordsPerRow;
+        int bytes = (size + 3) >>> 2;
+        long loWord = 0;
+        long hiWord = 0;
+        for (int i = 0; i < bytes; i++) {
+            int value = source[offset + i] & 0xFF;
+            int col = i << 2;
+            // 64 es múltiplo de 4: las 4 bases de un byte caen en la misma palabra
+            loWord |= LO_NIBBLE[value] << (col & 63);
+            hiWord |= HI_NIBBLE[value] << (col & 63);
+            if ((col & 63) == 60 || i == bytes - 1) {
+                long mask = i == bytes - 1 && (size & 63) != 0 ? (1L << (size & 63)) - 1 : -1L;
+                lo[base + (col >>> 6)] = loWord & mask;
+                hi[base + (col >>> 6)] = hiWord & mask;
+                loWord = 0;
+                hiWord = 0;
+            }
+        }
+        if (ascii != null) {
+            for (int col = 0; col < size; col++) {
+                int value = source[offset + (col >>> 2)];
+                ascii[col] = (byte) BASES[(value >>> (6 - 2 * (col & 3))) & 3];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * Código (0-3) de la base en la posición indicada.
+     */
+    public int codeAt(int row, int col) {
+        int index = row * wordsPerRow + (col >>> 6);
+        int shift = col & 63;
+        return (int) (((lo[index] >>> shift) & 1) | (((hi[index] >>> shift) & 1) << 1));
+    }
+
+    public char baseAt(int row, int col) {
+        return decode(codeAt(row, col));
+    }
+
+    long[] lo() {
+        return lo;
+    }
+
+    long[] hi() {
+        return hi;
+    }
+}
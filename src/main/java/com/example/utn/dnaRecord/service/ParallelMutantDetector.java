@@ -0,0 +1,85 @@
+package com.example.utn.dnaRecord.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Detección en paralelo para matrices muy grandes.
+ * <p>
+ * Divide la matriz en bandas horizontales de filas y las analiza en un {@link ForkJoinPool}.
+ * Cada banda lee hasta L - 1 filas por fuera de sus límites (las bandas se solapan)
+ * pero solo cuenta las secuencias cuya fila de referencia le pertenece, así que ninguna
+ * secuencia se cuenta dos veces. El conteo global se comparte en un {@link AtomicInteger}:
+ * en cuanto llega al umbral de mutante, todas las bandas dejan de analizar filas
+ * (cancelación cooperativa).
+ */
+class ParallelMutantDetector {
+
+    // Cantidad de bandas por hilo, para repartir bien la carga con work stealing
+    private static final int BANDS_PER_THREAD = 4;
+
+    private final BitboardMutantDetector rowScanner;
+    private final ForkJoinPool pool;
+    private final int minBandRows;
+    private final int mutantThreshold;
+
+    ParallelMutantDetector(BitboardMutantDetector rowScanner, int parallelism, int minBandRows) {
+        this.rowScanner = rowScanner;
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.minBandRows = minBandRows;
+        this.mutantThreshold = rowScanner.mutantThreshold();
+    }
+
+    boolean isMutant(PackedDna dna) {
+        AtomicInteger sequenceCount = new AtomicInteger();
+        int bandRows = Math.max(minBandRows, dna.size() / (pool.getParallelism() * BANDS_PER_THREAD));
+        pool.invoke(new BandTask(dna, 0, dna.size(), bandRows, sequenceCount));
+        return sequenceCount.get() >= mutantThreshold;
+    }
+
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private final class BandTask extends RecursiveAction {
+
+        private final PackedDna dna;
+        private final int fromRow;
+        private final int toRow;
+        private final int bandRows;
+        private final AtomicInteger sequenceCount;
+
+        BandTask(PackedDna dna, int fromRow, int toRow, int bandRows, AtomicInteger sequenceCount) {
+            this.dna = dna;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.bandRows = bandRows;
+            this.sequenceCount = sequenceCount;
+        }
+
+        @Override
+        protected void compute() {
+            if (sequenceCount.get() >= mutantThreshold) {
+                return; // Otra banda ya decidió
+            }
+
+            if (toRow - fromRow > bandRows) {
+                int middle = (fromRow + toRow) >>> 1;
+                invokeAll(new BandTask(dna, fromRow, middle, bandRows, sequenceCount),
+                        new BandTask(dna, middle, toRow, bandRows, sequenceCount));
+                return;
+            }
+
+            for (int row = fromRow; row < toRow; row++) {
+                if (sequenceCount.get() >= mutantThreshold) {
+                    return;
+                }
+                int found = rowScanner.countSequencesInRow(dna, row);
+                if (found > 0 && sequenceCount.addAndGet(found) >= mutantThreshold) {
+                    return;
+                }
+            }
+        }
+    }
+}
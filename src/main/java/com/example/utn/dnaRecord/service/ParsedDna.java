@@ -0,0 +1,199 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.exception.DnaHashCalculationException;
+
+/**
+ * Matriz de ADN ya validada, empaquetada a 2 bits por base y con su hash calculado.
+ * <p>
+ * {@link #parse(String[])} recorre las filas una sola vez: valida cada carácter, lo
+ * codifica en el {@link PackedDna} y copia su byte ASCII a un buffer de fila que alimenta
+ * el {@link DnaFingerprinter} de forma incremental. Reemplaza las tres pasadas anteriores
+ * (regex del validador, {@code Set<Character>} del detector y {@code String.join} +
+ * {@code getBytes()} del hash). El hash es el de las filas concatenadas.
+ * <p>
+ * La arma el validador del request y viaja hasta {@link MutantService} y el detector.
+ */
+public final class ParsedDna {
+
+    /**
+     * Algoritmo de huella cuando no se indica otro (igual al default de {@code mutant.detector.fingerprint}).
+     */
+    public static final FingerprintAlgorithm DEFAULT_FINGERPRINT = FingerprintAlgorithm.MURMUR3;
+
+    private final PackedDna dna;
+    private final byte[] hash;
+
+    private ParsedDna(PackedDna dna, byte[] hash) {
+        this.dna = dna;
+        this.hash = hash;
+    }
+
+    /**
+     * Valida, empaqueta y calcula el hash en una sola pasada, con el algoritmo por defecto.
+     *
+     * @param dna Filas de la matriz
+     * @return La matriz procesada, o {@code null} si no es NxN o tiene bases inválidas
+     */
+    public static ParsedDna parse(String[] dna) {
+        return parse(dna, DEFAULT_FINGERPRINT);
+    }
+
+    /**
+     * Valida, empaqueta y calcula el hash en una sola pasada.
+     *
+     * @param dna       Filas de la matriz
+     * @param algorithm Algoritmo de la huella
+     * @return La matriz procesada, o {@code null} si no es NxN o tiene bases inválidas
+     * @throws DnaHashCalculationException si el algoritmo SHA-256 no está disponible
+     */
+    public static ParsedDna parse(String[] dna, FingerprintAlgorithm algorithm) {
+        return parse(dna, algorithm, false);
+    }
+
+    /**
+     * Valida, empaqueta y calcula el hash, opcionalmente canónico (ver {@link DnaCanonicalizer}).
+     *
+     * @param dna       Filas de la matriz
+     * @param algorithm Algoritmo de la huella
+     * @param canonical {@code true} para que las variantes por simetría o renombre de bases
+     *                  tengan la misma huella
+     * @return La matriz procesada, o {@code null} si no es NxN o tiene bases inválidas
+     */
+    public static ParsedDna parse(String[] dna, FingerprintAlgorithm algorithm, boolean canonical) {
+        return parse(dna, algorithm, canonical, DetectorRules.DEFAULT);
+    }
+
+    /**
+     * @param rules Reglas del detector, que forman parte de la huella (ver {@link DetectorRules})
+     */
+    public static ParsedDna parse(String[] dna, FingerprintAlgorithm algorithm, boolean canonical,
+                                  DetectorRules rules) {
+        if (dna == null || dna.length == 0) {
+            return null;
+        }
+
+        Builder builder = builder(dna.length, algorithm, canonical, rules);
+        for (String row : dna) {
+            if (!builder.addRow(row)) {
+                return null;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Arma la matriz fila por fila, para quien recibe las filas de a una (por ejemplo,
+     * al leer el JSON del request sin materializar los Strings).
+     *
+     * @param size      Tamaño N de la matriz
+     * @param algorithm Algoritmo de la huella
+     */
+    public static Builder builder(int size, FingerprintAlgorithm algorithm) {
+        return builder(size, algorithm, false);
+    }
+
+    /**
+     * @param canonical {@code true} para calcular la huella canónica al terminar, en lugar
+     *                  de alimentarla fila por fila
+     */
+    public static Builder builder(int size, FingerprintAlgorithm algorithm, boolean canonical) {
+        return builder(size, algorithm, canonical, DetectorRules.DEFAULT);
+    }
+
+    /**
+     * @param rules Reglas del detector, que forman parte de la huella (ver {@link DetectorRules})
+     */
+    public static Builder builder(int size, FingerprintAlgorithm algorithm, boolean canonical, DetectorRules rules) {
+        return new Builder(size, algorithm.fingerprinter(), canonical, rules);
+    }
+
+    public PackedDna getDna() {
+        return dna;
+    }
+
+    /**
+     * @return Huella en binario (16 bytes con MurmurHash3, 32 con SHA-256), tal como se guarda en la BD
+     */
+    public byte[] getHash() {
+        return hash;
+    }
+
+    public int size() {
+        return dna.size();
+    }
+
+    /**
+     * Acumula filas validándolas, empaquetándolas y alimentando el hash a medida que llegan.
+     * Usa la instancia de {@link DnaFingerprinter} del hilo actual: se arma y se termina en
+     * el mismo hilo, sin otro builder abierto en el medio.
+     */
+    public static final class Builder {
+
+        private final int size;
+        private final PackedDna packed;
+        private final DnaFingerprinter fingerprinter;
+        private final boolean canonical;
+        private final byte[] rowBytes;
+        private int rows;
+
+        private Builder(int size, DnaFingerprinter fingerprinter, boolean canonical, DetectorRules rules) {
+            if (size <= 0) {
+                throw new IllegalArgumentException("El tamaño de la matriz debe ser mayor a 0");
+            }
+            this.size = size;
+            this.packed = new PackedDna(size);
+            this.fingerprinter = fingerprinter;
+            this.canonical = canonical;
+            this.rowBytes = canonical ? null : new byte[size];
+            rules.seed(fingerprinter);
+        }
+
+        /**
+         * @return {@code false} si la fila no tiene N bases válidas o ya se recibieron N filas
+         */
+        public boolean addRow(CharSequence row) {
+            if (rows == size || row == null || row.length() != size || !packed.writeRow(rows, row, rowBytes)) {
+                return false;
+            }
+            if (!canonical) {
+                fingerprinter.update(rowBytes, 0, size);
+            }
+            rows++;
+            return true;
+        }
+
+        /**
+         * Agrega una fila ya codificada a 2 bits por base (ver {@link PackedDna#writePackedRow}),
+         * sin pasar por caracteres. La huella es la misma que la de la fila en texto.
+         *
+         * @param source Bytes de la fila, {@code (N + 3) / 4} desde {@code offset}
+         * @return {@code false} si ya se recibieron N filas
+         */
+        public boolean addPackedRow(byte[] source, int offset) {
+            if (rows == size) {
+                return false;
+            }
+            packed.writePackedRow(rows, source, offset, rowBytes);
+            if (!canonical) {
+                fingerprinter.update(rowBytes, 0, size);
+            }
+            rows++;
+            return true;
+        }
+
+        public int getRowCount() {
+            return rows;
+        }
+
+        /**
+         * @return La matriz procesada, o {@code null} si no se recibieron las N filas
+         */
+        public ParsedDna build() {
+            if (rows != size) {
+                return null;
+            }
+            byte[] hash = canonical ? DnaCanonicalizer.fingerprint(packed, fingerprinter) : fingerprinter.digest();
+            return new ParsedDna(packed, hash);
+        }
+    }
+}
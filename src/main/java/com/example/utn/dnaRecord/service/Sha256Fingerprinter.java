@@ -0,0 +1,40 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.exception.DnaHashCalculationException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Huella SHA-256: reutiliza el {@link MessageDigest} entre matrices.
+ */
+final class Sha256Fingerprinter implements DnaFingerprinter {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final MessageDigest digest;
+
+    Sha256Fingerprinter() {
+        try {
+            this.digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new DnaHashCalculationException(
+                    "Error al calcular el hash SHA-256 del ADN", e);
+        }
+    }
+
+    @Override
+    public void reset() {
+        digest.reset();
+    }
+
+    @Override
+    public void update(byte[] bytes, int offset, int length) {
+        digest.update(bytes, offset, length);
+    }
+
+    @Override
+    public byte[] digest() {
+        return digest.digest();
+    }
+}
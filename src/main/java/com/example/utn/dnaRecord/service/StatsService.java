@@ -1,30 +1,117 @@
 package com.example.utn.dnaRecord.service;
 
+import com.example.utn.dnaRecord.dto.BloomFilterStatsResponseDTO;
+import com.example.utn.dnaRecord.dto.CacheStatsResponseDTO;
+import com.example.utn.dnaRecord.dto.ReconcileStatsResponseDTO;
+import com.example.utn.dnaRecord.dto.StatsBreakdownResponseDTO;
 import com.example.utn.dnaRecord.dto.StatsResponseDTO;
-import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
 @RequiredArgsConstructor
 @Service
 public class StatsService {
 
-    private final DnaRecordRepository dnaRecordRepository;
+    private final DnaStatsCounter statsCounter;
+    private final DnaStatsTimeline statsTimeline;
+    private final DnaResultCache resultCache;
+    private final DnaHashFilter hashFilter;
 
     public StatsResponseDTO getStats() {
-        // 1. Consultar a la base de datos los totales
-        long countMutant = dnaRecordRepository.countByIsMutant(true);
-        long countHuman = dnaRecordRepository.countByIsMutant(false);
+        // 1. Leer los totales que se mantienen al guardar (sin consultar la base)
+        long countMutant = statsCounter.mutantCount();
+        long countHuman = statsCounter.humanCount();
+
+        // 2. Retornar el DTO con los datos y el ratio
+        return new StatsResponseDTO(countMutant, countHuman, ratio(countMutant, countHuman));
+    }
+
+    /**
+     * @return Versión de los totales de {@link #getStats()}, que cambia con cada registro nuevo;
+     * leerla no calcula nada
+     */
+    public String getStatsVersion() {
+        return statsCounter.version();
+    }
+
+    /**
+     * Mismos datos que {@link #getStats()}, contando solo los ADN nuevos de la ventana.
+     */
+    public StatsResponseDTO getStats(StatsWindow window) {
+        DnaStatsTimeline.Slice total = statsTimeline.total(window);
+        return new StatsResponseDTO(total.newMutants(), total.newHumans(),
+                ratio(total.newMutants(), total.newHumans()));
+    }
+
+    public StatsBreakdownResponseDTO getStatsBreakdown(StatsWindow window) {
+        List<DnaStatsTimeline.Slice> series = statsTimeline.series(window);
+        DnaStatsTimeline.Slice total = statsTimeline.total(window);
+        long requests = total.mutantRequests() + total.humanRequests();
+
+        List<StatsBreakdownResponseDTO.LatencyBucket> histogram = new ArrayList<>();
+        for (int bucket = 0; bucket < DnaStatsTimeline.LATENCY_BUCKETS; bucket++) {
+            if (total.latencyCount(bucket) > 0) {
+                histogram.add(new StatsBreakdownResponseDTO.LatencyBucket(micros(1L << bucket),
+                        total.latencyCount(bucket)));
+            }
+        }
 
-        // 2. Calcular el ratio
-        double ratio = 0.0;
+        return StatsBreakdownResponseDTO.builder()
+                .window(window.label())
+                .bucketSeconds(window.bucketSeconds())
+                .countMutantDna(total.newMutants())
+                .countHumanDna(total.newHumans())
+                .ratio(ratio(total.newMutants(), total.newHumans()))
+                .mutantRequests(total.mutantRequests())
+                .humanRequests(total.humanRequests())
+                .cacheHits(total.cacheHits())
+                .cacheHitRatio(requests == 0 ? 0.0 : (double) total.cacheHits() / requests)
+                .detections(total.detections())
+                .detectionMeanMicros(total.detections() == 0 ? 0.0
+                        : micros(total.detectionNanos()) / total.detections())
+                .detectionP50Micros(micros(total.detectionPercentileNanos(0.50)))
+                .detectionP90Micros(micros(total.detectionPercentileNanos(0.90)))
+                .detectionP99Micros(micros(total.detectionPercentileNanos(0.99)))
+                .detectionHistogram(histogram)
+                .series(series.stream()
+                        .map(slice -> new StatsBreakdownResponseDTO.Point(Instant.ofEpochMilli(slice.startMillis()),
+                                slice.newMutants(), slice.newHumans(), slice.mutantRequests(),
+                                slice.humanRequests(), slice.cacheHits(), slice.detections()))
+                        .toList())
+                .build();
+    }
+
+    public CacheStatsResponseDTO getCacheStats() {
+        CacheStats stats = resultCache.stats();
+        return new CacheStatsResponseDTO(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                stats.hitRate(), resultCache.size());
+    }
+
+    public BloomFilterStatsResponseDTO getBloomFilterStats() {
+        return new BloomFilterStatsResponseDTO(hashFilter.size(), hashFilter.stageCount(), hashFilter.memoryBytes(),
+                hashFilter.expectedFpp(), hashFilter.observedFpp(), hashFilter.definiteMisses(),
+                hashFilter.falsePositives());
+    }
+
+    public ReconcileStatsResponseDTO getReconcileStats() {
+        return new ReconcileStatsResponseDTO(statsCounter.reconcileCount(), statsCounter.skippedReconcileCount(),
+                statsCounter.lastReconciledAt());
+    }
+
+    private static double ratio(long countMutant, long countHuman) {
         if (countHuman > 0) {
-            ratio = (double) countMutant / countHuman;
-        } else if (countMutant > 0) {
-            ratio = 1.0;
+            return (double) countMutant / countHuman;
         }
+        // Sin humanos: 1 si hay mutantes, 0 si no hay datos
+        return countMutant > 0 ? 1.0 : 0.0;
+    }
 
-        // 3. Retornar el DTO con los datos
-        return new StatsResponseDTO(countMutant, countHuman, ratio);
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
     }
 }
\ No newline at end of file
@@ -0,0 +1,261 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.StatsStreamProperties;
+import com.example.utn.dnaRecord.dto.StatsDeltaResponseDTO;
+import com.example.utn.dnaRecord.dto.StatsResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publicador único de {@code GET /stats/stream} (Server-Sent Events).
+ * <p>
+ * Un solo hilo calcula las estadísticas cada {@code mutant.stats.stream.interval}, sin importar
+ * cuántos clientes estén suscriptos, y solo si hay alguno. Si los totales cambiaron, el resultado
+ * se ofrece a todos los suscriptores; si no cambian durante {@code heartbeat}, se les manda un
+ * comentario para detectar las conexiones cerradas.
+ * <p>
+ * Cada suscriptor tiene un solo lugar para el próximo evento y envía desde un hilo virtual
+ * propio, así que un cliente lento no demora el cálculo ni a los demás. Si todavía no terminó de
+ * enviar cuando llega un evento nuevo, el que esperaba se reemplaza y se cuenta como descartado:
+ * el cliente recibe siempre el último estado, y las diferencias ({@code new_mutant_dna},
+ * {@code new_human_dna}) se calculan contra lo que ese cliente recibió, por lo que no se pierde
+ * nada al saltear eventos. Un envío que falla da de baja al suscriptor.
+ * <p>
+ * Se detiene antes que el servidor web (fase por defecto) y cierra las conexiones abiertas, que
+ * si no demorarían el apagado ordenado.
+ */
+@Slf4j
+@Component
+public class StatsStreamPublisher implements SmartLifecycle {
+
+    private static final String EVENT_NAME = "stats";
+
+    private final StatsService statsService;
+    private final StatsStreamProperties properties;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder computations = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile Snapshot latest;
+    private long sequence;
+    private long lastPublishNanos = System.nanoTime();
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public StatsStreamPublisher(StatsService statsService, StatsStreamProperties properties) {
+        this.statsService = statsService;
+        this.properties = properties;
+    }
+
+    /**
+     * Suscribe un cliente nuevo, que recibe enseguida los totales actuales.
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(properties.getTimeout().toMillis()));
+    }
+
+    synchronized SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        if (latest == null) {
+            // Sin suscriptores no se calcula nada, así que no hay un cálculo reciente
+            latest = compute();
+            lastPublishNanos = System.nanoTime();
+        }
+        subscribers.add(subscriber);
+        subscriber.offer(latest);
+        return emitter;
+    }
+
+    /**
+     * Un cálculo: lo ejecuta el hilo del publicador cada {@code interval}.
+     */
+    synchronized void tick() {
+        if (subscribers.isEmpty()) {
+            latest = null;
+            return;
+        }
+        Snapshot previous = latest;
+        Snapshot snapshot = compute();
+        if (previous == null || previous.stats().getCountMutantDna() != snapshot.stats().getCountMutantDna()
+                || previous.stats().getCountHumanDna() != snapshot.stats().getCountHumanDna()) {
+            latest = snapshot;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(snapshot);
+            }
+            lastPublishNanos = System.nanoTime();
+        } else if (System.nanoTime() - lastPublishNanos >= properties.getHeartbeat().toNanos()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offerHeartbeat();
+            }
+            lastPublishNanos = System.nanoTime();
+        }
+    }
+
+    private Snapshot compute() {
+        computations.increment();
+        return new Snapshot(++sequence, statsService.getStats());
+    }
+
+    /**
+     * @return Clientes suscriptos
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * @return Eventos reemplazados por uno más nuevo antes de poder enviarse
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return Veces que se calcularon las estadísticas para los suscriptores
+     */
+    public long computationCount() {
+        return computations.sum();
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        long interval = properties.getInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("stats-stream").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::tickSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        senders.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría la tarea periódica
+            log.warn("No se pudieron publicar las estadísticas", e);
+        }
+    }
+
+    private record Snapshot(long sequence, StatsResponseDTO stats) {
+    }
+
+    private final class Subscriber {
+
+        private static final Snapshot HEARTBEAT = new Snapshot(-1, null);
+
+        private final SseEmitter emitter;
+        private final AtomicReference<Snapshot> next = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // Solo lo usa el hilo que tiene sending
+        private StatsResponseDTO lastSent;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(Snapshot snapshot) {
+            Snapshot replaced = next.getAndSet(snapshot);
+            if (replaced != null && replaced != HEARTBEAT) {
+                dropped.increment();
+            }
+            schedule();
+        }
+
+        private void offerHeartbeat() {
+            // Si hay un evento esperando, ya sirve para detectar la conexión cerrada
+            if (next.compareAndSet(null, HEARTBEAT)) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    sending.set(false); // Detenido
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    Snapshot snapshot;
+                    while ((snapshot = next.getAndSet(null)) != null) {
+                        if (!send(snapshot)) {
+                            return;
+                        }
+                    }
+                } finally {
+                    sending.set(false);
+                }
+                // Un evento que llegó después de vaciar y antes de liberar sending
+            } while (next.get() != null && sending.compareAndSet(false, true));
+        }
+
+        private boolean send(Snapshot snapshot) {
+            try {
+                if (snapshot == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    return true;
+                }
+                StatsResponseDTO stats = snapshot.stats();
+                long newMutants = lastSent == null ? 0 : stats.getCountMutantDna() - lastSent.getCountMutantDna();
+                long newHumans = lastSent == null ? 0 : stats.getCountHumanDna() - lastSent.getCountHumanDna();
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(snapshot.sequence()))
+                        .name(EVENT_NAME)
+                        .data(new StatsDeltaResponseDTO(snapshot.sequence(), stats.getCountMutantDna(),
+                                stats.getCountHumanDna(), stats.getRatio(), newMutants, newHumans),
+                                MediaType.APPLICATION_JSON));
+                lastSent = stats;
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado o conexión ya cerrada
+                subscribers.remove(this);
+                next.set(null);
+                return false;
+            }
+        }
+    }
+}
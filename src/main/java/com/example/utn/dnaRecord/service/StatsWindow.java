@@ -0,0 +1,58 @@
+package com.example.utn.dnaRecord.service;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Ventanas de tiempo de {@code GET /stats?window=...}. Las de minutos se arman con intervalos
+ * de un segundo y las de horas con intervalos de un minuto (ver {@link DnaStatsTimeline}).
+ */
+public enum StatsWindow {
+
+    ONE_MINUTE("1m", 1, 60),
+    FIVE_MINUTES("5m", 1, 300),
+    ONE_HOUR("1h", 60, 60),
+    ONE_DAY("24h", 60, 1440);
+
+    private final String label;
+    private final int bucketSeconds;
+    private final int buckets;
+
+    StatsWindow(String label, int bucketSeconds, int buckets) {
+        this.label = label;
+        this.bucketSeconds = bucketSeconds;
+        this.buckets = buckets;
+    }
+
+    /**
+     * @param label {@code 1m}, {@code 5m}, {@code 1h} o {@code 24h}
+     * @throws IllegalArgumentException si no es ninguna de esas
+     */
+    public static StatsWindow fromLabel(String label) {
+        for (StatsWindow window : values()) {
+            if (window.label.equals(label)) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("window debe ser "
+                + Arrays.stream(values()).map(StatsWindow::label).collect(Collectors.joining(", ")));
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * @return Duración de cada intervalo de la ventana
+     */
+    public int bucketSeconds() {
+        return bucketSeconds;
+    }
+
+    /**
+     * @return Intervalos que cubre la ventana, contando el actual
+     */
+    public int buckets() {
+        return buckets;
+    }
+}
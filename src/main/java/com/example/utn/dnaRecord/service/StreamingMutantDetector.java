@@ -0,0 +1,158 @@
+package com.example.utn.dnaRecord.service;
+
+/**
+ * Detector incremental por programación dinámica de largos de secuencia: recibe las filas
+ * de a una, sin armar nunca la matriz completa.
+ * <p>
+ * Por cada columna guarda el largo de la secuencia de bases iguales que termina en la fila
+ * anterior en vertical, diagonal descendente y diagonal ascendente (la horizontal se lleva
+ * mientras se recorre la fila). Cada celda se visita una sola vez y hace una comparación
+ * por dirección, sin importar el largo L de secuencia configurado ni el largo de las
+ * secuencias que aparezcan. La memoria es O(N) en vez de O(N²).
+ * <p>
+ * Cada celda donde una secuencia llega a L o más bases suma una secuencia: una secuencia
+ * de 7 bases iguales con L = 4 cuenta como 4, igual que en {@link BitboardMutantDetector}.
+ * <p>
+ * Puede declarar mutante en cuanto se alcanza el umbral: a partir de ahí las filas
+ * siguientes se ignoran. No es thread-safe: se usa una instancia por análisis.
+ */
+public class StreamingMutantDetector {
+
+    private final int sequenceLength;
+    private final int mutantThreshold;
+    private final int size;
+    private byte[] previousRow;
+    private byte[] currentRow;
+    private final int[] verticalRuns;
+    private int[] diagonalRuns;
+    private int[] nextDiagonalRuns;
+    private int[] inverseRuns;
+    private int[] nextInverseRuns;
+
+    private int rows;
+    private int sequenceCount;
+
+    public StreamingMutantDetector(int size) {
+        this(size, BitboardMutantDetector.DEFAULT_SEQUENCE_LENGTH, BitboardMutantDetector.DEFAULT_MUTANT_THRESHOLD);
+    }
+
+    /**
+     * @param size            Tamaño N de la matriz
+     * @param sequenceLength  Cantidad de bases iguales consecutivas que forman una secuencia
+     * @param mutantThreshold Cantidad de secuencias a partir de la cual el ADN es mutante
+     */
+    public StreamingMutantDetector(int size, int sequenceLength, int mutantThreshold) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("El tamaño de la matriz debe ser mayor a 0");
+        }
+        if (sequenceLength < 2) {
+            throw new IllegalArgumentException("El largo de secuencia debe ser al menos 2");
+        }
+        if (mutantThreshold < 1) {
+            throw new IllegalArgumentException("El umbral de mutante debe ser mayor a 0");
+        }
+        this.sequenceLength = sequenceLength;
+        this.mutantThreshold = mutantThreshold;
+        this.size = size;
+        this.previousRow = new byte[size];
+        this.currentRow = new byte[size];
+        this.verticalRuns = new int[size];
+        this.diagonalRuns = new int[size];
+        this.nextDiagonalRuns = new int[size];
+        this.inverseRuns = new int[size];
+        this.nextInverseRuns = new int[size];
+    }
+
+    /**
+     * Procesa la siguiente fila de la matriz.
+     *
+     * @param row Fila de N bases A, T, C, G
+     * @return {@code true} si con las filas recibidas ya se sabe que es mutante
+     * @throws IllegalArgumentException si la fila no tiene N bases válidas o sobran filas
+     */
+    public boolean acceptRow(CharSequence row) {
+        if (rows == size) {
+            throw new IllegalArgumentException("La matriz tiene más de " + size + " filas");
+        }
+        if (row == null || row.length() != size) {
+            throw new IllegalArgumentException("La fila " + rows + " no tiene " + size + " bases");
+        }
+        if (isMutant()) {
+            rows++;
+            return true; // Ya decidido: no hace falta mirar el resto
+        }
+
+        for (int col = 0; col < size; col++) {
+            int code = PackedDna.encode(row.charAt(col));
+            if (code < 0) {
+                throw new IllegalArgumentException("Base inválida en la fila " + rows + ", columna " + col);
+            }
+            currentRow[col] = (byte) code;
+        }
+
+        countRow();
+        rows++;
+        return isMutant();
+    }
+
+    private void countRow() {
+        final byte[] current = currentRow;
+        final byte[] previous = previousRow;
+        final boolean first = rows == 0;
+
+        int horizontalRun = 0;
+        for (int col = 0; col < size; col++) {
+            final byte base = current[col];
+
+            //  Horizontal
+            horizontalRun = col > 0 && current[col - 1] == base ? horizontalRun + 1 : 1;
+            //  Vertical
+            verticalRuns[col] = !first && previous[col] == base ? verticalRuns[col] + 1 : 1;
+            //  Diagonal descendente (\): continúa la de la columna anterior
+            nextDiagonalRuns[col] = !first && col > 0 && previous[col - 1] == base
+                    ? diagonalRuns[col - 1] + 1 : 1;
+            //  Diagonal ascendente (/): continúa la de la columna siguiente
+            nextInverseRuns[col] = !first && col < size - 1 && previous[col + 1] == base
+                    ? inverseRuns[col + 1] + 1 : 1;
+
+            sequenceCount += completed(horizontalRun) + completed(verticalRuns[col])
+                    + completed(nextDiagonalRuns[col]) + completed(nextInverseRuns[col]);
+        }
+
+        int[] runs = diagonalRuns;
+        diagonalRuns = nextDiagonalRuns;
+        nextDiagonalRuns = runs;
+        runs = inverseRuns;
+        inverseRuns = nextInverseRuns;
+        nextInverseRuns = runs;
+
+        previousRow = current;
+        currentRow = previous;
+    }
+
+    private int completed(int run) {
+        return run >= sequenceLength ? 1 : 0;
+    }
+
+    /**
+     * @return {@code true} si ya se encontraron tantas secuencias como el umbral de mutante
+     */
+    public boolean isMutant() {
+        return sequenceCount >= mutantThreshold;
+    }
+
+    /**
+     * @return {@code true} si se recibieron las N filas
+     */
+    public boolean isComplete() {
+        return rows == size;
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
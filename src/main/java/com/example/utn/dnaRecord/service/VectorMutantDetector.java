@@ -0,0 +1,101 @@
+package com.example.utn.dnaRecord.service;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Motor de bitboards vectorizado con la Vector API de la JDK ({@code jdk.incubator.vector}).
+ * <p>
+ * Hace las mismas comparaciones que {@link BitboardMutantDetector}, pero procesa varias
+ * palabras de 64 columnas por instrucción (4 con AVX2, 8 con AVX-512). Los segmentos de fila
+ * desplazados 1 a L - 1 posiciones se arman cargando el vector en {@code index} y en
+ * {@code index + 1} para traer los bits que cruzan de una palabra a la siguiente.
+ * <p>
+ * Las palabras del final de cada fila, que necesitan máscara de columnas, se resuelven
+ * con el motor escalar de bitboards.
+ * <p>
+ * Solo se instancia si el módulo incubador está disponible (ver
+ * {@link MutantDetector#createPackedDetector()}).
+ */
+class VectorMutantDetector extends BitboardMutantDetector {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    VectorMutantDetector(int sequenceLength, int mutantThreshold) {
+        super(sequenceLength, mutantThreshold);
+    }
+
+    @Override
+    int countSequencesInRow(PackedDna dna, int row) {
+        final int n = dna.size();
+        final int words = dna.wordsPerRow();
+        final long[] lo = dna.lo();
+        final long[] hi = dna.hi();
+        final int base = row * words;
+        final int sequenceLength = sequenceLength();
+        final int vectorWords = SPECIES.loopBound(fullStartWords(n));
+
+        int count = 0;
+        for (int word = 0; word < vectorWords; word += SPECIES.length()) {
+            final int index = base + word;
+            final LongVector rowLo = LongVector.fromArray(SPECIES, lo, index);
+            final LongVector rowHi = LongVector.fromArray(SPECIES, hi, index);
+
+            //  Horizontal: la fila contra sí misma desplazada 1 a L - 1 columnas
+            LongVector horizontal = equal(rowLo, rowHi, lo, hi, index, 1);
+            for (int k = 2; k < sequenceLength; k++) {
+                horizontal = horizontal.and(equal(rowLo, rowHi, lo, hi, index, k));
+            }
+            count += bitCount(horizontal);
+
+            if (row <= n - sequenceLength) {
+                //  Vertical y diagonal descendente (\): filas siguientes sin desplazar y desplazadas
+                LongVector vertical = equal(rowLo, rowHi, lo, hi, index + words, 0);
+                LongVector diagonal = equal(rowLo, rowHi, lo, hi, index + words, 1);
+                for (int k = 2; k < sequenceLength; k++) {
+                    int other = index + k * words;
+                    vertical = vertical.and(equal(rowLo, rowHi, lo, hi, other, 0));
+                    diagonal = diagonal.and(equal(rowLo, rowHi, lo, hi, other, k));
+                }
+                count += bitCount(vertical) + bitCount(diagonal);
+            }
+
+            if (row >= sequenceLength - 1) {
+                //  Diagonal ascendente (/): filas anteriores desplazadas
+                LongVector diagonal = equal(rowLo, rowHi, lo, hi, index - words, 1);
+                for (int k = 2; k < sequenceLength; k++) {
+                    diagonal = diagonal.and(equal(rowLo, rowHi, lo, hi, index - k * words, k));
+                }
+                count += bitCount(diagonal);
+            }
+        }
+
+        // Palabras restantes (incluye las que necesitan máscara)
+        for (int word = vectorWords; word < words; word++) {
+            count += countSequencesInWord(dna, row, word);
+        }
+        return count;
+    }
+
+    private static LongVector equal(LongVector rowLo, LongVector rowHi,
+                                    long[] lo, long[] hi, int other, int shift) {
+        return rowLo.lanewise(VectorOperators.XOR, shifted(lo, other, shift))
+                .or(rowHi.lanewise(VectorOperators.XOR, shifted(hi, other, shift)))
+                .not();
+    }
+
+    private static LongVector shifted(long[] plane, int index, int shift) {
+        LongVector current = LongVector.fromArray(SPECIES, plane, index);
+        if (shift == 0) {
+            return current;
+        }
+        LongVector next = LongVector.fromArray(SPECIES, plane, index + 1);
+        return current.lanewise(VectorOperators.LSHR, shift)
+                .or(next.lanewise(VectorOperators.LSHL, 64 - shift));
+    }
+
+    private static int bitCount(LongVector bits) {
+        return (int) bits.lanewise(VectorOperators.BIT_COUNT).reduceLanes(VectorOperators.ADD);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.utn.dnaRecord.validator;
+
+import com.example.utn.dnaRecord.config.DetectorProperties;
+import com.example.utn.dnaRecord.dto.DnaRequestDTO;
+import com.example.utn.dnaRecord.service.DetectorRules;
+import com.example.utn.dnaRecord.service.FingerprintAlgorithm;
+import com.example.utn.dnaRecord.service.ParsedDna;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Valida el request completo y deja la matriz ya procesada en el DTO, para que ni el
+ * servicio ni el detector vuelvan a recorrer las filas.
+ * <p>
+ * Si el DTO viene del JSON, {@code DnaRequestDeserializer} ya validó y procesó la matriz
+ * mientras la leía; solo queda reportar un ADN nulo o vacío.
+ */
+public class DnaRequestValidator implements ConstraintValidator<ValidDna, DnaRequestDTO> {
+
+    private final FingerprintAlgorithm fingerprint;
+    private final boolean canonicalFingerprint;
+    private final DetectorRules rules;
+
+    public DnaRequestValidator() {
+        this(new DetectorProperties());
+    }
+
+    @Autowired
+    public DnaRequestValidator(ObjectProvider<DetectorProperties> properties) {
+        this(properties.getIfAvailable(DetectorProperties::new));
+    }
+
+    private DnaRequestValidator(DetectorProperties properties) {
+        this.fingerprint = properties.getFingerprint();
+        this.canonicalFingerprint = properties.isCanonicalFingerprint();
+        this.rules = properties.rules();
+    }
+
+    @Override
+    public boolean isValid(DnaRequestDTO request, ConstraintValidatorContext context) {
+        if (request == null) return true;
+        if (request.getParsedDna() != null) return true;
+
+        String[] dna = request.getDna();
+        if (dna == null) return reject(context, "La secuencia de ADN no puede ser nula");
+        if (dna.length == 0) return reject(context, "La secuencia de ADN no puede estar vacía");
+
+        ParsedDna parsed = ParsedDna.parse(dna, fingerprint, canonicalFingerprint, rules);
+        request.setParsedDna(parsed);
+        return parsed != null;
+    }
+
+    private static boolean reject(ConstraintValidatorContext context, String message) {
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(message)
+                .addPropertyNode("dna")
+                .addConstraintViolation();
+        return false;
+    }
+}
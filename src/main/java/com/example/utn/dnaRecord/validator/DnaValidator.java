@@ -1,13 +1,11 @@
 package com.example.utn.dnaRecord.validator;
 
+import com.example.utn.dnaRecord.service.PackedDna;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import java.util.regex.Pattern;
 
 public class DnaValidator implements ConstraintValidator<ValidDna, String[]> {
 
-    private static final Pattern DNA_VALIDO = Pattern.compile("^[ATCG]+$");
-
     @Override
     public boolean isValid(String[] dna, ConstraintValidatorContext context) {
         if (dna == null) return false;
@@ -17,8 +15,10 @@ public class DnaValidator implements ConstraintValidator<ValidDna, String[]> {
         for (String row : dna) {
             if (row == null) return false;
             if (row.length() != n) return false;
-            if (!DNA_VALIDO.matcher(row).matches()) return false;
+            for (int col = 0; col < n; col++) {
+                if (PackedDna.encode(row.charAt(col)) < 0) return false;
+            }
         }
         return true;
     }
-}
\ No newline at end of file
+}
@@ -5,8 +5,8 @@ import jakarta.validation.Payload;
 import java.lang.annotation.*;
 
 @Documented
-@Constraint(validatedBy = DnaValidator.class)
-@Target({ ElementType.FIELD })
+@Constraint(validatedBy = { DnaValidator.class, DnaRequestValidator.class })
+@Target({ ElementType.FIELD, ElementType.TYPE })
 @Retention(RetentionPolicy.RUNTIME)
 public @interface ValidDna {
     String message() default "La secuencia de ADN no es válida (debe ser NxN y contener solo A, T, C, G)";
@@ -0,0 +1,203 @@
+package com.example.utn.dnaRecord.config;
+
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la descompresión de los cuerpos de {@code /mutant}.
+ */
+class RequestDecompressionFilterTest {
+
+    private static final String BODY = "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}";
+
+    private final CompressionProperties compression = new CompressionProperties();
+    private final DetectorProperties detector = new DetectorProperties();
+    private final JobProperties jobs = new JobProperties();
+
+    @Test
+    @DisplayName("gzip: el controller lee el cuerpo descomprimido, sin Content-Encoding ni Content-Length")
+    void testGzip() throws Exception {
+        MockHttpServletRequest request = request("/mutant", "gzip", gzip(BODY.getBytes(StandardCharsets.UTF_8)));
+
+        HttpServletRequest filtered = filter(request, new MockHttpServletResponse());
+
+        assertEquals(BODY, read(filtered.getInputStream()));
+        assertNull(filtered.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(filtered.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertFalse(Collections.list(filtered.getHeaderNames()).contains(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(-1, filtered.getContentLength());
+    }
+
+    @Test
+    @DisplayName("deflate: acepta zlib y deflate sin encabezado")
+    void testDeflate() throws Exception {
+        byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+        for (boolean raw : new boolean[]{false, true}) {
+            MockHttpServletRequest request = request("/mutant/batch", "deflate", deflate(body, raw));
+
+            assertEquals(BODY, read(filter(request, new MockHttpServletResponse()).getInputStream()));
+        }
+    }
+
+    @Test
+    @DisplayName("Una bomba de descompresión se corta al pasar el máximo, sin descomprimir el resto")
+    void testDecompressionBomb() throws Exception {
+        compression.setMaxInflatedSize(DataSize.ofKilobytes(64));
+        byte[] bomb = gzip(new byte[64 * 1024 * 1024]);
+        assertTrue(bomb.length < 128 * 1024, "64 MB de ceros comprimen a unos KB");
+
+        HttpServletRequest filtered = filter(request("/mutant", "gzip", bomb), new MockHttpServletResponse());
+
+        DnaTooLargeException e = assertThrows(DnaTooLargeException.class, () -> read(filtered.getInputStream()));
+        assertEquals("El cuerpo descomprimido supera el máximo de 65536 bytes", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("El máximo por defecto alcanza para el JSON de la matriz más grande aceptada")
+    void testDefaultLimitFitsLargestMatrix() throws Exception {
+        detector.setMaxSize(300);
+        StringBuilder json = new StringBuilder("{ \"dna\": [\n");
+        for (int row = 0; row < 300; row++) {
+            json.append("    \"").append("ACGT".repeat(75)).append(row < 299 ? "\",\n" : "\"\n");
+        }
+        json.append("] }");
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        HttpServletRequest filtered = filter(request("/mutant", "gzip", gzip(body)), new MockHttpServletResponse());
+
+        assertEquals(json.toString(), read(filtered.getInputStream()));
+        assertTrue(RequestDecompressionFilter.expectedJsonSize(300) < 2L * body.length, "Y no mucho más");
+    }
+
+    @Test
+    @DisplayName("En POST /mutant el máximo por defecto sale de sync-max-size, no de max-size")
+    void testSyncLimitOnMutant() throws Exception {
+        jobs.setSyncMaxSize(10);
+        byte[] whitespace = gzip(" ".repeat(64 * 1024).getBytes(StandardCharsets.UTF_8));
+
+        HttpServletRequest mutant = filter(request("/mutant", "gzip", whitespace), new MockHttpServletResponse());
+        HttpServletRequest batch = filter(request("/mutant/batch", "gzip", whitespace), new MockHttpServletResponse());
+
+        DnaTooLargeException e = assertThrows(DnaTooLargeException.class, () -> read(mutant.getInputStream()));
+        assertEquals("El cuerpo descomprimido supera el máximo de " + RequestDecompressionFilter.expectedJsonSize(10)
+                + " bytes", e.getMessage());
+        assertEquals(64 * 1024, read(batch.getInputStream()).length());
+    }
+
+    @Test
+    @DisplayName("Con N conocido (primera fila o encabezado binario) el máximo baja al de esa matriz")
+    void testLimitTightensOnceSizeIsKnown() throws Exception {
+        String expected = "El cuerpo descomprimido supera el máximo de " + RequestDecompressionFilter.expectedJsonSize(4)
+                + " bytes";
+        byte[] padding = " ".repeat(64 * 1024).getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest json = request("/mutant/jobs", "gzip",
+                gzip(concat("{\"dna\":[\"ATGC\",".getBytes(StandardCharsets.UTF_8), padding)));
+        MockHttpServletRequest text = request("/mutant", "gzip",
+                gzip(concat("ATGC\n".getBytes(StandardCharsets.UTF_8), padding)));
+        text.setContentType("text/plain");
+        MockHttpServletRequest binary = request("/mutant", "gzip", gzip(concat(new byte[]{0, 0, 0, 4}, padding)));
+        binary.setContentType("application/octet-stream");
+
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{json, text, binary}) {
+            HttpServletRequest filtered = filter(request, new MockHttpServletResponse());
+            DnaTooLargeException e = assertThrows(DnaTooLargeException.class, () -> read(filtered.getInputStream()));
+            assertEquals(expected, e.getMessage());
+        }
+
+        // En /mutant/batch la primera fila no dice nada de las demás matrices
+        byte[] body = concat("{\"dna\":[\"ATGC\",".getBytes(StandardCharsets.UTF_8), padding);
+        MockHttpServletRequest batch = request("/mutant/batch", "gzip", gzip(body));
+        assertEquals(body.length, read(filter(batch, new MockHttpServletResponse()).getInputStream()).length());
+    }
+
+    @Test
+    @DisplayName("Un Content-Encoding desconocido se rechaza con 415")
+    void testUnsupportedEncoding() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNull(filter(request("/mutant", "br", new byte[]{1, 2, 3}), response));
+        assertEquals(415, response.getStatus());
+        assertEquals("gzip, deflate", response.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    @DisplayName("Sin Content-Encoding, fuera de /mutant o deshabilitado, el request pasa sin cambios")
+    void testNotFiltered() throws Exception {
+        byte[] compressed = gzip(BODY.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletRequest plain = request("/mutant", null, BODY.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletRequest other = request("/stats", "gzip", compressed);
+        assertSame(plain, filter(plain, new MockHttpServletResponse()));
+        assertSame(other, filter(other, new MockHttpServletResponse()));
+
+        compression.setEnabled(false);
+        MockHttpServletRequest disabled = request("/mutant", "gzip", compressed);
+        assertSame(disabled, filter(disabled, new MockHttpServletResponse()));
+    }
+
+    /**
+     * @return El request que recibe el resto de la cadena, o {@code null} si el filtro respondió
+     */
+    private HttpServletRequest filter(MockHttpServletRequest request, MockHttpServletResponse response)
+            throws Exception {
+        AtomicReference<HttpServletRequest> forwarded = new AtomicReference<>();
+        FilterChain chain = (req, res) -> forwarded.set((HttpServletRequest) req);
+        new RequestDecompressionFilter(compression, detector, jobs).doFilter(request, response, chain);
+        return forwarded.get();
+    }
+
+    private static MockHttpServletRequest request(String path, String encoding, byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        if (encoding != null) {
+            request.addHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        request.addHeader(HttpHeaders.CONTENT_LENGTH, body.length);
+        request.setContent(body);
+        return request;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] body = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, body, first.length, second.length);
+        return body;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] body, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflate.write(body);
+        }
+        return out.toByteArray();
+    }
+}
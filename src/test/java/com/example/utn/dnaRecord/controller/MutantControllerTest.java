@@ -1,26 +1,65 @@
 package com.example.utn.dnaRecord.controller;
 
+import com.example.utn.dnaRecord.config.JobProperties;
+import com.example.utn.dnaRecord.config.StatsProperties;
+import com.example.utn.dnaRecord.dto.DnaBinaryRequestConverter;
+import com.example.utn.dnaRecord.dto.BloomFilterStatsResponseDTO;
+import com.example.utn.dnaRecord.dto.CacheStatsResponseDTO;
 import com.example.utn.dnaRecord.dto.DnaRequestDTO;
+import com.example.utn.dnaRecord.dto.MutantJobResponseDTO;
+import com.example.utn.dnaRecord.dto.ReconcileStatsResponseDTO;
+import com.example.utn.dnaRecord.dto.StatsBreakdownResponseDTO;
 import com.example.utn.dnaRecord.dto.StatsResponseDTO;
 import com.example.utn.dnaRecord.exception.DnaHashCalculationException;
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import com.example.utn.dnaRecord.service.MutantBatchService;
+import com.example.utn.dnaRecord.service.MutantJobService;
+import com.example.utn.dnaRecord.service.MutantRowStreamService;
 import com.example.utn.dnaRecord.service.MutantService;
+import com.example.utn.dnaRecord.service.ParsedDna;
 import com.example.utn.dnaRecord.service.StatsService;
+import com.example.utn.dnaRecord.service.StatsStreamPublisher;
+import com.example.utn.dnaRecord.service.StatsWindow;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(MutantController.class)
+@EnableConfigurationProperties({StatsProperties.class, JobProperties.class})
 public class MutantControllerTest {
 
     @Autowired
@@ -29,12 +68,27 @@ public class MutantControllerTest {
     @MockitoBean
     private MutantService mutantService;
 
+    @MockitoBean
+    private MutantBatchService mutantBatchService;
+
+    @MockitoBean
+    private MutantJobService mutantJobService;
+
+    @MockitoBean
+    private MutantRowStreamService mutantRowStreamService;
+
     @MockitoBean
     private StatsService statsService;
 
+    @MockitoBean
+    private StatsStreamPublisher statsStream;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JobProperties jobProperties;
+
     @Test
     @DisplayName("POST /mutant - Retorna 200 OK si es Mutante")
     public void testCheckMutant_IsMutant_Returns200() throws Exception {
@@ -77,6 +131,212 @@ public class MutantControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("POST /mutant - Acepta la matriz en binario (application/octet-stream)")
+    public void testCheckMutant_Binary_Returns200() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        when(mutantService.analyzeDna(any())).thenReturn(true);
+
+        mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(DnaBinaryRequestConverter.encode(dna)))
+                .andExpect(status().isOk());
+
+        verify(mutantService).analyzeDna(argThat(parsed -> parsed.size() == 6
+                && Arrays.equals(parsed.getHash(), ParsedDna.parse(dna).getHash())));
+    }
+
+    @Test
+    @DisplayName("POST /mutant - Retorna 400 con el motivo si el binario está incompleto")
+    public void testCheckMutant_TruncatedBinary_Returns400() throws Exception {
+        byte[] body = DnaBinaryRequestConverter.encode(new String[]{"ATGC", "CAGT", "TTAT", "AGAC"});
+
+        mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(Arrays.copyOf(body, body.length - 2)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("El cuerpo termina en la fila 2 y se esperaban 4"));
+        verify(mutantService, never()).analyzeDna(any());
+    }
+
+    @Test
+    @DisplayName("POST /mutant - En texto, un veredicto anticipado responde 200 y cierra la conexión")
+    public void testCheckMutantRows_EarlyVerdict_Returns200AndCloses() throws Exception {
+        when(mutantRowStreamService.analyze(any())).thenReturn(new MutantRowStreamService.Verdict(true, 1, 8));
+
+        mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("AAAACCCC\n"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONNECTION, "close"));
+        verify(mutantService, never()).analyzeDna(any());
+    }
+
+    @Test
+    @DisplayName("POST /mutant - En texto, un humano leído completo responde 403")
+    public void testCheckMutantRows_Human_Returns403() throws Exception {
+        when(mutantRowStreamService.analyze(any())).thenReturn(new MutantRowStreamService.Verdict(false, 4, 4));
+
+        mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("ATGC\nCAGT\nTTAT\nAGAC\n"))
+                .andExpect(status().isForbidden())
+                .andExpect(header().doesNotExist(HttpHeaders.CONNECTION));
+    }
+
+    @Test
+    @DisplayName("POST /mutant - En texto, una fila inválida responde 400 con el motivo")
+    public void testCheckMutantRows_InvalidRow_Returns400() throws Exception {
+        when(mutantRowStreamService.analyze(any()))
+                .thenThrow(new IllegalArgumentException("Base inválida en la fila 2, columna 2"));
+
+        mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("ATGC\nCAGT\nTTXT\nAGAC\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Base inválida en la fila 2, columna 2"));
+    }
+
+    @Test
+    @DisplayName("POST /mutant - En texto, una matriz de más de sync-max-size responde 413")
+    public void testCheckMutantRows_TooLarge_Returns413() throws Exception {
+        when(mutantRowStreamService.analyze(any()))
+                .thenThrow(DnaTooLargeException.syncLimit("POST /mutant", 6, 4));
+
+        mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("ATGCGA\nCAGTGC\n"))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(content().string(
+                        "El ADN de 6x6 supera el máximo de 4x4 de POST /mutant; enviarlo a POST /mutant/jobs"));
+    }
+
+    @Test
+    @DisplayName("POST /mutant - Acepta el JSON comprimido con gzip")
+    public void testCheckMutant_Gzip_Returns200() throws Exception {
+        when(mutantService.analyzeDna(any())).thenReturn(true);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}"
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+
+        mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(compressed.toByteArray()))
+                .andExpect(status().isOk());
+
+        verify(mutantService).analyzeDna(argThat(parsed -> parsed.size() == 6));
+    }
+
+    @Test
+    @DisplayName("POST /mutant - Retorna 400 si el cuerpo no está comprimido como dice Content-Encoding")
+    public void testCheckMutant_InvalidGzip_Returns400() throws Exception {
+        mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content("{\"dna\":[\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\"]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("El cuerpo comprimido no es válido o está incompleto"));
+    }
+
+    @Test
+    @DisplayName("POST /mutant - Retorna 413 con la primera fila o el encabezado si la matriz supera el máximo sincrónico")
+    public void testCheckMutant_TooLarge_Returns413() throws Exception {
+        int syncMaxSize = jobProperties.getSyncMaxSize();
+        jobProperties.setSyncMaxSize(4);
+        String message = "El ADN de 6x6 supera el máximo de 4x4 de POST /mutant; enviarlo a POST /mutant/jobs";
+        try {
+            // La segunda fila es inválida: si se leyera, respondería 400
+            mockMvc.perform(post("/mutant")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"dna\":[\"ATGCGA\",\"CAXTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}"))
+                    .andExpect(status().isPayloadTooLarge())
+                    .andExpect(content().string(message));
+            // Solo el encabezado binario, sin filas
+            mockMvc.perform(post("/mutant")
+                            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                            .content(new byte[]{0, 0, 0, 6}))
+                    .andExpect(status().isPayloadTooLarge())
+                    .andExpect(content().string(message));
+            // /mutant/jobs no tiene el máximo sincrónico
+            when(mutantJobService.submit(any())).thenReturn(MutantJobResponseDTO.builder()
+                    .id(UUID.randomUUID()).status(MutantJobResponseDTO.Status.QUEUED).size(6).build());
+            mockMvc.perform(post("/mutant/jobs")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}"))
+                    .andExpect(status().isAccepted());
+        } finally {
+            jobProperties.setSyncMaxSize(syncMaxSize);
+        }
+        verify(mutantService, never()).analyzeDna(any());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/jobs - Retorna 202 con el trabajo y su Location")
+    public void testSubmitJob_Returns202() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(mutantJobService.submit(any())).thenReturn(MutantJobResponseDTO.builder()
+                .id(id).status(MutantJobResponseDTO.Status.QUEUED).size(4).build());
+
+        mockMvc.perform(post("/mutant/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dna\":[\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\"]}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/mutant/jobs/" + id))
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.is_mutant").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /mutant/jobs/{id} - Espera el resultado hasta wait segundos")
+    public void testGetJob_WaitsForResult() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(mutantJobService.await(eq(id), eq(Duration.ofSeconds(10)))).thenReturn(Optional.of(
+                CompletableFuture.completedFuture(MutantJobResponseDTO.builder()
+                        .id(id).status(MutantJobResponseDTO.Status.DONE).size(6).isMutant(true).build())));
+
+        MvcResult result = mockMvc.perform(get("/mutant/jobs/" + id).param("wait", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DONE"))
+                .andExpect(jsonPath("$.is_mutant").value(true));
+    }
+
+    @Test
+    @DisplayName("GET /mutant/jobs/{id} - Retorna 404 si el trabajo no existe o venció")
+    public void testGetJob_Unknown_Returns404() throws Exception {
+        when(mutantJobService.await(any(), any())).thenReturn(Optional.empty());
+
+        MvcResult result = mockMvc.perform(get("/mutant/jobs/" + UUID.randomUUID()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/batch - Responde en NDJSON lo que escribe el servicio")
+    public void testCheckMutantBatch_StreamsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("{\"index\":0,\"is_mutant\":true}\n".getBytes());
+            return null;
+        }).when(mutantBatchService).analyze(any(), any());
+
+        mockMvc.perform(post("/mutant/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"dna\":[\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\"]}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"index\":0,\"is_mutant\":true}\n"));
+    }
+
     @Test
     @DisplayName("GET /stats - Retorna estadísticas correctamente")
     public void testGetStats_Returns200AndJson() throws Exception {
@@ -92,6 +352,132 @@ public class MutantControllerTest {
                 .andExpect(jsonPath("$.ratio").value(0.4));
     }
 
+    @Test
+    @DisplayName("GET /stats - Retorna la versión de los totales como ETag")
+    public void testGetStats_ReturnsETag() throws Exception {
+        when(statsService.getStatsVersion()).thenReturn("m1abc-7");
+        when(statsService.getStats()).thenReturn(new StatsResponseDTO(40, 100, 0.4));
+
+        mockMvc.perform(get("/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"m1abc-7\""))
+                .andExpect(header().string("Cache-Control", "max-age=0, public"));
+    }
+
+    @Test
+    @DisplayName("GET /stats - Con If-None-Match igual a la versión actual retorna 304 sin cuerpo")
+    public void testGetStats_IfNoneMatch_Returns304() throws Exception {
+        when(statsService.getStatsVersion()).thenReturn("m1abc-7");
+        when(statsService.getStats()).thenReturn(new StatsResponseDTO(40, 100, 0.4));
+
+        mockMvc.perform(get("/stats").header("If-None-Match", "\"m1abc-6\", \"m1abc-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"m1abc-7\""))
+                .andExpect(header().string("Cache-Control", "max-age=0, public"))
+                .andExpect(content().string(""));
+
+        when(statsService.getStats()).thenReturn(new StatsResponseDTO(41, 100, 0.41));
+        mockMvc.perform(get("/stats").header("If-None-Match", "\"m1abc-6\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count_mutant_dna").value(41));
+    }
+
+    @Test
+    @DisplayName("GET /stats?window=5m - Retorna las estadísticas de la ventana")
+    public void testGetStats_WithWindow() throws Exception {
+        when(statsService.getStats(StatsWindow.FIVE_MINUTES)).thenReturn(new StatsResponseDTO(2, 8, 0.25));
+
+        mockMvc.perform(get("/stats").param("window", "5m"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count_mutant_dna").value(2))
+                .andExpect(jsonPath("$.count_human_dna").value(8))
+                .andExpect(jsonPath("$.ratio").value(0.25));
+    }
+
+    @Test
+    @DisplayName("GET /stats?window=2h - Ventana desconocida es 400")
+    public void testGetStats_InvalidWindow_Returns400() throws Exception {
+        mockMvc.perform(get("/stats").param("window", "2h"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("window debe ser 1m, 5m, 1h, 24h"));
+        mockMvc.perform(get("/stats/breakdown").param("window", "7d"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /stats/breakdown - Por defecto la ventana de 5 minutos")
+    public void testGetStatsBreakdown_DefaultWindow() throws Exception {
+        when(statsService.getStatsBreakdown(StatsWindow.FIVE_MINUTES)).thenReturn(StatsBreakdownResponseDTO.builder()
+                .window("5m").bucketSeconds(1).mutantRequests(3).cacheHits(1).cacheHitRatio(0.25)
+                .detectionHistogram(List.of(new StatsBreakdownResponseDTO.LatencyBucket(2.048, 3)))
+                .series(List.of()).build());
+
+        mockMvc.perform(get("/stats/breakdown"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").value("5m"))
+                .andExpect(jsonPath("$.bucket_seconds").value(1))
+                .andExpect(jsonPath("$.mutant_requests").value(3))
+                .andExpect(jsonPath("$.cache_hit_ratio").value(0.25))
+                .andExpect(jsonPath("$.detection_histogram[0].le_micros").value(2.048));
+    }
+
+    @Test
+    @DisplayName("GET /stats/stream - Abre un flujo de Server-Sent Events del publicador")
+    public void testStreamStats_StartsEventStream() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(statsStream.subscribe()).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/stats/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().name("stats").data("{}"));
+        emitter.complete();
+
+        assertTrue(result.getResponse().getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        assertTrue(result.getResponse().getContentAsString().contains("event:stats"));
+    }
+
+    @Test
+    @DisplayName("GET /stats/cache - Retorna los contadores del caché en memoria")
+    public void testGetCacheStats_Returns200AndJson() throws Exception {
+        when(statsService.getCacheStats()).thenReturn(new CacheStatsResponseDTO(90, 10, 2, 0.9, 8));
+
+        mockMvc.perform(get("/stats/cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(90))
+                .andExpect(jsonPath("$.misses").value(10))
+                .andExpect(jsonPath("$.evictions").value(2))
+                .andExpect(jsonPath("$.hit_ratio").value(0.9))
+                .andExpect(jsonPath("$.size").value(8));
+    }
+
+    @Test
+    @DisplayName("GET /stats/bloom - Retorna el estado del filtro de Bloom")
+    public void testGetBloomFilterStats_Returns200AndJson() throws Exception {
+        when(statsService.getBloomFilterStats())
+                .thenReturn(new BloomFilterStatsResponseDTO(1000, 1, 1198080, 0.0001, 0.002, 499, 1));
+
+        mockMvc.perform(get("/stats/bloom"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries").value(1000))
+                .andExpect(jsonPath("$.expected_fpp").value(0.0001))
+                .andExpect(jsonPath("$.observed_fpp").value(0.002))
+                .andExpect(jsonPath("$.skipped_lookups").value(499));
+    }
+
+    @Test
+    @DisplayName("GET /stats/reconcile - Retorna las reconciliaciones hechas y salteadas")
+    public void testGetReconcileStats_Returns200AndJson() throws Exception {
+        when(statsService.getReconcileStats())
+                .thenReturn(new ReconcileStatsResponseDTO(12, 1, Instant.parse("2025-01-02T03:04:05Z")));
+
+        mockMvc.perform(get("/stats/reconcile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reconciles").value(12))
+                .andExpect(jsonPath("$.skipped").value(1))
+                .andExpect(jsonPath("$.last_reconciled_at").value("2025-01-02T03:04:05Z"));
+    }
+
     @Test
     @DisplayName("POST /mutant - Maneja IllegalArgumentException con 400 Bad Request")
     public void testCheckMutant_HandledException_Returns400() throws Exception {
@@ -0,0 +1,113 @@
+package com.example.utn.dnaRecord.dto;
+
+import com.example.utn.dnaRecord.config.DetectorProperties;
+import com.example.utn.dnaRecord.exception.DnaFormatException;
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import com.example.utn.dnaRecord.service.ParsedDna;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del formato binario de {@code POST /mutant} ({@code application/octet-stream}).
+ */
+class DnaBinaryRequestConverterTest {
+
+    private static final String[] MUTANT = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+    private final DetectorProperties properties = new DetectorProperties();
+    private final DnaBinaryRequestConverter converter = new DnaBinaryRequestConverter(properties);
+
+    @Test
+    @DisplayName("El formato es N y 2 bits por base, la primera en los bits altos")
+    void testEncode() {
+        byte[] body = DnaBinaryRequestConverter.encode(new String[]{"ACGT", "TTTT", "AAAA", "GACA"});
+
+        assertArrayEquals(new byte[]{0, 0, 0, 4, 0b00_01_10_11, (byte) 0xFF, 0, (byte) 0b10_00_01_00}, body);
+    }
+
+    @Test
+    @DisplayName("Cuerpo válido: misma matriz y misma huella que el JSON, sin String[]")
+    void testReadsSameDnaAsJson() throws IOException {
+        DnaRequestDTO request = read(DnaBinaryRequestConverter.encode(MUTANT));
+
+        assertNull(request.getDna());
+        ParsedDna expected = ParsedDna.parse(MUTANT);
+        assertArrayEquals(expected.getHash(), request.getParsedDna().getHash());
+        for (int row = 0; row < MUTANT.length; row++) {
+            for (int col = 0; col < MUTANT.length; col++) {
+                assertEquals(MUTANT[row].charAt(col), request.getParsedDna().getDna().baseAt(row, col));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Solo lee DnaRequestDTO en octet-stream y no escribe")
+    void testSupportedTypes() {
+        assertTrue(converter.canRead(DnaRequestDTO.class, MediaType.APPLICATION_OCTET_STREAM));
+        assertFalse(converter.canRead(DnaRequestDTO.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(byte[].class, MediaType.APPLICATION_OCTET_STREAM));
+        assertFalse(converter.canWrite(DnaRequestDTO.class, MediaType.APPLICATION_OCTET_STREAM));
+    }
+
+    @Test
+    @DisplayName("Rechaza un N inválido o mayor al máximo sin leer las filas")
+    void testRejectsSize() {
+        properties.setMaxSize(5);
+        DnaBinaryRequestConverter limited = new DnaBinaryRequestConverter(properties);
+
+        assertRejected(limited, DnaBinaryRequestConverter.encode(MUTANT), "El ADN supera el tamaño máximo de 5x5");
+        assertRejected(limited, ByteBuffer.allocate(4).putInt(-1).array(), "El tamaño de la matriz debe ser mayor a 0");
+        assertRejected(limited, new byte[]{0, 0}, "El cuerpo no tiene el tamaño N de la matriz");
+    }
+
+    @Test
+    @DisplayName("Rechaza con el encabezado un N mayor al máximo del request, sin leer las filas")
+    void testRejectsSizeOverRequestLimit() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        servletRequest.setAttribute(DnaSizeLimit.ATTRIBUTE, new DnaSizeLimit("POST /mutant", 4));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+        try {
+            byte[] header = ByteBuffer.allocate(4).putInt(MUTANT.length).array();
+            HttpMessageNotReadableException e = assertThrows(HttpMessageNotReadableException.class,
+                    () -> converter.read(DnaRequestDTO.class, new MockHttpInputMessage(header)));
+
+            assertInstanceOf(DnaTooLargeException.class, e.getMostSpecificCause());
+            assertEquals("El ADN de 6x6 supera el máximo de 4x4 de POST /mutant; enviarlo a POST /mutant/jobs",
+                    e.getMostSpecificCause().getMessage());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    @DisplayName("Rechaza un cuerpo con filas de menos o bytes de más")
+    void testRejectsLength() {
+        byte[] body = DnaBinaryRequestConverter.encode(MUTANT);
+
+        assertRejected(converter, Arrays.copyOf(body, body.length - 1), "El cuerpo termina en la fila 5 y se esperaban 6");
+        assertRejected(converter, Arrays.copyOf(body, body.length + 1), "El cuerpo tiene bytes después de la fila 5");
+    }
+
+    private DnaRequestDTO read(byte[] body) throws IOException {
+        return converter.read(DnaRequestDTO.class, new MockHttpInputMessage(body));
+    }
+
+    private static void assertRejected(DnaBinaryRequestConverter converter, byte[] body, String message) {
+        HttpMessageNotReadableException e = assertThrows(HttpMessageNotReadableException.class,
+                () -> converter.read(DnaRequestDTO.class, new MockHttpInputMessage(body)));
+        assertInstanceOf(DnaFormatException.class, e.getMostSpecificCause());
+        assertEquals(message, e.getMostSpecificCause().getMessage());
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.utn.dnaRecord.dto;
+
+import com.example.utn.dnaRecord.config.DetectorProperties;
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import com.example.utn.dnaRecord.service.ParsedDna;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del deserializador de DnaRequestDTO que lee el JSON directo a la matriz empaquetada.
+ */
+class DnaRequestDeserializerTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    @DisplayName("JSON válido: matriz empaquetada y hash iguales a los de String[]")
+    void testValidDna() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        DnaRequestDTO request = objectMapper.readValue(objectMapper.writeValueAsString(new DnaRequestDTO(dna)),
+                DnaRequestDTO.class);
+
+        assertNull(request.getDna(), "No se materializa el String[]");
+        assertNotNull(request.getParsedDna());
+        assertArrayEquals(ParsedDna.parse(dna).getHash(), request.getParsedDna().getHash());
+        assertEquals('C', request.getParsedDna().getDna().baseAt(4, 0));
+    }
+
+    @Test
+    @DisplayName("Campos desconocidos se ignoran")
+    void testUnknownFieldsIgnored() throws Exception {
+        DnaRequestDTO request = objectMapper.readValue(
+                "{\"id\": {\"a\": [1, 2]}, \"dna\": [\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\"], \"x\": 1}",
+                DnaRequestDTO.class);
+        assertEquals(4, request.getParsedDna().size());
+    }
+
+    @Test
+    @DisplayName("ADN nulo o vacío se deja a la validación del DTO")
+    void testNullAndEmptyDna() throws Exception {
+        DnaRequestDTO nullDna = objectMapper.readValue("{\"dna\": null}", DnaRequestDTO.class);
+        assertNull(nullDna.getDna());
+        assertNull(nullDna.getParsedDna());
+
+        DnaRequestDTO emptyDna = objectMapper.readValue("{\"dna\": []}", DnaRequestDTO.class);
+        assertEquals(0, emptyDna.getDna().length);
+        assertNull(emptyDna.getParsedDna());
+    }
+
+    @Test
+    @DisplayName("Rechaza bases inválidas, filas de otro largo y matrices no cuadradas")
+    void testInvalidMatrices() {
+        assertRejected("{\"dna\": [\"ATGC\",\"CAXT\",\"TTAT\",\"AGAC\"]}", "La fila 1 contiene bases inválidas");
+        assertRejected("{\"dna\": [\"ATGC\",\"CAG\",\"TTAT\",\"AGAC\"]}", "La fila 1 tiene 3 bases y se esperaban 4");
+        assertRejected("{\"dna\": [\"ATGC\",\"CAGT\",\"TTAT\"]}", "La matriz tiene 3 filas y se esperaban 4");
+        assertRejected("{\"dna\": [\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\",\"AGAC\"]}", "más de 4 filas");
+        assertRejected("{\"dna\": [\"ATGC\",null,\"TTAT\",\"AGAC\"]}", "La fila 1 no es un string");
+        assertRejected("{\"dna\": [\"\"]}", "La fila 0 está vacía");
+        assertRejected("{\"dna\": \"ATGC\"}", "arreglo de strings");
+    }
+
+    @Test
+    @DisplayName("Rechaza N mayor a mutant.detector.max-size")
+    void testMaxSize() {
+        DetectorProperties properties = new DetectorProperties();
+        properties.setMaxSize(5);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(DetectorProperties.class, () -> properties);
+            context.refresh();
+            ObjectMapper springMapper = Jackson2ObjectMapperBuilder.json().applicationContext(context).build();
+
+            MismatchedInputException e = assertThrows(MismatchedInputException.class, () -> springMapper.readValue(
+                    "{\"dna\": [\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}", DnaRequestDTO.class));
+            assertTrue(e.getOriginalMessage().contains("tamaño máximo de 5x5"), e.getOriginalMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("Rechaza con la primera fila un N mayor al máximo del contexto de Jackson")
+    void testSizeLimitFromContext() throws Exception {
+        String json = "{\"dna\": [\"ATGCGA\",\"CAXTGC\"]}"; // La segunda fila no llega a leerse
+        DnaSizeLimit limit = new DnaSizeLimit("POST /mutant/batch", 4);
+
+        JsonMappingException e = assertThrows(JsonMappingException.class, () -> objectMapper
+                .readerFor(DnaRequestDTO.class).withAttribute(DnaSizeLimit.ATTRIBUTE, limit).readValue(json));
+
+        assertInstanceOf(DnaTooLargeException.class, e.getCause());
+        assertEquals("El ADN de 6x6 supera el máximo de 4x4 de POST /mutant/batch; enviarlo a POST /mutant/jobs",
+                e.getOriginalMessage());
+        DnaRequestDTO request = objectMapper.readerFor(DnaRequestDTO.class)
+                .withAttribute(DnaSizeLimit.ATTRIBUTE, limit).readValue("{\"dna\": [\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\"]}");
+        assertEquals(4, request.getParsedDna().size());
+    }
+
+    @Test
+    @DisplayName("Sin contexto de Jackson, toma el máximo del request actual")
+    void testSizeLimitFromRequest() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        servletRequest.setAttribute(DnaSizeLimit.ATTRIBUTE, new DnaSizeLimit("POST /mutant", 4));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+        try {
+            JsonMappingException e = assertThrows(JsonMappingException.class, () -> objectMapper.readValue(
+                    "{\"dna\": [\"ATGCGA\"]}", DnaRequestDTO.class));
+            assertInstanceOf(DnaTooLargeException.class, e.getCause());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    @DisplayName("Un cuerpo inválido se rechaza sin leer el resto del payload")
+    void testRejectsWithoutReadingRestOfBody() {
+        StringBuilder json = new StringBuilder("{\"dna\": [\"AXGC\"");
+        String row = ",\"" + "A".repeat(1000) + "\"";
+        for (int i = 0; i < 1000; i++) {
+            json.append(row);
+        }
+        json.append("]}");
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        CountingInputStream input = new CountingInputStream(new ByteArrayInputStream(body));
+
+        assertThrows(MismatchedInputException.class, () -> objectMapper.readValue(input, DnaRequestDTO.class));
+        assertTrue(input.bytesRead < body.length / 10,
+                "Se leyeron " + input.bytesRead + " bytes de " + body.length);
+    }
+
+    private void assertRejected(String json, String expectedMessage) {
+        MismatchedInputException e = assertThrows(MismatchedInputException.class,
+                () -> objectMapper.readValue(json, DnaRequestDTO.class), json);
+        assertTrue(e.getOriginalMessage().contains(expectedMessage), e.getOriginalMessage());
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long bytesRead;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) bytesRead += read;
+            return read;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) bytesRead++;
+            return read;
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.utn.dnaRecord.exception;
 
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
 import java.util.Collections;
+import java.util.zip.ZipException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -97,4 +102,91 @@ class GlobalExceptionHandlerTest {
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
     }
+
+    @Test
+    @DisplayName("JSON rechazado al leerlo devuelve 400 con el motivo")
+    void testHandleNotReadableWithJsonCause() {
+        MismatchedInputException cause = MismatchedInputException.from(null, String[].class,
+                "La fila 1 contiene bases inválidas (solo A, T, C, G)");
+        HttpMessageNotReadableException exception = new HttpMessageNotReadableException(
+                "JSON parse error", cause, mock(HttpInputMessage.class));
+
+        ResponseEntity<String> response = exceptionHandler.handleNotReadable(exception);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("La fila 1 contiene bases inválidas (solo A, T, C, G)", response.getBody());
+    }
+
+    @Test
+    @DisplayName("Cuerpo binario rechazado devuelve 400 con el motivo")
+    void testHandleNotReadableWithFormatCause() {
+        HttpMessageNotReadableException exception = new HttpMessageNotReadableException(
+                "Formato inválido", new DnaFormatException("El cuerpo termina en la fila 2 y se esperaban 6"),
+                mock(HttpInputMessage.class));
+
+        ResponseEntity<String> response = exceptionHandler.handleNotReadable(exception);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("El cuerpo termina en la fila 2 y se esperaban 6", response.getBody());
+    }
+
+    @Test
+    @DisplayName("Cuerpo rechazado por el máximo sincrónico al conocer N devuelve 413")
+    void testHandleNotReadableWithTooLargeCause() {
+        HttpMessageNotReadableException exception = new HttpMessageNotReadableException(
+                "Demasiado grande", DnaTooLargeException.syncLimit("POST /mutant", 6, 4),
+                mock(HttpInputMessage.class));
+
+        ResponseEntity<String> response = exceptionHandler.handleNotReadable(exception);
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+        assertEquals("El ADN de 6x6 supera el máximo de 4x4 de POST /mutant; enviarlo a POST /mutant/jobs",
+                response.getBody());
+    }
+
+    @Test
+    @DisplayName("Cuerpo comprimido inválido devuelve 400 con su mensaje")
+    void testHandleNotReadableWithZipCause() {
+        HttpMessageNotReadableException exception = new HttpMessageNotReadableException(
+                "I/O error while reading input message", new ZipException("Not in GZIP format"),
+                mock(HttpInputMessage.class));
+
+        ResponseEntity<String> response = exceptionHandler.handleNotReadable(exception);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("El cuerpo comprimido no es válido o está incompleto", response.getBody());
+    }
+
+    @Test
+    @DisplayName("Cuerpo ilegible sin causa JSON devuelve 400 con mensaje genérico")
+    void testHandleNotReadableWithoutJsonCause() {
+        HttpMessageNotReadableException exception = new HttpMessageNotReadableException(
+                "Required request body is missing", mock(HttpInputMessage.class));
+
+        ResponseEntity<String> response = exceptionHandler.handleNotReadable(exception);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("El cuerpo del request no es un JSON válido", response.getBody());
+    }
+
+    @Test
+    @DisplayName("Matriz demasiado grande para POST /mutant devuelve 413")
+    void testHandleDnaTooLarge() {
+        ResponseEntity<String> response = exceptionHandler.handleDnaTooLarge(
+                new DnaTooLargeException("Enviarlo a POST /mutant/jobs"));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+        assertEquals("Enviarlo a POST /mutant/jobs", response.getBody());
+    }
+
+    @Test
+    @DisplayName("Cola de trabajos llena devuelve 503 con Retry-After")
+    void testHandleJobQueueFull() {
+        ResponseEntity<String> response = exceptionHandler.handleJobQueueFull(
+                new JobQueueFullException("Cola llena"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("Cola llena", response.getBody());
+    }
 }
@@ -0,0 +1,114 @@
+package com.example.utn.dnaRecord.integration;
+
+import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import com.example.utn.dnaRecord.service.DnaResultCache;
+import com.example.utn.dnaRecord.service.MutantDetector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Prueba de estrés: muchos hilos mandan el mismo ADN a la vez contra la BD H2 real.
+ * <p>
+ * Sin {@code @Transactional}: cada request tiene que confirmar su INSERT para que los demás
+ * lo vean, como en producción. Por eso la tabla se limpia antes y después.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConcurrentSubmissionIntegrationTest {
+
+    private static final int DISTINCT_DNA = 20;
+    private static final int THREADS_PER_DNA = 32;
+    private static final int SIZE = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DnaRecordRepository repository;
+
+    @Autowired
+    private DnaResultCache resultCache;
+
+    @MockitoSpyBean
+    private MutantDetector mutantDetector;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+        resultCache.invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Ráfagas del mismo ADN: un análisis y un INSERT por ADN, todas con respuesta 200/403")
+    void testBurstsOfIdenticalDnaAreCoalesced() throws Exception {
+        Random random = new Random(13);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS_PER_DNA);
+        try {
+            for (int d = 0; d < DISTINCT_DNA; d++) {
+                String body = "{\"dna\":" + randomDnaJson(random) + "}";
+                CyclicBarrier start = new CyclicBarrier(THREADS_PER_DNA);
+
+                List<Future<Integer>> statuses = new ArrayList<>();
+                for (int t = 0; t < THREADS_PER_DNA; t++) {
+                    statuses.add(pool.submit(() -> {
+                        start.await(10, TimeUnit.SECONDS);
+                        return mockMvc.perform(post("/mutant")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(body))
+                                .andReturn().getResponse().getStatus();
+                    }));
+                }
+
+                Integer first = null;
+                for (Future<Integer> status : statuses) {
+                    int code = status.get(30, TimeUnit.SECONDS);
+                    assertTrue(code == 200 || code == 403, "Respuesta inesperada " + code + " (¿clave duplicada?)");
+                    if (first == null) first = code;
+                    assertEquals(first, code, "Todos los requests del mismo ADN deben tener el mismo veredicto");
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(DISTINCT_DNA, repository.count(), "Un solo registro por ADN distinto");
+        verify(mutantDetector, times(DISTINCT_DNA)).isMutantPacked(any());
+    }
+
+    private static String randomDnaJson(Random random) {
+        String bases = "ATCG";
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < SIZE; i++) {
+            if (i > 0) json.append(',');
+            json.append('"');
+            for (int j = 0; j < SIZE; j++) {
+                json.append(bases.charAt(random.nextInt(bases.length())));
+            }
+            json.append('"');
+        }
+        return json.append(']').toString();
+    }
+}
@@ -1,7 +1,14 @@
 package com.example.utn.dnaRecord.integration;
 
+import com.example.utn.dnaRecord.dto.DnaRequestDTO;
+import com.example.utn.dnaRecord.dto.StatsBreakdownResponseDTO;
 import com.example.utn.dnaRecord.entity.DnaRecord;
 import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import com.example.utn.dnaRecord.service.DnaHashFilter;
+import com.example.utn.dnaRecord.service.DnaResultCache;
+import com.example.utn.dnaRecord.service.DnaStatsCounter;
+import com.example.utn.dnaRecord.service.DnaStatsTimeline;
+import com.example.utn.dnaRecord.service.StatsWindow;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,6 +20,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -36,10 +45,25 @@ class MutantControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DnaResultCache resultCache;
+
+    @Autowired
+    private DnaHashFilter hashFilter;
+
+    @Autowired
+    private DnaStatsCounter statsCounter;
+
+    @Autowired
+    private DnaStatsTimeline statsTimeline;
+
     @BeforeEach
     void setUp() {
-        // Limpiar BD antes de cada test
+        // Limpiar BD antes de cada test (y el caché en memoria, que no vuelve atrás con el rollback)
         repository.deleteAll();
+        resultCache.invalidateAll();
+        // Los contadores de /stats tampoco vuelven atrás con el rollback
+        statsCounter.reconcile();
     }
 
     // ========== TESTS DE INTEGRACIÓN POST /mutant ==========
@@ -115,6 +139,77 @@ class MutantControllerIntegrationTest {
                 "Debe seguir habiendo 1 registro (caché funcionando)");
     }
 
+    @Test
+    @DisplayName("POST /mutant - DNA repetido se responde desde el caché en memoria")
+    void testRepeatedDnaHitsMemoryCache() throws Exception {
+        String jsonRequest = """
+            {
+                "dna": ["ATGCGA","CAGTGC","TTATTT","AGACGG","GCGTCA","TCACTG"]
+            }
+            """;
+        long hitsBefore = resultCache.stats().hitCount();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/mutant")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(jsonRequest))
+                    .andExpect(status().isForbidden());
+        }
+
+        assertEquals(2, resultCache.stats().hitCount() - hitsBefore, "El 2do y 3er request no van a la BD");
+        mockMvc.perform(get("/stats/cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /mutant - DNA nuevo no se busca en BD si el filtro de Bloom no lo tiene")
+    void testNewDnaSkipsLookup() throws Exception {
+        String jsonRequest = """
+            {
+                "dna": ["GATTACA","ACAGTTA","TGACCAT","CATTGAC","ATACGTG","GCATACC","TTGCAGA"]
+            }
+            """;
+        long skippedBefore = hashFilter.definiteMisses();
+
+        mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isForbidden());
+
+        assertEquals(skippedBefore + 1, hashFilter.definiteMisses());
+        assertEquals(1, repository.count());
+        mockMvc.perform(get("/stats/bloom"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.skipped_lookups").value(skippedBefore + 1));
+    }
+
+    @Test
+    @DisplayName("POST /mutant en texto - Completo se guarda con la huella del JSON; anticipado no se guarda")
+    void testRowStreamUpload() throws Exception {
+        String[] human = {"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"};
+
+        mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(String.join("\n", human)))
+                .andExpect(status().isForbidden());
+        assertEquals(1, repository.count());
+
+        // El mismo ADN en JSON se resuelve con el registro guardado
+        mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DnaRequestDTO(human))))
+                .andExpect(status().isForbidden());
+        assertEquals(1, repository.count());
+
+        mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("AAAACCCC\nGTGTGTGT\n"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Connection", "close"));
+        assertEquals(1, repository.count(), "Sin la matriz completa no hay huella para guardar");
+    }
+
     @Test
     @DisplayName("POST /mutant - DNA inválido NO debe guardar en BD")
     void testInvalidDnaDoesNotSave() throws Exception {
@@ -133,6 +228,41 @@ class MutantControllerIntegrationTest {
                 "No debe guardar DNA inválido");
     }
 
+    @Test
+    @DisplayName("POST /mutant/batch - Analiza y guarda cada ADN una vez, con una línea NDJSON por ADN")
+    void testBatchSavesEachDnaOnce() throws Exception {
+        String mutant = "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}";
+        String human = "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATTT\",\"AGACGG\",\"GCGTCA\",\"TCACTG\"]}";
+        String invalid = "{\"dna\":[\"ATGX\",\"CAGT\",\"TTAT\",\"AGAC\"]}";
+        String body = String.join("\n", mutant, human, mutant, invalid);
+
+        String response = mockMvc.perform(post("/mutant/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        java.util.Map<Long, String> lines = new java.util.TreeMap<>();
+        for (String line : response.split("\n")) {
+            lines.put(objectMapper.readTree(line).get("index").asLong(), line);
+        }
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0L).contains("\"is_mutant\":true"));
+        assertTrue(lines.get(1L).contains("\"is_mutant\":false"));
+        assertTrue(lines.get(2L).contains("\"is_mutant\":true"));
+        assertTrue(lines.get(3L).contains("\"error\""));
+        assertEquals(2, repository.count());
+
+        // Un segundo lote con los mismos ADN no guarda nada nuevo
+        mockMvc.perform(post("/mutant/batch").contentType(MediaType.APPLICATION_JSON).content("[" + mutant + "," + human + "]"))
+                .andExpect(status().isOk());
+        assertEquals(2, repository.count());
+        mockMvc.perform(get("/stats"))
+                .andExpect(jsonPath("$.count_mutant_dna").value(1))
+                .andExpect(jsonPath("$.count_human_dna").value(1));
+    }
+
     // ========== TESTS DE INTEGRACIÓN GET /stats ==========
 
     @Test
@@ -144,6 +274,8 @@ class MutantControllerIntegrationTest {
         repository.save(createDnaRecord("hash3", false));
         repository.save(createDnaRecord("hash4", false));
         repository.save(createDnaRecord("hash5", false));
+        // Insertados sin pasar por el servicio: los cuenta la reconciliación periódica
+        statsCounter.reconcile();
 
         // Consultar /stats
         mockMvc.perform(get("/stats"))
@@ -170,6 +302,7 @@ class MutantControllerIntegrationTest {
     void testStatsOnlyMutants() throws Exception {
         repository.save(createDnaRecord("hash1", true));
         repository.save(createDnaRecord("hash2", true));
+        statsCounter.reconcile();
 
         mockMvc.perform(get("/stats"))
                 .andExpect(status().isOk())
@@ -178,6 +311,65 @@ class MutantControllerIntegrationTest {
                 .andExpect(jsonPath("$.ratio").value(1.0)); // Según tu lógica
     }
 
+    @Test
+    @DisplayName("GET /stats/breakdown - Refleja los requests recién respondidos, sin consultar la BD")
+    void testBreakdownReflectsRecentRequests() throws Exception {
+        String mutant = "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}";
+        String human = "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATTT\",\"AGACGG\",\"GCGTCA\",\"TCACTG\"]}";
+        // La ventana de 1 hora tiene todo lo de los tests anteriores: se compara contra lo que ya había
+        DnaStatsTimeline.Slice before = statsTimeline.total(StatsWindow.ONE_HOUR);
+
+        mockMvc.perform(post("/mutant").contentType(MediaType.APPLICATION_JSON).content(mutant));
+        mockMvc.perform(post("/mutant").contentType(MediaType.APPLICATION_JSON).content(mutant));
+        mockMvc.perform(post("/mutant").contentType(MediaType.APPLICATION_JSON).content(human));
+
+        String body = mockMvc.perform(get("/stats/breakdown").param("window", "1h"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").value("1h"))
+                .andExpect(jsonPath("$.bucket_seconds").value(60))
+                .andExpect(jsonPath("$.series.length()").value(60))
+                .andReturn().getResponse().getContentAsString();
+        StatsBreakdownResponseDTO breakdown = objectMapper.readValue(body, StatsBreakdownResponseDTO.class);
+
+        assertEquals(2, breakdown.getMutantRequests() - before.mutantRequests());
+        assertEquals(1, breakdown.getHumanRequests() - before.humanRequests());
+        assertEquals(1, breakdown.getCountMutantDna() - before.newMutants());
+        assertEquals(1, breakdown.getCountHumanDna() - before.newHumans());
+        assertEquals(1, breakdown.getCacheHits() - before.cacheHits(), "El mutante repetido sale de memoria");
+        assertEquals(2, breakdown.getDetections() - before.detections());
+        assertTrue(breakdown.getDetectionP99Micros() > 0);
+
+        mockMvc.perform(get("/stats").param("window", "1h"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count_mutant_dna").value(before.newMutants() + 1))
+                .andExpect(jsonPath("$.count_human_dna").value(before.newHumans() + 1));
+    }
+
+    @Test
+    @DisplayName("GET /stats - El ETag se mantiene hasta que se guarda un ADN nuevo")
+    void testStatsETagChangesOnInsert() throws Exception {
+        String mutant = "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}";
+        String etag = mockMvc.perform(get("/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/stats").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/mutant").contentType(MediaType.APPLICATION_JSON).content(mutant));
+        String changed = mockMvc.perform(get("/stats").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count_mutant_dna").value(1))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+
+        // Un ADN repetido no cambia los totales
+        mockMvc.perform(post("/mutant").contentType(MediaType.APPLICATION_JSON).content(mutant));
+        mockMvc.perform(get("/stats").header("If-None-Match", changed))
+                .andExpect(status().isNotModified());
+    }
+
     // ========== TEST DE FLUJO COMPLETO END-TO-END ==========
 
     @Test
@@ -242,7 +434,7 @@ class MutantControllerIntegrationTest {
 
     private DnaRecord createDnaRecord(String hash, boolean isMutant) {
         DnaRecord record = new DnaRecord();
-        record.setDnaHash(hash);
+        record.setDnaHash(hash.getBytes(StandardCharsets.US_ASCII));
         record.setIsMutant(isMutant);
         return record;
     }
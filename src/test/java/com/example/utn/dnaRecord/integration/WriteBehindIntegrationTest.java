@@ -0,0 +1,90 @@
+package com.example.utn.dnaRecord.integration;
+
+import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import com.example.utn.dnaRecord.service.DnaResultCache;
+import com.example.utn.dnaRecord.service.DnaStatsCounter;
+import com.example.utn.dnaRecord.service.DnaWriteBehindQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guardado diferido contra la BD H2 real: el resultado se responde antes del INSERT (después
+ * de quedar en el log de escritura anticipada) y llega a la base en el próximo lote.
+ */
+@SpringBootTest(properties = {"mutant.write-behind.enabled=true", "mutant.write-behind.max-delay=20ms",
+        "mutant.write-behind.wal.directory=target/wal-it"})
+@AutoConfigureMockMvc
+class WriteBehindIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DnaRecordRepository repository;
+
+    @Autowired
+    private DnaResultCache resultCache;
+
+    @Autowired
+    private DnaWriteBehindQueue writeBehind;
+
+    @Autowired
+    private DnaStatsCounter statsCounter;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() throws InterruptedException {
+        awaitWritten();
+        repository.deleteAll();
+        resultCache.invalidateAll();
+        statsCounter.reconcile();
+    }
+
+    @Test
+    @DisplayName("POST /mutant responde enseguida y el registro se guarda en el lote siguiente")
+    void testResultsAreWrittenInBatches() throws Exception {
+        String[] bodies = {
+                "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}",
+                "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATTT\",\"AGACGG\",\"GCGTCA\",\"TCACTG\"]}",
+                "{\"dna\":[\"AAAA\",\"CCCC\",\"TTTT\",\"GGGG\"]}"
+        };
+        long batchesBefore = writeBehind.batchCount();
+
+        for (String body : bodies) {
+            mockMvc.perform(post("/mutant").contentType(MediaType.APPLICATION_JSON).content(body));
+        }
+        // Repetido mientras puede estar en la cola: mismo resultado, sin otro registro
+        mockMvc.perform(post("/mutant").contentType(MediaType.APPLICATION_JSON).content(bodies[0]))
+                .andExpect(status().isOk());
+        // /stats los cuenta apenas se responden, sin esperar el lote
+        assertEquals(3, statsCounter.mutantCount() + statsCounter.humanCount());
+
+        awaitWritten();
+        assertEquals(3, repository.count());
+        assertTrue(writeBehind.batchCount() > batchesBefore);
+        assertEquals(3, statsCounter.mutantCount() + statsCounter.humanCount());
+        assertTrue(statsCounter.reconcile());
+        assertEquals(3, statsCounter.mutantCount() + statsCounter.humanCount(), "Coincide con la base");
+    }
+
+    private void awaitWritten() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writeBehind.pendingCount() > 0) {
+            assertTrue(System.nanoTime() < deadline, "Timeout esperando el guardado diferido");
+            Thread.sleep(5);
+        }
+    }
+}
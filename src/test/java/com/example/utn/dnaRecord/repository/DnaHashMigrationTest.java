@@ -0,0 +1,97 @@
+package com.example.utn.dnaRecord.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la conversión de {@code dna_hash} de hexadecimal a binario, sobre un H2 en memoria.
+ */
+class DnaHashMigrationTest {
+
+    private static final String MURMUR3_HEX = "6c1b07bc7bbc4be347939ac4a93c437a";
+    private static final String SHA256_HEX = "f0f1a2b3c4d5e6f708192a3b4c5d6e7f8091a2b3c4d5e6f708192a3b4c5d6e7f";
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    @DisplayName("Sin tabla no hace nada")
+    void testNoTable() {
+        assertEquals(-1, new DnaHashMigration(dataSource).migrate());
+    }
+
+    @Test
+    @DisplayName("Convierte los hashes hexadecimales a binario y conserva el resto de las columnas")
+    void testConvertsHexRows() {
+        createLegacyTable();
+        jdbc.update("INSERT INTO dna_record (dna_hash, is_mutant) VALUES (?, TRUE)", MURMUR3_HEX);
+        jdbc.update("INSERT INTO dna_record (dna_hash, is_mutant) VALUES (?, FALSE)", SHA256_HEX);
+        jdbc.update("INSERT INTO dna_record (dna_hash, is_mutant) VALUES ('no-es-hex', FALSE)");
+
+        assertEquals(2, new DnaHashMigration(dataSource).migrate());
+
+        assertArrayEquals(HexFormat.of().parseHex(MURMUR3_HEX), jdbc.queryForObject(
+                "SELECT dna_hash FROM dna_record WHERE is_mutant", byte[].class));
+        assertArrayEquals(HexFormat.of().parseHex(SHA256_HEX), jdbc.queryForObject(
+                "SELECT dna_hash FROM dna_record WHERE OCTET_LENGTH(dna_hash) = 32", byte[].class));
+        assertEquals(1, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM dna_record WHERE dna_hash IS NULL", Integer.class));
+        assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM dna_record", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Más filas que una página y segunda corrida sin cambios")
+    void testSeveralPagesAndIdempotent() {
+        createLegacyTable();
+        int rows = DnaHashMigration.BATCH_SIZE * 2 + 7;
+        for (int i = 0; i < rows; i++) {
+            jdbc.update("INSERT INTO dna_record (dna_hash, is_mutant) VALUES (?, FALSE)", String.format("%032x", i));
+        }
+
+        assertEquals(rows, new DnaHashMigration(dataSource).migrate());
+        assertEquals(-1, new DnaHashMigration(dataSource).migrate());
+        assertEquals(rows, jdbc.queryForObject(
+                "SELECT COUNT(DISTINCT dna_hash) FROM dna_record", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Si se cortó entre el borrado y el renombre, el próximo arranque sólo renombra")
+    void testResumesAfterCrashBeforeRename() {
+        createLegacyTable();
+        jdbc.update("INSERT INTO dna_record (dna_hash, is_mutant) VALUES (?, TRUE)", MURMUR3_HEX);
+        jdbc.update("INSERT INTO dna_record (dna_hash, is_mutant) VALUES (?, FALSE)", SHA256_HEX);
+        // Estado que deja un corte después del DROP COLUMN: sólo queda la columna binaria llena
+        jdbc.execute("ALTER TABLE dna_record ADD COLUMN dna_hash_bin VARBINARY(32)");
+        jdbc.update("UPDATE dna_record SET dna_hash_bin = ? WHERE is_mutant", HexFormat.of().parseHex(MURMUR3_HEX));
+        jdbc.update("UPDATE dna_record SET dna_hash_bin = ? WHERE NOT is_mutant", HexFormat.of().parseHex(SHA256_HEX));
+        jdbc.execute("ALTER TABLE dna_record DROP COLUMN dna_hash");
+
+        assertEquals(2, new DnaHashMigration(dataSource).migrate());
+
+        assertArrayEquals(HexFormat.of().parseHex(MURMUR3_HEX), jdbc.queryForObject(
+                "SELECT dna_hash FROM dna_record WHERE is_mutant", byte[].class));
+        assertArrayEquals(HexFormat.of().parseHex(SHA256_HEX), jdbc.queryForObject(
+                "SELECT dna_hash FROM dna_record WHERE NOT is_mutant", byte[].class));
+        assertEquals(-1, new DnaHashMigration(dataSource).migrate());
+    }
+
+    private void createLegacyTable() {
+        jdbc.execute("CREATE TABLE dna_record (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "dna_hash VARCHAR(255) UNIQUE, is_mutant BOOLEAN, created_at TIMESTAMP)");
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.utn.dnaRecord.repository;
+
+import com.example.utn.dnaRecord.entity.DnaRecord;
+import com.example.utn.dnaRecord.repository.DnaRecordRepositoryCustom.InsertResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del {@code MERGE} de {@code insertIfAbsent}, sobre un H2 en memoria con la tabla que
+ * crea Hibernate.
+ */
+class DnaRecordRepositoryCustomImplTest {
+
+    private static final byte[] HASH = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+
+    private JdbcTemplate jdbc;
+    private DnaRecordRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE dna_record (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "dna_hash VARBINARY(32) UNIQUE, is_mutant BOOLEAN, created_at TIMESTAMP(6))");
+        repository = new DnaRecordRepositoryCustomImpl(dataSource);
+    }
+
+    @Test
+    @DisplayName("Huella nueva: inserta y devuelve el resultado calculado")
+    void testInsertsNewHash() {
+        assertEquals(new InsertResult(true, true), repository.insertIfAbsent(HASH, true));
+
+        assertArrayEquals(HASH, jdbc.queryForObject("SELECT dna_hash FROM dna_record", byte[].class));
+        assertTrue(jdbc.queryForObject("SELECT is_mutant FROM dna_record", Boolean.class));
+        assertNotNull(jdbc.queryForObject("SELECT created_at FROM dna_record", Timestamp.class));
+    }
+
+    @Test
+    @DisplayName("Huella guardada: devuelve el valor existente sin modificar la fila")
+    void testKeepsStoredRow() {
+        repository.insertIfAbsent(HASH, false);
+        Timestamp createdAt = jdbc.queryForObject("SELECT created_at FROM dna_record", Timestamp.class);
+
+        assertEquals(new InsertResult(false, false), repository.insertIfAbsent(HASH, true));
+
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM dna_record", Integer.class));
+        assertFalse(jdbc.queryForObject("SELECT is_mutant FROM dna_record", Boolean.class));
+        assertEquals(createdAt, jdbc.queryForObject("SELECT created_at FROM dna_record", Timestamp.class));
+    }
+
+    @Test
+    @DisplayName("Varias huellas en un solo SELECT: devuelve solo las guardadas")
+    void testFindIsMutantByDnaHashIn() {
+        byte[] human = {7, 7, 7};
+        byte[] missing = {8, 8};
+        repository.insertIfAbsent(HASH, true);
+        repository.insertIfAbsent(human, false);
+
+        Map<ByteBuffer, Boolean> found = repository.findIsMutantByDnaHashIn(List.of(HASH.clone(), human, missing));
+
+        assertEquals(Map.of(ByteBuffer.wrap(HASH), true, ByteBuffer.wrap(human), false), found);
+        assertTrue(repository.findIsMutantByDnaHashIn(List.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("En lote: inserta las huellas nuevas y deja las existentes como estaban")
+    void testInsertAllIfAbsent() {
+        repository.insertIfAbsent(HASH, false);
+        LocalDateTime analyzedAt = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+        byte[] other = {9, 9};
+
+        int[] inserted = repository.insertAllIfAbsent(List.of(
+                new DnaRecord(null, HASH, true, analyzedAt),
+                new DnaRecord(null, other, true, analyzedAt),
+                new DnaRecord(null, other.clone(), false, analyzedAt)));
+
+        assertArrayEquals(new int[]{0, 1, 0}, inserted);
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM dna_record", Integer.class));
+        assertFalse(jdbc.queryForObject(
+                "SELECT is_mutant FROM dna_record WHERE dna_hash = ?", Boolean.class, (Object) HASH));
+        assertTrue(jdbc.queryForObject(
+                "SELECT is_mutant FROM dna_record WHERE dna_hash = ?", Boolean.class, (Object) other));
+        assertEquals(Timestamp.valueOf(analyzedAt), jdbc.queryForObject(
+                "SELECT created_at FROM dna_record WHERE dna_hash = ?", Timestamp.class, (Object) other));
+    }
+
+    @Test
+    @DisplayName("Muchos hilos con la misma huella nueva: una fila, un solo insertado y ninguna excepción")
+    void testConcurrentInsertsOfSameHash() throws Exception {
+        int threads = 16;
+        int hashes = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int h = 0; h < hashes; h++) {
+                byte[] hash = {(byte) h, (byte) (h >> 8)};
+                CyclicBarrier start = new CyclicBarrier(threads);
+                List<Future<InsertResult>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    boolean value = t % 2 == 0;
+                    results.add(pool.submit(() -> {
+                        start.await(10, TimeUnit.SECONDS);
+                        return repository.insertIfAbsent(hash, value);
+                    }));
+                }
+
+                List<InsertResult> values = new ArrayList<>();
+                for (Future<InsertResult> result : results) {
+                    values.add(result.get(10, TimeUnit.SECONDS));
+                }
+                Boolean stored = jdbc.queryForObject(
+                        "SELECT is_mutant FROM dna_record WHERE dna_hash = ?", Boolean.class, (Object) hash);
+                assertTrue(values.stream().allMatch(value -> stored.equals(value.isMutant())),
+                        "Todos ven el valor guardado");
+                assertEquals(1, values.stream().filter(InsertResult::inserted).count(),
+                        "Solo el que insertó la fila la cuenta como nueva");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(hashes, jdbc.queryForObject("SELECT COUNT(*) FROM dna_record", Integer.class));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.utn.dnaRecord.repository;
+
+import com.example.utn.dnaRecord.DnaRecordApplication;
+import com.example.utn.dnaRecord.entity.DnaRecord;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reporte (no corre con {@code mvn test}): guardados por segundo con {@code findByDnaHash} +
+ * {@code save} (el camino anterior) contra {@code insertIfAbsent}, con varios hilos a la vez
+ * sobre el H2 de la aplicación (pool de Hikari por defecto, 10 conexiones).
+ * <p>
+ * Cada corrida usa {@value #OPERATIONS} operaciones sobre {@value #OPERATIONS}/2 huellas
+ * nuevas elegidas al azar, así que la mitad de las operaciones encuentra la huella ya guardada
+ * y los hilos chocan seguido con la misma huella nueva. Con find + save, cada choque termina en
+ * una violación del índice único (se cuentan) y un {@code SELECT} más.
+ * <p>
+ * Ejecutar con: {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.utn.dnaRecord.repository.UpsertThroughputReport}
+ */
+public class UpsertThroughputReport {
+
+    private static final int OPERATIONS = 40_000;
+    private static final int[] THREADS = {1, 4, 16, 64};
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DnaRecordApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF")) {
+            DnaRecordRepository repository = context.getBean(DnaRecordRepository.class);
+            int run = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                if (round == ROUNDS - 1) {
+                    System.out.println("(las rondas anteriores calientan el JIT)");
+                }
+                for (int threads : THREADS) {
+                    Result findSave = measure(threads, ++run, (hash, value, violations) -> {
+                        Optional<DnaRecord> stored = repository.findByDnaHash(hash);
+                        if (stored.isPresent()) {
+                            return stored.get().getIsMutant();
+                        }
+                        try {
+                            repository.save(new DnaRecord(null, hash, value, null));
+                            return value;
+                        } catch (DataIntegrityViolationException e) {
+                            violations.increment();
+                            return repository.findByDnaHash(hash).orElseThrow().getIsMutant();
+                        }
+                    });
+                    Result upsert = measure(threads, ++run,
+                            (hash, value, violations) -> repository.insertIfAbsent(hash, value).isMutant());
+
+                    if (round == ROUNDS - 1) {
+                        System.out.printf("hilos=%-3d find+save=%8.0f ops/s (%5d claves duplicadas)  "
+                                        + "insertIfAbsent=%8.0f ops/s  (x%.2f)%n",
+                                threads, findSave.opsPerSecond, findSave.violations, upsert.opsPerSecond,
+                                upsert.opsPerSecond / findSave.opsPerSecond);
+                    }
+                }
+                repository.deleteAllInBatch();
+            }
+        }
+    }
+
+    private static Result measure(int threads, int run, Operation operation) throws Exception {
+        int keys = OPERATIONS / 2;
+        LongAdder violations = new LongAdder();
+        CyclicBarrier start = new CyclicBarrier(threads + 1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPERATIONS / threads; i++) {
+                        int key = random.nextInt(keys);
+                        byte[] hash = ByteBuffer.allocate(16).putLong(run).putLong(key).array();
+                        operation.save(hash, (key & 1) == 0, violations);
+                    }
+                    return null;
+                }));
+            }
+            start.await();
+            long begin = System.nanoTime();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            return new Result(OPERATIONS / seconds, violations.sum());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private interface Operation {
+        boolean save(byte[] hash, boolean value, LongAdder violations);
+    }
+
+    private record Result(double opsPerSecond, long violations) {
+    }
+}
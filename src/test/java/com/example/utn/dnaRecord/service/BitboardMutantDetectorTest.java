@@ -0,0 +1,244 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.DetectorProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del motor de bitboards: debe dar las mismas respuestas que {@link MutantDetector}.
+ */
+class BitboardMutantDetectorTest {
+
+    /**
+     * Matrices de MutantDetectorTest y MutantDetectorCoverageTest.
+     */
+    private static final List<String[]> CORPUS = List.of(
+            new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"},
+            new String[]{"ATGCGA", "ATGCGA", "ATGCGA", "ATGCGA", "CCCCTA", "TCACTG"},
+            new String[]{"TTTTGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"},
+            new String[]{"AAAA", "CCCC", "TTAT", "AGAC"},
+            new String[]{"ATGCGAATGC", "CAGTGCCAGT", "TTATGTTTAT", "AGAAGGATAA", "CCCCTACCCC",
+                    "TCACTGTCAC", "ATGCGAATGC", "CAGTGCCAGT", "TTATGTTTAT", "AGAAGGATAA"},
+            new String[]{"AAAAAA", "AAAAAA", "AAAAAA", "AAAAAA", "AAAAAA", "AAAAAA"},
+            new String[]{"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"},
+            new String[]{"ATGC", "CAGT", "TTAT", "AGAC"},
+            new String[]{"ATGCGA", "CAGTGC", "TTATGT"},
+            new String[]{"ATGCGA", "CAGTXC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"},
+            new String[]{"ATGCGA", null, "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"},
+            new String[]{"ATG", "CAG", "TTA"},
+            new String[]{"AAAAGA", "AAAAGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"},
+            new String[]{"ATGCGA", "AAGTGC", "ATATGT", "ACGCCA", "GCGTCA", "TCACTG"},
+            new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGT", "CCACTA", "TCGCTG"},
+            new String[]{"atgc", "cagt", "ttat", "agac"},
+            new String[]{"ATGC", "CA T", "TTAT", "AGAC"},
+            new String[]{"ATGCGA", "CAG", "TTATGT", "AGAAGG"},
+            new String[]{"AAAAAA", "CAGTGC", "TTTTGT", "AGACGG", "GCGTCA", "TCACTG"},
+            new String[]{"ATGCGA", "ATGCGC", "ATGCGT", "ATGCGG", "CCCCTA", "TCACTG"},
+            new String[]{"ATGCGA", "CATGGC", "TCATGT", "AGAAGT", "CCACTA", "TCGCTG"},
+            new String[]{"ATGCTA", "CAGTAC", "TTATAT", "AGAAGG", "CCACTA", "TCGCTG"},
+            new String[]{"ATGCGA", "CAGTCC", "TTACGT", "AGGGGA", "CCATCA", "TCACTG"},
+            new String[]{"AAAAAAAAAA", "CCCCCCCCCC", "TTATGTTTAT", "AGAAGGAAAA", "CCCCTACCCC",
+                    "TCACTGTCAC", "ATGCGAATGC", "CAGTGCCAGT", "TTATGTTTAT", "AGAAGGATAA"},
+            new String[]{"AACCGG", "AACCGG", "AACCGG", "AACCGG", "AACCGG", "TTTTTT"},
+            new String[]{"CTGCGA", "CCGTGC", "TCCTGT", "AGACGG", "GCGTCA", "TCACTG"},
+            new String[]{"ATGCGG", "CAGTGG", "TTATGG", "AGAAGG", "CCCCTA", "TCACTG"},
+            new String[]{"AAAA", "CCCC", "TGAT", "AGCG"},
+            new String[]{"ACGT", "ACGT", "ACGT", "ACGT"},
+            new String[]{"AAAAA", "TTTTT", "GGGGG", "CCCCC", "ATGCA"},
+            new String[]{"AAATGA", "CCCCGC", "TTTTGT", "AGAAGG", "GCGTCA", "TCACTG"},
+            new String[]{"AAAATG", "CAGTGC", "CCCCGT", "AGAAGG", "GCGTCA", "TCACTG"},
+            new String[]{"ACGCGA", "AGGTGC", "ATATGT", "AGAAGG", "CCCCTA", "TCACTG"},
+            new String[]{"ATGCGA", "CTGTGC", "TTTCGT", "AGCTGG", "CCCCTA", "TCACTG"},
+            new String[]{"ATGGGA", "CAGGCC", "TGTTGT", "AGAAGG", "CCCCTA", "TCACTG"}
+    );
+
+    private BitboardMutantDetector bitboardDetector;
+    private MutantDetector mutantDetector;
+
+    @BeforeEach
+    void setUp() {
+        bitboardDetector = new BitboardMutantDetector();
+        mutantDetector = new MutantDetector();
+    }
+
+    @Test
+    @DisplayName("Mismas respuestas que MutantDetector en todo el corpus de tests")
+    void testSameAnswersAsScalarEngineOnCorpus() {
+        for (String[] dna : CORPUS) {
+            assertEquals(mutantDetector.isMutant(dna), bitboardDetector.isMutant(dna),
+                    () -> "Resultado distinto para " + Arrays.toString(dna));
+        }
+    }
+
+    @Test
+    @DisplayName("Cuenta exactamente las mismas secuencias que la búsqueda celda por celda")
+    void testCountsMatchReferenceOnRandomMatrices() {
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            int n = 4 + random.nextInt(140); // Cruza los bordes de palabra (64, 128)
+            String[] dna = randomDna(random, n, 1 + random.nextInt(4));
+            PackedDna packed = PackedDna.pack(dna);
+
+            int count = 0;
+            for (int row = 0; row < n; row++) {
+                count += bitboardDetector.countSequencesInRow(packed, row);
+            }
+            assertEquals(referenceCount(dna), count, "Conteo distinto para N=" + n);
+            assertEquals(referenceCount(dna) > 1, bitboardDetector.isMutant(dna));
+        }
+    }
+
+    @Test
+    @DisplayName("Secuencias que cruzan el límite entre palabras de 64 bits")
+    void testSequencesAcrossWordBoundary() {
+        int n = 130;
+        String[] dna = randomDna(new Random(7), n, 4);
+        assertEquals(referenceCount(dna) > 1, bitboardDetector.isMutant(dna));
+
+        char[] row = dna[0].toCharArray();
+        for (int col = 61; col < 65; col++) row[col] = 'A';
+        row[60] = 'C';
+        row[65] = 'C';
+        dna[0] = new String(row);
+        assertEquals(referenceCount(dna) > 1, bitboardDetector.isMutant(dna));
+    }
+
+    @Test
+    @DisplayName("Matrices inválidas se rechazan igual que en MutantDetector")
+    void testInvalidInput() {
+        assertFalse(bitboardDetector.isMutant((String[]) null));
+        assertFalse(bitboardDetector.isMutant(new String[]{}));
+        assertFalse(bitboardDetector.isMutant(new String[]{"AAAA", "AAAA", "AAAA", "AAAX"}));
+        assertFalse(bitboardDetector.isMutant(new String[]{"AAAA", "AAAA", "AAA", "AAAA"}));
+    }
+
+    @Test
+    @DisplayName("PackedDna conserva las bases de la matriz original")
+    void testPackedDnaRoundTrip() {
+        String[] dna = randomDna(new Random(3), 70, 4);
+        PackedDna packed = PackedDna.pack(dna);
+
+        assertNotNull(packed);
+        assertEquals(70, packed.size());
+        assertEquals(2, packed.wordsPerRow());
+        for (int row = 0; row < 70; row++) {
+            for (int col = 0; col < 70; col++) {
+                assertEquals(dna[row].charAt(col), packed.baseAt(row, col));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("MutantDetector usa bitboards en matrices grandes con el mismo resultado")
+    void testMutantDetectorDelegatesLargeMatrices() {
+        Random random = new Random(11);
+        for (int i = 0; i < 20; i++) {
+            String[] dna = randomDna(random, 200, 4);
+            assertEquals(referenceCount(dna) > 1, mutantDetector.isMutant(dna));
+        }
+    }
+
+    @Test
+    @DisplayName("Largo de secuencia y umbral configurables: todos los motores cuentan igual")
+    void testConfigurableSequenceLengthAndThreshold() {
+        Random random = new Random(13);
+        int[][] rules = {{2, 3}, {3, 2}, {5, 2}, {5, 3}, {6, 3}, {4, 1}};
+        for (int[] rule : rules) {
+            int length = rule[0];
+            int threshold = rule[1];
+            BitboardMutantDetector detector = new BitboardMutantDetector(length, threshold);
+            BitboardMutantDetector packedDetector = MutantDetector.createPackedDetector(length, threshold);
+            DetectorProperties properties = new DetectorProperties();
+            properties.setSequenceLength(length);
+            properties.setMutantThreshold(threshold);
+            MutantDetector configured = new MutantDetector(properties);
+            try {
+                for (int i = 0; i < 60; i++) {
+                    int n = 2 + random.nextInt(140);
+                    String[] dna = randomDna(random, n, 1 + random.nextInt(4));
+                    PackedDna packed = PackedDna.pack(dna);
+                    int expected = referenceCount(dna, length);
+
+                    int count = 0;
+                    int packedCount = 0;
+                    for (int row = 0; row < n; row++) {
+                        count += detector.countSequencesInRow(packed, row);
+                        packedCount += packedDetector.countSequencesInRow(packed, row);
+                    }
+                    String message = "L=" + length + ", umbral=" + threshold + ", N=" + n;
+                    assertEquals(expected, count, message);
+                    assertEquals(expected, packedCount, message);
+                    assertEquals(expected >= threshold, detector.isMutant(dna), message);
+                    assertEquals(expected >= threshold, configured.isMutant(dna), message);
+                }
+            } finally {
+                configured.shutdown();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Largo de secuencia fuera de rango se rechaza")
+    void testInvalidRule() {
+        assertThrows(IllegalArgumentException.class, () -> new BitboardMutantDetector(1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new BitboardMutantDetector(65, 2));
+        assertThrows(IllegalArgumentException.class, () -> new BitboardMutantDetector(4, 0));
+    }
+
+    static String[] randomDna(Random random, int n, int alphabet) {
+        String bases = "ATCG".substring(0, alphabet);
+        String[] dna = new String[n];
+        for (int row = 0; row < n; row++) {
+            StringBuilder sb = new StringBuilder(n);
+            for (int col = 0; col < n; col++) {
+                // Sesgo hacia repetir la base anterior para generar secuencias
+                if (col > 0 && random.nextInt(3) == 0) {
+                    sb.append(sb.charAt(col - 1));
+                } else {
+                    sb.append(bases.charAt(random.nextInt(alphabet)));
+                }
+            }
+            dna[row] = sb.toString();
+        }
+        return dna;
+    }
+
+    /**
+     * Conteo de referencia: una secuencia por cada celda inicial de 4 bases iguales.
+     */
+    static int referenceCount(String[] dna) {
+        return referenceCount(dna, 4);
+    }
+
+    /**
+     * Conteo de referencia: una secuencia por cada celda inicial de {@code length} bases iguales.
+     */
+    static int referenceCount(String[] dna, int length) {
+        int n = dna.length;
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {-1, 1}};
+        int count = 0;
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                for (int[] d : directions) {
+                    int endRow = row + (length - 1) * d[0];
+                    int endCol = col + (length - 1) * d[1];
+                    if (endRow < 0 || endRow >= n || endCol >= n) continue;
+                    char base = dna[row].charAt(col);
+                    boolean match = true;
+                    for (int k = 1; k < length && match; k++) {
+                        match = dna[row + k * d[0]].charAt(col + k * d[1]) == base;
+                    }
+                    if (match) count++;
+                }
+            }
+        }
+        return count;
+    }
+}
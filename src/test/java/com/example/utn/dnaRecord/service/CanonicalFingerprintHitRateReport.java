@@ -0,0 +1,97 @@
+package com.example.utn.dnaRecord.service;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Reporte (no corre con {@code mvn test}): tasa de aciertos del caché de {@code DnaRecord} con
+ * la huella común y con la canónica, sobre una carga sintética.
+ * <p>
+ * Hay {@value #DISTINCT} matrices base de NxN al azar, elegidas con una distribución Zipf
+ * (s = 1) como ocurre con los ADN populares. Cada request, con probabilidad {@code variantes},
+ * manda una de las 192 variantes de la base (simetría y renombre de bases al azar) en lugar
+ * de la original. Un acierto es una huella que ya se había visto. También mide el costo de
+ * {@link ParsedDna#parse} con cada huella.
+ * <p>
+ * Ejecutar con: {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.utn.dnaRecord.service.CanonicalFingerprintHitRateReport}
+ */
+public class CanonicalFingerprintHitRateReport {
+
+    private static final int DISTINCT = 2_000;
+    private static final int REQUESTS = 100_000;
+    private static final int[] SIZES = {6, 32};
+    private static final double[] VARIANT_SHARES = {0.0, 0.25, 0.5, 1.0};
+
+    public static void main(String[] args) {
+        String[] permutations = DnaCanonicalizerTest.permutations();
+        for (int n : SIZES) {
+            Random random = new Random(n);
+            String[][] bases = new String[DISTINCT][];
+            for (int i = 0; i < DISTINCT; i++) {
+                bases[i] = BitboardMutantDetectorTest.randomDna(random, n, 4);
+            }
+            double[] zipf = zipfCumulative(DISTINCT);
+
+            for (double share : VARIANT_SHARES) {
+                Set<ByteBuffer> plainKeys = new HashSet<>();
+                Set<ByteBuffer> canonicalKeys = new HashSet<>();
+                int plainHits = 0;
+                int canonicalHits = 0;
+                long plainNanos = 0;
+                long canonicalNanos = 0;
+
+                for (int r = 0; r < REQUESTS; r++) {
+                    String[] dna = bases[pick(zipf, random.nextDouble())];
+                    if (random.nextDouble() < share) {
+                        dna = DnaCanonicalizerTest.relabel(
+                                DnaCanonicalizerTest.transform(dna, random.nextInt(DnaCanonicalizer.SYMMETRIES)),
+                                permutations[random.nextInt(permutations.length)]);
+                    }
+
+                    long start = System.nanoTime();
+                    byte[] plain = ParsedDna.parse(dna, ParsedDna.DEFAULT_FINGERPRINT, false).getHash();
+                    long middle = System.nanoTime();
+                    byte[] canonical = ParsedDna.parse(dna, ParsedDna.DEFAULT_FINGERPRINT, true).getHash();
+                    long end = System.nanoTime();
+                    plainNanos += middle - start;
+                    canonicalNanos += end - middle;
+
+                    if (!plainKeys.add(ByteBuffer.wrap(plain))) plainHits++;
+                    if (!canonicalKeys.add(ByteBuffer.wrap(canonical))) canonicalHits++;
+                }
+
+                System.out.printf("N=%-3d variantes=%3.0f%%  aciertos común=%5.1f%%  canónica=%5.1f%%  "
+                                + "parse común=%6.2f us  canónica=%6.2f us%n",
+                        n, share * 100, 100.0 * plainHits / REQUESTS, 100.0 * canonicalHits / REQUESTS,
+                        plainNanos / 1000.0 / REQUESTS, canonicalNanos / 1000.0 / REQUESTS);
+            }
+        }
+    }
+
+    private static double[] zipfCumulative(int count) {
+        double[] cumulative = new double[count];
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < count; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double value) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < value) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
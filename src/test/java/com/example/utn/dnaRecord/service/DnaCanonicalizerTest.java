@@ -0,0 +1,128 @@
+package com.example.utn.dnaRecord.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la huella canónica por simetrías y renombre de bases.
+ */
+class DnaCanonicalizerTest {
+
+    private static final String[] MUTANT = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+    @Test
+    @DisplayName("Las 192 variantes (8 simetrías x 24 renombres) tienen la misma huella canónica")
+    void testAllVariantsShareFingerprint() {
+        byte[] expected = canonicalHash(MUTANT);
+        for (int symmetry = 0; symmetry < DnaCanonicalizer.SYMMETRIES; symmetry++) {
+            for (String labels : permutations()) {
+                String[] variant = relabel(transform(MUTANT, symmetry), labels);
+                assertArrayEquals(expected, canonicalHash(variant), "Simetría " + symmetry + ", bases " + labels);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Las variantes dan el mismo resultado de detección")
+    void testVariantsHaveSameVerdict() {
+        Random random = new Random(10);
+        MutantDetector detector = new MutantDetector();
+        for (int i = 0; i < 200; i++) {
+            int n = 4 + random.nextInt(20);
+            String[] dna = BitboardMutantDetectorTest.randomDna(random, n, 1 + random.nextInt(3));
+            String[] variant = relabel(transform(dna, random.nextInt(DnaCanonicalizer.SYMMETRIES)), "TGCA");
+
+            assertEquals(detector.isMutant(dna), detector.isMutant(variant));
+            assertArrayEquals(canonicalHash(dna), canonicalHash(variant));
+        }
+    }
+
+    @Test
+    @DisplayName("Matrices no equivalentes tienen huellas canónicas distintas")
+    void testDifferentMatricesDiffer() {
+        assertFalse(Arrays.equals(canonicalHash(MUTANT),
+                canonicalHash(new String[]{"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"})));
+        assertFalse(Arrays.equals(canonicalHash(new String[]{"AC", "CA"}),
+                canonicalHash(new String[]{"AC", "AC"})));
+    }
+
+    @Test
+    @DisplayName("La huella canónica es la huella común del representante canónico")
+    void testCanonicalFormIsARealMatrix() {
+        String[] representative = {"AAAA", "AAAA", "AAAA", "AAAC"};
+        String[] variant = {"GTTT", "TTTT", "TTTT", "TTTT"}; // Rotación de 180° con A->T y C->G
+
+        assertArrayEquals(ParsedDna.parse(representative).getHash(), canonicalHash(variant));
+        assertEquals(0, DnaCanonicalizer.canonicalSymmetry(PackedDna.pack(representative)));
+    }
+
+    @Test
+    @DisplayName("Matrices simétricas recorren todas las celdas sin fallar")
+    void testFullySymmetricMatrix() {
+        String[] uniform = {"GGGGG", "GGGGG", "GGGGG", "GGGGG", "GGGGG"};
+        assertArrayEquals(ParsedDna.parse(new String[]{"AAAAA", "AAAAA", "AAAAA", "AAAAA", "AAAAA"}).getHash(),
+                canonicalHash(uniform));
+        assertNotNull(canonicalHash(new String[]{"A"}));
+    }
+
+    @Test
+    @DisplayName("Sin canonizar, una rotación es un ADN distinto")
+    void testPlainFingerprintIsNotCanonical() {
+        assertFalse(Arrays.equals(ParsedDna.parse(MUTANT).getHash(),
+                ParsedDna.parse(transform(MUTANT, 5)).getHash()));
+    }
+
+    static byte[] canonicalHash(String[] dna) {
+        return ParsedDna.parse(dna, ParsedDna.DEFAULT_FINGERPRINT, true).getHash();
+    }
+
+    /**
+     * Arma la orientación {@code symmetry} con el mismo orden que {@link DnaCanonicalizer#codeAt}.
+     */
+    static String[] transform(String[] dna, int symmetry) {
+        PackedDna packed = PackedDna.pack(dna);
+        int n = dna.length;
+        String[] result = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder row = new StringBuilder(n);
+            for (int j = 0; j < n; j++) {
+                row.append(PackedDna.decode(DnaCanonicalizer.codeAt(packed, symmetry, i, j)));
+            }
+            result[i] = row.toString();
+        }
+        return result;
+    }
+
+    /**
+     * Renombra las bases: A pasa a {@code labels.charAt(0)}, C a {@code labels.charAt(1)}, etc.
+     */
+    static String[] relabel(String[] dna, String labels) {
+        String[] result = new String[dna.length];
+        for (int i = 0; i < dna.length; i++) {
+            char[] row = dna[i].toCharArray();
+            for (int j = 0; j < row.length; j++) {
+                row[j] = labels.charAt(PackedDna.encode(row[j]));
+            }
+            result[i] = new String(row);
+        }
+        return result;
+    }
+
+    static String[] permutations() {
+        String[] result = new String[24];
+        int count = 0;
+        String bases = "ACGT";
+        for (char a : bases.toCharArray())
+            for (char b : bases.toCharArray())
+                for (char c : bases.toCharArray())
+                    for (char d : bases.toCharArray())
+                        if (a != b && a != c && a != d && b != c && b != d && c != d)
+                            result[count++] = "" + a + b + c + d;
+        return result;
+    }
+}
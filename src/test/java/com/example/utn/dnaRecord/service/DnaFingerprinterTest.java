@@ -0,0 +1,88 @@
+package com.example.utn.dnaRecord.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de las huellas de ADN: resultados de referencia y cálculo incremental por filas.
+ */
+class DnaFingerprinterTest {
+
+    @Test
+    @DisplayName("MurmurHash3 x64 128: valores de referencia")
+    void testMurmur3ReferenceValues() {
+        assertEquals("00000000000000000000000000000000", fingerprint(FingerprintAlgorithm.MURMUR3, ""));
+        assertEquals("6c1b07bc7bbc4be347939ac4a93c437a",
+                fingerprint(FingerprintAlgorithm.MURMUR3, "The quick brown fox jumps over the lazy dog"));
+    }
+
+    @Test
+    @DisplayName("SHA-256: mismo resultado que MessageDigest")
+    void testSha256MatchesMessageDigest() throws Exception {
+        String text = "ATGCGACAGTGCTTATGTAGAAGGCCCCTATCACTG";
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.US_ASCII));
+        assertEquals(HexFormat.of().formatHex(expected), fingerprint(FingerprintAlgorithm.SHA256, text));
+    }
+
+    @Test
+    @DisplayName("Agregar por filas da la misma huella que todo junto, con cualquier corte")
+    void testIncrementalEqualsOneShot() {
+        Random random = new Random(8);
+        for (FingerprintAlgorithm algorithm : FingerprintAlgorithm.values()) {
+            for (int i = 0; i < 200; i++) {
+                byte[] bytes = new byte[random.nextInt(300)];
+                for (int j = 0; j < bytes.length; j++) bytes[j] = (byte) "ACGT".charAt(random.nextInt(4));
+
+                DnaFingerprinter fingerprinter = algorithm.fingerprinter();
+                fingerprinter.update(bytes, 0, bytes.length);
+                byte[] oneShot = fingerprinter.digest();
+
+                fingerprinter = algorithm.fingerprinter();
+                int offset = 0;
+                while (offset < bytes.length) {
+                    int length = Math.min(bytes.length - offset, random.nextInt(40));
+                    fingerprinter.update(bytes, offset, length);
+                    offset += length;
+                }
+                assertArrayEquals(oneShot, fingerprinter.digest(), algorithm + " con " + bytes.length + " bytes");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("La instancia del hilo se reutiliza y se reinicia entre matrices")
+    void testPerThreadInstanceIsReset() {
+        DnaFingerprinter first = FingerprintAlgorithm.MURMUR3.fingerprinter();
+        byte[] junk = "GGGGGGGGGGGGGGGGGGGG".getBytes(StandardCharsets.US_ASCII);
+        first.update(junk, 0, junk.length); // Quedó a medias (por ejemplo, un request rechazado)
+
+        DnaFingerprinter second = FingerprintAlgorithm.MURMUR3.fingerprinter();
+        assertSame(first, second);
+        assertEquals("00000000000000000000000000000000", HexFormat.of().formatHex(second.digest()));
+    }
+
+    @Test
+    @DisplayName("Largo de la huella binaria según el algoritmo")
+    void testFingerprintLength() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        assertEquals(16, ParsedDna.parse(dna, FingerprintAlgorithm.MURMUR3).getHash().length);
+        assertEquals(32, ParsedDna.parse(dna, FingerprintAlgorithm.SHA256).getHash().length);
+        assertFalse(Arrays.equals(ParsedDna.parse(dna).getHash(),
+                ParsedDna.parse(new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTA"}).getHash()));
+    }
+
+    private static String fingerprint(FingerprintAlgorithm algorithm, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        DnaFingerprinter fingerprinter = algorithm.fingerprinter();
+        fingerprinter.update(bytes, 0, bytes.length);
+        return HexFormat.of().formatHex(fingerprinter.digest());
+    }
+}
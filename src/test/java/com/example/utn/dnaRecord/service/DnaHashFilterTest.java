@@ -0,0 +1,106 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.BloomFilterProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del filtro de Bloom de huellas guardadas.
+ */
+class DnaHashFilterTest {
+
+    @Test
+    @DisplayName("Sin falsos negativos y con la tasa de falsos positivos buscada, aunque crezca por etapas")
+    void testNoFalseNegativesAndBoundedFpp() {
+        BloomFilterProperties properties = new BloomFilterProperties();
+        properties.setExpectedInsertions(5_000);
+        properties.setFpp(0.01);
+        DnaHashFilter filter = new DnaHashFilter(properties);
+
+        Random random = new Random(12);
+        byte[][] stored = randomHashes(random, 50_000);
+        for (byte[] hash : stored) {
+            filter.put(hash);
+        }
+
+        for (byte[] hash : stored) {
+            assertTrue(filter.mightContain(hash));
+        }
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (byte[] hash : randomHashes(random, probes)) {
+            if (filter.mightContain(hash)) falsePositives++;
+        }
+        assertTrue(filter.stageCount() > 1, "Debe haber crecido");
+        assertTrue(falsePositives < probes * 0.01, "Falsos positivos: " + falsePositives);
+        assertTrue(filter.expectedFpp() < 0.01, "Esperada: " + filter.expectedFpp());
+        assertEquals(probes - falsePositives, filter.definiteMisses());
+    }
+
+    @Test
+    @DisplayName("Tasa observada: falsos positivos sobre los ADN que no estaban")
+    void testObservedFpp() {
+        DnaHashFilter filter = new DnaHashFilter(new BloomFilterProperties());
+        assertEquals(0.0, filter.observedFpp());
+
+        filter.mightContain(new byte[16]);
+        filter.mightContain(new byte[]{1});
+        filter.mightContain(new byte[]{2});
+        filter.recordFalsePositive();
+
+        assertEquals(1, filter.falsePositives());
+        assertEquals(0.25, filter.observedFpp(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Se llena al arrancar con las huellas de la tabla")
+    void testLoadsFromDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE dna_record (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "dna_hash VARBINARY(32) UNIQUE, is_mutant BOOLEAN)");
+        byte[][] stored = randomHashes(new Random(3), 100);
+        for (byte[] hash : stored) {
+            jdbc.update("INSERT INTO dna_record (dna_hash, is_mutant) VALUES (?, TRUE)", (Object) hash);
+        }
+        jdbc.update("INSERT INTO dna_record (dna_hash, is_mutant) VALUES (NULL, FALSE)");
+
+        DnaHashFilter filter = new DnaHashFilter(new BloomFilterProperties(), dataSource);
+        filter.afterPropertiesSet();
+
+        assertEquals(100, filter.size());
+        for (byte[] hash : stored) {
+            assertTrue(filter.mightContain(hash));
+        }
+    }
+
+    @Test
+    @DisplayName("Deshabilitado siempre manda a buscar en la base")
+    void testDisabled() {
+        BloomFilterProperties properties = new BloomFilterProperties();
+        properties.setEnabled(false);
+        DnaHashFilter filter = new DnaHashFilter(properties);
+
+        filter.put(new byte[16]);
+
+        assertTrue(filter.mightContain(new byte[]{1, 2, 3}));
+        assertEquals(0, filter.size());
+        assertEquals(0, filter.memoryBytes());
+    }
+
+    private static byte[][] randomHashes(Random random, int count) {
+        byte[][] hashes = new byte[count][16];
+        for (byte[] hash : hashes) {
+            random.nextBytes(hash);
+        }
+        return hashes;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.utn.dnaRecord.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmark JMH del camino de {@code POST /mutant} antes de llegar a la base de datos:
+ * validar, calcular el hash y detectar.
+ * <p>
+ * {@code separatePasses} reproduce el camino anterior (regex por fila, detector sobre
+ * {@code String[]} y {@code String.join} + {@code getBytes()} + SHA-256 con hex armado a mano);
+ * {@code fusedPass} es {@link ParsedDna#parse} seguido de la detección sobre la matriz empaquetada.
+ * <p>
+ * Con el profiler de GC se obtienen los bytes asignados por request ({@code gc.alloc.rate.norm}):
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.utn.dnaRecord.service.DnaPipelineBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class DnaPipelineBenchmark {
+
+    private static final String BASES = "ACGT";
+    private static final Pattern DNA_VALIDO = Pattern.compile("^[ATCG]+$");
+
+    @Param({"6", "64", "512"})
+    private int size;
+
+    private String[] dna;
+    private MutantDetector mutantDetector;
+
+    @Setup
+    public void setUp() {
+        dna = new String[size];
+        for (int row = 0; row < size; row++) {
+            StringBuilder sb = new StringBuilder(size);
+            for (int col = 0; col < size; col++) {
+                sb.append(BASES.charAt((col + 2 * row) % 4));
+            }
+            dna[row] = sb.toString();
+        }
+        mutantDetector = new MutantDetector();
+    }
+
+    @TearDown
+    public void tearDown() {
+        mutantDetector.shutdown();
+    }
+
+    @Benchmark
+    public boolean separatePasses() throws NoSuchAlgorithmException {
+        for (String row : dna) {
+            if (row == null || row.length() != dna.length || !DNA_VALIDO.matcher(row).matches()) {
+                return false;
+            }
+        }
+        String hash = legacyHash(dna);
+        return mutantDetector.isMutant(dna) && hash != null;
+    }
+
+    @Benchmark
+    public boolean fusedPass() {
+        ParsedDna parsed = ParsedDna.parse(dna);
+        return parsed != null && mutantDetector.isMutantPacked(parsed.getDna()) && parsed.getHash() != null;
+    }
+
+    static String legacyHash(String[] dna) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] encodedhash = digest.digest(String.join("", dna).getBytes());
+        StringBuilder hexString = new StringBuilder(2 * encodedhash.length);
+        for (byte b : encodedhash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DnaPipelineBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.ResultCacheProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del caché en memoria de resultados.
+ */
+class DnaResultCacheTest {
+
+    private static final byte[] MUTANT_HASH = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+    private static final byte[] HUMAN_HASH = {16, 15, 14, 13, 12, 11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1};
+
+    @Test
+    @DisplayName("Guarda y devuelve el resultado por contenido de la huella, contando aciertos y fallos")
+    void testGetAndPut() {
+        DnaResultCache cache = new DnaResultCache(new ResultCacheProperties());
+
+        assertTrue(cache.find(MUTANT_HASH).isEmpty());
+        cache.put(MUTANT_HASH, true);
+        cache.put(HUMAN_HASH, false);
+
+        assertEquals(Optional.of(true), cache.find(MUTANT_HASH.clone()));
+        assertEquals(Optional.of(false), cache.find(HUMAN_HASH.clone()));
+        assertEquals(2, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Respeta el tamaño máximo y cuenta los desalojos")
+    void testMaximumSize() {
+        ResultCacheProperties properties = new ResultCacheProperties();
+        properties.setMaximumSize(100);
+        DnaResultCache cache = new DnaResultCache(properties);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(new byte[]{(byte) i, (byte) (i >> 8)}, i % 2 == 0);
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.size() <= 100, "Quedaron " + cache.size() + " entradas");
+        assertTrue(cache.stats().evictionCount() >= 900);
+    }
+
+    @Test
+    @DisplayName("Las entradas vencen al pasar el TTL")
+    void testTtl() {
+        ResultCacheProperties properties = new ResultCacheProperties();
+        properties.setTtl(Duration.ofMinutes(5));
+        AtomicLong now = new AtomicLong();
+        DnaResultCache cache = new DnaResultCache(properties, now::get);
+
+        cache.put(MUTANT_HASH, true);
+        now.addAndGet(TimeUnit.MINUTES.toNanos(4));
+        assertEquals(Optional.of(true), cache.find(MUTANT_HASH));
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        assertTrue(cache.find(MUTANT_HASH).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deshabilitado no guarda nada")
+    void testDisabled() {
+        ResultCacheProperties properties = new ResultCacheProperties();
+        properties.setEnabled(false);
+        DnaResultCache cache = new DnaResultCache(properties);
+
+        cache.put(MUTANT_HASH, true);
+
+        assertTrue(cache.find(MUTANT_HASH).isEmpty());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.stats().requestCount());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.utn.dnaRecord.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la unión de requests simultáneos por la misma huella.
+ */
+class DnaSingleFlightTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    @DisplayName("Los hilos que llegan durante el análisis esperan y reciben el mismo resultado")
+    void testConcurrentCallersShareOneAnalysis() throws Exception {
+        DnaSingleFlight singleFlight = new DnaSingleFlight();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger analyses = new AtomicInteger();
+        byte[] hash = {1, 2, 3};
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            results.add(pool.submit(() -> singleFlight.run(hash, () -> {
+                analyses.incrementAndGet();
+                await(release);
+                return true;
+            })));
+            awaitUntil(() -> singleFlight.inFlight() == 1);
+            for (int i = 1; i < THREADS; i++) {
+                // Copia de la huella: se comparan los bytes, no la referencia
+                results.add(pool.submit(() -> singleFlight.run(hash.clone(), () -> {
+                    analyses.incrementAndGet();
+                    return false;
+                })));
+            }
+            awaitUntil(() -> singleFlight.coalesced() == THREADS - 1);
+            release.countDown();
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, analyses.get());
+        assertEquals(0, singleFlight.inFlight(), "No debe quedar la huella registrada");
+    }
+
+    @Test
+    @DisplayName("La excepción del análisis llega sin envolver a todos los que esperaban")
+    void testFailureIsSharedAndNotCached() throws Exception {
+        DnaSingleFlight singleFlight = new DnaSingleFlight();
+        CountDownLatch release = new CountDownLatch(1);
+        byte[] hash = {9};
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> leader = pool.submit(() -> singleFlight.run(hash, () -> {
+                await(release);
+                throw new IllegalStateException("BD caída");
+            }));
+            awaitUntil(() -> singleFlight.inFlight() == 1);
+            Future<Boolean> follower = pool.submit(() -> singleFlight.run(hash, () -> true));
+            awaitUntil(() -> singleFlight.coalesced() == 1);
+            release.countDown();
+
+            for (Future<Boolean> result : List.of(leader, follower)) {
+                Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // El error no queda guardado: el próximo request vuelve a analizar
+        assertFalse(singleFlight.run(hash, () -> false));
+    }
+
+    @Test
+    @DisplayName("Huellas distintas no se esperan entre sí")
+    void testDifferentHashesRunIndependently() {
+        DnaSingleFlight singleFlight = new DnaSingleFlight();
+        assertTrue(singleFlight.run(new byte[]{1}, () -> singleFlight.run(new byte[]{2}, () -> true)));
+        assertEquals(0, singleFlight.coalesced());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timeout esperando a los hilos");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de los contadores de {@code /stats}, con el repositorio simulado.
+ */
+class DnaStatsCounterTest {
+
+    private final DnaRecordRepository repository = mock(DnaRecordRepository.class);
+    private final DnaStatsCounter statsCounter = new DnaStatsCounter(repository);
+
+    @Test
+    @DisplayName("Al arrancar toma los totales de la base")
+    void testSeedsFromDatabase() {
+        when(repository.countByIsMutant(true)).thenReturn(40L);
+        when(repository.countByIsMutant(false)).thenReturn(100L);
+
+        statsCounter.afterPropertiesSet();
+
+        assertEquals(40, statsCounter.mutantCount());
+        assertEquals(100, statsCounter.humanCount());
+    }
+
+    @Test
+    @DisplayName("Después de arrancar, /stats no consulta la base")
+    void testCountsWithoutQueries() {
+        statsCounter.afterPropertiesSet();
+        clearInvocations(repository);
+
+        statsCounter.write(() -> statsCounter.recordInserted(true));
+        statsCounter.recordPending(false);
+
+        assertEquals(1, statsCounter.mutantCount());
+        assertEquals(1, statsCounter.humanCount(), "Los pendientes del guardado diferido también cuentan");
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Un pendiente que se guarda pasa a guardado sin contarse dos veces")
+    void testPendingMovesToInserted() {
+        statsCounter.recordPending(true);
+        statsCounter.write(() -> {
+            statsCounter.recordInserted(true);
+            statsCounter.removePending(true);
+        });
+
+        assertEquals(1, statsCounter.mutantCount());
+    }
+
+    @Test
+    @DisplayName("La reconciliación corrige lo que se insertó o borró por otro camino")
+    void testReconcileFixesDrift() {
+        statsCounter.write(() -> statsCounter.recordInserted(true));
+        statsCounter.write(() -> statsCounter.recordInserted(false));
+        when(repository.countByIsMutant(true)).thenReturn(5L);
+        when(repository.countByIsMutant(false)).thenReturn(0L);
+
+        assertTrue(statsCounter.reconcile());
+
+        assertEquals(5, statsCounter.mutantCount());
+        assertEquals(0, statsCounter.humanCount());
+    }
+
+    @Test
+    @DisplayName("La reconciliación no compara contra los pendientes, que todavía no están en la base")
+    void testReconcileIgnoresPending() {
+        statsCounter.recordPending(true);
+        when(repository.countByIsMutant(true)).thenReturn(0L);
+
+        assertTrue(statsCounter.reconcile());
+
+        assertEquals(1, statsCounter.mutantCount());
+    }
+
+    @Test
+    @DisplayName("Con una escritura en curso, la reconciliación no ajusta nada")
+    void testReconcileSkipsDuringWrites() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.countByIsMutant(true)).thenReturn(1L); // La fila ya está, el contador todavía no
+        Thread writer = Thread.ofPlatform().start(() -> statsCounter.write(() -> {
+            writing.countDown();
+            awaitQuietly(release);
+            statsCounter.recordInserted(true);
+        }));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        assertFalse(statsCounter.reconcile());
+        assertEquals(1, statsCounter.skippedReconcileCount());
+        release.countDown();
+        writer.join();
+
+        assertEquals(1, statsCounter.mutantCount(), "Sin la guarda quedaría en 2");
+        assertTrue(statsCounter.reconcile());
+        assertEquals(1, statsCounter.mutantCount());
+        assertEquals(1, statsCounter.reconcileCount());
+        assertNotNull(statsCounter.lastReconciledAt());
+    }
+
+    @Test
+    @DisplayName("Si una escritura empieza durante el conteo, se reintenta enseguida en lugar de esperar al intervalo")
+    void testReconcileRetriesAfterConcurrentWrite() {
+        AtomicInteger counts = new AtomicInteger();
+        when(repository.countByIsMutant(true)).thenAnswer(invocation -> {
+            if (counts.getAndIncrement() == 0) {
+                // Otra escritura inserta y suma su registro mientras se cuenta
+                statsCounter.write(() -> statsCounter.recordInserted(true));
+            }
+            return 1L;
+        });
+
+        assertTrue(statsCounter.reconcile());
+
+        assertEquals(2, counts.get());
+        assertEquals(1, statsCounter.mutantCount());
+        assertEquals(0, statsCounter.skippedReconcileCount());
+    }
+
+    @Test
+    @DisplayName("La versión cambia con cada registro nuevo y con los ajustes, no al reconciliar sin diferencias")
+    void testVersionChangesWithCounts() {
+        statsCounter.afterPropertiesSet();
+        String initial = statsCounter.version();
+        assertEquals(initial, statsCounter.version());
+
+        statsCounter.write(() -> statsCounter.recordInserted(true));
+        String afterInsert = statsCounter.version();
+        assertNotEquals(initial, afterInsert);
+
+        when(repository.countByIsMutant(true)).thenReturn(1L);
+        assertTrue(statsCounter.reconcile());
+        assertEquals(afterInsert, statsCounter.version());
+
+        when(repository.countByIsMutant(true)).thenReturn(3L);
+        assertTrue(statsCounter.reconcile());
+        assertNotEquals(afterInsert, statsCounter.version());
+    }
+
+    @Test
+    @DisplayName("Escrituras desde muchos hilos a la vez: no se pierde ninguna")
+    void testConcurrentInserts() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        boolean isMutant = i % 4 == 0;
+                        statsCounter.write(() -> statsCounter.recordInserted(isMutant));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(threads * perThread / 4, statsCounter.mutantCount());
+        assertEquals(threads * perThread * 3 / 4, statsCounter.humanCount());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
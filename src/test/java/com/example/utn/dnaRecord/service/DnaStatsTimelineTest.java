@@ -0,0 +1,154 @@
+package com.example.utn.dnaRecord.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de las ventanas de actividad, con un reloj manual.
+ */
+class DnaStatsTimelineTest {
+
+    // Comienzo exacto de un día, para que los intervalos de segundo y de minuto coincidan
+    private final AtomicLong now = new AtomicLong(1_700_006_400_000L);
+    private final DnaStatsTimeline timeline = new DnaStatsTimeline(now::get);
+
+    @Test
+    @DisplayName("Una ventana suma los eventos de sus intervalos")
+    void testTotalsWithinWindow() {
+        timeline.recordRequest(true, false);
+        timeline.recordNew(true);
+        now.addAndGet(1_500);
+        timeline.recordRequest(false, true);
+        timeline.recordRequest(true, true);
+        timeline.recordNew(false);
+
+        DnaStatsTimeline.Slice total = timeline.total(StatsWindow.ONE_MINUTE);
+
+        assertEquals(2, total.mutantRequests());
+        assertEquals(1, total.humanRequests());
+        assertEquals(1, total.newMutants());
+        assertEquals(1, total.newHumans());
+        assertEquals(2, total.cacheHits());
+    }
+
+    @Test
+    @DisplayName("Los eventos salen de la ventana corta y siguen en las largas")
+    void testEventsLeaveShortWindows() {
+        timeline.recordNew(true);
+        now.addAndGet(61_000);
+
+        assertEquals(0, timeline.total(StatsWindow.ONE_MINUTE).newMutants());
+        assertEquals(1, timeline.total(StatsWindow.FIVE_MINUTES).newMutants());
+        assertEquals(1, timeline.total(StatsWindow.ONE_HOUR).newMutants());
+
+        now.addAndGet(3_600_000);
+        assertEquals(0, timeline.total(StatsWindow.ONE_HOUR).newMutants());
+        assertEquals(1, timeline.total(StatsWindow.ONE_DAY).newMutants());
+    }
+
+    @Test
+    @DisplayName("Al dar la vuelta, un intervalo viejo no se suma al nuevo que ocupa su lugar")
+    void testRingReuseStartsEmpty() {
+        timeline.recordNew(true);
+        now.addAndGet(300_000); // Misma posición del buffer de segundos
+        timeline.recordNew(false);
+
+        DnaStatsTimeline.Slice total = timeline.total(StatsWindow.FIVE_MINUTES);
+        assertEquals(0, total.newMutants());
+        assertEquals(1, total.newHumans());
+
+        now.addAndGet(86_400_000); // Misma posición del buffer de minutos, sin escribir nada
+        assertEquals(0, timeline.total(StatsWindow.ONE_DAY).newHumans(), "Un intervalo no reutilizado vale cero");
+    }
+
+    @Test
+    @DisplayName("La serie tiene un intervalo por segundo o por minuto, del más viejo al actual")
+    void testSeries() {
+        timeline.recordRequest(true, false);
+        now.addAndGet(2_000);
+        timeline.recordRequest(false, false);
+
+        List<DnaStatsTimeline.Slice> seconds = timeline.series(StatsWindow.ONE_MINUTE);
+        assertEquals(60, seconds.size());
+        assertEquals(now.get(), seconds.get(59).startMillis());
+        assertEquals(1, seconds.get(59).humanRequests());
+        assertEquals(1, seconds.get(57).mutantRequests());
+
+        List<DnaStatsTimeline.Slice> minutes = timeline.series(StatsWindow.ONE_DAY);
+        assertEquals(1440, minutes.size());
+        assertEquals(1, minutes.get(1439).mutantRequests());
+        assertEquals(1, minutes.get(1439).humanRequests());
+    }
+
+    @Test
+    @DisplayName("El histograma de detección agrupa por potencias de 2 de ns")
+    void testDetectionPercentiles() {
+        for (int i = 0; i < 90; i++) {
+            timeline.recordDetection(1_500); // < 2048 ns
+        }
+        for (int i = 0; i < 10; i++) {
+            timeline.recordDetection(100_000); // < 131072 ns
+        }
+
+        DnaStatsTimeline.Slice total = timeline.total(StatsWindow.FIVE_MINUTES);
+
+        assertEquals(100, total.detections());
+        assertEquals(90 * 1_500 + 10 * 100_000, total.detectionNanos());
+        assertEquals(90, total.latencyCount(11));
+        assertEquals(2_048, total.detectionPercentileNanos(0.5));
+        assertEquals(2_048, total.detectionPercentileNanos(0.9));
+        assertEquals(131_072, total.detectionPercentileNanos(0.99));
+        assertEquals(100, timeline.total(StatsWindow.ONE_HOUR).detections());
+    }
+
+    @Test
+    @DisplayName("Posición del histograma en los bordes")
+    void testLatencyBucketBounds() {
+        assertEquals(0, DnaStatsTimeline.latencyBucket(0));
+        assertEquals(1, DnaStatsTimeline.latencyBucket(1));
+        assertEquals(11, DnaStatsTimeline.latencyBucket(2_047));
+        assertEquals(12, DnaStatsTimeline.latencyBucket(2_048));
+        assertEquals(DnaStatsTimeline.LATENCY_BUCKETS - 1, DnaStatsTimeline.latencyBucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Muchos hilos a la vez mientras cambia el segundo: no se pierde ningún evento")
+    void testConcurrentRecording() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        if (i % 1_000 == 0) {
+                            now.addAndGet(10); // El reloj avanza mientras se escribe
+                        }
+                        timeline.recordRequest(i % 2 == 0, false);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        DnaStatsTimeline.Slice total = timeline.total(StatsWindow.FIVE_MINUTES);
+        assertEquals(threads * perThread, total.mutantRequests() + total.humanRequests());
+        assertEquals(threads * perThread,
+                timeline.total(StatsWindow.ONE_HOUR).mutantRequests()
+                        + timeline.total(StatsWindow.ONE_HOUR).humanRequests());
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.BloomFilterProperties;
+import com.example.utn.dnaRecord.config.WriteBehindProperties;
+import com.example.utn.dnaRecord.entity.DnaRecord;
+import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del log de escritura anticipada sobre un directorio temporal. Una "caída" es abrir
+ * otra instancia sobre los mismos archivos sin haber llamado a {@code checkpoint}.
+ */
+class DnaWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    private final DnaRecordRepository repository = mock(DnaRecordRepository.class);
+    private final List<DnaRecord> replayed = new CopyOnWriteArrayList<>();
+    private final DnaStatsCounter statsCounter = new DnaStatsCounter(repository);
+    private DnaHashFilter hashFilter;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            List<DnaRecord> records = invocation.getArgument(0);
+            replayed.addAll(records);
+            int[] inserted = new int[records.size()];
+            Arrays.fill(inserted, 1);
+            return inserted;
+        }).when(repository).insertAllIfAbsent(any());
+        hashFilter = new DnaHashFilter(new BloomFilterProperties());
+    }
+
+    @Test
+    @DisplayName("Después de una caída, los resultados del log se guardan en la base y en el filtro de Bloom")
+    void testReplayAfterCrash() throws Exception {
+        DnaWriteAheadLog wal = open(DataSize.ofKilobytes(64));
+        LocalDateTime analyzedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        byte[] murmur = hash(16, 1);
+        byte[] sha256 = hash(32, 2);
+        assertEquals(0, wal.append(new DnaRecord(null, murmur, true, analyzedAt)));
+        assertEquals(0, wal.append(new DnaRecord(null, sha256, false, analyzedAt)));
+        wal.destroy();
+
+        open(DataSize.ofKilobytes(64));
+
+        assertEquals(2, replayed.size());
+        assertArrayEquals(murmur, replayed.get(0).getDnaHash());
+        assertTrue(replayed.get(0).getIsMutant());
+        assertEquals(analyzedAt, replayed.get(0).getCreatedAt());
+        assertArrayEquals(sha256, replayed.get(1).getDnaHash());
+        assertFalse(replayed.get(1).getIsMutant());
+        assertTrue(hashFilter.mightContain(murmur));
+        assertEquals(1, statsCounter.mutantCount());
+        assertEquals(1, statsCounter.humanCount());
+    }
+
+    @Test
+    @DisplayName("Después de recuperarlos, el log queda vacío")
+    void testReplayTruncates() throws Exception {
+        DnaWriteAheadLog wal = open(DataSize.ofKilobytes(64));
+        wal.append(record(1));
+        wal.destroy();
+        open(DataSize.ofKilobytes(64)).destroy();
+        replayed.clear();
+
+        open(DataSize.ofKilobytes(64));
+
+        assertTrue(replayed.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Un apagado normal (checkpoint con todo confirmado) no deja nada para recuperar")
+    void testCheckpointAfterRelease() throws Exception {
+        DnaWriteAheadLog wal = open(DataSize.ofKilobytes(64));
+        int segment = wal.append(record(1));
+        wal.release(segment);
+        wal.checkpoint();
+        wal.destroy();
+
+        open(DataSize.ofKilobytes(64));
+
+        assertTrue(replayed.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Un registro a medio escribir termina la lectura sin perder los anteriores")
+    void testTornRecordStopsReplay() throws Exception {
+        DnaWriteAheadLog wal = open(DataSize.ofKilobytes(64));
+        for (int i = 0; i < 3; i++) {
+            wal.append(record(i));
+        }
+        wal.destroy();
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("dna-0.wal").toFile(), "rw")) {
+            file.seek(DnaWriteAheadLog.RECORD_SIZE * 3L - 1); // Último byte del segundo registro
+            file.write(0x5A);
+        }
+
+        open(DataSize.ofKilobytes(64));
+
+        assertEquals(1, replayed.size());
+        assertArrayEquals(record(0).getDnaHash(), replayed.get(0).getDnaHash());
+    }
+
+    @Test
+    @DisplayName("Se pasa al otro segmento cuando el activo se llena y el otro no tiene pendientes")
+    void testSegmentRotation() throws Exception {
+        // Encabezado + 2 registros por segmento
+        DnaWriteAheadLog wal = open(DataSize.ofBytes(DnaWriteAheadLog.RECORD_SIZE * 3L));
+
+        assertEquals(0, wal.append(record(0)));
+        assertEquals(0, wal.append(record(1)));
+        assertEquals(1, wal.append(record(2)));
+        assertEquals(1, wal.append(record(3)));
+        assertEquals(DnaWriteAheadLog.FULL, wal.append(record(4)), "El segmento 0 tiene resultados sin confirmar");
+
+        wal.release(0);
+        assertEquals(DnaWriteAheadLog.FULL, wal.append(record(4)));
+        wal.release(0);
+        assertEquals(0, wal.append(record(4)));
+        wal.destroy();
+
+        // Sin confirmar quedan 2, 3 (segmento 1) y 4 (segmento 0, que se vació al reutilizarse)
+        open(DataSize.ofBytes(DnaWriteAheadLog.RECORD_SIZE * 3L));
+        assertEquals(3, replayed.size());
+    }
+
+    @Test
+    @DisplayName("Muchos hilos a la vez: todos los resultados quedan en el log con menos sincronizaciones")
+    void testConcurrentAppendsAreAllDurable() throws Exception {
+        DnaWriteAheadLog wal = open(DataSize.ofMegabytes(1));
+        int threads = 8;
+        int perThread = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int base = t * perThread;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        assertEquals(0, wal.append(record(base + i)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(wal.syncCount() <= threads * perThread);
+        wal.destroy();
+
+        open(DataSize.ofMegabytes(1));
+        assertEquals(threads * perThread, replayed.size());
+    }
+
+    @Test
+    @DisplayName("Si falla el force(), fallan todos los que cubría y su rango se vuelve a sincronizar")
+    void testFailedSyncFailsCoveredWaiters() throws Exception {
+        CountDownLatch firstSyncStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstSync = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        List<Integer> forcedFrom = new CopyOnWriteArrayList<>();
+        DnaWriteAheadLog wal = new DnaWriteAheadLog(properties(DataSize.ofKilobytes(64)), repository,
+                TransactionOperations.withoutTransaction(), hashFilter, statsCounter, (buffer, from, length) -> {
+            forcedFrom.add(from);
+            switch (calls.incrementAndGet()) {
+                case 1 -> {
+                    firstSyncStarted.countDown();
+                    awaitUninterruptibly(releaseFirstSync);
+                }
+                case 2 -> throw new UncheckedIOException(new IOException("Disco lleno"));
+                default -> buffer.force(from, length);
+            }
+        });
+        wal.afterPropertiesSet();
+
+        // El primero sincroniza; los otros dos agregan mientras tanto y esperan la sincronización siguiente
+        Future<Integer> first = CompletableFuture.supplyAsync(() -> wal.append(record(1)));
+        assertTrue(firstSyncStarted.await(5, TimeUnit.SECONDS));
+        List<Thread> waiters = new ArrayList<>();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        for (int value : new int[]{2, 3}) {
+            Thread waiter = new Thread(() -> {
+                try {
+                    wal.append(record(value));
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                }
+            });
+            waiter.start();
+            waiters.add(waiter);
+        }
+        for (Thread waiter : waiters) {
+            awaitWaiting(waiter);
+        }
+        releaseFirstSync.countDown();
+
+        assertEquals(0, first.get(5, TimeUnit.SECONDS));
+        for (Thread waiter : waiters) {
+            waiter.join(5_000);
+        }
+        assertEquals(2, failures.size());
+        assertEquals(1, wal.syncCount());
+
+        // El rango que no llegó a disco se incluye en la sincronización siguiente
+        assertEquals(0, wal.append(record(4)));
+        assertEquals(3, forcedFrom.size());
+        assertEquals(forcedFrom.get(1), forcedFrom.get(2));
+    }
+
+    @Test
+    @DisplayName("Deshabilitado no crea archivos y no registra nada")
+    void testDisabled() throws Exception {
+        WriteBehindProperties properties = properties(DataSize.ofKilobytes(64));
+        properties.getWal().setEnabled(false);
+        DnaWriteAheadLog wal = new DnaWriteAheadLog(properties, repository,
+                TransactionOperations.withoutTransaction(), hashFilter, statsCounter);
+        wal.afterPropertiesSet();
+
+        assertEquals(DnaWriteAheadLog.DISABLED, wal.append(record(1)));
+        assertFalse(directory.resolve("dna-0.wal").toFile().exists());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Espera a que el hilo ya haya agregado su registro y esté esperando la sincronización
+     * (y no el lock del log).
+     */
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!(LockSupport.getBlocker(thread) instanceof Condition) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertInstanceOf(Condition.class, LockSupport.getBlocker(thread));
+    }
+
+    private DnaWriteAheadLog open(DataSize segmentSize) throws Exception {
+        DnaWriteAheadLog wal = new DnaWriteAheadLog(properties(segmentSize), repository,
+                TransactionOperations.withoutTransaction(), hashFilter, statsCounter);
+        wal.afterPropertiesSet();
+        return wal;
+    }
+
+    private WriteBehindProperties properties(DataSize segmentSize) {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.getWal().setDirectory(directory);
+        properties.getWal().setSegmentSize(segmentSize);
+        return properties;
+    }
+
+    private static DnaRecord record(int value) {
+        return new DnaRecord(null, hash(16, value), value % 2 == 0, LocalDateTime.now());
+    }
+
+    private static byte[] hash(int length, int value) {
+        byte[] hash = new byte[length];
+        hash[0] = (byte) value;
+        hash[1] = (byte) (value >> 8);
+        hash[length - 1] = 42;
+        return hash;
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.BloomFilterProperties;
+import com.example.utn.dnaRecord.config.WriteBehindProperties;
+import com.example.utn.dnaRecord.entity.DnaRecord;
+import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import com.example.utn.dnaRecord.repository.DnaRecordRepositoryCustom.InsertResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del guardado diferido, con el repositorio simulado y sin transacción.
+ */
+class DnaWriteBehindQueueTest {
+
+    private final DnaRecordRepository repository = mock(DnaRecordRepository.class);
+    private final DnaWriteAheadLog writeAheadLog = mock(DnaWriteAheadLog.class);
+    private final DnaStatsCounter statsCounter = new DnaStatsCounter(repository);
+    private final List<List<DnaRecord>> written = new CopyOnWriteArrayList<>();
+    private DnaWriteBehindQueue writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        // El lote se reutiliza después de escribirlo: se guarda una copia
+        doAnswer(invocation -> insertAll(invocation.getArgument(0)))
+                .when(repository).insertAllIfAbsent(any());
+        when(writeAheadLog.append(any())).thenReturn(DnaWriteAheadLog.DISABLED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writeBehind != null) {
+            writeBehind.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Un resultado en espera se lee de la cola hasta que su lote se confirma")
+    void testPendingResultIsReadableUntilWritten() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return insertAll(invocation.getArgument(0));
+        }).when(repository).insertAllIfAbsent(any());
+        writeBehind = start(properties(10, Duration.ZERO, 100));
+
+        assertTrue(writeBehind.offer(hash(1), true));
+        assertEquals(true, writeBehind.find(hash(1)).orElseThrow());
+        assertTrue(writeBehind.find(hash(2)).isEmpty());
+
+        release.countDown();
+        awaitUntil(() -> writeBehind.pendingCount() == 0);
+        assertTrue(writeBehind.find(hash(1)).isEmpty());
+        assertArrayEquals(hash(1), written.get(0).get(0).getDnaHash());
+        assertNotNull(written.get(0).get(0).getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Los lotes salen al llenarse, sin esperar max-delay")
+    void testBatchesBySize() throws Exception {
+        writeBehind = start(properties(10, Duration.ofHours(1), 100));
+
+        for (int i = 0; i < 35; i++) {
+            assertTrue(writeBehind.offer(hash(i), i % 2 == 0));
+        }
+        // El lote se anota al escribirse y sus huellas se quitan de pendientes después del commit
+        awaitUntil(() -> written.size() == 3 && writeBehind.pendingCount() <= 5);
+
+        assertTrue(written.stream().allMatch(batch -> batch.size() == 10));
+        assertEquals(5, writeBehind.pendingCount(), "El lote incompleto espera max-delay");
+    }
+
+    @Test
+    @DisplayName("Un lote incompleto sale al cumplirse max-delay")
+    void testBatchesByDelay() throws Exception {
+        writeBehind = start(properties(1000, Duration.ofMillis(20), 100));
+
+        writeBehind.offer(hash(1), false);
+        writeBehind.offer(hash(2), true);
+        awaitUntil(() -> writeBehind.pendingCount() == 0);
+
+        assertEquals(2, written.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    @DisplayName("Al detenerse escribe todo lo pendiente y deja de aceptar resultados")
+    void testStopDrainsQueue() {
+        writeBehind = start(properties(1000, Duration.ofHours(1), 100));
+        for (int i = 0; i < 7; i++) {
+            writeBehind.offer(hash(i), true);
+        }
+
+        writeBehind.stop();
+
+        assertEquals(7, written.stream().mapToInt(List::size).sum());
+        assertEquals(0, writeBehind.pendingCount());
+        assertFalse(writeBehind.isRunning());
+        assertFalse(writeBehind.offer(hash(99), true), "Detenido, el request guarda el suyo");
+    }
+
+    @Test
+    @DisplayName("Con la cola llena, offer devuelve false y no deja el resultado en espera")
+    void testFullQueueRejects() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            entered.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(repository).insertAllIfAbsent(any());
+        writeBehind = start(properties(1, Duration.ZERO, 2));
+
+        assertTrue(writeBehind.offer(hash(0), true));
+        assertTrue(entered.await(5, TimeUnit.SECONDS)); // El hilo ya lo sacó de la cola
+        assertTrue(writeBehind.offer(hash(1), true));
+        assertTrue(writeBehind.offer(hash(2), true));
+
+        assertFalse(writeBehind.offer(hash(3), true));
+        assertTrue(writeBehind.find(hash(3)).isEmpty());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Si falla el lote, se reintenta de a un resultado; el que sigue fallando queda en espera y se reintenta")
+    void testFailedBatchIsRetriedOneByOne() throws Exception {
+        when(writeAheadLog.append(any())).thenReturn(0);
+        doThrow(new IllegalStateException("BD caída")).when(repository).insertAllIfAbsent(any());
+        when(repository.insertIfAbsent(hash(1), true)).thenReturn(new InsertResult(true, true));
+        when(repository.insertIfAbsent(hash(2), true)).thenThrow(new IllegalStateException("BD caída"));
+        writeBehind = start(properties(10, Duration.ofMillis(20), 100));
+
+        writeBehind.offer(hash(1), true);
+        writeBehind.offer(hash(2), true);
+        awaitUntil(() -> writeBehind.failedCount() == 1 && writeBehind.pendingCount() == 1);
+
+        assertTrue(writeBehind.find(hash(1)).isEmpty());
+        assertEquals(true, writeBehind.find(hash(2)).orElseThrow(), "Ya se respondió: sigue en espera");
+        assertEquals(2, statsCounter.mutantCount(), "Uno guardado y uno pendiente");
+        verify(writeAheadLog, times(1)).release(0);
+
+        // El reintento (de nuevo en lote, que vuelve a fallar, y después de a uno) lo guarda
+        doReturn(new InsertResult(true, true)).when(repository).insertIfAbsent(hash(2), true);
+        awaitUntil(() -> writeBehind.pendingCount() == 0);
+        assertEquals(1, writeBehind.failedCount());
+        verify(writeAheadLog, times(2)).release(0);
+        assertEquals(2, statsCounter.mutantCount());
+    }
+
+    @Test
+    @DisplayName("Si la base falla en todos los intentos, el resultado queda en el log y se recupera al arrancar")
+    void testUnsavedResultIsReplayedFromWriteAheadLog(@TempDir Path directory) throws Exception {
+        WriteBehindProperties properties = properties(10, Duration.ofMillis(20), 100);
+        properties.getWal().setDirectory(directory);
+        DnaHashFilter hashFilter = new DnaHashFilter(new BloomFilterProperties());
+        DnaWriteAheadLog wal = new DnaWriteAheadLog(properties, repository,
+                TransactionOperations.withoutTransaction(), hashFilter, statsCounter);
+        wal.afterPropertiesSet();
+        doThrow(new IllegalStateException("BD caída")).when(repository).insertAllIfAbsent(any());
+        doThrow(new IllegalStateException("BD caída")).when(repository).insertIfAbsent(any(), anyBoolean());
+        writeBehind = new DnaWriteBehindQueue(properties, repository, TransactionOperations.withoutTransaction(),
+                wal, statsCounter);
+        writeBehind.start();
+
+        assertTrue(writeBehind.offer(hash(1), true));
+        awaitUntil(() -> writeBehind.failedCount() >= 1);
+        writeBehind.stop(); // Con la base todavía caída
+        wal.destroy();
+
+        DnaRecordRepository recovered = mock(DnaRecordRepository.class);
+        List<DnaRecord> replayed = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            replayed.addAll(invocation.getArgument(0));
+            return new int[]{1};
+        }).when(recovered).insertAllIfAbsent(any());
+        new DnaWriteAheadLog(properties, recovered, TransactionOperations.withoutTransaction(), hashFilter,
+                new DnaStatsCounter(recovered)).afterPropertiesSet();
+
+        assertEquals(1, replayed.size());
+        assertArrayEquals(hash(1), replayed.get(0).getDnaHash());
+        assertTrue(replayed.get(0).getIsMutant());
+    }
+
+    @Test
+    @DisplayName("Cada resultado pasa por el log antes de aceptarse y se libera al confirmarse su lote")
+    void testWriteAheadLogIsAppendedAndReleased() throws Exception {
+        when(writeAheadLog.append(any())).thenReturn(1);
+        writeBehind = start(properties(10, Duration.ofMillis(20), 100));
+
+        assertTrue(writeBehind.offer(hash(1), true));
+        verify(writeAheadLog).append(argThat(record -> record.getIsMutant() && record.getCreatedAt() != null));
+        awaitUntil(() -> writeBehind.pendingCount() == 0);
+
+        verify(writeAheadLog).release(1);
+        writeBehind.stop();
+        verify(writeAheadLog).checkpoint();
+    }
+
+    @Test
+    @DisplayName("Con el log lleno, el request guarda el suyo antes de responder")
+    void testFullWriteAheadLogRejects() {
+        when(writeAheadLog.append(any())).thenReturn(DnaWriteAheadLog.FULL);
+        writeBehind = start(properties(10, Duration.ZERO, 100));
+
+        assertFalse(writeBehind.offer(hash(1), true));
+        assertTrue(writeBehind.find(hash(1)).isEmpty());
+        assertEquals(0, writeBehind.pendingCount());
+    }
+
+    @Test
+    @DisplayName("Los resultados aceptados cuentan en /stats enseguida, y los que ya estaban en la base no")
+    void testStatsCountAcceptedResults() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return new int[]{1, 0, 1}; // El segundo lo guardó otra instancia
+        }).when(repository).insertAllIfAbsent(any());
+        writeBehind = start(properties(3, Duration.ofHours(1), 100));
+
+        writeBehind.offer(hash(1), true);
+        writeBehind.offer(hash(2), true);
+        writeBehind.offer(hash(3), false);
+        assertEquals(2, statsCounter.mutantCount(), "Antes de escribir el lote");
+        assertEquals(1, statsCounter.humanCount());
+
+        release.countDown();
+        awaitUntil(() -> writeBehind.pendingCount() == 0);
+        assertEquals(1, statsCounter.mutantCount());
+        assertEquals(1, statsCounter.humanCount());
+    }
+
+    @Test
+    @DisplayName("Deshabilitado no arranca el hilo y el request guarda el suyo")
+    void testDisabled() {
+        WriteBehindProperties properties = properties(10, Duration.ZERO, 10);
+        properties.setEnabled(false);
+        writeBehind = start(properties);
+
+        assertFalse(writeBehind.isRunning());
+        assertFalse(writeBehind.offer(hash(1), true));
+        verify(repository, never()).insertIfAbsent(any(), anyBoolean());
+    }
+
+    private DnaWriteBehindQueue start(WriteBehindProperties properties) {
+        DnaWriteBehindQueue queue = new DnaWriteBehindQueue(properties, repository,
+                TransactionOperations.withoutTransaction(), writeAheadLog, statsCounter);
+        queue.start();
+        return queue;
+    }
+
+    private static WriteBehindProperties properties(int batchSize, Duration maxDelay, int capacity) {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setBatchSize(batchSize);
+        properties.setMaxDelay(maxDelay);
+        properties.setQueueCapacity(capacity);
+        return properties;
+    }
+
+    private int[] insertAll(List<DnaRecord> records) {
+        written.add(new ArrayList<>(records));
+        int[] inserted = new int[records.size()];
+        Arrays.fill(inserted, 1);
+        return inserted;
+    }
+
+    private static byte[] hash(int value) {
+        return new byte[]{(byte) value, (byte) (value >> 8), 7, 7};
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timeout esperando al hilo de escritura");
+            Thread.sleep(1);
+        }
+    }
+}
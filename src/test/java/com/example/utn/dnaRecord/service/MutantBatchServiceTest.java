@@ -0,0 +1,302 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.BatchProperties;
+import com.example.utn.dnaRecord.config.JobProperties;
+import com.example.utn.dnaRecord.dto.DnaBatchResultDTO;
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de {@code POST /mutant/batch} a nivel servicio, con la base y el detector simulados.
+ */
+class MutantBatchServiceTest {
+
+    private static final String MUTANT = "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}";
+    private static final String HUMAN = "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATTT\",\"AGACGG\",\"GCGTCA\",\"TCACTG\"]}";
+    private static final String OTHER_HUMAN = "{\"dna\":[\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\"]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BatchProperties properties = new BatchProperties();
+    private final JobProperties jobProperties = new JobProperties();
+    private final DnaRecordRepository repository = mock(DnaRecordRepository.class);
+    private final MutantDetector detector = spy(new MutantDetector());
+    private final DnaResultCache resultCache = mock(DnaResultCache.class);
+    private final DnaHashFilter hashFilter = mock(DnaHashFilter.class);
+    private final DnaWriteBehindQueue writeBehind = mock(DnaWriteBehindQueue.class);
+    private final DnaStatsCounter statsCounter = mock(DnaStatsCounter.class);
+    private final DnaStatsTimeline statsTimeline = mock(DnaStatsTimeline.class);
+    private final TransactionOperations transactions = mock(TransactionOperations.class);
+    private MutantBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setParallelism(2);
+        batchService = newService();
+        when(resultCache.find(any())).thenReturn(Optional.empty());
+        when(writeBehind.find(any())).thenReturn(Optional.empty());
+        when(hashFilter.mightContain(any())).thenReturn(true);
+        when(repository.findIsMutantByDnaHashIn(any())).thenReturn(Map.of());
+        when(repository.insertAllIfAbsent(any())).thenAnswer(invocation -> {
+            int[] inserted = new int[invocation.<List<?>>getArgument(0).size()];
+            Arrays.fill(inserted, 1);
+            return inserted;
+        });
+        when(transactions.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(statsCounter).write(any(Runnable.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+
+    @Test
+    @DisplayName("NDJSON: analiza los ADN nuevos y los guarda en un solo batch")
+    void testAnalyzesAndSavesInOneBatch() throws Exception {
+        List<DnaBatchResultDTO> results = analyze(MUTANT + "\n" + HUMAN + "\n");
+
+        assertEquals(List.of(DnaBatchResultDTO.result(0, true), DnaBatchResultDTO.result(1, false)), results);
+        verify(repository, times(1)).findIsMutantByDnaHashIn(any());
+        verify(repository, times(1)).insertAllIfAbsent(argThat(records -> records.size() == 2));
+        verify(transactions, times(1)).execute(any());
+        verify(statsCounter).recordInserted(true);
+        verify(statsCounter).recordInserted(false);
+        verify(statsTimeline, times(2)).recordDetection(anyLong());
+        verify(resultCache).put(any(), eq(true));
+        verify(hashFilter, times(2)).put(any());
+    }
+
+    @Test
+    @DisplayName("Arreglo JSON: mismo resultado que NDJSON")
+    void testJsonArray() throws Exception {
+        List<DnaBatchResultDTO> results = analyze("[" + MUTANT + ", " + HUMAN + "]");
+
+        assertEquals(List.of(DnaBatchResultDTO.result(0, true), DnaBatchResultDTO.result(1, false)), results);
+    }
+
+    @Test
+    @DisplayName("Los guardados se resuelven con un solo SELECT ... IN, sin analizarlos")
+    void testStoredResolvedWithOneQuery() throws Exception {
+        when(repository.findIsMutantByDnaHashIn(any())).thenAnswer(invocation -> {
+            Map<ByteBuffer, Boolean> stored = new java.util.HashMap<>();
+            for (byte[] hash : invocation.<Collection<byte[]>>getArgument(0)) {
+                stored.put(ByteBuffer.wrap(hash), true);
+            }
+            return stored;
+        });
+
+        List<DnaBatchResultDTO> results = analyze(MUTANT + "\n" + HUMAN + "\n" + OTHER_HUMAN);
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getIsMutant()), "Valen los resultados guardados");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<byte[]>> lookup = ArgumentCaptor.forClass(Collection.class);
+        verify(repository, times(1)).findIsMutantByDnaHashIn(lookup.capture());
+        assertEquals(3, lookup.getValue().size());
+        verify(detector, never()).isMutantPacked(any());
+        verify(repository, never()).insertAllIfAbsent(any());
+    }
+
+    @Test
+    @DisplayName("El caché en memoria y el filtro de Bloom evitan la consulta")
+    void testCacheAndBloomSkipQuery() throws Exception {
+        when(resultCache.find(any())).thenReturn(Optional.of(true), Optional.empty());
+        when(hashFilter.mightContain(any())).thenReturn(false);
+
+        List<DnaBatchResultDTO> results = analyze(MUTANT + "\n" + HUMAN);
+
+        assertEquals(List.of(DnaBatchResultDTO.result(0, true), DnaBatchResultDTO.result(1, false)), results);
+        verify(statsTimeline).recordRequest(true, true);
+        verify(repository, never()).findIsMutantByDnaHashIn(any());
+        verify(repository).insertAllIfAbsent(argThat(records -> records.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Un ADN repetido en el lote se analiza y se guarda una sola vez")
+    void testDuplicatesDetectedOnce() throws Exception {
+        List<DnaBatchResultDTO> results = analyze(MUTANT + "\n" + MUTANT + "\n" + MUTANT);
+
+        assertEquals(3, results.size());
+        verify(detector, times(1)).isMutantPacked(any());
+        verify(repository).insertAllIfAbsent(argThat(records -> records.size() == 1));
+        verify(statsTimeline, times(3)).recordRequest(true, false);
+    }
+
+    @Test
+    @DisplayName("Un ADN ya guardado por otro no se suma en /stats")
+    void testAlreadyInsertedNotCounted() throws Exception {
+        doReturn(new int[]{0}).when(repository).insertAllIfAbsent(any());
+
+        analyze(MUTANT);
+
+        verify(statsCounter, never()).recordInserted(anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Un ADN inválido tiene su línea de error y no interrumpe el resto")
+    void testInvalidItemsDoNotStopBatch() throws Exception {
+        String invalidBase = "{\"dna\":[\"ATGX\",\"CAGT\",\"TTAT\",\"AGAC\"]}";
+        String notSquare = "{\"dna\":[\"ATGC\",\"CAGT\"]}";
+        String empty = "{\"dna\":[]}";
+
+        List<DnaBatchResultDTO> results = analyze(String.join("\n", invalidBase, MUTANT, notSquare, empty, "{}", HUMAN));
+
+        assertEquals(6, results.size());
+        assertEquals("La fila 0 contiene bases inválidas (solo A, T, C, G)", results.get(0).getError());
+        assertTrue(results.get(1).getIsMutant());
+        assertNotNull(results.get(2).getError());
+        assertEquals("La secuencia de ADN no puede estar vacía", results.get(3).getError());
+        assertEquals("La secuencia de ADN no puede ser nula", results.get(4).getError());
+        assertFalse(results.get(5).getIsMutant());
+    }
+
+    @Test
+    @DisplayName("Un JSON mal formado termina la respuesta con una línea de error")
+    void testMalformedJsonEndsResponse() throws Exception {
+        List<DnaBatchResultDTO> results = analyze(MUTANT + "\n{\"dna\": [\"AT");
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).getIsMutant());
+        assertEquals(1, results.get(1).getIndex());
+        assertNotNull(results.get(1).getError());
+    }
+
+    @Test
+    @DisplayName("Un cuerpo que pasa el máximo al descomprimirlo termina la respuesta con una línea de error")
+    void testInflatedLimitEndsResponse() throws Exception {
+        byte[] first = (MUTANT + "\n").getBytes(StandardCharsets.UTF_8);
+        InputStream body = new SequenceInputStream(new ByteArrayInputStream(first), new InputStream() {
+            @Override
+            public int read() {
+                throw new DnaTooLargeException("El cuerpo descomprimido supera el máximo de 100 bytes");
+            }
+        });
+
+        List<DnaBatchResultDTO> results = analyze(body);
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).getIsMutant(), "Lo leído antes del corte se resuelve igual");
+        assertEquals(1, results.get(1).getIndex());
+        assertEquals("El cuerpo descomprimido supera el máximo de 100 bytes", results.get(1).getError());
+    }
+
+    @Test
+    @DisplayName("Si falla la base a mitad del lote, cada ADN sin resultado tiene su línea de error y no se lee más")
+    void testRepositoryFailureEndsWithErrorLines() throws Exception {
+        properties.setChunkSize(2);
+        batchService.shutdown();
+        batchService = newService();
+        doReturn(new int[]{1, 1}).doThrow(new IllegalStateException("Base caída"))
+                .when(repository).insertAllIfAbsent(any());
+        String otherMutant = "{\"dna\":[\"AAAA\",\"CAGT\",\"TTAC\",\"GGGG\"]}";
+
+        List<DnaBatchResultDTO> results = analyze(MUTANT + "\n" + HUMAN + "\n" + OTHER_HUMAN + "\n" + otherMutant
+                + "\n" + MUTANT);
+
+        assertEquals(4, results.size(), "El quinto ya no se lee");
+        assertTrue(results.get(0).getIsMutant());
+        assertFalse(results.get(1).getIsMutant());
+        for (DnaBatchResultDTO failed : results.subList(2, 4)) {
+            assertNull(failed.getIsMutant());
+            assertNotNull(failed.getError());
+        }
+        assertEquals(List.of(0L, 1L, 2L, 3L), results.stream().map(DnaBatchResultDTO::getIndex).toList());
+    }
+
+    @Test
+    @DisplayName("Se resuelve por grupos de chunk-size: un SELECT y un batch por grupo")
+    void testChunks() throws Exception {
+        properties.setChunkSize(2);
+        batchService.shutdown();
+        batchService = newService();
+
+        List<DnaBatchResultDTO> results = analyze(MUTANT + "\n" + HUMAN + "\n" + OTHER_HUMAN);
+
+        assertEquals(3, results.size());
+        verify(repository, times(2)).findIsMutantByDnaHashIn(any());
+        verify(repository, times(2)).insertAllIfAbsent(any());
+    }
+
+    @Test
+    @DisplayName("Un ADN más grande que sync-max-size tiene su línea de error que indica /mutant/jobs")
+    void testSyncMaxSizePerItem() throws Exception {
+        jobProperties.setSyncMaxSize(4);
+        // Se rechaza con la primera fila: la segunda, inválida, no llega a leerse
+        String tooLarge = "{\"dna\":[\"ATGCGA\",\"CAXTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}";
+
+        List<DnaBatchResultDTO> results = analyze(tooLarge + "\n" + OTHER_HUMAN);
+
+        assertEquals(2, results.size());
+        assertNull(results.get(0).getIsMutant());
+        assertEquals("El ADN de 6x6 supera el máximo de 4x4 de POST /mutant/batch; enviarlo a POST /mutant/jobs",
+                results.get(0).getError());
+        assertFalse(results.get(1).getIsMutant());
+        verify(detector, never()).isMutantPacked(argThat(dna -> dna.size() == 6));
+    }
+
+    @Test
+    @DisplayName("Un grupo se resuelve antes de chunk-size si pasa chunk-max-cells")
+    void testChunkBoundedByCells() throws Exception {
+        properties.setChunkMaxCells(50); // Una matriz de 6x6 y una de 4x4 ya lo superan
+
+        List<DnaBatchResultDTO> results = analyze(MUTANT + "\n" + OTHER_HUMAN + "\n" + HUMAN);
+
+        assertEquals(3, results.size());
+        verify(repository, times(2)).insertAllIfAbsent(any());
+    }
+
+    private MutantBatchService newService() {
+        return new MutantBatchService(objectMapper, properties, jobProperties, repository, detector, resultCache, hashFilter,
+                writeBehind, statsCounter, statsTimeline, transactions);
+    }
+
+    /**
+     * @return Las líneas de la respuesta, ordenadas por índice
+     */
+    private List<DnaBatchResultDTO> analyze(String body) throws IOException {
+        return analyze(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<DnaBatchResultDTO> analyze(InputStream body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchService.analyze(body, out);
+        List<DnaBatchResultDTO> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, DnaBatchResultDTO.class));
+        }
+        results.sort(Comparator.comparingLong(DnaBatchResultDTO::getIndex));
+        return results;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.DetectorProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH: largos de secuencia (run-length) vs bitboards vs Vector API.
+ * <p>
+ * Usa matrices humanas (sin ninguna secuencia) para medir el peor caso: sin early
+ * termination hay que recorrer la matriz completa. Los motores empaquetados incluyen
+ * el costo de empaquetar los Strings, igual que el de largos de secuencia incluye el de validarlos.
+ * Se mide con L = 4 y L = 6: el motor de largos de secuencia debe costar lo mismo con ambos.
+ * <p>
+ * Ejecutar con: {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.utn.dnaRecord.service.MutantDetectorBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class MutantDetectorBenchmark {
+
+    private static final String BASES = "ACGT";
+
+    @Param({"6", "64", "512", "4096"})
+    private int size;
+
+    @Param({"4", "6"})
+    private int sequenceLength;
+
+    private String[] dna;
+    private MutantDetector runLengthDetector;
+    private BitboardMutantDetector bitboardDetector;
+    private BitboardMutantDetector vectorDetector;
+
+    @Setup
+    public void setUp() {
+        dna = new String[size];
+        for (int row = 0; row < size; row++) {
+            StringBuilder sb = new StringBuilder(size);
+            for (int col = 0; col < size; col++) {
+                sb.append(BASES.charAt((col + 2 * row) % 4));
+            }
+            dna[row] = sb.toString();
+        }
+        DetectorProperties properties = new DetectorProperties();
+        properties.setSequenceLength(sequenceLength);
+        runLengthDetector = new MutantDetector(properties);
+        bitboardDetector = new BitboardMutantDetector(sequenceLength, properties.getMutantThreshold());
+        vectorDetector = MutantDetector.createPackedDetector(sequenceLength, properties.getMutantThreshold());
+    }
+
+    @TearDown
+    public void tearDown() {
+        runLengthDetector.shutdown();
+    }
+
+    @Benchmark
+    public boolean runLength() {
+        return runLengthDetector.isMutantRunLength(dna);
+    }
+
+    @Benchmark
+    public boolean bitboard() {
+        return bitboardDetector.isMutant(dna);
+    }
+
+    @Benchmark
+    public boolean vector() {
+        return vectorDetector.isMutant(dna);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MutantDetectorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.JobProperties;
+import com.example.utn.dnaRecord.dto.MutantJobResponseDTO;
+import com.example.utn.dnaRecord.dto.MutantJobResponseDTO.Status;
+import com.example.utn.dnaRecord.exception.JobQueueFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de los análisis asincrónicos, con {@link MutantService} simulado.
+ */
+class MutantJobServiceTest {
+
+    private static final ParsedDna SMALL = ParsedDna.parse(new String[]{"ATGC", "CAGT", "TTAT", "AGAC"});
+    private static final ParsedDna MEDIUM = ParsedDna.parse(
+            new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"});
+    private static final ParsedDna LARGE = ParsedDna.parse(new String[]{"ATGCGAT", "CAGTGCA", "TTATGTT", "AGAAGGA",
+            "CCCCTAC", "TCACTGT", "ATGCGAT"});
+
+    private final MutantService mutantService = mock(MutantService.class);
+    private final JobProperties properties = new JobProperties();
+    private MutantJobService jobService;
+
+    @AfterEach
+    void tearDown() {
+        if (jobService != null) {
+            jobService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Responde enseguida con el trabajo en cola y después tiene el resultado")
+    void testSubmitAndComplete() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(mutantService.analyzeDna(SMALL)).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return true;
+        });
+        jobService = new MutantJobService(mutantService, properties);
+
+        MutantJobResponseDTO submitted = jobService.submit(SMALL);
+        assertEquals(4, submitted.getSize());
+        assertNull(submitted.getIsMutant());
+        assertNotNull(submitted.getSubmittedAt());
+
+        release.countDown();
+        MutantJobResponseDTO done = jobService.await(submitted.getId(), Duration.ofSeconds(5)).orElseThrow()
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(Status.DONE, done.getStatus());
+        assertTrue(done.getIsMutant());
+        assertNotNull(done.getFinishedAt());
+        assertEquals(done, jobService.find(submitted.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("La espera vence con el estado actual si el trabajo no terminó")
+    void testAwaitTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(mutantService.analyzeDna(any())).thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+        jobService = new MutantJobService(mutantService, properties);
+        UUID id = jobService.submit(SMALL).getId();
+
+        CompletableFuture<MutantJobResponseDTO> polled = jobService.await(id, Duration.ofMillis(50)).orElseThrow();
+
+        assertFalse(polled.get(5, TimeUnit.SECONDS).getStatus().isFinished());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Un fallo del análisis queda en el trabajo")
+    void testFailedJob() throws Exception {
+        when(mutantService.analyzeDna(any())).thenThrow(new IllegalStateException("Base caída"));
+        jobService = new MutantJobService(mutantService, properties);
+
+        UUID id = jobService.submit(SMALL).getId();
+        MutantJobResponseDTO failed = jobService.await(id, Duration.ofSeconds(5)).orElseThrow().get(5, TimeUnit.SECONDS);
+
+        assertEquals(Status.FAILED, failed.getStatus());
+        assertEquals("Base caída", failed.getError());
+        assertNull(failed.getIsMutant());
+    }
+
+    @Test
+    @DisplayName("Con la cola llena rechaza el trabajo nuevo")
+    void testBoundedQueue() throws Exception {
+        properties.setWorkers(1);
+        properties.setQueueCapacity(2);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mutantService.analyzeDna(any())).thenAnswer(invocation -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        jobService = new MutantJobService(mutantService, properties);
+
+        jobService.submit(SMALL);
+        assertTrue(running.await(5, TimeUnit.SECONDS)); // El que se ejecuta ya no cuenta como en espera
+        jobService.submit(SMALL);
+        jobService.submit(SMALL);
+
+        assertThrows(JobQueueFullException.class, () -> jobService.submit(SMALL));
+        assertEquals(2, jobService.queuedCount());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("De la cola sale primero la matriz más chica")
+    void testSmallestFirst() throws Exception {
+        properties.setWorkers(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        when(mutantService.analyzeDna(any())).thenAnswer(invocation -> {
+            ParsedDna dna = invocation.getArgument(0);
+            if (dna == LARGE && order.isEmpty()) {
+                assertTrue(release.await(5, TimeUnit.SECONDS)); // Ocupa el único hilo mientras se encola el resto
+            }
+            order.add(dna.size());
+            return false;
+        });
+        jobService = new MutantJobService(mutantService, properties);
+
+        jobService.submit(LARGE);
+        jobService.submit(LARGE);
+        jobService.submit(MEDIUM);
+        UUID last = jobService.submit(SMALL).getId();
+        release.countDown();
+
+        jobService.await(last, Duration.ofSeconds(5)).orElseThrow().get(5, TimeUnit.SECONDS);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (order.size() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(List.of(7, 4, 6, 7), order);
+    }
+
+    @Test
+    @DisplayName("Los trabajos terminados se quitan al vencer retention")
+    void testPurgeExpired() throws Exception {
+        Instant now = Instant.parse("2025-01-02T03:04:05Z");
+        MutableClock clock = new MutableClock(now);
+        when(mutantService.analyzeDna(any())).thenReturn(true);
+        jobService = new MutantJobService(mutantService, properties, clock);
+        UUID id = jobService.submit(SMALL).getId();
+        jobService.await(id, Duration.ofSeconds(5)).orElseThrow().get(5, TimeUnit.SECONDS);
+
+        jobService.purgeExpired();
+        assertTrue(jobService.find(id).isPresent());
+
+        clock.instant = now.plus(properties.getRetention()).plusSeconds(1);
+        jobService.purgeExpired();
+        assertTrue(jobService.find(id).isEmpty());
+        assertTrue(jobService.await(id, Duration.ZERO).isEmpty());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
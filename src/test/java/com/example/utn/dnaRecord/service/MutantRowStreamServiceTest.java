@@ -0,0 +1,154 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.DetectorProperties;
+import com.example.utn.dnaRecord.config.JobProperties;
+import com.example.utn.dnaRecord.exception.DnaTooLargeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de {@code POST /mutant} en texto, fila por fila, con {@link MutantService} simulado.
+ */
+class MutantRowStreamServiceTest {
+
+    // Dos horizontales: en una matriz de 8x8, mutante con la primera fila
+    private static final String MUTANT_FIRST_ROW = "AAAACCCC";
+    private static final String[] HUMAN = {"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"};
+
+    private final MutantService mutantService = mock(MutantService.class);
+    private final DnaStatsTimeline statsTimeline = mock(DnaStatsTimeline.class);
+    private final DetectorProperties properties = new DetectorProperties();
+    private final JobProperties jobProperties = new JobProperties();
+
+    MutantRowStreamServiceTest() {
+        when(mutantService.recordResult(any(), anyBoolean()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+    }
+
+    @Test
+    @DisplayName("Con dos secuencias responde mutante sin leer el resto del cuerpo ni guardar")
+    void testEarlyVerdict() throws IOException {
+        InputStream rest = new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("No se lee después del veredicto");
+            }
+        };
+        InputStream body = new SequenceInputStream(body(MUTANT_FIRST_ROW + "\n"), rest);
+
+        MutantRowStreamService.Verdict verdict = newService().analyze(body);
+
+        assertTrue(verdict.isMutant());
+        assertTrue(verdict.isEarly());
+        assertEquals(1, verdict.rowsRead());
+        verify(mutantService, never()).recordResult(any(), anyBoolean());
+        verify(statsTimeline).recordRequest(true, false);
+    }
+
+    @Test
+    @DisplayName("Un humano se lee completo y se guarda con la misma huella que el JSON")
+    void testHumanRecordedWithFullHash() throws IOException {
+        MutantRowStreamService.Verdict verdict = newService().analyze(body(String.join("\n", HUMAN) + "\n"));
+
+        assertFalse(verdict.isMutant());
+        assertFalse(verdict.isEarly());
+        verify(mutantService).recordResult(argThat(hash -> Arrays.equals(hash,
+                ParsedDna.parse(HUMAN).getHash())), eq(false));
+    }
+
+    @Test
+    @DisplayName("Si el mutante se decide en la última fila, se guarda como cualquier matriz completa")
+    void testMutantOnLastRowRecorded() throws IOException {
+        String[] dna = {"AAAA", "CAGT", "TTAC", "GGGG"}; // La segunda secuencia recién en la última fila
+
+        MutantRowStreamService.Verdict verdict = newService().analyze(body(String.join("\r\n", dna) + "\r\n"));
+
+        assertTrue(verdict.isMutant());
+        assertFalse(verdict.isEarly());
+        verify(mutantService).recordResult(argThat(hash -> Arrays.equals(hash, ParsedDna.parse(dna).getHash())),
+                eq(true));
+    }
+
+    @Test
+    @DisplayName("Con huella canónica también se empaqueta para calcularla")
+    void testCanonicalFingerprint() throws IOException {
+        properties.setCanonicalFingerprint(true);
+
+        newService().analyze(body(String.join("\n", HUMAN)));
+
+        verify(mutantService).recordResult(argThat(hash -> Arrays.equals(hash,
+                ParsedDna.parse(HUMAN, properties.getFingerprint(), true).getHash())), eq(false));
+    }
+
+    @Test
+    @DisplayName("Con otras reglas del detector, la huella es la misma que la del JSON con esas reglas")
+    void testRulesInFingerprint() throws IOException {
+        properties.setSequenceLength(5);
+
+        newService().analyze(body(String.join("\n", HUMAN)));
+
+        verify(mutantService).recordResult(argThat(hash -> Arrays.equals(hash,
+                ParsedDna.parse(HUMAN, properties.getFingerprint(), false, properties.rules()).getHash())), eq(false));
+        verify(mutantService, never()).recordResult(argThat(hash -> Arrays.equals(hash,
+                ParsedDna.parse(HUMAN).getHash())), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Rechaza filas inválidas, matrices que no son NxN y N mayor al máximo")
+    void testInvalidRows() {
+        properties.setMaxSize(6);
+        MutantRowStreamService service = newService();
+
+        assertRejected(service, "", "La secuencia de ADN no puede estar vacía");
+        assertRejected(service, "ATGCGAT\n", "El ADN supera el tamaño máximo de 6x6");
+        assertRejected(service, "ATGC\nCAGT\nTTXT\nAGAC", "Base inválida en la fila 2, columna 2");
+        assertRejected(service, "ATGC\nCAG\nTTAT\nAGAC", "La fila 1 no tiene 4 bases");
+        assertRejected(service, "ATGC\nCAGT\nTTAT", "La matriz tiene 3 filas y se esperaban 4 (debe ser NxN)");
+        assertRejected(service, "ATGC\nCAGT\nTTAT\nAGAC\nAGAC", "La matriz tiene más de 4 filas (debe ser NxN)");
+        verify(mutantService, never()).recordResult(any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Rechaza con la primera fila una matriz de más de sync-max-size, sin leer el resto")
+    void testSyncMaxSize() {
+        jobProperties.setSyncMaxSize(4);
+        InputStream rest = new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("No se lee después de la primera fila");
+            }
+        };
+        InputStream body = new SequenceInputStream(body(HUMAN[0] + "\n"), rest);
+
+        DnaTooLargeException e = assertThrows(DnaTooLargeException.class, () -> newService().analyze(body));
+
+        assertEquals("El ADN de 6x6 supera el máximo de 4x4 de POST /mutant; enviarlo a POST /mutant/jobs",
+                e.getMessage());
+        verifyNoInteractions(mutantService, statsTimeline);
+    }
+
+    private MutantRowStreamService newService() {
+        return new MutantRowStreamService(mutantService, statsTimeline, properties, jobProperties);
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void assertRejected(MutantRowStreamService service, String body, String message) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.analyze(body(body)));
+        assertEquals(message, e.getMessage());
+    }
+}
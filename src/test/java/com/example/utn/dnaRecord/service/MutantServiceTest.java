@@ -2,6 +2,8 @@ package com.example.utn.dnaRecord.service;
 
 import com.example.utn.dnaRecord.entity.DnaRecord;
 import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import com.example.utn.dnaRecord.repository.DnaRecordRepositoryCustom.InsertResult;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,10 +12,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,19 +29,45 @@ class MutantServiceTest {
     @Mock
     private MutantDetector mutantDetector; // <--- ¡AHORA MOCKEAMOS EL DETECTOR!
 
+    @Mock
+    private DnaResultCache resultCache;
+
+    @Mock
+    private DnaHashFilter hashFilter;
+
+    @Mock
+    private DnaWriteBehindQueue writeBehind; // Por defecto no acepta nada: se guarda antes de responder
+
+    @Mock
+    private DnaStatsCounter statsCounter;
+
+    @Mock
+    private DnaStatsTimeline statsTimeline;
+
     @InjectMocks
     private MutantService mutantService;
 
+    @BeforeEach
+    void setUp() {
+        // Por defecto el filtro de Bloom no descarta nada: se consulta la BD
+        lenient().when(hashFilter.mightContain(any())).thenReturn(true);
+        // Sin otra instancia en juego, la BD se queda con el resultado calculado
+        lenient().when(dnaRecordRepository.insertIfAbsent(any(), anyBoolean()))
+                .thenAnswer(invocation -> new InsertResult(invocation.getArgument(1), true));
+        lenient().when(statsCounter.write(any(Supplier.class)))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
     @Test
     @DisplayName("Si es MUTANTE (según el detector), debe guardar en DB como true")
     void testAnalyzeDna_NewMutant_SavesAndReturnsTrue() {
-        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        ParsedDna dna = ParsedDna.parse(new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"});
 
         // 1. Simulamos que NO existe en DB
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.empty());
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class))).thenReturn(Optional.empty());
 
         // 2. Simulamos que el detector dice que ES MUTANTE (true)
-        when(mutantDetector.isMutant(dna)).thenReturn(true);
+        when(mutantDetector.isMutantPacked(dna.getDna())).thenReturn(true);
 
         // Ejecutar
         boolean result = mutantService.analyzeDna(dna);
@@ -45,41 +75,41 @@ class MutantServiceTest {
         // Verificar
         assertTrue(result);
         // Verificamos que llamó al detector
-        verify(mutantDetector).isMutant(dna);
+        verify(mutantDetector).isMutantPacked(dna.getDna());
         // Verificamos que guardó en la base de datos con isMutant=true
-        verify(dnaRecordRepository).save(argThat(record -> record.getIsMutant()));
+        verify(dnaRecordRepository).insertIfAbsent(any(), eq(true));
     }
 
     @Test
     @DisplayName("Si es HUMANO (según el detector), debe guardar en DB como false")
     void testAnalyzeDna_NewHuman_SavesAndReturnsFalse() {
-        String[] dna = {"AAAA", "CCCC", "GGGG", "TTTT"}; // El contenido da igual, mandamos el mock
+        ParsedDna dna = ParsedDna.parse(new String[]{"AAAA", "CCCC", "GGGG", "TTTT"}); // El contenido da igual, mandamos el mock
 
         // 1. No existe en DB
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.empty());
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class))).thenReturn(Optional.empty());
 
         // 2. Simulamos que el detector dice que ES HUMANO (false)
-        when(mutantDetector.isMutant(dna)).thenReturn(false);
+        when(mutantDetector.isMutantPacked(dna.getDna())).thenReturn(false);
 
         // Ejecutar
         boolean result = mutantService.analyzeDna(dna);
 
         // Verificar
         assertFalse(result);
-        verify(mutantDetector).isMutant(dna);
+        verify(mutantDetector).isMutantPacked(dna.getDna());
         // Verificamos que guardó en DB con isMutant=false
-        verify(dnaRecordRepository).save(argThat(record -> !record.getIsMutant()));
+        verify(dnaRecordRepository).insertIfAbsent(any(), eq(false));
     }
 
     @Test
     @DisplayName("Si YA EXISTE en DB, debe retornar el valor guardado (Caché) y NO llamar al detector")
     void testAnalyzeDna_CacheHit_ReturnsStoredValue() {
-        String[] dna = {"AAAA", "CCCC", "GGGG", "TTTT"};
+        ParsedDna dna = ParsedDna.parse(new String[]{"AAAA", "CCCC", "GGGG", "TTTT"});
 
         // 1. Simulamos que YA EXISTE en DB y es MUTANTE
         DnaRecord existingRecord = new DnaRecord();
         existingRecord.setIsMutant(true);
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.of(existingRecord));
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class))).thenReturn(Optional.of(existingRecord));
 
         // Ejecutar
         boolean result = mutantService.analyzeDna(dna);
@@ -88,28 +118,166 @@ class MutantServiceTest {
         assertTrue(result);
 
         // No debe llamar al detector (ahorramos proceso)
-        verify(mutantDetector, never()).isMutant(any());
+        verify(mutantDetector, never()).isMutantPacked(any());
         // No debe guardar de nuevo
-        verify(dnaRecordRepository, never()).save(any());
+        verify(dnaRecordRepository, never()).insertIfAbsent(any(), anyBoolean());
     }
 
 
     @Test
     @DisplayName("Debe calcular hash correctamente para diferentes secuencias DNA")
     void testHashCalculationConsistency() {
-        String[] dna1 = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
-        String[] dna2 = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
-        String[] dna3 = {"TTTTTT", "GGGGGG", "CCCCCC", "AAAAAA", "GGGGGG", "TTTTTT"};
+        ParsedDna dna1 = ParsedDna.parse(new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"});
+        ParsedDna dna2 = ParsedDna.parse(new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"});
+        ParsedDna dna3 = ParsedDna.parse(new String[]{"TTTTTT", "GGGGGG", "CCCCCC", "AAAAAA", "GGGGGG", "TTTTTT"});
 
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.empty());
-        when(mutantDetector.isMutant(any())).thenReturn(true);
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class))).thenReturn(Optional.empty());
+        when(mutantDetector.isMutantPacked(any())).thenReturn(true);
 
         mutantService.analyzeDna(dna1);
         mutantService.analyzeDna(dna2);
         mutantService.analyzeDna(dna3);
 
-        verify(dnaRecordRepository, times(3)).save(argThat(record ->
-                record.getDnaHash() != null && record.getDnaHash().length() == 64
-        ));
+        verify(dnaRecordRepository, times(3)).insertIfAbsent(argThat(hash ->
+                hash != null && hash.length == 16 // MurmurHash3 de 128 bits
+        ), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Si está en el caché en memoria, responde sin consultar la BD ni el detector")
+    void testAnalyzeDna_MemoryHit_SkipsRepository() {
+        ParsedDna dna = ParsedDna.parse(new String[]{"AAAA", "CCCC", "GGGG", "TTTT"});
+        when(resultCache.find(dna.getHash())).thenReturn(Optional.of(false));
+
+        assertFalse(mutantService.analyzeDna(dna));
+
+        verifyNoInteractions(dnaRecordRepository, mutantDetector);
+        verify(statsTimeline).recordRequest(false, true);
+    }
+
+    @Test
+    @DisplayName("Un ADN nuevo registra en la ventana de actividad la detección, el ADN nuevo y el request")
+    void testAnalyzeDna_NewDna_RecordsActivity() {
+        ParsedDna dna = ParsedDna.parse(new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"});
+        when(mutantDetector.isMutantPacked(dna.getDna())).thenReturn(true);
+
+        mutantService.analyzeDna(dna);
+
+        verify(statsTimeline).recordDetection(anyLong());
+        verify(statsTimeline).recordNew(true);
+        verify(statsTimeline).recordRequest(true, false);
+    }
+
+    @Test
+    @DisplayName("Lo que se lee o se guarda en la BD queda en el caché en memoria")
+    void testAnalyzeDna_LoadsMemoryCache() {
+        ParsedDna stored = ParsedDna.parse(new String[]{"AAAA", "CCCC", "GGGG", "TTTT"});
+        ParsedDna fresh = ParsedDna.parse(new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"});
+        DnaRecord existingRecord = new DnaRecord();
+        existingRecord.setIsMutant(false);
+        when(dnaRecordRepository.findByDnaHash(stored.getHash())).thenReturn(Optional.of(existingRecord));
+        when(dnaRecordRepository.findByDnaHash(fresh.getHash())).thenReturn(Optional.empty());
+        when(mutantDetector.isMutantPacked(fresh.getDna())).thenReturn(true);
+
+        mutantService.analyzeDna(stored);
+        mutantService.analyzeDna(fresh);
+
+        verify(resultCache).put(stored.getHash(), false);
+        verify(resultCache).put(fresh.getHash(), true);
+    }
+
+    @Test
+    @DisplayName("Si el filtro de Bloom asegura que es nuevo, no consulta la BD antes de guardar")
+    void testAnalyzeDna_DefiniteMiss_SkipsSelect() {
+        ParsedDna dna = ParsedDna.parse(new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"});
+        when(hashFilter.mightContain(dna.getHash())).thenReturn(false);
+        when(mutantDetector.isMutantPacked(dna.getDna())).thenReturn(true);
+
+        assertTrue(mutantService.analyzeDna(dna));
+
+        verify(dnaRecordRepository, never()).findByDnaHash(any());
+        verify(dnaRecordRepository).insertIfAbsent(dna.getHash(), true);
+        verify(hashFilter).put(dna.getHash());
+        verify(statsCounter).recordInserted(true);
+    }
+
+    @Test
+    @DisplayName("Si la BD no lo tenía pese al filtro, cuenta un falso positivo")
+    void testAnalyzeDna_FalsePositive_IsRecorded() {
+        ParsedDna dna = ParsedDna.parse(new String[]{"AAAA", "CCCC", "GGGG", "TTTT"});
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class))).thenReturn(Optional.empty());
+
+        mutantService.analyzeDna(dna);
+
+        verify(hashFilter).recordFalsePositive();
+    }
+
+    @Test
+    @DisplayName("Si otra instancia lo guardó primero, vale el registro existente")
+    void testAnalyzeDna_AlreadyStored_ReturnsStoredValue() {
+        ParsedDna dna = ParsedDna.parse(new String[]{"AAAA", "CCCC", "GGGG", "TTTT"});
+        when(hashFilter.mightContain(dna.getHash())).thenReturn(false);
+        when(mutantDetector.isMutantPacked(dna.getDna())).thenReturn(true);
+        when(dnaRecordRepository.insertIfAbsent(dna.getHash(), true)).thenReturn(new InsertResult(false, false));
+
+        assertFalse(mutantService.analyzeDna(dna));
+        verify(resultCache).put(dna.getHash(), false);
+        verify(dnaRecordRepository, never()).save(any());
+        verify(statsCounter, never()).recordInserted(anyBoolean()); // Lo contó quien lo insertó
+        verify(statsTimeline, never()).recordNew(anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Con guardado diferido, responde sin escribir en la BD y deja el resultado en memoria")
+    void testAnalyzeDna_WriteBehind_SkipsInsert() {
+        ParsedDna dna = ParsedDna.parse(new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"});
+        when(hashFilter.mightContain(dna.getHash())).thenReturn(false);
+        when(mutantDetector.isMutantPacked(dna.getDna())).thenReturn(true);
+        when(writeBehind.offer(dna.getHash(), true)).thenReturn(true);
+
+        assertTrue(mutantService.analyzeDna(dna));
+
+        verify(dnaRecordRepository, never()).insertIfAbsent(any(), anyBoolean());
+        verify(statsCounter, never()).recordInserted(anyBoolean()); // Lo suma la cola como pendiente
+        verify(hashFilter).put(dna.getHash());
+        verify(resultCache).put(dna.getHash(), true);
+    }
+
+    @Test
+    @DisplayName("Un resultado que espera el guardado diferido se responde sin BD ni detector")
+    void testAnalyzeDna_QueuedResult_ServedFromQueue() {
+        ParsedDna dna = ParsedDna.parse(new String[]{"AAAA", "CCCC", "GGGG", "TTTT"});
+        when(writeBehind.find(dna.getHash())).thenReturn(Optional.of(false));
+
+        assertFalse(mutantService.analyzeDna(dna));
+
+        verifyNoInteractions(dnaRecordRepository, mutantDetector);
+    }
+
+    @Test
+    @DisplayName("Un resultado ya analizado se guarda con caché y estadísticas, sin llamar al detector")
+    void testRecordResult_New_SavesWithoutDetector() {
+        byte[] dnaHash = ParsedDna.parse(new String[]{"AAAA", "CCCC", "GGGG", "TTTT"}).getHash();
+        when(dnaRecordRepository.findByDnaHash(dnaHash)).thenReturn(Optional.empty());
+
+        assertFalse(mutantService.recordResult(dnaHash, false));
+
+        verifyNoInteractions(mutantDetector);
+        verify(dnaRecordRepository).insertIfAbsent(dnaHash, false);
+        verify(statsCounter).recordInserted(false);
+        verify(resultCache).put(dnaHash, false);
+        verify(statsTimeline).recordRequest(false, false);
+    }
+
+    @Test
+    @DisplayName("Un resultado ya analizado de un ADN guardado responde con el guardado, sin volver a guardarlo")
+    void testRecordResult_Existing_ReturnsStored() {
+        byte[] dnaHash = ParsedDna.parse(new String[]{"AAAA", "CCCC", "GGGG", "TTTT"}).getHash();
+        when(resultCache.find(dnaHash)).thenReturn(Optional.of(true));
+
+        assertTrue(mutantService.recordResult(dnaHash, true));
+
+        verifyNoInteractions(dnaRecordRepository, mutantDetector);
+        verify(statsTimeline).recordRequest(true, true);
     }
-}
\ No newline at end of file
+}
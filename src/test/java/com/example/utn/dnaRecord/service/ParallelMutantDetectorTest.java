@@ -0,0 +1,145 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.DetectorProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la detección en paralelo por bandas de filas.
+ */
+class ParallelMutantDetectorTest {
+
+    private static final String BASES = "ACGT";
+
+    private CountingDetector rowScanner;
+    private ParallelMutantDetector parallelDetector;
+
+    @BeforeEach
+    void setUp() {
+        rowScanner = new CountingDetector();
+        // Bandas chicas para que incluso matrices medianas se repartan en muchas tareas
+        parallelDetector = new ParallelMutantDetector(rowScanner, 4, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelDetector.shutdown();
+    }
+
+    @Test
+    @DisplayName("Mismo resultado que el análisis secuencial en matrices aleatorias")
+    void testSameResultAsSequential() {
+        Random random = new Random(5);
+        for (int i = 0; i < 40; i++) {
+            String[] dna = BitboardMutantDetectorTest.randomDna(random, 20 + random.nextInt(200), 4);
+            PackedDna packed = PackedDna.pack(dna);
+            assertEquals(BitboardMutantDetectorTest.referenceCount(dna) > 1, parallelDetector.isMutant(packed));
+        }
+    }
+
+    @Test
+    @DisplayName("Secuencias en el solapamiento entre bandas se cuentan una sola vez")
+    void testSequencesAcrossBandBoundaryCountedOnce() {
+        int n = 64;
+        char[][] matrix = humanMatrix(n);
+        // Vertical que cruza el límite entre las bandas [0, 8) y [8, 16): una sola secuencia
+        for (int row = 6; row < 10; row++) {
+            matrix[row][20] = 'T';
+        }
+        assertFalse(parallelDetector.isMutant(PackedDna.pack(toRows(matrix))));
+
+        // Diagonal ascendente que cruza otro límite: ahora son dos
+        for (int k = 0; k < 4; k++) {
+            matrix[17 - k][40 + k] = 'T';
+        }
+        assertTrue(parallelDetector.isMutant(PackedDna.pack(toRows(matrix))));
+    }
+
+    @Test
+    @DisplayName("Matriz humana grande no es mutante")
+    void testLargeHumanMatrix() {
+        PackedDna packed = PackedDna.pack(toRows(humanMatrix(1500)));
+        assertFalse(parallelDetector.isMutant(packed));
+        assertEquals(1500, rowScanner.scannedRows.get(), "Sin secuencias se analizan todas las filas");
+    }
+
+    @Test
+    @DisplayName("Cancelación cooperativa: al encontrar 2 secuencias las bandas dejan de analizar")
+    void testCooperativeCancellation() {
+        int n = 4000;
+        char[][] matrix = humanMatrix(n);
+        matrix[0][0] = matrix[0][1] = matrix[0][2] = matrix[0][3] = 'T';
+        matrix[1][0] = matrix[1][1] = matrix[1][2] = matrix[1][3] = 'T';
+        // Filas costosas fuera de la primera banda, para que el resultado no dependa del JIT
+        rowScanner.slowRowsFrom = 8;
+
+        assertTrue(parallelDetector.isMutant(PackedDna.pack(toRows(matrix))));
+        assertTrue(rowScanner.scannedRows.get() < n / 2,
+                "Se analizaron " + rowScanner.scannedRows.get() + " filas de " + n);
+    }
+
+    @Test
+    @DisplayName("MutantDetector usa el modo paralelo por encima del umbral configurado")
+    void testMutantDetectorUsesParallelAboveThreshold() {
+        DetectorProperties properties = new DetectorProperties();
+        properties.setParallelThreshold(100);
+        MutantDetector detector = new MutantDetector(properties);
+        try {
+            Random random = new Random(9);
+            for (int i = 0; i < 10; i++) {
+                String[] dna = BitboardMutantDetectorTest.randomDna(random, 150, 4);
+                assertEquals(BitboardMutantDetectorTest.referenceCount(dna) > 1, detector.isMutant(dna));
+            }
+            assertFalse(detector.isMutant(toRows(humanMatrix(300))));
+        } finally {
+            detector.shutdown();
+        }
+    }
+
+    /**
+     * Matriz sin secuencias: la base de (i, j) es (j + 2i) % 4.
+     */
+    private static char[][] humanMatrix(int n) {
+        char[][] matrix = new char[n][n];
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                matrix[row][col] = BASES.charAt((col + 2 * row) % 4);
+            }
+        }
+        return matrix;
+    }
+
+    private static String[] toRows(char[][] matrix) {
+        String[] dna = new String[matrix.length];
+        for (int i = 0; i < matrix.length; i++) dna[i] = new String(matrix[i]);
+        return dna;
+    }
+
+    /**
+     * Motor de bitboards que registra cuántas filas analizó.
+     */
+    private static class CountingDetector extends BitboardMutantDetector {
+        private final AtomicInteger scannedRows = new AtomicInteger();
+        private volatile int slowRowsFrom = Integer.MAX_VALUE;
+
+        @Override
+        int countSequencesInRow(PackedDna dna, int row) {
+            scannedRows.incrementAndGet();
+            if (row >= slowRowsFrom) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.countSequencesInRow(dna, row);
+        }
+    }
+}
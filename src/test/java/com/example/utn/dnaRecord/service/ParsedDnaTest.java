@@ -0,0 +1,115 @@
+package com.example.utn.dnaRecord.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la pasada única que valida, empaqueta y calcula el hash.
+ */
+class ParsedDnaTest {
+
+    @Test
+    @DisplayName("Con SHA-256 el hash es el de las filas concatenadas (igual que antes)")
+    void testHashMatchesJoinedRows() throws Exception {
+        Random random = new Random(31);
+        for (int n : new int[]{1, 4, 6, 63, 64, 65, 200}) {
+            String[] dna = BitboardMutantDetectorTest.randomDna(random, n, 4);
+            byte[] expected = MessageDigest.getInstance("SHA-256")
+                    .digest(String.join("", dna).getBytes(StandardCharsets.UTF_8));
+
+            ParsedDna parsed = ParsedDna.parse(dna, FingerprintAlgorithm.SHA256);
+
+            assertNotNull(parsed);
+            assertArrayEquals(expected, parsed.getHash());
+        }
+    }
+
+    @Test
+    @DisplayName("La matriz empaquetada conserva las bases y da el mismo resultado")
+    void testPackedMatrix() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        ParsedDna parsed = ParsedDna.parse(dna);
+
+        assertNotNull(parsed);
+        assertEquals(6, parsed.size());
+        for (int row = 0; row < 6; row++) {
+            for (int col = 0; col < 6; col++) {
+                assertEquals(dna[row].charAt(col), parsed.getDna().baseAt(row, col));
+            }
+        }
+        assertTrue(new MutantDetector().isMutantPacked(parsed.getDna()));
+    }
+
+    @Test
+    @DisplayName("Las filas en binario dan la misma matriz empaquetada y la misma huella que en texto")
+    void testPackedRowsMatchText() {
+        Random random = new Random(7);
+        for (int n : new int[]{1, 4, 6, 63, 64, 65, 130}) {
+            String[] dna = BitboardMutantDetectorTest.randomDna(random, n, 4);
+            int rowBytes = (n + 3) / 4;
+            for (FingerprintAlgorithm algorithm : FingerprintAlgorithm.values()) {
+                ParsedDna.Builder builder = ParsedDna.builder(n, algorithm);
+                for (String row : dna) {
+                    byte[] packed = new byte[rowBytes + 1];
+                    for (int col = 0; col < n; col++) {
+                        packed[1 + col / 4] |= (byte) (PackedDna.encode(row.charAt(col)) << (6 - 2 * (col % 4)));
+                    }
+                    packed[rowBytes] |= (byte) ((1 << (2 * (rowBytes * 4 - n))) - 1); // Relleno en 1: se ignora
+                    assertTrue(builder.addPackedRow(packed, 1));
+                }
+                assertFalse(builder.addPackedRow(new byte[rowBytes], 0), "Ya se recibieron N filas");
+
+                ParsedDna binary = builder.build();
+                ParsedDna text = ParsedDna.parse(dna, algorithm);
+
+                assertArrayEquals(text.getHash(), binary.getHash());
+                assertArrayEquals(text.getDna().lo(), binary.getDna().lo());
+                assertArrayEquals(text.getDna().hi(), binary.getDna().hi());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Las reglas del detector forman parte de la huella; las por defecto no la cambian")
+    void testRulesInFingerprint() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        for (boolean canonical : new boolean[]{false, true}) {
+            byte[] plain = ParsedDna.parse(dna, FingerprintAlgorithm.MURMUR3, canonical).getHash();
+            byte[] sameRules = ParsedDna.parse(dna, FingerprintAlgorithm.MURMUR3, canonical,
+                    DetectorRules.of(4, 2)).getHash();
+            byte[] longer = ParsedDna.parse(dna, FingerprintAlgorithm.MURMUR3, canonical,
+                    DetectorRules.of(5, 2)).getHash();
+            byte[] threshold = ParsedDna.parse(dna, FingerprintAlgorithm.MURMUR3, canonical,
+                    DetectorRules.of(4, 3)).getHash();
+
+            assertArrayEquals(plain, sameRules);
+            assertFalse(Arrays.equals(plain, longer));
+            assertFalse(Arrays.equals(plain, threshold));
+            assertFalse(Arrays.equals(longer, threshold));
+        }
+
+        // Con SHA-256: las filas concatenadas después del prefijo de las reglas
+        byte[] expected = MessageDigest.getInstance("SHA-256")
+                .digest(("#5,3;" + String.join("", dna)).getBytes(StandardCharsets.US_ASCII));
+        assertArrayEquals(expected, ParsedDna.parse(dna, FingerprintAlgorithm.SHA256, false,
+                DetectorRules.of(5, 3)).getHash());
+    }
+
+    @Test
+    @DisplayName("Matrices inválidas devuelven null")
+    void testInvalidMatrices() {
+        assertNull(ParsedDna.parse(null));
+        assertNull(ParsedDna.parse(new String[]{}));
+        assertNull(ParsedDna.parse(new String[]{"ATGC", null, "TTAT", "AGAC"}));
+        assertNull(ParsedDna.parse(new String[]{"ATGC", "CAG", "TTAT", "AGAC"}));
+        assertNull(ParsedDna.parse(new String[]{"ATGC", "CAGT", "TTAT", "AGAX"}));
+        assertNull(ParsedDna.parse(new String[]{"atgc", "cagt", "ttat", "agac"}));
+    }
+}
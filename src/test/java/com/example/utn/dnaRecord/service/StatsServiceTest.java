@@ -1,7 +1,11 @@
 package com.example.utn.dnaRecord.service;
 
+import com.example.utn.dnaRecord.dto.BloomFilterStatsResponseDTO;
+import com.example.utn.dnaRecord.dto.CacheStatsResponseDTO;
+import com.example.utn.dnaRecord.dto.ReconcileStatsResponseDTO;
+import com.example.utn.dnaRecord.dto.StatsBreakdownResponseDTO;
 import com.example.utn.dnaRecord.dto.StatsResponseDTO;
-import com.example.utn.dnaRecord.repository.DnaRecordRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +13,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
 
@@ -16,7 +22,16 @@ import static org.mockito.Mockito.when;
 class StatsServiceTest {
 
     @Mock
-    private DnaRecordRepository dnaRecordRepository;
+    private DnaStatsCounter statsCounter;
+
+    @Mock
+    private DnaStatsTimeline statsTimeline;
+
+    @Mock
+    private DnaResultCache resultCache;
+
+    @Mock
+    private DnaHashFilter hashFilter;
 
     @InjectMocks
     private StatsService statsService;
@@ -25,8 +40,8 @@ class StatsServiceTest {
     @DisplayName("Caso Normal: Hay mutantes y humanos (Ratio decimal)")
     void testGetStats_NormalCase() {
         // Simulamos: 40 mutantes, 100 humanos
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(40L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(100L);
+        when(statsCounter.mutantCount()).thenReturn(40L);
+        when(statsCounter.humanCount()).thenReturn(100L);
 
         StatsResponseDTO response = statsService.getStats();
 
@@ -41,8 +56,8 @@ class StatsServiceTest {
     @DisplayName("Caso Borde: No hay humanos (Evitar división por cero)")
     void testGetStats_NoHumans() {
         // Simulamos: 10 mutantes, 0 humanos
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(10L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(0L);
+        when(statsCounter.mutantCount()).thenReturn(10L);
+        when(statsCounter.humanCount()).thenReturn(0L);
 
         StatsResponseDTO response = statsService.getStats();
 
@@ -56,8 +71,8 @@ class StatsServiceTest {
     @DisplayName("Caso Borde: Base de datos vacía (Todo cero)")
     void testGetStats_EmptyDatabase() {
         // Simulamos: 0 mutantes, 0 humanos
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(0L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(0L);
+        when(statsCounter.mutantCount()).thenReturn(0L);
+        when(statsCounter.humanCount()).thenReturn(0L);
 
         StatsResponseDTO response = statsService.getStats();
 
@@ -70,8 +85,8 @@ class StatsServiceTest {
     @DisplayName("Caso: Igual cantidad (Ratio debe ser 1.0)")
     void testGetStats_EqualCount() {
         // Simulamos: 50 mutantes, 50 humanos
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(50L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(50L);
+        when(statsCounter.mutantCount()).thenReturn(50L);
+        when(statsCounter.humanCount()).thenReturn(50L);
 
         StatsResponseDTO response = statsService.getStats();
 
@@ -85,8 +100,8 @@ class StatsServiceTest {
     @DisplayName("Caso: Más humanos que mutantes (Ratio decimal <1)")
     void testGetStats_MoreHumansThanMutants() {
         // Simulamos: 30 mutantes, 70 humanos
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(30L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(70L);
+        when(statsCounter.mutantCount()).thenReturn(30L);
+        when(statsCounter.humanCount()).thenReturn(70L);
 
         StatsResponseDTO response = statsService.getStats();
 
@@ -100,8 +115,8 @@ class StatsServiceTest {
     @DisplayName("Caso: Más mutantes que humanos (Ratio >1)")
     void testGetStats_MoreMutantsThanHumans() {
         // Simulamos: 80 mutantes, 20 humanos
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(80L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(20L);
+        when(statsCounter.mutantCount()).thenReturn(80L);
+        when(statsCounter.humanCount()).thenReturn(20L);
 
         StatsResponseDTO response = statsService.getStats();
 
@@ -110,4 +125,117 @@ class StatsServiceTest {
         // Ratio: 80 / 20 = 4.0
         assertEquals(4.0, response.getRatio(), 0.0001);
     }
+
+    @Test
+    @DisplayName("Con ventana: cuenta los ADN nuevos de la ventana, no los totales")
+    void testGetStats_Window() {
+        DnaStatsTimeline timeline = new DnaStatsTimeline(() -> 0L);
+        timeline.recordNew(true);
+        timeline.recordNew(false);
+        timeline.recordNew(false);
+        when(statsTimeline.total(StatsWindow.ONE_HOUR)).thenReturn(timeline.total(StatsWindow.ONE_HOUR));
+
+        StatsResponseDTO response = statsService.getStats(StatsWindow.ONE_HOUR);
+
+        assertEquals(1L, response.getCountMutantDna());
+        assertEquals(2L, response.getCountHumanDna());
+        assertEquals(0.5, response.getRatio(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Detalle de una ventana: requests, aciertos, percentiles y serie")
+    void testGetStatsBreakdown() {
+        DnaStatsTimeline timeline = new DnaStatsTimeline(() -> 60_000L);
+        timeline.recordRequest(true, true);
+        timeline.recordRequest(true, true);
+        timeline.recordRequest(true, true);
+        timeline.recordRequest(false, false);
+        timeline.recordNew(false);
+        timeline.recordDetection(1_500);
+        when(statsTimeline.series(StatsWindow.ONE_MINUTE)).thenReturn(timeline.series(StatsWindow.ONE_MINUTE));
+        when(statsTimeline.total(StatsWindow.ONE_MINUTE)).thenReturn(timeline.total(StatsWindow.ONE_MINUTE));
+
+        StatsBreakdownResponseDTO response = statsService.getStatsBreakdown(StatsWindow.ONE_MINUTE);
+
+        assertEquals("1m", response.getWindow());
+        assertEquals(1, response.getBucketSeconds());
+        assertEquals(3, response.getMutantRequests());
+        assertEquals(1, response.getHumanRequests());
+        assertEquals(0, response.getCountMutantDna());
+        assertEquals(1, response.getCountHumanDna());
+        assertEquals(0.75, response.getCacheHitRatio(), 0.0001);
+        assertEquals(1, response.getDetections());
+        assertEquals(1.5, response.getDetectionMeanMicros(), 0.0001);
+        assertEquals(2.048, response.getDetectionP99Micros(), 0.0001);
+        assertEquals(1, response.getDetectionHistogram().size());
+        assertEquals(60, response.getSeries().size());
+        assertEquals(Instant.ofEpochMilli(60_000), response.getSeries().get(59).getStart());
+        assertEquals(3, response.getSeries().get(59).getMutantRequests());
+    }
+
+    @Test
+    @DisplayName("Detalle de una ventana sin actividad: todo en cero")
+    void testGetStatsBreakdown_Empty() {
+        DnaStatsTimeline timeline = new DnaStatsTimeline(() -> 0L);
+        when(statsTimeline.series(StatsWindow.ONE_DAY)).thenReturn(timeline.series(StatsWindow.ONE_DAY));
+        when(statsTimeline.total(StatsWindow.ONE_DAY)).thenReturn(timeline.total(StatsWindow.ONE_DAY));
+
+        StatsBreakdownResponseDTO response = statsService.getStatsBreakdown(StatsWindow.ONE_DAY);
+
+        assertEquals(0.0, response.getCacheHitRatio());
+        assertEquals(0.0, response.getDetectionMeanMicros());
+        assertEquals(0.0, response.getDetectionP50Micros());
+        assertTrue(response.getDetectionHistogram().isEmpty());
+        assertEquals(1440, response.getSeries().size());
+    }
+
+    @Test
+    @DisplayName("Contadores del caché en memoria")
+    void testGetCacheStats() {
+        when(resultCache.stats()).thenReturn(CacheStats.of(90, 10, 0, 0, 0, 3, 3));
+        when(resultCache.size()).thenReturn(7L);
+
+        CacheStatsResponseDTO response = statsService.getCacheStats();
+
+        assertEquals(90, response.getHits());
+        assertEquals(10, response.getMisses());
+        assertEquals(3, response.getEvictions());
+        assertEquals(0.9, response.getHitRatio(), 0.0001);
+        assertEquals(7, response.getSize());
+    }
+
+    @Test
+    @DisplayName("Estado del filtro de Bloom")
+    void testGetBloomFilterStats() {
+        when(hashFilter.size()).thenReturn(1000L);
+        when(hashFilter.stageCount()).thenReturn(2);
+        when(hashFilter.expectedFpp()).thenReturn(0.004);
+        when(hashFilter.observedFpp()).thenReturn(0.005);
+        when(hashFilter.definiteMisses()).thenReturn(199L);
+        when(hashFilter.falsePositives()).thenReturn(1L);
+
+        BloomFilterStatsResponseDTO response = statsService.getBloomFilterStats();
+
+        assertEquals(1000, response.getEntries());
+        assertEquals(2, response.getStages());
+        assertEquals(0.004, response.getExpectedFpp(), 1e-9);
+        assertEquals(0.005, response.getObservedFpp(), 1e-9);
+        assertEquals(199, response.getSkippedLookups());
+        assertEquals(1, response.getFalsePositives());
+    }
+
+    @Test
+    @DisplayName("Reconciliaciones hechas y salteadas de los totales")
+    void testGetReconcileStats() {
+        Instant last = Instant.parse("2025-01-02T03:04:05Z");
+        when(statsCounter.reconcileCount()).thenReturn(12L);
+        when(statsCounter.skippedReconcileCount()).thenReturn(1L);
+        when(statsCounter.lastReconciledAt()).thenReturn(last);
+
+        ReconcileStatsResponseDTO response = statsService.getReconcileStats();
+
+        assertEquals(12, response.getReconciles());
+        assertEquals(1, response.getSkipped());
+        assertEquals(last, response.getLastReconciledAt());
+    }
 }
\ No newline at end of file
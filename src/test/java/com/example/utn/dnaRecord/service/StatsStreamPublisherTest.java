@@ -0,0 +1,222 @@
+package com.example.utn.dnaRecord.service;
+
+import com.example.utn.dnaRecord.config.StatsStreamProperties;
+import com.example.utn.dnaRecord.dto.StatsDeltaResponseDTO;
+import com.example.utn.dnaRecord.dto.StatsResponseDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del publicador de {@code /stats/stream}, llamando a {@code tick()} a mano.
+ */
+class StatsStreamPublisherTest {
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final StatsService statsService = mock(StatsService.class);
+    private final StatsStreamProperties properties = new StatsStreamProperties();
+    private final StatsStreamPublisher publisher = new StatsStreamPublisher(statsService, properties);
+    private final AtomicLong mutants = new AtomicLong();
+    private final AtomicLong humans = new AtomicLong();
+
+    StatsStreamPublisherTest() {
+        when(statsService.getStats()).thenAnswer(invocation ->
+                new StatsResponseDTO(mutants.get(), humans.get(), 0.0));
+    }
+
+    @Test
+    @DisplayName("Con muchos suscriptores se calcula una sola vez por intervalo")
+    void testOneComputationPerTick() throws Exception {
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            emitters.add((RecordingEmitter) publisher.subscribe(new RecordingEmitter()));
+        }
+        for (RecordingEmitter emitter : emitters) {
+            assertEquals(0, emitter.nextEvent().getCountMutantDna());
+        }
+        mutants.set(3);
+
+        publisher.tick();
+
+        assertEquals(2, publisher.computationCount(), "Uno al suscribirse el primero y uno del intervalo");
+        verify(statsService, times(2)).getStats();
+        for (RecordingEmitter emitter : emitters) {
+            assertEquals(3, emitter.nextEvent().getCountMutantDna());
+        }
+        assertEquals(0, publisher.droppedCount());
+    }
+
+    @Test
+    @DisplayName("Sin suscriptores no se calcula nada")
+    void testIdleWithoutSubscribers() {
+        publisher.tick();
+        publisher.tick();
+
+        assertEquals(0, publisher.computationCount());
+        verifyNoInteractions(statsService);
+    }
+
+    @Test
+    @DisplayName("Si los totales no cambian no se envía nada")
+    void testNoEventWithoutChanges() throws Exception {
+        RecordingEmitter emitter = (RecordingEmitter) publisher.subscribe(new RecordingEmitter());
+        assertNotNull(emitter.nextEvent());
+
+        publisher.tick();
+        publisher.tick();
+
+        assertNull(emitter.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Las diferencias se calculan contra lo último que recibió cada cliente")
+    void testDeltasPerSubscriber() throws Exception {
+        RecordingEmitter first = (RecordingEmitter) publisher.subscribe(new RecordingEmitter());
+        assertEquals(0, first.nextEvent().getNewMutantDna());
+        mutants.set(2);
+        humans.set(5);
+        publisher.tick();
+        StatsDeltaResponseDTO firstChange = first.nextEvent();
+        assertEquals(2, firstChange.getNewMutantDna());
+        assertEquals(5, firstChange.getNewHumanDna());
+
+        RecordingEmitter second = (RecordingEmitter) publisher.subscribe(new RecordingEmitter());
+        StatsDeltaResponseDTO initial = second.nextEvent();
+        mutants.set(3);
+        publisher.tick();
+
+        assertEquals(1, first.nextEvent().getNewMutantDna());
+        assertEquals(2, initial.getCountMutantDna());
+        assertEquals(0, initial.getNewMutantDna(), "El primer evento de un cliente no tiene diferencias");
+        StatsDeltaResponseDTO secondChange = second.nextEvent();
+        assertEquals(1, secondChange.getNewMutantDna());
+        assertEquals(0, secondChange.getNewHumanDna());
+        assertTrue(secondChange.getSequence() > initial.getSequence());
+    }
+
+    @Test
+    @DisplayName("Un cliente lento saltea eventos intermedios, recibe el último y no demora a los demás")
+    void testSlowSubscriberDropsIntermediateUpdates() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = (RecordingEmitter) publisher.subscribe(new RecordingEmitter(release));
+        RecordingEmitter fast = (RecordingEmitter) publisher.subscribe(new RecordingEmitter());
+        assertEquals(0, fast.nextEvent().getCountMutantDna());
+
+        for (int i = 1; i <= 4; i++) {
+            mutants.set(i);
+            publisher.tick();
+            assertEquals(i, fast.nextEvent().getCountMutantDna());
+        }
+        release.countDown();
+
+        StatsDeltaResponseDTO initial = slow.nextEvent();
+        assertEquals(0, initial.getCountMutantDna());
+        StatsDeltaResponseDTO latest = slow.nextEvent();
+        assertEquals(4, latest.getCountMutantDna());
+        assertEquals(4, latest.getNewMutantDna(), "Incluye lo de los eventos salteados");
+        assertNull(slow.events.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(3, publisher.droppedCount());
+    }
+
+    @Test
+    @DisplayName("Un cliente que se desconecta se da de baja")
+    void testFailingSubscriberIsRemoved() throws Exception {
+        RecordingEmitter broken = (RecordingEmitter) publisher.subscribe(new RecordingEmitter());
+        RecordingEmitter healthy = (RecordingEmitter) publisher.subscribe(new RecordingEmitter());
+        broken.nextEvent();
+        healthy.nextEvent();
+        broken.failing = true;
+
+        mutants.set(1);
+        publisher.tick();
+
+        assertEquals(1, healthy.nextEvent().getCountMutantDna());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (publisher.subscriberCount() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, publisher.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("Sin cambios durante el heartbeat se envía un comentario")
+    void testHeartbeat() throws Exception {
+        properties.setHeartbeat(Duration.ZERO);
+        RecordingEmitter emitter = (RecordingEmitter) publisher.subscribe(new RecordingEmitter());
+        emitter.nextEvent();
+
+        publisher.tick();
+
+        assertSame(HEARTBEAT, emitter.events.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Al detenerse cierra las conexiones abiertas")
+    void testStopCompletesSubscribers() {
+        publisher.start();
+        publisher.subscribe(new RecordingEmitter());
+
+        publisher.stop();
+
+        assertEquals(0, publisher.subscriberCount());
+        assertFalse(publisher.isRunning());
+    }
+
+    /**
+     * Guarda lo que se envía en lugar de escribirlo en una respuesta; puede demorar el primer
+     * envío hasta que se abra {@code release}, o fallar como un cliente desconectado.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+        private volatile boolean failing;
+
+        private RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            try {
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Object event = HEARTBEAT;
+            for (DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof StatsDeltaResponseDTO delta) {
+                    event = delta;
+                }
+            }
+            events.add(event);
+        }
+
+        private StatsDeltaResponseDTO nextEvent() throws InterruptedException {
+            Object event = events.poll(5, TimeUnit.SECONDS);
+            assertInstanceOf(StatsDeltaResponseDTO.class, event);
+            return (StatsDeltaResponseDTO) event;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.utn.dnaRecord.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del detector incremental fila por fila.
+ */
+class StreamingMutantDetectorTest {
+
+    @Test
+    @DisplayName("Mutante del enunciado: se decide antes de recibir todas las filas")
+    void testMutantDecidedEarly() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        StreamingMutantDetector detector = new StreamingMutantDetector(6);
+
+        boolean decided = false;
+        int row = 0;
+        while (!decided) {
+            decided = detector.acceptRow(dna[row++]);
+        }
+
+        assertTrue(detector.isMutant());
+        assertEquals(4, row, "La diagonal de A y la vertical de G se completan en la cuarta fila");
+        assertFalse(detector.isComplete());
+    }
+
+    @Test
+    @DisplayName("Humano: recién se sabe al recibir la última fila")
+    void testHumanNeedsAllRows() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"};
+        StreamingMutantDetector detector = new StreamingMutantDetector(6);
+
+        for (String row : dna) {
+            assertFalse(detector.acceptRow(row));
+        }
+        assertTrue(detector.isComplete());
+        assertFalse(detector.isMutant());
+    }
+
+    @Test
+    @DisplayName("Mismo resultado que el motor completo en matrices aleatorias")
+    void testSameResultAsFullMatrixEngine() {
+        Random random = new Random(17);
+        MutantDetector mutantDetector = new MutantDetector();
+        for (int i = 0; i < 300; i++) {
+            int n = 4 + random.nextInt(60);
+            String[] dna = BitboardMutantDetectorTest.randomDna(random, n, 1 + random.nextInt(4));
+
+            StreamingMutantDetector detector = new StreamingMutantDetector(n);
+            for (String row : dna) {
+                detector.acceptRow(row);
+            }
+            assertEquals(mutantDetector.isMutant(dna), detector.isMutant(), "Resultado distinto para N=" + n);
+        }
+    }
+
+    @Test
+    @DisplayName("Secuencias diagonales en ambos sentidos")
+    void testDiagonals() {
+        StreamingMutantDetector detector = new StreamingMutantDetector(5);
+        for (String row : new String[]{"ATGCG", "CAGAT", "TTACG", "GACAT", "ACGTC"}) {
+            detector.acceptRow(row);
+        }
+        assertTrue(detector.isMutant(), "Diagonal descendente de A desde (0,0) y ascendente de A desde (4,0)");
+    }
+
+    @Test
+    @DisplayName("Una secuencia de 7 bases iguales cuenta una vez por cada celda inicial")
+    void testLongRunCountsEachStartingCell() {
+        // Con L = 4 la fila AAAAAAA tiene 4 celdas iniciales: con umbral 4 es mutante, con 5 no
+        String[] dna = {"AAAAAAA", "CGTCGTC", "GTCGTCG", "CGTCGTC", "GTCGTCG", "CGTCGTC", "GTCGTCG"};
+        assertTrue(feed(new StreamingMutantDetector(7, 4, 4), dna).isMutant());
+        assertFalse(feed(new StreamingMutantDetector(7, 4, 5), dna).isMutant());
+        // Con L = 7 la misma fila es una sola secuencia
+        assertTrue(feed(new StreamingMutantDetector(7, 7, 1), dna).isMutant());
+        assertFalse(feed(new StreamingMutantDetector(7, 7, 2), dna).isMutant());
+    }
+
+    @Test
+    @DisplayName("Reglas más estrictas: mismo conteo que la búsqueda celda por celda")
+    void testStricterRules() {
+        Random random = new Random(23);
+        for (int length = 5; length <= 6; length++) {
+            for (int i = 0; i < 100; i++) {
+                int n = 4 + random.nextInt(40);
+                String[] dna = BitboardMutantDetectorTest.randomDna(random, n, 1 + random.nextInt(3));
+                StreamingMutantDetector detector = feed(new StreamingMutantDetector(n, length, 3), dna);
+                assertEquals(BitboardMutantDetectorTest.referenceCount(dna, length) >= 3, detector.isMutant(),
+                        "Resultado distinto para L=" + length + ", N=" + n);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Filas inválidas se rechazan con IllegalArgumentException")
+    void testInvalidRows() {
+        StreamingMutantDetector detector = new StreamingMutantDetector(4);
+        assertThrows(IllegalArgumentException.class, () -> detector.acceptRow("ATG"));
+        assertThrows(IllegalArgumentException.class, () -> detector.acceptRow("ATGX"));
+        assertThrows(IllegalArgumentException.class, () -> detector.acceptRow(null));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingMutantDetector(0));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingMutantDetector(4, 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingMutantDetector(4, 4, 0));
+
+        for (int i = 0; i < 4; i++) {
+            detector.acceptRow("ATGC");
+        }
+        assertThrows(IllegalArgumentException.class, () -> detector.acceptRow("ATGC"));
+    }
+
+    private static StreamingMutantDetector feed(StreamingMutantDetector detector, String[] dna) {
+        for (String row : dna) {
+            detector.acceptRow(row);
+        }
+        return detector;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.utn.dnaRecord.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests del motor con Vector API. Los tests corren con
+ * {@code --add-modules jdk.incubator.vector} (ver argLine de surefire en el pom).
+ */
+class VectorMutantDetectorTest {
+
+    private static final String BASES = "ACGT";
+
+    private BitboardMutantDetector vectorDetector;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "Módulo jdk.incubator.vector no disponible");
+        vectorDetector = MutantDetector.createPackedDetector();
+    }
+
+    @Test
+    @DisplayName("Con el módulo incubador presente se selecciona el motor vectorial")
+    void testVectorEngineSelectedWhenModulePresent() {
+        assertInstanceOf(VectorMutantDetector.class, vectorDetector);
+    }
+
+    @Test
+    @DisplayName("Cuenta las mismas secuencias que la búsqueda celda por celda")
+    void testCountsMatchReference() {
+        Random random = new Random(21);
+        int[] sizes = {4, 6, 63, 64, 65, 130, 257, 515, 600, 1030};
+        for (int n : sizes) {
+            for (int alphabet = 2; alphabet <= 4; alphabet++) {
+                String[] dna = BitboardMutantDetectorTest.randomDna(random, n, alphabet);
+                PackedDna packed = PackedDna.pack(dna);
+
+                int count = 0;
+                for (int row = 0; row < n; row++) {
+                    count += vectorDetector.countSequencesInRow(packed, row);
+                }
+                assertEquals(BitboardMutantDetectorTest.referenceCount(dna), count, "Conteo distinto para N=" + n);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Matriz humana grande: ninguna secuencia en ninguna dirección")
+    void testLargeHumanMatrix() {
+        String[] dna = humanDna(1100);
+        assertFalse(vectorDetector.isMutant(dna));
+        assertFalse(new MutantDetector().isMutant(dna));
+    }
+
+    @Test
+    @DisplayName("Detecta secuencias en cada dirección dentro de la zona vectorizada")
+    void testSequencesInEachDirection() {
+        int n = 1100;
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {-1, 1}};
+        for (int[] d : directions) {
+            char[][] matrix = toMatrix(humanDna(n));
+            // Dos secuencias en la misma dirección, lejos de los bordes
+            plant(matrix, 500, 300, d);
+            plant(matrix, 700, 900, d);
+            String[] dna = toRows(matrix);
+
+            assertEquals(BitboardMutantDetectorTest.referenceCount(dna) > 1, vectorDetector.isMutant(dna));
+            assertTrue(vectorDetector.isMutant(dna), "Debe detectar dirección " + d[0] + "," + d[1]);
+        }
+    }
+
+    /**
+     * Matriz sin secuencias: la base de (i, j) es (j + 2i) % 4, así que las celdas
+     * vecinas en horizontal y en ambas diagonales difieren, y en vertical alternan.
+     */
+    private static String[] humanDna(int n) {
+        String[] dna = new String[n];
+        for (int row = 0; row < n; row++) {
+            StringBuilder sb = new StringBuilder(n);
+            for (int col = 0; col < n; col++) {
+                sb.append(BASES.charAt((col + 2 * row) % 4));
+            }
+            dna[row] = sb.toString();
+        }
+        return dna;
+    }
+
+    private static void plant(char[][] matrix, int row, int col, int[] direction) {
+        for (int k = 0; k < 4; k++) {
+            matrix[row + k * direction[0]][col + k * direction[1]] = 'T';
+        }
+    }
+
+    private static char[][] toMatrix(String[] dna) {
+        char[][] matrix = new char[dna.length][];
+        for (int i = 0; i < dna.length; i++) matrix[i] = dna[i].toCharArray();
+        return matrix;
+    }
+
+    private static String[] toRows(char[][] matrix) {
+        String[] dna = new String[matrix.length];
+        for (int i = 0; i < matrix.length; i++) dna[i] = new String(matrix[i]);
+        return dna;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.utn.dnaRecord.validator;
+
+import com.example.utn.dnaRecord.dto.DnaRequestDTO;
+import com.example.utn.dnaRecord.service.ParsedDna;
+import jakarta.validation.ConstraintValidatorContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests para DnaRequestValidator
+ */
+class DnaRequestValidatorTest {
+
+    private DnaRequestValidator validator;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private ConstraintValidatorContext context;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        validator = new DnaRequestValidator();
+    }
+
+    @Test
+    @DisplayName("DNA válido deja la matriz procesada en el request")
+    void testValidDnaStoresParsedDna() {
+        DnaRequestDTO request = new DnaRequestDTO(new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"});
+
+        assertTrue(validator.isValid(request, context));
+        assertNotNull(request.getParsedDna());
+        assertEquals(6, request.getParsedDna().size());
+    }
+
+    @Test
+    @DisplayName("DNA inválido retorna false y no deja matriz procesada")
+    void testInvalidDna() {
+        DnaRequestDTO request = new DnaRequestDTO(new String[]{"ATGC", "CAXT", "TTAT", "AGAC"});
+
+        assertFalse(validator.isValid(request, context));
+        assertNull(request.getParsedDna());
+    }
+
+    @Test
+    @DisplayName("DNA nulo o vacío retorna false con su mensaje")
+    void testNullOrEmptyDna() {
+        assertFalse(validator.isValid(new DnaRequestDTO(null), context));
+        verify(context).buildConstraintViolationWithTemplate("La secuencia de ADN no puede ser nula");
+
+        assertFalse(validator.isValid(new DnaRequestDTO(new String[]{}), context));
+        verify(context).buildConstraintViolationWithTemplate("La secuencia de ADN no puede estar vacía");
+    }
+
+    @Test
+    @DisplayName("Matriz ya procesada al leer el JSON no se vuelve a validar")
+    void testAlreadyParsed() {
+        DnaRequestDTO request = new DnaRequestDTO();
+        request.setParsedDna(ParsedDna.parse(new String[]{"ATGC", "CAGT", "TTAT", "AGAC"}));
+
+        assertTrue(validator.isValid(request, context));
+    }
+}